@@ -1,24 +1,51 @@
 package org.apache.cxf.spring.boot;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 import org.apache.cxf.Bus;
 import org.apache.cxf.BusFactory;
 import org.apache.cxf.bus.spring.SpringBus;
 import org.apache.cxf.ext.logging.LoggingFeature;
+import org.apache.cxf.jaxrs.swagger.SwaggerUi;
 import org.apache.cxf.jaxrs.validation.ValidationExceptionMapper;
 import org.apache.cxf.metrics.MetricsFeature;
 import org.apache.cxf.metrics.MetricsProvider;
 import org.apache.cxf.metrics.codahale.CodahaleMetricsProvider;
-import org.apache.cxf.rs.security.oauth2.grants.code.EHCacheCodeDataProvider;
-import org.apache.cxf.rs.security.oauth2.provider.DefaultEHCacheOAuthDataProvider;
+import org.apache.cxf.rs.security.oauth2.filters.OAuthRequestFilter;
 import org.apache.cxf.rs.security.oauth2.provider.OAuthDataProvider;
 import org.apache.cxf.rs.security.oauth2.services.AccessTokenService;
+import org.apache.cxf.spring.boot.autoconfigure.CxfProperties;
 import org.apache.cxf.spring.boot.endpoint.APIEndpointRepository;
+import org.apache.cxf.spring.boot.jaxrs.cors.CorsFeature;
+import org.apache.cxf.spring.boot.jaxrs.deadline.DeadlineFeature;
 import org.apache.cxf.spring.boot.jaxrs.endpoint.EndpointApiTemplate;
+import org.apache.cxf.spring.boot.jaxrs.endpoint.LocalEndpointRegistry;
+import org.apache.cxf.spring.boot.jaxrs.filter.OperationScoped;
+import org.apache.cxf.spring.boot.jaxrs.multipart.MultipartStreamingFeature;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.CachingOAuthRequestFilter;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.InMemoryCodeDataProvider;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.MappedTokenLogDataProvider;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.OAuth2Feature;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.OAuth2Metrics;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.RevocationIndex;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.TokenStoreType;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.VerifiedTokenCache;
+import org.apache.cxf.spring.boot.jaxrs.swagger.SwaggerDocumentCache;
+import org.apache.cxf.spring.boot.jaxrs.swagger.SwaggerUiAssetFilter;
+import org.apache.cxf.spring.boot.jaxrs.swagger.SwaggerUiAssets;
+import org.apache.cxf.spring.boot.jaxrs.validation.CachingBeanValidationProvider;
+import org.apache.cxf.spring.boot.jaxrs.validation.OperationValidationFeature;
 import org.apache.cxf.spring.boot.property.LoggingFeatureProperty;
+import org.apache.cxf.spring.boot.property.OAuth2DataProviderProperty;
+import org.apache.cxf.spring.boot.property.OAuth2FilterProperty;
+import org.apache.cxf.spring.boot.property.Swagger2FeatureProperty;
 import org.apache.cxf.transport.servlet.CXFServlet;
 import org.apache.cxf.validation.BeanValidationFeature;
 import org.apache.cxf.validation.BeanValidationProvider;
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
@@ -26,11 +53,15 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+
 //http://cxf.apache.org/docs/springboot.html
 @AutoConfigureAfter(name = { "org.apache.cxf.spring.boot.autoconfigure.CxfAutoConfiguration" })
 @Configuration
@@ -57,15 +88,16 @@ public class CxfJaxrsAutoConfiguration implements ApplicationContextAware {
 
 	@Bean
 	@ConditionalOnMissingBean(BeanValidationProvider.class)
-	public BeanValidationProvider validationProvider() {
-		return new BeanValidationProvider();
+	public BeanValidationProvider validationProvider(CxfJaxrsProperties properties) {
+		return CachingBeanValidationProvider.create(properties.getValidationFeature().isFailFast());
 	}
 
+	/**
+	 * 发布时分析各操作的约束元数据，无约束的操作在请求时直接跳过校验
+	 */
 	@Bean
-	public BeanValidationFeature validationFeature(BeanValidationProvider validationProvider) {
-		BeanValidationFeature feature = new BeanValidationFeature();
-		feature.setProvider(validationProvider);
-		return feature;
+	public BeanValidationFeature validationFeature(BeanValidationProvider validationProvider, CxfJaxrsProperties properties) {
+		return new OperationValidationFeature(validationProvider, properties.getValidationFeature());
 	}
 
 	@Bean
@@ -82,7 +114,8 @@ public class CxfJaxrsAutoConfiguration implements ApplicationContextAware {
 		feature.setInMemThreshold(property.getThreshold());
 		feature.setLimit(property.getLimit());
 		feature.setLogBinary(property.isLogBinary());
-		feature.setLogMultipart(property.isLogMultipart());
+		// 流式读取的multipart请求不能为记录日志而缓存
+		feature.setLogMultipart(property.isLogMultipart() && !properties.getMultipart().isEnabled());
 		feature.setPrettyLogging(property.isPrettyLogging());
 		feature.setVerbose(property.isVerbose());
 		
@@ -100,11 +133,105 @@ public class CxfJaxrsAutoConfiguration implements ApplicationContextAware {
 		return new MetricsFeature(metricsProvider);
 	}
 	
+	/**
+	 * 服务端与客户端共享的Json Provider
+	 */
+	@Bean
+	@ConditionalOnMissingBean(JacksonJsonProvider.class)
+	public JacksonJsonProvider jsonProvider() {
+		return new JacksonJaxbJsonProvider();
+	}
+	
+	@Bean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "deadline-feature.enabled", havingValue = "true")
+	public DeadlineFeature deadlineFeature(CxfJaxrsProperties properties) {
+		return new DeadlineFeature(properties.getDeadlineFeature());
+	}
+	
+	/**
+	 * 跨域支持：预检请求在资源匹配之前直接应答
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "cors.enabled", havingValue = "true")
+	public CorsFeature corsFeature(CxfJaxrsProperties properties) {
+		return new CorsFeature(properties.getCors());
+	}
+	
+	/**
+	 * multipart请求按Part流式读取，并限制Part及请求大小
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "multipart.enabled", havingValue = "true")
+	public MultipartStreamingFeature multipartStreamingFeature(CxfJaxrsProperties properties) {
+		return new MultipartStreamingFeature(properties.getMultipart());
+	}
+	
+	/**
+	 * 序列化后的Swagger文档，只在EndpointApiTemplate发布或销毁Endpoint时重新生成
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "swagger2-feature.enabled", havingValue = "true")
+	public SwaggerDocumentCache swaggerDocumentCache() {
+		return new SwaggerDocumentCache();
+	}
+	
+	/**
+	 * Swagger UI静态资源：启动时从webjar解压一次，由Servlet过滤器在CXF Servlet之前直接输出
+	 */
+	@Bean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "swagger2-feature.enabled", havingValue = "true")
+	public FilterRegistrationBean<SwaggerUiAssetFilter> swaggerUiAssetFilter(Bus bus, CxfJaxrsProperties properties,
+			ObjectProvider<CxfProperties> cxfProperties) throws IOException {
+
+		Swagger2FeatureProperty property = properties.getSwagger2Feature();
+		Path directory = property.getStaticUiDirectory() != null ? Paths.get(property.getStaticUiDirectory())
+				: Paths.get(System.getProperty("java.io.tmpdir"), "cxf-swagger-ui");
+		String root = property.isSupportSwaggerUi() && property.isStaticUi()
+				? SwaggerUi.findSwaggerUiRoot(property.getSwaggerUiMavenGroupAndArtifact(), property.getSwaggerUiVersion())
+				: null;
+
+		FilterRegistrationBean<SwaggerUiAssetFilter> registration = new FilterRegistrationBean<SwaggerUiAssetFilter>();
+		if (root == null) {
+			// 未启用或类路径中没有Swagger UI webjar：仍由SwaggerUiService处理
+			registration.setFilter(new SwaggerUiAssetFilter(SwaggerUiAssets.empty(directory), 0, bus));
+			registration.setEnabled(false);
+			return registration;
+		}
+		registration.setFilter(new SwaggerUiAssetFilter(SwaggerUiAssets.extract(root, directory,
+				property.getSwaggerUiMediaTypes()), property.getStaticUiMaxAge(), bus));
+		CxfProperties cxf = cxfProperties.getIfAvailable();
+		String path = cxf != null && cxf.getPath() != null ? cxf.getPath() : "/services";
+		registration.addUrlPatterns(path.endsWith("/") ? path + "*" : path + "/*");
+		return registration;
+	}
+	
+	/**
+	 * 发布的Endpoint同时注册在local://传输上，同进程内的客户端无需经过网络
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "local-transport.enabled", havingValue = "true")
+	public LocalEndpointRegistry localEndpointRegistry(Bus bus, CxfJaxrsProperties properties,
+			ObjectProvider<CxfProperties> cxfProperties) {
+		CxfProperties cxf = cxfProperties.getIfAvailable();
+		String path = cxf != null && cxf.getPath() != null ? cxf.getPath() : "/services";
+		return new LocalEndpointRegistry(bus, properties.getLocalTransport(), path);
+	}
+	
 	@Bean
 	public EndpointApiTemplate endpointTemplate(Bus bus,
 			LoggingFeature loggingFeature,
 			MetricsFeature metricsFeature,
 			BeanValidationFeature validationFeature,
+			ObjectProvider<DeadlineFeature> deadlineFeature,
+			ObjectProvider<CorsFeature> corsFeature,
+			ObjectProvider<MultipartStreamingFeature> multipartFeature,
+			ObjectProvider<OAuthRequestFilter> oauthRequestFilter,
+			ObjectProvider<SwaggerDocumentCache> swaggerDocumentCache,
+			ObjectProvider<OperationScoped> operationFilters,
+			ObjectProvider<LocalEndpointRegistry> localEndpointRegistry,
+			JacksonJsonProvider jsonProvider,
 			CxfJaxrsProperties properties) {
 		
 		EndpointApiTemplate template = new EndpointApiTemplate(bus, properties.getServer());
@@ -112,6 +239,20 @@ public class CxfJaxrsAutoConfiguration implements ApplicationContextAware {
 		template.setLoggingFeature(loggingFeature);
 		template.setMetricsFeature(metricsFeature);
 		template.setValidationFeature(validationFeature);
+		template.setJsonProvider(jsonProvider);
+		deadlineFeature.ifAvailable(template.getFeatures()::add);
+		corsFeature.ifAvailable(template.getFeatures()::add);
+		multipartFeature.ifAvailable(feature -> {
+			template.getFeatures().add(feature);
+			template.setMultipartStreaming(true);
+		});
+		oauthRequestFilter.ifAvailable(filter -> template.getFeatures().add(new OAuth2Feature(filter)));
+		operationFilters.orderedStream().forEach(template.getOperationFilters()::add);
+		localEndpointRegistry.ifAvailable(template::setLocalEndpointRegistry);
+		if (properties.getSwagger2Feature().isEnabled()) {
+			template.setSwaggerProperty(properties.getSwagger2Feature());
+			template.setSwaggerDocumentCache(swaggerDocumentCache.getIfAvailable());
+		}
 		
 		return template;
 	}
@@ -119,32 +260,73 @@ public class CxfJaxrsAutoConfiguration implements ApplicationContextAware {
 	
 
 	/**
-	 * 决定一个消费者将如何等待生产者将Event置入Disruptor的策略。用来权衡当生产者无法将新的事件放进RingBuffer时的处理策略。
-	 * （例如：当生产者太快，消费者太慢，会导致生成者获取不到新的事件槽来插入新事件，则会根据该策略进行处理，默认会堵塞）
+	 * 默认的OAuth2数据提供者：令牌与授权码保存在内存中，通过时间轮过期；
+	 * store=mapped-log时同时写入内存映射日志，重启后恢复；store-durability决定写入时机，
+	 * write-behind/group-commit时由后台线程批量写入，关闭时写完队列
 	 */
-	@Bean
-	@ConditionalOnMissingBean
-	public DefaultEHCacheOAuthDataProvider oauthProvider() {
-
-		/*
-		 * <bean id="oauthProvider" class=
-		 * "org.apache.cxf.systest.jaxrs.security.oauth2.common.OAuthDataProviderImpl">
-		 *        <property name="useJwtFormatForAccessTokens" value="true"/>
-		 *        <property name="storeJwtTokenKeyOnly" value="true"/> </bean>
-		 */
-		/*
-		 * <bean id="oauthProvider" class=
-		 * "org.apache.cxf.rs.security.oauth2.grants.code.EHCacheCodeDataProvider">
-		 *        <property name="useJwtFormatForAccessTokens" value="true"/> </bean>
-		 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnMissingBean(OAuthDataProvider.class)
+	public InMemoryCodeDataProvider oauthProvider(CxfJaxrsProperties properties) throws IOException {
 
-		DefaultEHCacheOAuthDataProvider dataProvider = new EHCacheCodeDataProvider();
+		OAuth2DataProviderProperty property = properties.getOauth2();
+		InMemoryCodeDataProvider dataProvider;
+		if (property.getStore() == TokenStoreType.MAPPED_LOG) {
+			Path directory = property.getStoreDirectory() != null ? Paths.get(property.getStoreDirectory())
+					: Paths.get(System.getProperty("java.io.tmpdir"), "cxf-oauth2-tokens");
+			dataProvider = new MappedTokenLogDataProvider(property.getExpiryTick(), directory,
+					property.getStoreSegmentSize(), property.getStoreFlushInterval(), property.getStoreCompactSegments(),
+					property.getStoreDurability(), property.getStoreQueueCapacity(), property.getStoreBatchSize(),
+					property.getStoreSerializablePackages());
+		} else {
+			dataProvider = new InMemoryCodeDataProvider(property.getExpiryTick());
+		}
 
-		dataProvider.setUseJwtFormatForAccessTokens(true);
+		dataProvider.setAccessTokenLifetime(property.getAccessTokenLifetime());
+		dataProvider.setRefreshTokenLifetime(property.getRefreshTokenLifetime());
+		dataProvider.setCodeLifetime(property.getCodeLifetime());
+		dataProvider.setRecycleRefreshTokens(property.isRecycleRefreshTokens());
+		dataProvider.setUseJwtFormatForAccessTokens(property.isUseJwtFormatForAccessTokens());
+		dataProvider.setRevocationIndex(new RevocationIndex(property.getRevocationIndexSize(),
+				property.getRevocationIndexFpp(), property.getExpiryTick()));
+		dataProvider.setScopeCacheSize(property.getScopeCacheSize());
 
 		return dataProvider;
 	}
 
+	/**
+	 * 保护已发布Endpoint的OAuth2过滤器；已校验的令牌进入缓存，重复请求不再验签
+	 */
+	@Bean
+	@ConditionalOnMissingBean(OAuthRequestFilter.class)
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "oauth2-filter.enabled", havingValue = "true")
+	public OAuthRequestFilter oauthRequestFilter(OAuthDataProvider dataProvider, CxfJaxrsProperties properties) {
+
+		OAuth2FilterProperty property = properties.getOauth2Filter();
+		OAuthRequestFilter filter;
+		if (property.isTokenCache()) {
+			VerifiedTokenCache tokenCache = new VerifiedTokenCache(property.getTokenCacheSize(),
+					property.getTokenCacheMaxTtl(), properties.getOauth2().getExpiryTick());
+			CachingOAuthRequestFilter cachingFilter = new CachingOAuthRequestFilter(tokenCache);
+			if (dataProvider instanceof InMemoryCodeDataProvider) {
+				((InMemoryCodeDataProvider) dataProvider).addRevocationListener(tokenCache);
+				cachingFilter.setRevocationIndex(((InMemoryCodeDataProvider) dataProvider).getRevocationIndex());
+			} else {
+				// 无法收到撤销通知的数据提供者：命中缓存时仍查询令牌是否存在
+				cachingFilter.setRevocationLookup(true);
+			}
+			filter = cachingFilter;
+		} else {
+			filter = new OAuthRequestFilter();
+		}
+		filter.setDataProvider(dataProvider);
+		filter.setRealm(property.getRealm());
+		if (!property.getRequiredScopes().isEmpty()) {
+			filter.setRequiredScopes(property.getRequiredScopes());
+		}
+
+		return filter;
+	}
+
 	@Bean
 	@ConditionalOnMissingBean
 	public AccessTokenService accessTokenService(OAuthDataProvider dataProvider) {
@@ -165,6 +347,25 @@ public class CxfJaxrsAutoConfiguration implements ApplicationContextAware {
 		return accessTokenService;
 	}
 
+	@Configuration
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+	static class OAuth2MetricsConfiguration {
+
+		/**
+		 * 嵌套配置先于外部类的@Bean方法处理，不能用@ConditionalOnBean判断数据提供者；
+		 * 在绑定时按需获取，使用其他数据提供者时只输出令牌缓存的指标
+		 */
+		@Bean
+		@ConditionalOnMissingBean
+		public OAuth2Metrics oauth2Metrics(ObjectProvider<InMemoryCodeDataProvider> dataProvider,
+				ObjectProvider<OAuthRequestFilter> oauthRequestFilter) {
+			OAuthRequestFilter filter = oauthRequestFilter.getIfAvailable();
+			return new OAuth2Metrics(dataProvider.getIfAvailable(), filter instanceof CachingOAuthRequestFilter
+					? ((CachingOAuthRequestFilter) filter).getTokenCache() : null);
+		}
+
+	}
+
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -0,0 +1,159 @@
+package org.apache.cxf.spring.boot;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.spring.boot.jaxrs.client.ClientApiTemplate;
+import org.apache.cxf.spring.boot.jaxrs.client.ClientProxyPool;
+import org.apache.cxf.spring.boot.jaxrs.client.balancer.AddressResolver;
+import org.apache.cxf.spring.boot.jaxrs.client.breaker.CircuitBreakerEndpoint;
+import org.apache.cxf.spring.boot.jaxrs.client.breaker.CircuitBreakerFeature;
+import org.apache.cxf.spring.boot.jaxrs.client.breaker.CircuitBreakerMetrics;
+import org.apache.cxf.spring.boot.jaxrs.client.breaker.CircuitBreakerRegistry;
+import org.apache.cxf.spring.boot.jaxrs.client.cache.HttpCacheFilter;
+import org.apache.cxf.spring.boot.jaxrs.client.cache.HttpResponseCache;
+import org.apache.cxf.spring.boot.jaxrs.client.cache.HttpResponseCacheMetrics;
+import org.apache.cxf.spring.boot.jaxrs.deadline.DeadlineFeature;
+import org.apache.cxf.spring.boot.jaxrs.endpoint.LocalEndpointRegistry;
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduitFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
+
+//http://cxf.apache.org/docs/asynchronous-client-http-transport.html
+@AutoConfigureAfter(name = { "org.apache.cxf.spring.boot.autoconfigure.CxfAutoConfiguration",
+		"org.apache.cxf.spring.boot.CxfJaxrsAutoConfiguration" })
+@Configuration
+@ConditionalOnClass({ WebClient.class, AsyncHTTPConduitFactory.class })
+@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "client.enabled", havingValue = "true")
+@EnableConfigurationProperties({ CxfJaxrsProperties.class })
+public class CxfJaxrsClientAutoConfiguration {
+
+	/**
+	 * ClientApiTemplate客户端共享的连接池：keep-alive、每路由最大连接数、空闲连接回收
+	 */
+	@Bean(destroyMethod = "shutdown")
+	@ConditionalOnMissingBean(AsyncHTTPConduitFactory.class)
+	public AsyncHTTPConduitFactory asyncConduitFactory(CxfJaxrsProperties properties) {
+		
+		CxfJaxrsClientProperties property = properties.getClient();
+		
+		Map<String, Object> conduitProperties = new HashMap<String, Object>();
+		conduitProperties.put(AsyncHTTPConduitFactory.MAX_CONNECTIONS, property.getMaxConnections());
+		conduitProperties.put(AsyncHTTPConduitFactory.MAX_PER_HOST_CONNECTIONS, property.getMaxPerRoute());
+		conduitProperties.put(AsyncHTTPConduitFactory.CONNECTION_TTL, property.getConnectionTtl());
+		conduitProperties.put(AsyncHTTPConduitFactory.CONNECTION_MAX_IDLE, property.getConnectionMaxIdle());
+		conduitProperties.put(AsyncHTTPConduitFactory.THREAD_COUNT, property.getIoThreadCount());
+		conduitProperties.put(AsyncHTTPConduitFactory.SO_KEEPALIVE, property.isSoKeepalive());
+		conduitProperties.put(AsyncHTTPConduitFactory.TCP_NODELAY, property.isTcpNoDelay());
+		
+		AsyncHTTPConduitFactory factory = new AsyncHTTPConduitFactory(conduitProperties);
+		return factory;
+	}
+	
+	/**
+	 * 客户端HTTP缓存：内存+磁盘两级，命中率等指标可通过该Bean获取
+	 */
+	@Bean(destroyMethod = "destroy")
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "client.cache.enabled", havingValue = "true")
+	public HttpResponseCache clientResponseCache(CxfJaxrsProperties properties) {
+		return new HttpResponseCache(properties.getClient().getCache());
+	}
+	
+	/**
+	 * 按基础地址（scheme://host:port）划分的熔断器，状态及指标可通过该Bean获取
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "client.circuit-breaker.enabled", havingValue = "true")
+	public CircuitBreakerRegistry clientCircuitBreakerRegistry(CxfJaxrsProperties properties) {
+		return new CircuitBreakerRegistry(properties.getClient().getCircuitBreaker());
+	}
+	
+	@Bean(destroyMethod = "destroy")
+	@ConditionalOnMissingBean
+	public ClientApiTemplate clientTemplate(ObjectProvider<Bus> busProvider,
+			AsyncHTTPConduitFactory asyncConduitFactory,
+			ObjectProvider<JacksonJsonProvider> jsonProvider,
+			ObjectProvider<DeadlineFeature> deadlineFeature,
+			ObjectProvider<HttpResponseCache> responseCache,
+			ObjectProvider<AddressResolver> addressResolver,
+			ObjectProvider<CircuitBreakerRegistry> circuitBreakerRegistry,
+			ObjectProvider<LocalEndpointRegistry> localEndpointRegistry,
+			CxfJaxrsProperties properties) {
+		
+		ClientApiTemplate template = new ClientApiTemplate(busProvider.getIfAvailable(BusFactory::getDefaultBus), properties.getClient());
+		// 连接池仅用于本模板的客户端，不替换Bus上默认的HTTPConduitFactory
+		template.setConduitFactory(asyncConduitFactory);
+		
+		// 与服务端共享同一个Json Provider
+		List<Object> providers = new ArrayList<Object>();
+		providers.add(jsonProvider.getIfAvailable(JacksonJaxbJsonProvider::new));
+		responseCache.ifAvailable(cache -> providers.add(new HttpCacheFilter(cache)));
+		template.setProviders(providers);
+		deadlineFeature.ifAvailable(template.getFeatures()::add);
+		circuitBreakerRegistry.ifAvailable(registry -> template.getFeatures().add(new CircuitBreakerFeature(registry)));
+		addressResolver.ifAvailable(template::setAddressResolver);
+		localEndpointRegistry.ifAvailable(template::setLocalEndpointRegistry);
+		
+		ClientProxyPool proxyPool = template.getProxyPool();
+		proxyPool.setMaxProxies(properties.getClient().getMaxProxies());
+		proxyPool.setSecondsToKeepState(properties.getClient().getProxySecondsToKeepState());
+		
+		return template;
+	}
+	
+	@Configuration
+	@ConditionalOnClass(name = "org.springframework.boot.actuate.endpoint.annotation.Endpoint")
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "client.circuit-breaker.enabled", havingValue = "true")
+	static class CircuitBreakerEndpointConfiguration {
+		
+		@Bean
+		@ConditionalOnMissingBean
+		public CircuitBreakerEndpoint clientCircuitBreakerEndpoint(CircuitBreakerRegistry circuitBreakerRegistry) {
+			return new CircuitBreakerEndpoint(circuitBreakerRegistry);
+		}
+		
+	}
+	
+	@Configuration
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "client.circuit-breaker.enabled", havingValue = "true")
+	static class CircuitBreakerMetricsConfiguration {
+		
+		@Bean
+		@ConditionalOnMissingBean
+		public CircuitBreakerMetrics clientCircuitBreakerMetrics(CircuitBreakerRegistry circuitBreakerRegistry) {
+			return new CircuitBreakerMetrics(circuitBreakerRegistry);
+		}
+		
+	}
+	
+	@Configuration
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+	@ConditionalOnProperty(prefix = CxfJaxrsProperties.PREFIX, value = "client.cache.enabled", havingValue = "true")
+	static class HttpResponseCacheMetricsConfiguration {
+		
+		@Bean
+		@ConditionalOnMissingBean
+		public HttpResponseCacheMetrics clientResponseCacheMetrics(HttpResponseCache clientResponseCache) {
+			return new HttpResponseCacheMetrics(clientResponseCache);
+		}
+		
+	}
+	
+}
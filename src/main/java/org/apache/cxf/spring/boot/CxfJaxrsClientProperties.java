@@ -0,0 +1,195 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.cxf.spring.boot.property.CircuitBreakerProperty;
+import org.apache.cxf.spring.boot.property.CxfJaxrsClientProfileProperty;
+import org.apache.cxf.spring.boot.property.HttpCacheProperty;
+import org.apache.cxf.spring.boot.property.RetryBudgetProperty;
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+public class CxfJaxrsClientProperties {
+
+	/**
+	 * Whether enable the starter-managed JAX-RS clients
+	 */
+	private boolean enabled = false;
+	/**
+	 * Max connections held by the shared async connection pool
+	 */
+	private int maxConnections = 5000;
+	/**
+	 * Max connections per route (host:port) held by the shared async connection pool
+	 */
+	private int maxPerRoute = 1000;
+	/**
+	 * Time to live of pooled connections, in milliseconds
+	 */
+	private int connectionTtl = 60000;
+	/**
+	 * Idle time after which pooled connections are evicted, in milliseconds
+	 */
+	private int connectionMaxIdle = 60000;
+	/**
+	 * Number of I/O dispatcher threads, -1 means the number of available processors
+	 */
+	private int ioThreadCount = -1;
+	private boolean soKeepalive = true;
+	private boolean tcpNoDelay = true;
+	/**
+	 * Max number of (interface, address) proxies kept by the proxy pool
+	 */
+	private int maxProxies = 1024;
+	/**
+	 * Time a thread keeps its request state on a pooled proxy, in seconds; 0 keeps it until the call completes
+	 */
+	private long proxySecondsToKeepState = 0;
+	/**
+	 * Client-side HTTP cache shared by all profiles
+	 */
+	@NestedConfigurationProperty
+	private HttpCacheProperty cache = new HttpCacheProperty();
+	/**
+	 * Retry budget shared by the retries and hedged requests of all profiles
+	 */
+	@NestedConfigurationProperty
+	private RetryBudgetProperty retryBudget = new RetryBudgetProperty();
+	/**
+	 * Circuit breaker per base address, shared by all profiles
+	 */
+	@NestedConfigurationProperty
+	private CircuitBreakerProperty circuitBreaker = new CircuitBreakerProperty();
+	/**
+	 * Named client profiles, e.g. cxf.jaxrs.client.profiles.order.address
+	 */
+	private Map<String, CxfJaxrsClientProfileProperty> profiles = new LinkedHashMap<String, CxfJaxrsClientProfileProperty>();
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxConnections() {
+		return maxConnections;
+	}
+
+	public void setMaxConnections(int maxConnections) {
+		this.maxConnections = maxConnections;
+	}
+
+	public int getMaxPerRoute() {
+		return maxPerRoute;
+	}
+
+	public void setMaxPerRoute(int maxPerRoute) {
+		this.maxPerRoute = maxPerRoute;
+	}
+
+	public int getConnectionTtl() {
+		return connectionTtl;
+	}
+
+	public void setConnectionTtl(int connectionTtl) {
+		this.connectionTtl = connectionTtl;
+	}
+
+	public int getConnectionMaxIdle() {
+		return connectionMaxIdle;
+	}
+
+	public void setConnectionMaxIdle(int connectionMaxIdle) {
+		this.connectionMaxIdle = connectionMaxIdle;
+	}
+
+	public int getIoThreadCount() {
+		return ioThreadCount;
+	}
+
+	public void setIoThreadCount(int ioThreadCount) {
+		this.ioThreadCount = ioThreadCount;
+	}
+
+	public boolean isSoKeepalive() {
+		return soKeepalive;
+	}
+
+	public void setSoKeepalive(boolean soKeepalive) {
+		this.soKeepalive = soKeepalive;
+	}
+
+	public boolean isTcpNoDelay() {
+		return tcpNoDelay;
+	}
+
+	public void setTcpNoDelay(boolean tcpNoDelay) {
+		this.tcpNoDelay = tcpNoDelay;
+	}
+
+	public int getMaxProxies() {
+		return maxProxies;
+	}
+
+	public void setMaxProxies(int maxProxies) {
+		this.maxProxies = maxProxies;
+	}
+
+	public long getProxySecondsToKeepState() {
+		return proxySecondsToKeepState;
+	}
+
+	public void setProxySecondsToKeepState(long proxySecondsToKeepState) {
+		this.proxySecondsToKeepState = proxySecondsToKeepState;
+	}
+
+	public HttpCacheProperty getCache() {
+		return cache;
+	}
+
+	public void setCache(HttpCacheProperty cache) {
+		this.cache = cache;
+	}
+
+	public RetryBudgetProperty getRetryBudget() {
+		return retryBudget;
+	}
+
+	public void setRetryBudget(RetryBudgetProperty retryBudget) {
+		this.retryBudget = retryBudget;
+	}
+
+	public CircuitBreakerProperty getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public void setCircuitBreaker(CircuitBreakerProperty circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	public Map<String, CxfJaxrsClientProfileProperty> getProfiles() {
+		return profiles;
+	}
+
+	public void setProfiles(Map<String, CxfJaxrsClientProfileProperty> profiles) {
+		this.profiles = profiles;
+	}
+
+}
@@ -1,6 +1,14 @@
 package org.apache.cxf.spring.boot;
 
+import org.apache.cxf.spring.boot.property.CorsFeatureProperty;
+import org.apache.cxf.spring.boot.property.DeadlineFeatureProperty;
+import org.apache.cxf.spring.boot.property.LocalTransportProperty;
 import org.apache.cxf.spring.boot.property.LoggingFeatureProperty;
+import org.apache.cxf.spring.boot.property.MultipartStreamingProperty;
+import org.apache.cxf.spring.boot.property.OAuth2DataProviderProperty;
+import org.apache.cxf.spring.boot.property.OAuth2FilterProperty;
+import org.apache.cxf.spring.boot.property.Swagger2FeatureProperty;
+import org.apache.cxf.spring.boot.property.ValidationFeatureProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -25,9 +33,35 @@ public class CxfJaxrsProperties {
 	@NestedConfigurationProperty
 	private CxfJaxrsServerProperties server = new CxfJaxrsServerProperties();
 
+	@NestedConfigurationProperty
+	private CxfJaxrsClientProperties client = new CxfJaxrsClientProperties();
+
 	@NestedConfigurationProperty
 	private LoggingFeatureProperty loggingFeature = new LoggingFeatureProperty();
 
+	@NestedConfigurationProperty
+	private DeadlineFeatureProperty deadlineFeature = new DeadlineFeatureProperty();
+
+	@NestedConfigurationProperty
+	private ValidationFeatureProperty validationFeature = new ValidationFeatureProperty();
+
+	@NestedConfigurationProperty
+	private OAuth2DataProviderProperty oauth2 = new OAuth2DataProviderProperty();
+
+	@NestedConfigurationProperty
+	private OAuth2FilterProperty oauth2Filter = new OAuth2FilterProperty();
+
+	@NestedConfigurationProperty
+	private Swagger2FeatureProperty swagger2Feature = new Swagger2FeatureProperty();
+
+	@NestedConfigurationProperty
+	private CorsFeatureProperty cors = new CorsFeatureProperty();
+
+	@NestedConfigurationProperty
+	private LocalTransportProperty localTransport = new LocalTransportProperty();
+
+	@NestedConfigurationProperty
+	private MultipartStreamingProperty multipart = new MultipartStreamingProperty();
 
 	public LoggingFeatureProperty getLoggingFeature() {
 		return loggingFeature;
@@ -37,6 +71,70 @@ public class CxfJaxrsProperties {
 		this.loggingFeature = loggingFeature;
 	}
 	
+	public DeadlineFeatureProperty getDeadlineFeature() {
+		return deadlineFeature;
+	}
+
+	public void setDeadlineFeature(DeadlineFeatureProperty deadlineFeature) {
+		this.deadlineFeature = deadlineFeature;
+	}
+
+	public ValidationFeatureProperty getValidationFeature() {
+		return validationFeature;
+	}
+
+	public void setValidationFeature(ValidationFeatureProperty validationFeature) {
+		this.validationFeature = validationFeature;
+	}
+
+	public OAuth2DataProviderProperty getOauth2() {
+		return oauth2;
+	}
+
+	public void setOauth2(OAuth2DataProviderProperty oauth2) {
+		this.oauth2 = oauth2;
+	}
+
+	public OAuth2FilterProperty getOauth2Filter() {
+		return oauth2Filter;
+	}
+
+	public void setOauth2Filter(OAuth2FilterProperty oauth2Filter) {
+		this.oauth2Filter = oauth2Filter;
+	}
+
+	public Swagger2FeatureProperty getSwagger2Feature() {
+		return swagger2Feature;
+	}
+
+	public void setSwagger2Feature(Swagger2FeatureProperty swagger2Feature) {
+		this.swagger2Feature = swagger2Feature;
+	}
+
+	public CorsFeatureProperty getCors() {
+		return cors;
+	}
+
+	public void setCors(CorsFeatureProperty cors) {
+		this.cors = cors;
+	}
+
+	public LocalTransportProperty getLocalTransport() {
+		return localTransport;
+	}
+
+	public void setLocalTransport(LocalTransportProperty localTransport) {
+		this.localTransport = localTransport;
+	}
+
+	public MultipartStreamingProperty getMultipart() {
+		return multipart;
+	}
+
+	public void setMultipart(MultipartStreamingProperty multipart) {
+		this.multipart = multipart;
+	}
+
 	public boolean isComponentScan() {
 		return componentScan;
 	}
@@ -85,4 +183,12 @@ public class CxfJaxrsProperties {
 		this.server = server;
 	}
 
+	public CxfJaxrsClientProperties getClient() {
+		return client;
+	}
+
+	public void setClient(CxfJaxrsClientProperties client) {
+		this.client = client;
+	}
+
 }
\ No newline at end of file
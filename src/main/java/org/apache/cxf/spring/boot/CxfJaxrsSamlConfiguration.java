@@ -1,5 +1,7 @@
 package org.apache.cxf.spring.boot;
 
+import java.nio.file.Paths;
+
 import org.apache.cxf.Bus;
 import org.apache.cxf.bus.spring.SpringBus;
 import org.apache.cxf.jaxrs.ext.MessageContext;
@@ -12,11 +14,25 @@ import org.apache.cxf.rs.security.saml.sso.SamlRedirectBindingFilter;
 import org.apache.cxf.rs.security.saml.sso.state.EHCacheSPStateManager;
 import org.apache.cxf.rs.security.saml.sso.state.MemorySPStateManager;
 import org.apache.cxf.rs.security.saml.sso.state.SPStateManager;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.AuthnRequestTemplate;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.BucketedReplayCache;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.ReplayCacheMetrics;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.SPStateManagerType;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.SPStateMetrics;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.SamlRequestEncoder;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.SamlRequestInfoFormWriter;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.SignatureCryptoCache;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.TemplateSamlPostBindingFilter;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.TemplateSamlRedirectBindingFilter;
+import org.apache.cxf.spring.boot.jaxrs.security.saml.StripedSPStateManager;
 import org.apache.cxf.spring.boot.property.CxfJaxwsSamlBindingProperty;
 import org.apache.cxf.spring.boot.property.CxfJaxwsSamlDispatcherProperty;
 import org.apache.cxf.spring.boot.property.CxfJaxwsSamlPostBindingProperty;
 import org.apache.cxf.spring.boot.property.CxfJaxwsSamlRedirectBindingProperty;
+import org.apache.cxf.spring.boot.property.CxfJaxwsSamlReplayCacheProperty;
+import org.apache.cxf.spring.boot.property.CxfJaxwsSamlStateManagerProperty;
 import org.apache.cxf.transport.servlet.CXFServlet;
+import org.apache.wss4j.common.cache.ReplayCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.BeansException;
@@ -30,6 +46,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
 
 //http://cxf.apache.org/docs/saml-web-sso.html
 
@@ -54,6 +71,8 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 	
 	@Bean
 	@ConditionalOnMissingBean(RequestDispatcherProvider.class)
+	@ConditionalOnClass(name = "org.apache.jasper.servlet.JspServlet")
+	@ConditionalOnProperty(prefix = CxfJaxrsSamlProperties.PREFIX + ".dispatcher", value = "built-in-form", havingValue = "false", matchIfMissing = true)
 	public RequestDispatcherProvider samlRequestFormCreator(Bus bus, MessageContext context, 
 			CxfJaxrsSamlProperties properties) {
 		
@@ -89,6 +108,15 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 		return dispatcher;
 	}
 	
+	/**
+	 * 无JSP引擎或启用built-in-form时，直接输出SAML POST绑定的自动提交表单
+	 */
+	@Bean
+	@ConditionalOnMissingBean({ RequestDispatcherProvider.class, SamlRequestInfoFormWriter.class })
+	public SamlRequestInfoFormWriter samlRequestFormWriter() {
+		return new SamlRequestInfoFormWriter();
+	}
+	
 	@Bean
 	@ConditionalOnMissingBean(AuthnRequestBuilder.class)
 	public AuthnRequestBuilder authnRequestBuilder(CxfJaxrsSamlProperties properties) {
@@ -105,18 +133,32 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 		return builder;
 	}
 
-	@Bean
+	/**
+	 * 默认使用分段Map与时间轮过期的StripedSPStateManager；type=ehcache且Ehcache不在类路径时退回内存实现
+	 */
+	@Bean(destroyMethod = "close")
 	@ConditionalOnMissingBean(SPStateManager.class)
-	public SPStateManager stateManager(Bus bus) {
+	public SPStateManager stateManager(Bus bus, CxfJaxrsSamlProperties properties) {
 
+		CxfJaxwsSamlStateManagerProperty property = properties.getStateManager();
+		if (property.getType() == SPStateManagerType.STRIPED) {
+			// 未携带有效期的状态按两种绑定中较长的stateTimeToLive过期
+			long stateTimeToLive = Math.max(properties.getRedirectBinding().getStateTimeToLive(),
+					properties.getPostBinding().getStateTimeToLive());
+			return new StripedSPStateManager(stateTimeToLive, property.getMaxEntries(), property.getStripes(),
+					property.getExpiryTick());
+		}
+		
 		boolean ehcacheIsAvailable = false;
-		try {
-            if(null != Class.forName("net.sf.ehcache.Ehcache")) {
-            	ehcacheIsAvailable = true;
-            }
-        } catch (Throwable t) {
-        	ehcacheIsAvailable = false;
-        }
+		if (property.getType() == SPStateManagerType.EHCACHE) {
+			try {
+	            if(null != Class.forName("net.sf.ehcache.Ehcache")) {
+	            	ehcacheIsAvailable = true;
+	            }
+	        } catch (Throwable t) {
+	        	LOG.warn("Ehcache is not available, falling back to MemorySPStateManager");
+	        }
+		}
 		
 		if(ehcacheIsAvailable) {
 			return new EHCacheSPStateManager(bus);
@@ -126,13 +168,45 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 		
     }
 	
+	/**
+	 * 断言ID的防重放缓存，同时实现wss4j ReplayCache与SSO RACS使用的TokenReplayCache
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnMissingBean(ReplayCache.class)
+	public BucketedReplayCache samlReplayCache(CxfJaxrsSamlProperties properties) {
+		CxfJaxwsSamlReplayCacheProperty property = properties.getReplayCache();
+		return new BucketedReplayCache(property.getDefaultTimeToLive(), property.getMaxTimeToLive(),
+				property.getBuckets(), property.getMaxEntries(),
+				StringUtils.hasText(property.getSnapshotFile()) ? Paths.get(property.getSnapshotFile()) : null,
+				property.getSnapshotInterval(), property.isEvictWhenFull());
+	}
+	
+	/**
+	 * 两种绑定共用的签名Crypto，按属性文件加载一次并在启动时校验证书与私钥
+	 */
+	@Bean
+	@ConditionalOnMissingBean
+	public SignatureCryptoCache signatureCryptoCache() {
+		return new SignatureCryptoCache();
+	}
+	
+	/**
+	 * 两种绑定共用的Deflater池与编码缓冲
+	 */
+	@Bean(destroyMethod = "close")
+	@ConditionalOnMissingBean
+	public SamlRequestEncoder samlRequestEncoder() {
+		return new SamlRequestEncoder();
+	}
+	
 	@Bean
 	public SamlRedirectBindingFilter redirectGetFilter(AuthnRequestBuilder authnRequestBuilder, 
-			SPStateManager stateManager, CxfJaxrsSamlProperties properties) {
+			SPStateManager stateManager, SignatureCryptoCache cryptoCache, SamlRequestEncoder requestEncoder,
+			CxfJaxrsSamlProperties properties) throws Exception {
 		
 		CxfJaxwsSamlRedirectBindingProperty property = properties.getRedirectBinding();
 		
-		SamlRedirectBindingFilter redirectFilter = new SamlRedirectBindingFilter();
+		TemplateSamlRedirectBindingFilter redirectFilter = new TemplateSamlRedirectBindingFilter();
 		
 		redirectFilter.setAddEndpointAddressToContext(property.isAddEndpointAddressToContext());
 		redirectFilter.setAddWebAppContext(property.isAddWebAppContext());
@@ -142,7 +216,8 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 		redirectFilter.setIdpServiceAddress(property.getIdpServiceAddress());
 		redirectFilter.setIssuerId(property.getIssuerId());
 		if(property.isSignRequest()) {
-			//redirectFilter.setSignatureCrypto(crypto);
+			redirectFilter.setSignatureCrypto(cryptoCache.getCrypto(property.getSignaturePropertiesFile(),
+					property.getSignatureUsername(), property.getCallbackHandlerClass()));
 			redirectFilter.setSignaturePropertiesFile(property.getSignaturePropertiesFile());
 			redirectFilter.setSignatureUsername(property.getSignatureUsername());
 			redirectFilter.setSignRequest(property.isSignRequest());
@@ -152,17 +227,20 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 		redirectFilter.setStateTimeToLive(property.getStateTimeToLive());
 		redirectFilter.setSupportUnsolicited(property.isSupportUnsolicited());
 		redirectFilter.setWebAppDomain(property.getWebAppDomain());
+		redirectFilter.setRequestEncoder(requestEncoder);
+		redirectFilter.setRequestTemplate(requestTemplate(authnRequestBuilder, property));
 		
 		return redirectFilter;
 	}
 	
 	@Bean
 	public SamlPostBindingFilter postBindingFilter(AuthnRequestBuilder authnRequestBuilder, 
-			SPStateManager stateManager, CxfJaxrsSamlProperties properties) {
+			SPStateManager stateManager, SignatureCryptoCache cryptoCache, SamlRequestEncoder requestEncoder,
+			CxfJaxrsSamlProperties properties) throws Exception {
 		
 		CxfJaxwsSamlPostBindingProperty property = properties.getPostBinding();
 		
-		SamlPostBindingFilter postFilter = new SamlPostBindingFilter();
+		TemplateSamlPostBindingFilter postFilter = new TemplateSamlPostBindingFilter();
 		postFilter.setAddEndpointAddressToContext(property.isAddEndpointAddressToContext());
 		postFilter.setAddWebAppContext(property.isAddWebAppContext());
 		postFilter.setAssertionConsumerServiceAddress(property.getAssertionConsumerServiceAddress());
@@ -171,7 +249,8 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 		postFilter.setIdpServiceAddress(property.getIdpServiceAddress());
 		postFilter.setIssuerId(property.getIssuerId());
 		if(property.isSignRequest()) {
-			//postFilter.setSignatureCrypto(crypto);
+			postFilter.setSignatureCrypto(cryptoCache.getCrypto(property.getSignaturePropertiesFile(),
+					property.getSignatureUsername(), property.getCallbackHandlerClass()));
 			postFilter.setSignaturePropertiesFile(property.getSignaturePropertiesFile());
 			postFilter.setSignatureUsername(property.getSignatureUsername());
 			postFilter.setSignRequest(property.isSignRequest());
@@ -182,10 +261,45 @@ public class CxfJaxrsSamlConfiguration implements ApplicationContextAware {
 		postFilter.setSupportUnsolicited(property.isSupportUnsolicited());
 		postFilter.setUseDeflateEncoding(property.isUseDeflateEncoding());
 		postFilter.setWebAppDomain(property.getWebAppDomain());
+		postFilter.setRequestEncoder(requestEncoder);
+		if (!property.isSignRequest()) {
+			// 签名请求需要XML签名，仍由AuthnRequestBuilder构建
+			postFilter.setRequestTemplate(requestTemplate(authnRequestBuilder, property));
+		}
 		
 		return postFilter;
 	}
 	
+	/**
+	 * 仅DefaultAuthnRequestBuilder的输出与请求无关，可预渲染为模板
+	 */
+	protected AuthnRequestTemplate requestTemplate(AuthnRequestBuilder authnRequestBuilder,
+			CxfJaxwsSamlBindingProperty property) throws Exception {
+		if (!property.isRequestTemplate() || authnRequestBuilder.getClass() != DefaultAuthnRequestBuilder.class) {
+			return null;
+		}
+		return AuthnRequestTemplate.render(authnRequestBuilder,
+				property.isSignRequest() ? property.getIdpServiceAddress() : null);
+	}
+	
+	@Configuration
+	@ConditionalOnClass(name = "io.micrometer.core.instrument.binder.MeterBinder")
+	static class SPStateMetricsConfiguration {
+		
+		@Bean
+		@ConditionalOnMissingBean
+		public SPStateMetrics samlStateMetrics(SPStateManager stateManager) {
+			return new SPStateMetrics(stateManager);
+		}
+		
+		@Bean
+		@ConditionalOnMissingBean
+		public ReplayCacheMetrics samlReplayCacheMetrics(ReplayCache replayCache) {
+			return new ReplayCacheMetrics(replayCache);
+		}
+		
+	}
+	
 	@Override
 	public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = applicationContext;
@@ -7,6 +7,8 @@ import org.apache.cxf.spring.boot.property.CxfJaxwsSamlDispatcherProperty;
 import org.apache.cxf.spring.boot.property.CxfJaxwsSamlEHCacheProperty;
 import org.apache.cxf.spring.boot.property.CxfJaxwsSamlPostBindingProperty;
 import org.apache.cxf.spring.boot.property.CxfJaxwsSamlRedirectBindingProperty;
+import org.apache.cxf.spring.boot.property.CxfJaxwsSamlReplayCacheProperty;
+import org.apache.cxf.spring.boot.property.CxfJaxwsSamlStateManagerProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
 
@@ -66,6 +68,16 @@ public class CxfJaxrsSamlProperties {
 	 */
 	@NestedConfigurationProperty
 	private CxfJaxwsSamlEHCacheProperty ehcache = new CxfJaxwsSamlEHCacheProperty();
+	/**
+	 * SPStateManager
+	 */
+	@NestedConfigurationProperty
+	private CxfJaxwsSamlStateManagerProperty stateManager = new CxfJaxwsSamlStateManagerProperty();
+	/**
+	 * ReplayCache
+	 */
+	@NestedConfigurationProperty
+	private CxfJaxwsSamlReplayCacheProperty replayCache = new CxfJaxwsSamlReplayCacheProperty();
 	
 
 	public boolean isEnabled() {
@@ -108,4 +120,20 @@ public class CxfJaxrsSamlProperties {
 		this.ehcache = ehcache;
 	}
 
+	public CxfJaxwsSamlStateManagerProperty getStateManager() {
+		return stateManager;
+	}
+
+	public void setStateManager(CxfJaxwsSamlStateManagerProperty stateManager) {
+		this.stateManager = stateManager;
+	}
+
+	public CxfJaxwsSamlReplayCacheProperty getReplayCache() {
+		return replayCache;
+	}
+
+	public void setReplayCache(CxfJaxwsSamlReplayCacheProperty replayCache) {
+		this.replayCache = replayCache;
+	}
+
 }
\ No newline at end of file
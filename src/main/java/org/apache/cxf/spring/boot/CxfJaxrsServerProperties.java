@@ -15,8 +15,11 @@
  */
 package org.apache.cxf.spring.boot;
 
+import java.util.HashMap;
 import java.util.Map;
 
+import org.apache.cxf.spring.boot.jaxrs.routing.ResourceSelection;
+
 public class CxfJaxrsServerProperties {
 
 	private String address;
@@ -24,6 +27,14 @@ public class CxfJaxrsServerProperties {
 	private Map<Object, Object> languageMappings;
 	private Map<Object, Object> extensionMappings;
 	private Map<String, Object> properties;
+	/**
+	 * 资源类的选择方式，默认由CXF逐个匹配正则模板
+	 */
+	private ResourceSelection resourceSelection = ResourceSelection.DEFAULT;
+	/**
+	 * 按发布地址覆盖资源类的选择方式
+	 */
+	private Map<String, ResourceSelection> endpointResourceSelection = new HashMap<String, ResourceSelection>();
 	 
 	public String getAddress() {
 		return address;
@@ -76,5 +87,30 @@ public class CxfJaxrsServerProperties {
 	public void setProperties(Map<String, Object> properties) {
 		this.properties = properties;
 	}
+
+	public ResourceSelection getResourceSelection() {
+		return resourceSelection;
+	}
+
+	public void setResourceSelection(ResourceSelection resourceSelection) {
+		this.resourceSelection = resourceSelection;
+	}
+
+	public Map<String, ResourceSelection> getEndpointResourceSelection() {
+		return endpointResourceSelection;
+	}
+
+	public void setEndpointResourceSelection(Map<String, ResourceSelection> endpointResourceSelection) {
+		this.endpointResourceSelection = endpointResourceSelection;
+	}
+
+	/**
+	 * @param address the address an endpoint is published at
+	 * @return the resource selection of the endpoint
+	 */
+	public ResourceSelection getResourceSelection(String address) {
+		ResourceSelection selection = endpointResourceSelection.get(address);
+		return selection != null ? selection : resourceSelection;
+	}
 	
 }
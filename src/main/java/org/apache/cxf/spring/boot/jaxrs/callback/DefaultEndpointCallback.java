@@ -23,9 +23,11 @@ import org.apache.cxf.ext.logging.LoggingFeature;
 import org.apache.cxf.ext.logging.LoggingInInterceptor;
 import org.apache.cxf.ext.logging.LoggingOutInterceptor;
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
-import org.apache.cxf.jaxrs.swagger.Swagger2Feature;
 import org.apache.cxf.metrics.MetricsFeature;
 import org.apache.cxf.spring.boot.jaxrs.endpoint.EndpointCallback;
+import org.apache.cxf.spring.boot.jaxrs.swagger.CachingSwagger2Feature;
+import org.apache.cxf.spring.boot.jaxrs.swagger.SwaggerDocumentCache;
+import org.apache.cxf.spring.boot.property.Swagger2FeatureProperty;
 import org.apache.cxf.validation.BeanValidationFeature;
 
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
@@ -39,12 +41,26 @@ public class DefaultEndpointCallback implements EndpointCallback {
 	private LoggingFeature loggingFeature;
 	private MetricsFeature metricsFeature;
 	private BeanValidationFeature validationFeature;
+	private JacksonJsonProvider jsonProvider;
+	private Swagger2FeatureProperty swaggerProperty;
+	private SwaggerDocumentCache swaggerDocumentCache;
+	/**
+	 * 流式读取multipart时只使用配置的LoggingFeature，其已关闭multipart日志
+	 */
+	private boolean multipartStreaming;
 
 	public DefaultEndpointCallback(LoggingFeature loggingFeature,
 			MetricsFeature metricsFeature, BeanValidationFeature validationFeature) {
+		this(loggingFeature, metricsFeature, validationFeature, new JacksonJsonProvider());
+	}
+	
+	public DefaultEndpointCallback(LoggingFeature loggingFeature,
+			MetricsFeature metricsFeature, BeanValidationFeature validationFeature, 
+			JacksonJsonProvider jsonProvider) {
 		this.loggingFeature = loggingFeature;
 		this.metricsFeature = metricsFeature;
 		this.validationFeature = validationFeature;
+		this.jsonProvider = jsonProvider;
 	}
 
 	@Override
@@ -52,15 +68,19 @@ public class DefaultEndpointCallback implements EndpointCallback {
 
 		// 3). 添加 Provider，用于支持自动解析各种数据格式、如Json
 		List<Object> providerList = new ArrayList<Object>();
-		providerList.add(new JacksonJsonProvider());
+		providerList.add(jsonProvider);
 		factoryBean.setProviders(providerList); 
 		
-		//new Swagger2Feature()
-		
+		// Swagger2Feature保存每个Endpoint的基础路径等状态，需为每次发布创建新实例
+		if (swaggerProperty != null) {
+			factoryBean.getFeatures().add(CachingSwagger2Feature.create(swaggerProperty, swaggerDocumentCache));
+		}
 		
-		// 添加输入& 输出日志（可选）
-		factoryBean.getInInterceptors().add(new LoggingInInterceptor());
-		factoryBean.getOutInterceptors().add(new LoggingOutInterceptor());
+		// 添加输入& 输出日志（可选）；默认的拦截器会缓存multipart请求体，流式读取时不添加
+		if (!multipartStreaming) {
+			factoryBean.getInInterceptors().add(new LoggingInInterceptor());
+			factoryBean.getOutInterceptors().add(new LoggingOutInterceptor());
+		}
 		
 		factoryBean.getFeatures().addAll(Arrays.asList(metricsFeature, loggingFeature, validationFeature));
 
@@ -78,15 +98,51 @@ public class DefaultEndpointCallback implements EndpointCallback {
 
 		// 3). 添加 Provider，用于支持自动解析各种数据格式、如Json
 		List<Object> providerList = new ArrayList<Object>();
-		providerList.add(new JacksonJsonProvider());
+		providerList.add(jsonProvider);
 		factoryBean.setProviders(providerList); 
 
-		// 添加输入& 输出日志（可选）
-		factoryBean.getInInterceptors().add(new LoggingInInterceptor());
-		factoryBean.getOutInterceptors().add(new LoggingOutInterceptor());
+		if (swaggerProperty != null) {
+			factoryBean.getFeatures().add(CachingSwagger2Feature.create(swaggerProperty, swaggerDocumentCache));
+		}
+
+		// 添加输入& 输出日志（可选）；默认的拦截器会缓存multipart请求体，流式读取时不添加
+		if (!multipartStreaming) {
+			factoryBean.getInInterceptors().add(new LoggingInInterceptor());
+			factoryBean.getOutInterceptors().add(new LoggingOutInterceptor());
+		}
 		
 		factoryBean.getFeatures().addAll(Arrays.asList(metricsFeature, loggingFeature, validationFeature));
 
 	}
 
+	public Swagger2FeatureProperty getSwaggerProperty() {
+		return swaggerProperty;
+	}
+
+	/**
+	 * @param swaggerProperty 非空时为每个发布的Endpoint附加Swagger2Feature
+	 */
+	public void setSwaggerProperty(Swagger2FeatureProperty swaggerProperty) {
+		this.swaggerProperty = swaggerProperty;
+	}
+
+	public boolean isMultipartStreaming() {
+		return multipartStreaming;
+	}
+
+	/**
+	 * @param multipartStreaming 为true时不再添加记录完整请求体的默认日志拦截器
+	 */
+	public void setMultipartStreaming(boolean multipartStreaming) {
+		this.multipartStreaming = multipartStreaming;
+	}
+
+	public SwaggerDocumentCache getSwaggerDocumentCache() {
+		return swaggerDocumentCache;
+	}
+
+	public void setSwaggerDocumentCache(SwaggerDocumentCache swaggerDocumentCache) {
+		this.swaggerDocumentCache = swaggerDocumentCache;
+	}
+
 }
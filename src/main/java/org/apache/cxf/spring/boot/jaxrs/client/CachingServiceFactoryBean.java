@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client;
+
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.jaxrs.JAXRSServiceFactoryBean;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.utils.ResourceUtils;
+
+/**
+ * {@link JAXRSServiceFactoryBean} reusing the resource model built for an
+ * interface instead of parsing its annotations again for every client.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingServiceFactoryBean extends JAXRSServiceFactoryBean {
+
+	private final ConcurrentMap<Class<?>, ClassResourceInfo> resourceModels;
+
+	public CachingServiceFactoryBean(ConcurrentMap<Class<?>, ClassResourceInfo> resourceModels) {
+		this.resourceModels = resourceModels;
+	}
+
+	@Override
+	protected ClassResourceInfo createResourceInfo(Class<?> cls, boolean isRoot) {
+		ClassResourceInfo cri = resourceModels.get(cls);
+		if (cri == null) {
+			// 客户端总是启用静态解析，见JAXRSClientFactoryBean
+			cri = ResourceUtils.createClassResourceInfo(cls, cls, isRoot, true, getBus());
+			if (cri == null) {
+				return null;
+			}
+			ClassResourceInfo existing = resourceModels.putIfAbsent(cls, cri);
+			if (existing != null) {
+				cri = existing;
+			}
+		}
+		classResourceInfos.add(cri);
+		return cri;
+	}
+
+}
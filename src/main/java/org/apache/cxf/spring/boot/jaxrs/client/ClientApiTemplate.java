@@ -0,0 +1,515 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.Feature;
+import org.apache.cxf.jaxrs.client.ClientConfiguration;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.LocalClientState;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.spring.boot.CxfJaxrsClientProperties;
+import org.apache.cxf.spring.boot.jaxrs.client.balancer.AddressResolver;
+import org.apache.cxf.spring.boot.jaxrs.client.balancer.HealthWeightedStrategy;
+import org.apache.cxf.spring.boot.jaxrs.client.balancer.LoadBalancerFeature;
+import org.apache.cxf.spring.boot.jaxrs.client.retry.RetryBudget;
+import org.apache.cxf.spring.boot.jaxrs.client.retry.RetryExecutor;
+import org.apache.cxf.spring.boot.jaxrs.client.retry.RetryInvocationHandler;
+import org.apache.cxf.spring.boot.jaxrs.client.retry.RetryOperation;
+import org.apache.cxf.spring.boot.jaxrs.endpoint.LocalEndpointRegistry;
+import org.apache.cxf.spring.boot.property.ClientRetryProperty;
+import org.apache.cxf.spring.boot.property.CxfJaxrsClientProfileProperty;
+import org.apache.cxf.spring.boot.property.LoadBalanceProperty;
+import org.apache.cxf.spring.boot.property.RetryBudgetProperty;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.HTTPConduitFactory;
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduit;
+import org.apache.cxf.transport.http.asyncclient.AsyncHTTPConduitFactory;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
+import org.apache.cxf.transport.local.LocalConduit;
+import org.apache.cxf.transports.http.configuration.HTTPClientPolicy;
+
+/**
+ * Starter-managed JAX-RS clients, configured by the named profiles under
+ * <code>cxf.jaxrs.client.profiles.*</code>.
+ * <p>
+ * Each profile owns a single prototype {@link WebClient}; every call to
+ * {@link #webClient(String)} hands out a lightweight copy sharing the prototype's
+ * configuration, conduit and providers, so connections are reused through the
+ * template's own pooled async conduit factory instead of being set up per request.
+ * <p>
+ * When a {@link LocalEndpointRegistry} is set, profiles whose address points at
+ * an endpoint published in this application are sent over the
+ * <code>local://</code> transport instead; load-balanced profiles always use
+ * HTTP.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ClientApiTemplate {
+
+	private final ConcurrentMap<String, WebClient> prototypes = new ConcurrentHashMap<String, WebClient>();
+	private Bus bus;
+	private CxfJaxrsClientProperties clientProperties;
+	/**
+	 * 所有客户端共享的Provider，如Json Provider
+	 */
+	private List<Object> providers = new ArrayList<Object>();
+	/**
+	 * 附加到每个客户端上的Feature
+	 */
+	private List<Feature> features = new ArrayList<Feature>();
+	private ClientProxyPool proxyPool;
+	/**
+	 * 启用负载均衡的profile共享同一个策略及其地址健康统计
+	 */
+	private final ConcurrentMap<String, LoadBalancerFeature> balancers = new ConcurrentHashMap<String, LoadBalancerFeature>();
+	private AddressResolver addressResolver;
+	private ScheduledExecutorService refresher;
+	/**
+	 * 所有profile的重试及对冲请求共享同一个预算
+	 */
+	private RetryBudget retryBudget;
+	private RetryExecutor retryExecutor;
+	private ExecutorService hedgingExecutor;
+	private boolean sharedHedgingExecutor;
+	private final ConcurrentMap<String, Object> retryingProxies = new ConcurrentHashMap<String, Object>();
+	private final ConcurrentMap<String, RetryOperation> retryOperations = new ConcurrentHashMap<String, RetryOperation>();
+	/**
+	 * 同进程内发布的Endpoint，不为空时指向这些Endpoint的客户端走local://传输
+	 */
+	private LocalEndpointRegistry localEndpointRegistry;
+	/**
+	 * 仅供本模板创建的客户端使用的连接池，不注册到Bus上，不影响应用中的其他客户端
+	 */
+	private HTTPConduitFactory conduitFactory;
+
+	public ClientApiTemplate(Bus bus, CxfJaxrsClientProperties clientProperties) {
+		this.bus = bus;
+		this.clientProperties = clientProperties;
+	}
+
+	/**
+	 * 获取指定profile的WebClient；WebClient本身非线程安全，每次调用返回新的实例，但共享连接池
+	 * @param profile the profile name
+	 * @return a new WebClient positioned at the profile address
+	 */
+	public WebClient webClient(String profile) {
+		return WebClient.fromClient(getPrototype(profile), true);
+	}
+
+	/**
+	 * 获取指定profile的服务代理；代理线程安全，按(profile, 接口, 地址)缓存在代理池中
+	 * @param profile the profile name
+	 * @param serviceClass the resource interface
+	 * @return the pooled, thread-safe proxy
+	 */
+	public <T> T proxy(String profile, Class<T> serviceClass) {
+		CxfJaxrsClientProfileProperty property = getProfile(profile);
+		if (localEndpointRegistry != null && localEndpointRegistry.isDirectInvocation()
+				&& !property.getLoadBalance().isEnabled()) {
+			// 直接调用同进程内的服务对象：跳过序列化，同时也跳过Provider、过滤器及拦截器
+			T implementor = localEndpointRegistry.getImplementor(getBaseAddress(property), serviceClass);
+			if (implementor != null) {
+				return implementor;
+			}
+		}
+		T proxy = getProxyPool().getProxy(profile, serviceClass, getAddress(property), config -> configure(profile, config, property));
+		if (!isRetryEnabled(property)) {
+			return proxy;
+		}
+		// 幂等方法的重试及对冲：池中代理线程安全，可由多个线程同时发送同一请求
+		String key = profile + '#' + serviceClass.getName();
+		Object retrying = retryingProxies.get(key);
+		if (RetryInvocationHandler.getTarget(retrying) != proxy) {
+			// 池中代理被淘汰重建后，包装随之更换，不再持有已关闭的旧代理
+			retrying = retryingProxies.compute(key, (k, existing) -> RetryInvocationHandler.getTarget(existing) == proxy
+					? existing : RetryInvocationHandler.wrap(serviceClass, proxy, getRetryExecutor(), property.getRetry(),
+							property.getOperations()));
+		}
+		return serviceClass.cast(retrying);
+	}
+
+	/**
+	 * 按profile（或其operations中的指定操作）的重试及对冲设置执行调用，适用于基于WebClient的代码；
+	 * 启用对冲时同一调用可能被并发执行，因此每次执行应使用自己的WebClient
+	 * @param profile the profile name
+	 * @param operation the operation name, looked up in the profile's operations; may be null
+	 * @param call the idempotent call
+	 * @return the result of the first successful attempt
+	 * @throws Exception the failure of the last attempt
+	 */
+	public <T> T execute(String profile, String operation, Callable<T> call) throws Exception {
+		CxfJaxrsClientProfileProperty property = getProfile(profile);
+		ClientRetryProperty retry = operation != null && property.getOperations().containsKey(operation)
+				? property.getOperations().get(operation) : property.getRetry();
+		if (!retry.isEnabled()) {
+			return call.call();
+		}
+		String name = operation != null ? operation : profile;
+		RetryOperation retryOperation = retryOperations.computeIfAbsent(profile + '#' + name,
+				key -> new RetryOperation(name, retry));
+		return getRetryExecutor().execute(retryOperation, call);
+	}
+
+	/**
+	 * 关闭所有客户端
+	 */
+	public void destroy() {
+		for (WebClient client : prototypes.values()) {
+			client.close();
+		}
+		prototypes.clear();
+		if (proxyPool != null) {
+			proxyPool.destroy();
+		}
+		if (refresher != null) {
+			refresher.shutdownNow();
+		}
+		balancers.clear();
+		if (hedgingExecutor != null && !sharedHedgingExecutor) {
+			hedgingExecutor.shutdownNow();
+		}
+		retryingProxies.clear();
+		retryOperations.clear();
+	}
+
+	/**
+	 * 获取指定profile的负载均衡策略，可用于查看各地址的健康统计
+	 * @param profile the profile name
+	 * @return the strategy, or null when the profile is not load balanced
+	 */
+	public HealthWeightedStrategy getLoadBalancer(String profile) {
+		CxfJaxrsClientProfileProperty property = getProfile(profile);
+		return property.getLoadBalance().isEnabled() ? getBalancer(profile, property).getHealthWeightedStrategy() : null;
+	}
+
+	protected WebClient getPrototype(String profile) {
+		WebClient prototype = prototypes.get(profile);
+		if (prototype == null) {
+			prototype = createPrototype(profile, getProfile(profile));
+			WebClient existing = prototypes.putIfAbsent(profile, prototype);
+			if (existing != null) {
+				prototype.close();
+				prototype = existing;
+			}
+		}
+		return prototype;
+	}
+
+	protected CxfJaxrsClientProfileProperty getProfile(String profile) {
+		CxfJaxrsClientProfileProperty property = clientProperties.getProfiles().get(profile);
+		if (property == null || StringUtils.isBlank(getBaseAddress(property))) {
+			throw new IllegalArgumentException("No JAX-RS client profile (or no address) configured with name '" + profile + "'.");
+		}
+		return property;
+	}
+
+	protected WebClient createPrototype(String profile, CxfJaxrsClientProfileProperty property) {
+		String address = getAddress(property);
+		JAXRSClientFactoryBean factoryBean = newFactoryBean(address);
+		// 初始状态使后续fromClient无需再次创建Endpoint和Conduit
+		factoryBean.setInitialState(new LocalClientState(URI.create(address)));
+		WebClient prototype = factoryBean.createWebClient();
+		configure(profile, WebClient.getConfig(prototype), property);
+		if (StringUtils.isNotBlank(property.getAccept())) {
+			prototype.accept(property.getAccept());
+		}
+		if (StringUtils.isNotBlank(property.getContentType())) {
+			prototype.type(property.getContentType());
+		}
+		for (Map.Entry<String, String> entry : property.getHeaders().entrySet()) {
+			prototype.header(entry.getKey(), entry.getValue());
+		}
+		return prototype;
+	}
+
+	/**
+	 * 配置的地址；未配置时负载均衡的profile以第一个候选地址作为初始地址，不修改共享的配置对象
+	 * @return the configured address, or the first load-balanced address when none is configured
+	 */
+	protected String getBaseAddress(CxfJaxrsClientProfileProperty property) {
+		if (StringUtils.isBlank(property.getAddress()) && property.getLoadBalance().isEnabled()
+				&& !property.getLoadBalance().getAddresses().isEmpty()) {
+			return property.getLoadBalance().getAddresses().get(0);
+		}
+		return property.getAddress();
+	}
+
+	/**
+	 * @return the local:// address when the profile targets a co-located endpoint, the configured address otherwise
+	 */
+	protected String getAddress(CxfJaxrsClientProfileProperty property) {
+		if (localEndpointRegistry == null || property.getLoadBalance().isEnabled()) {
+			return getBaseAddress(property);
+		}
+		String localAddress = localEndpointRegistry.resolve(getBaseAddress(property));
+		return localAddress != null ? localAddress : getBaseAddress(property);
+	}
+
+	protected JAXRSClientFactoryBean newFactoryBean(String address) {
+		JAXRSClientFactoryBean factoryBean = new JAXRSClientFactoryBean();
+		factoryBean.setAddress(address);
+		factoryBean.setBus(bus);
+		factoryBean.setProviders(providers);
+		factoryBean.setFeatures(features);
+		return factoryBean;
+	}
+
+	protected void configure(String profile, ClientConfiguration config, CxfJaxrsClientProfileProperty property) {
+
+		config.getRequestContext().putAll(property.getProperties());
+		if (conduitFactory != null) {
+			// 须在首次创建Conduit之前设置；HTTPTransportFactory优先使用Endpoint上的工厂，负载均衡切换地址时同样适用
+			config.getEndpoint().getEndpointInfo().setProperty(HTTPConduitFactory.class.getName(), conduitFactory);
+		}
+		if (localEndpointRegistry != null && !property.getLoadBalance().isEnabled()
+				&& config.getConduit() instanceof LocalConduit) {
+			// 同一线程内直接分发，省去管道及线程切换，消息仍完整经过序列化
+			config.getRequestContext().put(LocalConduit.DIRECT_DISPATCH, localEndpointRegistry.isDirectDispatch());
+			return;
+		}
+		if (property.isAsync()) {
+			// 通过共享的AsyncHTTPConduitFactory发送同步请求，以复用连接池
+			config.getRequestContext().put(AsyncHTTPConduit.USE_ASYNC, Boolean.TRUE);
+		}
+
+		if (property.getLoadBalance().isEnabled()) {
+			// 替换ConduitSelector；各地址的Conduit在首次选中时应用相同的配置
+			getBalancer(profile, property).initialize(config, bus);
+		}
+
+		HTTPConduit conduit = config.getHttpConduit();
+		if (conduit != null) {
+			configure(conduit, property);
+		}
+	}
+
+	protected void configure(HTTPConduit conduit, CxfJaxrsClientProfileProperty property) {
+		HTTPClientPolicy policy = conduit.getClient() != null ? conduit.getClient() : new HTTPClientPolicy();
+		policy.setConnectionTimeout(property.getConnectionTimeout());
+		policy.setReceiveTimeout(property.getReceiveTimeout());
+		policy.setAllowChunking(property.isAllowChunking());
+		policy.setConnection(property.isKeepAlive() ? ConnectionType.KEEP_ALIVE : ConnectionType.CLOSE);
+		conduit.setClient(policy);
+	}
+
+	protected LoadBalancerFeature getBalancer(String profile, CxfJaxrsClientProfileProperty property) {
+		return balancers.computeIfAbsent(profile, key -> createBalancer(key, property));
+	}
+
+	protected LoadBalancerFeature createBalancer(String profile, CxfJaxrsClientProfileProperty property) {
+
+		LoadBalanceProperty balance = property.getLoadBalance();
+		List<String> addresses = balance.getAddresses().isEmpty() && addressResolver != null
+				? addressResolver.resolve(profile) : balance.getAddresses();
+
+		HealthWeightedStrategy strategy = new HealthWeightedStrategy(addresses);
+		strategy.setMode(balance.getMode());
+		strategy.setDecayTime(balance.getDecayTime(), TimeUnit.MILLISECONDS);
+		strategy.setConsecutiveFailures(balance.getConsecutiveFailures());
+		strategy.setBaseEjectionTime(balance.getBaseEjectionTime(), TimeUnit.MILLISECONDS);
+		strategy.setMaxEjectionTime(balance.getMaxEjectionTime(), TimeUnit.MILLISECONDS);
+		strategy.setMaxEjectionPercent(balance.getMaxEjectionPercent());
+
+		LoadBalancerFeature feature = new LoadBalancerFeature(getBaseAddress(property), strategy);
+		feature.setFailover(balance.isFailover());
+		feature.setConduitConfigurer(conduit -> configure(conduit, property));
+
+		if (addressResolver != null && balance.getRefreshInterval() > 0) {
+			getRefresher().scheduleWithFixedDelay(() -> refresh(profile, strategy), balance.getRefreshInterval(),
+					balance.getRefreshInterval(), TimeUnit.MILLISECONDS);
+		}
+		return feature;
+	}
+
+	protected void refresh(String profile, HealthWeightedStrategy strategy) {
+		try {
+			List<String> addresses = addressResolver.resolve(profile);
+			if (addresses != null && !addresses.isEmpty() && !addresses.equals(strategy.getAddresses())) {
+				strategy.setAlternateAddresses(addresses);
+			}
+		} catch (RuntimeException e) {
+			// 注册中心暂不可用时保留当前地址列表
+		}
+	}
+
+	protected boolean isRetryEnabled(CxfJaxrsClientProfileProperty property) {
+		if (property.getRetry().isEnabled()) {
+			return true;
+		}
+		for (ClientRetryProperty operation : property.getOperations().values()) {
+			if (operation.isEnabled()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected synchronized RetryExecutor getRetryExecutor() {
+		if (retryExecutor == null) {
+			RetryBudgetProperty budget = clientProperties.getRetryBudget();
+			if (retryBudget == null) {
+				retryBudget = new RetryBudget(budget.getRatio(), budget.getMinRetriesPerSecond());
+			}
+			if (hedgingExecutor == null) {
+				hedgingExecutor = newHedgingExecutor(budget);
+			}
+			retryExecutor = new RetryExecutor(retryBudget, hedgingExecutor);
+		}
+		return retryExecutor;
+	}
+
+	private ExecutorService newHedgingExecutor(RetryBudgetProperty budget) {
+		AtomicInteger counter = new AtomicInteger();
+		// 无队列：线程耗尽时在调用线程上执行，即不再对冲
+		return new ThreadPoolExecutor(0, Math.max(1, budget.getHedgingThreads()), 60L, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), runnable -> {
+					Thread thread = new Thread(runnable, "cxf-jaxrs-client-hedging-" + counter.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	private synchronized ScheduledExecutorService getRefresher() {
+		if (refresher == null) {
+			refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "cxf-jaxrs-client-address-refresher");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return refresher;
+	}
+
+	public ClientProxyPool getProxyPool() {
+		if (proxyPool == null) {
+			ClientProxyPool pool = new ClientProxyPool(bus);
+			pool.setProviders(providers);
+			pool.setFeatures(features);
+			proxyPool = pool;
+		}
+		return proxyPool;
+	}
+
+	public void setProxyPool(ClientProxyPool proxyPool) {
+		this.proxyPool = proxyPool;
+	}
+
+	public ExecutorService getHedgingExecutor() {
+		return hedgingExecutor;
+	}
+
+	/**
+	 * 设置对冲请求使用的线程池；须在首次调用前设置，且其生命周期由调用方管理。
+	 * 对冲线程上只带有调用线程的截止时间及MDC，如需Spring Security上下文，
+	 * 可传入 <code>DelegatingSecurityContextExecutorService</code> 包装后的线程池。
+	 * @param hedgingExecutor the executor running hedged attempts
+	 */
+	public synchronized void setHedgingExecutor(ExecutorService hedgingExecutor) {
+		if (retryExecutor != null) {
+			throw new IllegalStateException("The hedging executor must be set before the first call");
+		}
+		this.hedgingExecutor = hedgingExecutor;
+		this.sharedHedgingExecutor = hedgingExecutor != null;
+	}
+
+	/**
+	 * @return the shared retry budget, or null before the first retrying call
+	 */
+	public RetryBudget getRetryBudget() {
+		return retryBudget;
+	}
+
+	/**
+	 * 替换共享的重试预算，须在首次重试调用之前设置
+	 * @param retryBudget the retry budget
+	 */
+	public synchronized void setRetryBudget(RetryBudget retryBudget) {
+		this.retryBudget = retryBudget;
+	}
+
+	public AddressResolver getAddressResolver() {
+		return addressResolver;
+	}
+
+	public void setAddressResolver(AddressResolver addressResolver) {
+		this.addressResolver = addressResolver;
+	}
+
+	public LocalEndpointRegistry getLocalEndpointRegistry() {
+		return localEndpointRegistry;
+	}
+
+	public void setLocalEndpointRegistry(LocalEndpointRegistry localEndpointRegistry) {
+		this.localEndpointRegistry = localEndpointRegistry;
+	}
+
+	public HTTPConduitFactory getConduitFactory() {
+		return conduitFactory;
+	}
+
+	/**
+	 * 设置本模板客户端专用的HTTP Conduit工厂，须在首次创建客户端之前设置
+	 * @param conduitFactory the conduit factory, typically a pooled {@link AsyncHTTPConduitFactory}
+	 */
+	public void setConduitFactory(HTTPConduitFactory conduitFactory) {
+		this.conduitFactory = conduitFactory;
+	}
+
+	public Bus getBus() {
+		return bus;
+	}
+
+	public void setBus(Bus bus) {
+		this.bus = bus;
+	}
+
+	public CxfJaxrsClientProperties getClientProperties() {
+		return clientProperties;
+	}
+
+	public List<Object> getProviders() {
+		return providers;
+	}
+
+	public void setProviders(List<Object> providers) {
+		this.providers = providers;
+	}
+
+	public List<Feature> getFeatures() {
+		return features;
+	}
+
+	public void setFeatures(List<Feature> features) {
+		this.features = features;
+	}
+
+}
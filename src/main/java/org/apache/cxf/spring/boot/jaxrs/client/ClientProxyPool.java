@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.Feature;
+import org.apache.cxf.jaxrs.client.ClientConfiguration;
+import org.apache.cxf.jaxrs.client.JAXRSClientFactoryBean;
+import org.apache.cxf.jaxrs.client.WebClient;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.spring.boot.api.proxy.IProxyPool;
+
+/**
+ * Pool of thread-safe JAX-RS client proxies, one per (profile, interface, base
+ * address). The resource model of every interface is parsed once and shared by
+ * all of its proxies, and the number of pooled proxies is bounded: once full,
+ * the least recently used proxy is removed from the pool. Callers may still
+ * hold an evicted proxy, so it is left open and reclaimed by the garbage
+ * collector; only the proxies still pooled are closed by {@link #destroy()}.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ClientProxyPool implements IProxyPool {
+
+	public static final int DEFAULT_MAX_PROXIES = 1024;
+
+	private final ConcurrentMap<Class<?>, ClassResourceInfo> resourceModels = new ConcurrentHashMap<Class<?>, ClassResourceInfo>();
+	private final ConcurrentMap<ProxyKey, PooledProxy> proxies = new ConcurrentHashMap<ProxyKey, PooledProxy>();
+	private Bus bus;
+	private int maxProxies = DEFAULT_MAX_PROXIES;
+	/**
+	 * Time a thread keeps its request state on a thread-safe proxy, in seconds
+	 */
+	private long secondsToKeepState;
+	private List<Object> providers = new ArrayList<Object>();
+	private List<Feature> features = new ArrayList<Feature>();
+	
+	public ClientProxyPool(Bus bus) {
+		this.bus = bus;
+	}
+
+	/**
+	 * @param target a {@link ProxyKey} identifying the interface and base address
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T getProxy(Object target) {
+		if (!(target instanceof ProxyKey)) {
+			throw new IllegalArgumentException("Proxy target must be a " + ProxyKey.class.getName() + ", got " + target);
+		}
+		ProxyKey key = (ProxyKey) target;
+		return (T) getProxy(key, null);
+	}
+	
+	public <T> T getProxy(Class<T> serviceClass, String address) {
+		return serviceClass.cast(getProxy(new ProxyKey(serviceClass, address), null));
+	}
+	
+	/**
+	 * @param configurer applied to the client configuration when the proxy is first created
+	 */
+	public <T> T getProxy(Class<T> serviceClass, String address, Consumer<ClientConfiguration> configurer) {
+		return serviceClass.cast(getProxy(new ProxyKey(serviceClass, address), configurer));
+	}
+
+	/**
+	 * @param profile the client profile the proxy is configured for; proxies of different profiles are never shared
+	 * @param configurer applied to the client configuration when the proxy is first created
+	 */
+	public <T> T getProxy(String profile, Class<T> serviceClass, String address, Consumer<ClientConfiguration> configurer) {
+		return serviceClass.cast(getProxy(new ProxyKey(profile, serviceClass, address), configurer));
+	}
+
+	protected Object getProxy(ProxyKey key, Consumer<ClientConfiguration> configurer) {
+		PooledProxy pooled = proxies.get(key);
+		if (pooled == null) {
+			// 容量检查、淘汰与插入须原子完成，否则并发创建会超出maxProxies
+			synchronized (proxies) {
+				pooled = proxies.get(key);
+				if (pooled == null) {
+					while (!proxies.isEmpty() && proxies.size() >= maxProxies) {
+						evictEldest();
+					}
+					pooled = new PooledProxy(createProxy(key, configurer));
+					proxies.put(key, pooled);
+				}
+			}
+		}
+		pooled.lastAccess = System.nanoTime();
+		return pooled.proxy;
+	}
+	
+	protected Object createProxy(ProxyKey key, Consumer<ClientConfiguration> configurer) {
+		JAXRSClientFactoryBean factoryBean = new JAXRSClientFactoryBean(new CachingServiceFactoryBean(resourceModels));
+		factoryBean.setAddress(key.getAddress());
+		factoryBean.setBus(bus);
+		factoryBean.setServiceClass(key.getServiceClass());
+		factoryBean.setProviders(providers);
+		factoryBean.setFeatures(features);
+		factoryBean.setThreadSafe(true);
+		if (secondsToKeepState > 0) {
+			factoryBean.setSecondsToKeepState(secondsToKeepState);
+		}
+		Object proxy = factoryBean.create(key.getServiceClass());
+		if (configurer != null) {
+			configurer.accept(WebClient.getConfig(proxy));
+		}
+		return proxy;
+	}
+	
+	private void evictEldest() {
+		Map.Entry<ProxyKey, PooledProxy> eldest = null;
+		for (Map.Entry<ProxyKey, PooledProxy> entry : proxies.entrySet()) {
+			if (eldest == null || entry.getValue().lastAccess < eldest.getValue().lastAccess) {
+				eldest = entry;
+			}
+		}
+		if (eldest != null) {
+			// 调用方可能仍持有该代理，不能关闭
+			proxies.remove(eldest.getKey(), eldest.getValue());
+		}
+	}
+	
+	/**
+	 * 关闭并清空所有代理
+	 */
+	public void destroy() {
+		synchronized (proxies) {
+			for (PooledProxy pooled : proxies.values()) {
+				WebClient.client(pooled.proxy).close();
+			}
+			proxies.clear();
+		}
+		resourceModels.clear();
+	}
+	
+	public int size() {
+		return proxies.size();
+	}
+
+	public Bus getBus() {
+		return bus;
+	}
+
+	public void setBus(Bus bus) {
+		this.bus = bus;
+	}
+
+	public int getMaxProxies() {
+		return maxProxies;
+	}
+
+	public void setMaxProxies(int maxProxies) {
+		this.maxProxies = maxProxies;
+	}
+
+	public long getSecondsToKeepState() {
+		return secondsToKeepState;
+	}
+
+	public void setSecondsToKeepState(long secondsToKeepState) {
+		this.secondsToKeepState = secondsToKeepState;
+	}
+
+	public List<Object> getProviders() {
+		return providers;
+	}
+
+	public void setProviders(List<Object> providers) {
+		this.providers = providers;
+	}
+
+	public List<Feature> getFeatures() {
+		return features;
+	}
+
+	public void setFeatures(List<Feature> features) {
+		this.features = features;
+	}
+
+	private static class PooledProxy {
+		
+		private final Object proxy;
+		private volatile long lastAccess;
+
+		PooledProxy(Object proxy) {
+			this.proxy = proxy;
+		}
+		
+	}
+	
+	public static final class ProxyKey {
+		
+		private final String profile;
+		private final Class<?> serviceClass;
+		private final String address;
+		private final int hash;
+		
+		public ProxyKey(Class<?> serviceClass, String address) {
+			this(null, serviceClass, address);
+		}
+		
+		public ProxyKey(String profile, Class<?> serviceClass, String address) {
+			this.profile = profile;
+			this.serviceClass = serviceClass;
+			this.address = address;
+			this.hash = 31 * (31 * Objects.hashCode(profile) + serviceClass.hashCode()) + address.hashCode();
+		}
+
+		public String getProfile() {
+			return profile;
+		}
+
+		public Class<?> getServiceClass() {
+			return serviceClass;
+		}
+
+		public String getAddress() {
+			return address;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof ProxyKey)) {
+				return false;
+			}
+			ProxyKey other = (ProxyKey) obj;
+			return serviceClass == other.serviceClass && address.equals(other.address)
+					&& Objects.equals(profile, other.profile);
+		}
+		
+		@Override
+		public String toString() {
+			return (profile != null ? profile + ":" : "") + serviceClass.getName() + "@" + address;
+		}
+		
+	}
+
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.balancer;
+
+import java.util.List;
+
+/**
+ * Source of the current address list of a load balanced client profile, e.g. a
+ * service registry; polled every <code>load-balance.refresh-interval</code>.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface AddressResolver {
+
+	/**
+	 * @param profile the client profile name
+	 * @return the addresses of the profile; <code>null</code> or empty keeps the current list
+	 */
+	List<String> resolve(String profile);
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.balancer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.apache.cxf.clustering.AbstractStaticFailoverStrategy;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.message.Exchange;
+
+/**
+ * Failover/distribution strategy picking the healthiest address instead of the
+ * next one in a round-robin or random order.
+ * <p>
+ * Every address keeps passive statistics fed by
+ * {@link HealthWeightedTargetSelector}: requests in flight, a peak EWMA of the
+ * latency and the consecutive failures (I/O errors and 5xx). An address failing
+ * <code>consecutiveFailures</code> times in a row is ejected for
+ * <code>baseEjectionTime</code> (growing with each consecutive ejection up to
+ * <code>maxEjectionTime</code>), never ejecting more than
+ * <code>maxEjectionPercent</code> of the addresses. When every address is
+ * ejected, all of them are candidates again.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class HealthWeightedStrategy extends AbstractStaticFailoverStrategy {
+
+	/**
+	 * 负载分发使用的地址列表，由Selector缓存引用，刷新时原地更新
+	 */
+	private final CopyOnWriteArrayList<String> addresses = new CopyOnWriteArrayList<String>();
+	private final ConcurrentMap<String, TargetStats> stats = new ConcurrentHashMap<String, TargetStats>();
+
+	private LoadBalanceMode mode = LoadBalanceMode.LEAST_OUTSTANDING;
+	private long decayTime = TimeUnit.SECONDS.toNanos(10);
+	private int consecutiveFailures = 5;
+	private long baseEjectionTime = TimeUnit.SECONDS.toNanos(30);
+	private long maxEjectionTime = TimeUnit.MINUTES.toNanos(5);
+	private int maxEjectionPercent = 50;
+
+	public HealthWeightedStrategy(List<String> addresses) {
+		setAlternateAddresses(addresses);
+	}
+
+	/**
+	 * Replaces the balanced addresses; statistics of the addresses still present are kept.
+	 */
+	@Override
+	public synchronized void setAlternateAddresses(List<String> alternateAddresses) {
+		List<String> updated = alternateAddresses == null ? Collections.<String>emptyList() : alternateAddresses;
+		super.setAlternateAddresses(new ArrayList<String>(updated));
+		addresses.addAllAbsent(updated);
+		addresses.retainAll(updated);
+		stats.keySet().retainAll(updated);
+	}
+
+	/**
+	 * The selector asks for the distribution list once, with a <code>null</code>
+	 * exchange, and keeps it: hand out the live list so that refreshes apply.
+	 * Failover asks per exchange and consumes its copy.
+	 */
+	@Override
+	public List<String> getAlternateAddresses(Exchange exchange) {
+		return exchange == null ? addresses : new ArrayList<String>(addresses);
+	}
+
+	@Override
+	public String selectAlternateAddress(List<String> candidates) {
+		String selected = choose(candidates, a -> a);
+		// 故障转移时不再重试同一地址；分发列表保持不变
+		if (selected != null && candidates != addresses) {
+			candidates.remove(selected);
+		}
+		return selected;
+	}
+
+	@Override
+	protected <T> T getNextAlternate(List<T> alternates) {
+		T selected = choose(alternates, t -> t instanceof Endpoint ? ((Endpoint) t).getEndpointInfo().getAddress() : String.valueOf(t));
+		if (selected != null) {
+			alternates.remove(selected);
+		}
+		return selected;
+	}
+
+	protected <T> T choose(List<T> candidates, Function<T, String> addressOf) {
+		int size = candidates.size();
+		if (size == 0) {
+			return null;
+		}
+		long now = System.nanoTime();
+		// 随机起点：分数相同时避免总是选中第一个
+		int start = size == 1 ? 0 : ThreadLocalRandom.current().nextInt(size);
+		T best = null;
+		double bestScore = Double.MAX_VALUE;
+		for (int i = 0; i < size; i++) {
+			T candidate = candidates.get((start + i) % size);
+			TargetStats target = getStats(addressOf.apply(candidate));
+			if (target.isEjected(now)) {
+				continue;
+			}
+			double score = target.score(mode);
+			if (score < bestScore) {
+				best = candidate;
+				bestScore = score;
+			}
+		}
+		// 全部被摘除时退化为在所有地址中选择
+		return best != null ? best : candidates.get(start);
+	}
+
+	void begin(String address) {
+		getStats(address).begin();
+	}
+
+	void complete(String address, long latency, boolean success) {
+		TargetStats target = stats.get(address);
+		if (target == null) {
+			// 地址已在刷新中移除
+			return;
+		}
+		long now = System.nanoTime();
+		int failures = target.end(latency, now, success, decayTime);
+		if (consecutiveFailures > 0 && failures >= consecutiveFailures && canEject(now)) {
+			target.eject(now, baseEjectionTime, maxEjectionTime);
+		}
+	}
+
+	private boolean canEject(long now) {
+		int ejected = 0;
+		for (TargetStats target : stats.values()) {
+			if (target.isEjected(now)) {
+				ejected++;
+			}
+		}
+		return (ejected + 1) * 100 <= addresses.size() * maxEjectionPercent;
+	}
+
+	public TargetStats getStats(String address) {
+		return stats.computeIfAbsent(address, TargetStats::new);
+	}
+
+	public Collection<TargetStats> getStats() {
+		return Collections.unmodifiableCollection(stats.values());
+	}
+
+	public List<String> getAddresses() {
+		return Collections.unmodifiableList(addresses);
+	}
+
+	public LoadBalanceMode getMode() {
+		return mode;
+	}
+
+	public void setMode(LoadBalanceMode mode) {
+		this.mode = mode;
+	}
+
+	public void setDecayTime(long decayTime, TimeUnit unit) {
+		this.decayTime = Math.max(1, unit.toNanos(decayTime));
+	}
+
+	public void setConsecutiveFailures(int consecutiveFailures) {
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	public void setBaseEjectionTime(long baseEjectionTime, TimeUnit unit) {
+		this.baseEjectionTime = unit.toNanos(baseEjectionTime);
+	}
+
+	public void setMaxEjectionTime(long maxEjectionTime, TimeUnit unit) {
+		this.maxEjectionTime = unit.toNanos(maxEjectionTime);
+	}
+
+	public void setMaxEjectionPercent(int maxEjectionPercent) {
+		this.maxEjectionPercent = maxEjectionPercent;
+	}
+
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.balancer;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.function.Consumer;
+
+import org.apache.cxf.clustering.LoadDistributorTargetSelector;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.http.HTTPConduit;
+
+/**
+ * {@link LoadDistributorTargetSelector} reporting the start and the outcome of
+ * every attempt to the {@link HealthWeightedStrategy}, so that the next
+ * selection sees the requests in flight, the latency and the failures.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class HealthWeightedTargetSelector extends LoadDistributorTargetSelector {
+
+	private static final String ATTEMPT = HealthWeightedTargetSelector.class.getName() + ".ATTEMPT";
+
+	private final HealthWeightedStrategy strategy;
+	/**
+	 * 每个地址对应一个Conduit，新建的Conduit需要与客户端相同的超时等配置
+	 */
+	private final Set<Conduit> configured = Collections.newSetFromMap(new WeakHashMap<Conduit, Boolean>());
+	private Consumer<HTTPConduit> conduitConfigurer;
+
+	public HealthWeightedTargetSelector(String clientBootstrapAddress, HealthWeightedStrategy strategy) {
+		super(clientBootstrapAddress);
+		this.strategy = strategy;
+		setStrategy(strategy);
+	}
+
+	@Override
+	public synchronized Conduit selectConduit(Message message) {
+		Conduit conduit = super.selectConduit(message);
+		Exchange exchange = message.getExchange();
+		Attempt attempt = (Attempt) exchange.get(ATTEMPT);
+		// ClientConfiguration.getConduit()会用临时Exchange探测Conduit，只统计真实的请求消息
+		if (message == exchange.getOutMessage() && (attempt == null || attempt.message != message)) {
+			// 首次为该消息选择：父类刚把选中的地址写入Endpoint
+			String address = getEndpoint().getEndpointInfo().getAddress();
+			strategy.begin(address);
+			exchange.put(ATTEMPT, new Attempt(message, address, System.nanoTime()));
+		}
+		if (conduitConfigurer != null && conduit instanceof HTTPConduit && configured.add(conduit)) {
+			conduitConfigurer.accept((HTTPConduit) conduit);
+		}
+		return conduit;
+	}
+
+	@Override
+	public void complete(Exchange exchange) {
+		Attempt attempt = (Attempt) exchange.remove(ATTEMPT);
+		if (attempt != null) {
+			strategy.complete(attempt.address, System.nanoTime() - attempt.start, !isFailed(exchange));
+		}
+		// 可能触发故障转移，重新进入selectConduit
+		super.complete(exchange);
+	}
+
+	/**
+	 * @return whether the attempt failed at the transport level or with a 5xx status other than 501
+	 */
+	protected boolean isFailed(Exchange exchange) {
+		Message outMessage = exchange.getOutMessage();
+		if (outMessage != null && outMessage.getContent(Exception.class) != null) {
+			return true;
+		}
+		Message inMessage = exchange.getInMessage();
+		if (inMessage == null) {
+			inMessage = exchange.getInFaultMessage();
+		}
+		if (inMessage == null) {
+			return false;
+		}
+		if (inMessage.getContent(Exception.class) != null) {
+			return true;
+		}
+		Object code = inMessage.get(Message.RESPONSE_CODE);
+		int status = code instanceof Integer ? (Integer) code : 200;
+		return status >= 500 && status != 501;
+	}
+
+	public synchronized void setConduitConfigurer(Consumer<HTTPConduit> conduitConfigurer) {
+		this.conduitConfigurer = conduitConfigurer;
+	}
+
+	public HealthWeightedStrategy getHealthWeightedStrategy() {
+		return strategy;
+	}
+
+	private static final class Attempt {
+
+		private final Message message;
+		private final String address;
+		private final long start;
+
+		Attempt(Message message, String address, long start) {
+			this.message = message;
+			this.address = address;
+			this.start = start;
+		}
+
+	}
+
+}
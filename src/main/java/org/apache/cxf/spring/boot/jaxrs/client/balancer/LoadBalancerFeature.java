@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.balancer;
+
+import java.util.function.Consumer;
+
+import org.apache.cxf.clustering.FailoverTargetSelector;
+import org.apache.cxf.clustering.LoadDistributorFeature;
+import org.apache.cxf.transport.http.HTTPConduit;
+
+/**
+ * {@link LoadDistributorFeature} distributing the requests of a client over the
+ * addresses of a shared {@link HealthWeightedStrategy}. Every client gets its own
+ * selector, all of them feed the same per-address statistics.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LoadBalancerFeature extends LoadDistributorFeature {
+
+	private final HealthWeightedStrategy strategy;
+	/**
+	 * 连接失败时是否转移到其他地址重试
+	 */
+	private boolean failover = true;
+	/**
+	 * 应用于每个地址的Conduit，如超时设置
+	 */
+	private Consumer<HTTPConduit> conduitConfigurer;
+
+	public LoadBalancerFeature(String clientBootstrapAddress, HealthWeightedStrategy strategy) {
+		super(clientBootstrapAddress);
+		this.strategy = strategy;
+		setStrategy(strategy);
+	}
+
+	@Override
+	public FailoverTargetSelector getTargetSelector() {
+		HealthWeightedTargetSelector selector = new HealthWeightedTargetSelector(getClientBootstrapAddress(), strategy);
+		selector.setFailover(failover);
+		selector.setConduitConfigurer(conduitConfigurer);
+		return selector;
+	}
+
+	public HealthWeightedStrategy getHealthWeightedStrategy() {
+		return strategy;
+	}
+
+	public boolean isFailover() {
+		return failover;
+	}
+
+	public void setFailover(boolean failover) {
+		this.failover = failover;
+	}
+
+	public Consumer<HTTPConduit> getConduitConfigurer() {
+		return conduitConfigurer;
+	}
+
+	public void setConduitConfigurer(Consumer<HTTPConduit> conduitConfigurer) {
+		this.conduitConfigurer = conduitConfigurer;
+	}
+
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.balancer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Passive health and load statistics of one balanced address.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TargetStats {
+
+	private final String address;
+	private final AtomicInteger outstanding = new AtomicInteger();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+	private final LongAdder ejections = new LongAdder();
+
+	/**
+	 * Peak EWMA of the latency, in nanoseconds
+	 */
+	private volatile double ewma;
+	private long lastSample;
+	private int consecutiveFailures;
+	private int consecutiveEjections;
+	private volatile boolean ejected;
+	private volatile long ejectedUntil;
+
+	TargetStats(String address) {
+		this.address = address;
+	}
+
+	void begin() {
+		outstanding.incrementAndGet();
+		requests.increment();
+	}
+
+	/**
+	 * @return the consecutive failures after this call, 0 on success
+	 */
+	synchronized int end(long latency, long now, boolean success, long decay) {
+		outstanding.decrementAndGet();
+		// 延迟升高时立即跟随（peak），下降时按时间衰减平滑
+		if (ewma == 0d || latency > ewma) {
+			ewma = latency;
+		} else {
+			double weight = Math.exp(-(double) (now - lastSample) / decay);
+			ewma = ewma * weight + latency * (1d - weight);
+		}
+		lastSample = now;
+		if (success) {
+			consecutiveFailures = 0;
+			consecutiveEjections = 0;
+			return 0;
+		}
+		failures.increment();
+		return ++consecutiveFailures;
+	}
+
+	synchronized void eject(long now, long baseEjectionTime, long maxEjectionTime) {
+		consecutiveEjections++;
+		consecutiveFailures = 0;
+		ejectedUntil = now + Math.min(baseEjectionTime * consecutiveEjections, maxEjectionTime);
+		ejected = true;
+		ejections.increment();
+	}
+
+	public boolean isEjected(long now) {
+		return ejected && ejectedUntil - now > 0;
+	}
+
+	double score(LoadBalanceMode mode) {
+		int inflight = outstanding.get();
+		if (mode == LoadBalanceMode.EWMA) {
+			return (ewma + 1d) * (inflight + 1);
+		}
+		return inflight;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public int getOutstanding() {
+		return outstanding.get();
+	}
+
+	public long getRequestCount() {
+		return requests.sum();
+	}
+
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+	public long getEjectionCount() {
+		return ejections.sum();
+	}
+
+	public double getEwmaMillis() {
+		return ewma / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	public boolean isEjected() {
+		return isEjected(System.nanoTime());
+	}
+
+	@Override
+	public String toString() {
+		return "TargetStats[" + address + ", outstanding=" + getOutstanding() + ", ewma=" + getEwmaMillis()
+				+ "ms, requests=" + getRequestCount() + ", failures=" + getFailureCount() + ", ejected=" + isEjected() + "]";
+	}
+
+}
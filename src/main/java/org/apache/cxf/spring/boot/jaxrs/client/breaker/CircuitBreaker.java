@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.spring.boot.property.CircuitBreakerProperty;
+
+/**
+ * Circuit breaker of one base address.
+ * <ul>
+ * <li>CLOSED: calls pass; once the window holds <code>minimumCalls</code>
+ * calls and the failure or slow-call rate reaches its threshold, the breaker
+ * opens;</li>
+ * <li>OPEN: calls fail fast for <code>waitDurationInOpenState</code>;</li>
+ * <li>HALF_OPEN: <code>permittedCallsInHalfOpenState</code> trial calls pass;
+ * their rates decide whether the breaker closes again or reopens. Trial calls
+ * that have not all reported after <code>maxWaitDurationInHalfOpenState</code>
+ * reopen the breaker.</li>
+ * </ul>
+ * Every transition starts a new generation; a permit carries the generation it
+ * was granted in, and outcomes reported for an older generation are ignored.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreaker {
+
+	/**
+	 * Returned by {@link #tryAcquirePermission()} when the call must fail fast
+	 */
+	public static final long NOT_PERMITTED = -1L;
+
+	private final String address;
+	private final CircuitBreakerProperty property;
+	private final long slowCallNanos;
+	private final long waitNanos;
+	private final long halfOpenWaitNanos;
+	private final AtomicReference<CircuitState> state = new AtomicReference<CircuitState>(CircuitState.CLOSED);
+	private final AtomicLong generation = new AtomicLong();
+	private final AtomicInteger halfOpenPermits = new AtomicInteger();
+	private volatile SlidingWindow window;
+	private volatile long openedAt;
+	private volatile long halfOpenedAt;
+
+	private final LongAdder successfulCalls = new LongAdder();
+	private final LongAdder failedCalls = new LongAdder();
+	private final LongAdder slowCalls = new LongAdder();
+	private final LongAdder notPermittedCalls = new LongAdder();
+	private final LongAdder transitions = new LongAdder();
+
+	public CircuitBreaker(String address, CircuitBreakerProperty property) {
+		this.address = address;
+		this.property = property;
+		this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(property.getSlowCallDuration());
+		this.waitNanos = TimeUnit.MILLISECONDS.toNanos(property.getWaitDurationInOpenState());
+		this.halfOpenWaitNanos = TimeUnit.MILLISECONDS.toNanos(property.getMaxWaitDurationInHalfOpenState());
+		this.window = new SlidingWindow(property.getWindowSize());
+	}
+
+	/**
+	 * @return the generation the permit belongs to, to be passed back with the outcome;
+	 *         {@link #NOT_PERMITTED} when the call should fail fast
+	 */
+	public long tryAcquirePermission() {
+		// 先读代际再读状态：状态切换总是先递增代际，读到的代际不会比状态新
+		long permit = generation.get();
+		CircuitState current = state.get();
+		if (current == CircuitState.CLOSED) {
+			return permit;
+		}
+		if (current == CircuitState.OPEN) {
+			if (System.nanoTime() - openedAt < waitNanos) {
+				notPermittedCalls.increment();
+				return NOT_PERMITTED;
+			}
+			transition(CircuitState.OPEN, CircuitState.HALF_OPEN);
+			permit = generation.get();
+			if (state.get() != CircuitState.HALF_OPEN) {
+				notPermittedCalls.increment();
+				return NOT_PERMITTED;
+			}
+		}
+		if (halfOpenPermits.getAndUpdate(permits -> permits > 0 ? permits - 1 : 0) > 0) {
+			return permit;
+		}
+		if (halfOpenWaitNanos > 0 && System.nanoTime() - halfOpenedAt >= halfOpenWaitNanos) {
+			// 试探调用迟迟未全部返回结果（如请求丢失、未回调），重新打开
+			transition(CircuitState.HALF_OPEN, CircuitState.OPEN);
+		}
+		notPermittedCalls.increment();
+		return NOT_PERMITTED;
+	}
+
+	/**
+	 * Returns the permit of a call that ended without an outcome worth recording, such as a
+	 * client-side error; a trial permit becomes available to another call.
+	 * @param permit the generation returned by {@link #tryAcquirePermission()}
+	 */
+	public void releasePermission(long permit) {
+		if (permit == generation.get() && state.get() == CircuitState.HALF_OPEN) {
+			halfOpenPermits.incrementAndGet();
+		}
+	}
+
+	public void onSuccess(long permit, long latencyNanos) {
+		successfulCalls.increment();
+		onResult(permit, false, latencyNanos);
+	}
+
+	public void onFailure(long permit, long latencyNanos) {
+		failedCalls.increment();
+		onResult(permit, true, latencyNanos);
+	}
+
+	protected void onResult(long permit, boolean failure, long latencyNanos) {
+		boolean slow = latencyNanos >= slowCallNanos;
+		if (slow) {
+			slowCalls.increment();
+		}
+		CircuitState current = state.get();
+		if (current == CircuitState.OPEN || permit != generation.get()) {
+			// 放行之后状态已切换：结果属于上一代，不计入当前窗口
+			return;
+		}
+		SlidingWindow window = this.window;
+		window.record(failure, slow, latencyNanos);
+		if (current == CircuitState.CLOSED) {
+			if (window.getCalls() >= property.getMinimumCalls() && isAboveThresholds(window)) {
+				transition(CircuitState.CLOSED, CircuitState.OPEN);
+			}
+		} else if (window.getCalls() >= window.getSize()) {
+			transition(CircuitState.HALF_OPEN, isAboveThresholds(window) ? CircuitState.OPEN : CircuitState.CLOSED);
+		}
+	}
+
+	private boolean isAboveThresholds(SlidingWindow window) {
+		return window.getFailureRate() >= property.getFailureRateThreshold()
+				|| window.getSlowCallRate() >= property.getSlowCallRateThreshold();
+	}
+
+	protected synchronized void transition(CircuitState from, CircuitState to) {
+		if (state.get() != from) {
+			return;
+		}
+		// 先递增代际再切换状态，此后返回的结果若属于旧代际一律忽略
+		generation.incrementAndGet();
+		transitions.increment();
+		switch (to) {
+		case OPEN:
+			openedAt = System.nanoTime();
+			halfOpenPermits.set(0);
+			break;
+		case HALF_OPEN:
+			// 先替换窗口再发放许可，试探调用的结果总是记入新窗口
+			window = new SlidingWindow(property.getPermittedCallsInHalfOpenState());
+			halfOpenedAt = System.nanoTime();
+			halfOpenPermits.set(Math.max(1, property.getPermittedCallsInHalfOpenState()));
+			break;
+		default:
+			window = new SlidingWindow(property.getWindowSize());
+			halfOpenPermits.set(0);
+			break;
+		}
+		state.set(to);
+	}
+
+	/**
+	 * Closes the breaker and clears its window.
+	 */
+	public synchronized void reset() {
+		generation.incrementAndGet();
+		window = new SlidingWindow(property.getWindowSize());
+		halfOpenPermits.set(0);
+		CircuitState current = state.getAndSet(CircuitState.CLOSED);
+		if (current != CircuitState.CLOSED) {
+			transitions.increment();
+		}
+	}
+
+	public boolean isFailureStatus(int status) {
+		return property.getFailureStatuses().contains(status);
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public CircuitState getState() {
+		return state.get();
+	}
+
+	/**
+	 * @return the failure rate of the current window in percent, or -1 when it is empty
+	 */
+	public float getFailureRate() {
+		return window.getFailureRate();
+	}
+
+	/**
+	 * @return the slow-call rate of the current window in percent, or -1 when it is empty
+	 */
+	public float getSlowCallRate() {
+		return window.getSlowCallRate();
+	}
+
+	public int getBufferedCalls() {
+		return window.getCalls();
+	}
+
+	public double getAverageLatency() {
+		return window.getAverageLatency();
+	}
+
+	public long getSuccessfulCallCount() {
+		return successfulCalls.sum();
+	}
+
+	public long getFailedCallCount() {
+		return failedCalls.sum();
+	}
+
+	public long getSlowCallCount() {
+		return slowCalls.sum();
+	}
+
+	/**
+	 * @return the calls that failed fast without reaching the network
+	 */
+	public long getNotPermittedCallCount() {
+		return notPermittedCalls.sum();
+	}
+
+	public long getTransitionCount() {
+		return transitions.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "CircuitBreaker[" + address + ", " + getState() + ", failureRate=" + getFailureRate() + "%]";
+	}
+
+}
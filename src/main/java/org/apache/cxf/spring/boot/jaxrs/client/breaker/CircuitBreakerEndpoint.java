@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+
+/**
+ * Actuator view of the circuit breakers of the starter-managed clients, e.g.
+ * <code>/actuator/cxfcircuitbreakers</code>; a write operation closes the
+ * breaker of one address again.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Endpoint(id = "cxfcircuitbreakers")
+public class CircuitBreakerEndpoint {
+
+	private final CircuitBreakerRegistry registry;
+
+	public CircuitBreakerEndpoint(CircuitBreakerRegistry registry) {
+		this.registry = registry;
+	}
+
+	@ReadOperation
+	public Map<String, Map<String, Object>> circuitBreakers() {
+		Map<String, Map<String, Object>> breakers = new LinkedHashMap<String, Map<String, Object>>();
+		for (CircuitBreaker breaker : registry.getCircuitBreakers()) {
+			Map<String, Object> details = new LinkedHashMap<String, Object>();
+			details.put("state", breaker.getState());
+			details.put("failureRate", breaker.getFailureRate());
+			details.put("slowCallRate", breaker.getSlowCallRate());
+			details.put("bufferedCalls", breaker.getBufferedCalls());
+			details.put("averageLatency", breaker.getAverageLatency());
+			details.put("successfulCalls", breaker.getSuccessfulCallCount());
+			details.put("failedCalls", breaker.getFailedCallCount());
+			details.put("slowCalls", breaker.getSlowCallCount());
+			details.put("notPermittedCalls", breaker.getNotPermittedCallCount());
+			details.put("transitions", breaker.getTransitionCount());
+			breakers.put(breaker.getAddress(), details);
+		}
+		return breakers;
+	}
+
+	/**
+	 * @param address the base address, e.g. http://host:8080
+	 * @return the state after the reset, or null when no such breaker exists
+	 */
+	@WriteOperation
+	public CircuitState reset(String address) {
+		for (CircuitBreaker breaker : registry.getCircuitBreakers()) {
+			if (breaker.getAddress().equals(CircuitBreakerRegistry.getBaseAddress(address))) {
+				breaker.reset();
+				return breaker.getState();
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+
+/**
+ * Guards JAX-RS clients with the circuit breakers of a {@link CircuitBreakerRegistry}:
+ * calls to a base address whose breaker is open fail fast with a
+ * {@link CircuitBreakerOpenException} instead of waiting for connect timeouts.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakerFeature extends AbstractFeature {
+
+	private final CircuitBreakerRegistry registry;
+
+	public CircuitBreakerFeature(CircuitBreakerRegistry registry) {
+		this.registry = registry;
+	}
+
+	/**
+	 * JAX-RS clients hand their ClientConfiguration over as the interceptor provider.
+	 */
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		provider.getOutInterceptors().add(new CircuitBreakerOutInterceptor(registry));
+		provider.getInInterceptors().add(new CircuitBreakerInInterceptor());
+	}
+
+	public CircuitBreakerRegistry getRegistry() {
+		return registry;
+	}
+
+}
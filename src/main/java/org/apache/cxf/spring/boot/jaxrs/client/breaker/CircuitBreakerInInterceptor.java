@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Records the outcome and latency of a response with the breaker that let the
+ * request through; the configured failure statuses count as failures.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakerInInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	public CircuitBreakerInInterceptor() {
+		super(Phase.RECEIVE);
+	}
+
+	@Override
+	public void handleMessage(Message message) {
+		Exchange exchange = message.getExchange();
+		CircuitBreaker breaker = (CircuitBreaker) exchange.remove(CircuitBreakerOutInterceptor.CALL_KEY);
+		if (breaker == null) {
+			return;
+		}
+		long permit = (Long) exchange.get(CircuitBreakerOutInterceptor.PERMIT_KEY);
+		long latency = System.nanoTime() - (Long) exchange.get(CircuitBreakerOutInterceptor.START_KEY);
+		Integer status = (Integer) message.get(Message.RESPONSE_CODE);
+		if (status != null && breaker.isFailureStatus(status)) {
+			breaker.onFailure(permit, latency);
+		} else {
+			breaker.onSuccess(permit, latency);
+		}
+	}
+
+}
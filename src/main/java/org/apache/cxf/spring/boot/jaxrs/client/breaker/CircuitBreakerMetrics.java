@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics of the circuit breakers, tagged with their base address;
+ * breakers created after binding are registered as they appear.
+ * <ul>
+ * <li>cxf.client.circuit.breaker.state: 0 closed, 1 open, 2 half-open</li>
+ * <li>cxf.client.circuit.breaker.failure.rate / slow.call.rate: percent, -1 while empty</li>
+ * <li>cxf.client.circuit.breaker.calls: by kind successful, failed, slow, not_permitted</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakerMetrics implements MeterBinder {
+
+	private static final String PREFIX = "cxf.client.circuit.breaker";
+
+	private final CircuitBreakerRegistry registry;
+
+	public CircuitBreakerMetrics(CircuitBreakerRegistry registry) {
+		this.registry = registry;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry meterRegistry) {
+		for (CircuitBreaker breaker : registry.getCircuitBreakers()) {
+			bindTo(meterRegistry, breaker);
+		}
+		registry.addListener(breaker -> bindTo(meterRegistry, breaker));
+	}
+
+	protected void bindTo(MeterRegistry meterRegistry, CircuitBreaker breaker) {
+		Tags tags = Tags.of("address", breaker.getAddress());
+		Gauge.builder(PREFIX + ".state", breaker, b -> b.getState().ordinal()).tags(tags)
+				.description("State of the circuit breaker: 0 closed, 1 open, 2 half-open").register(meterRegistry);
+		Gauge.builder(PREFIX + ".failure.rate", breaker, CircuitBreaker::getFailureRate).tags(tags)
+				.baseUnit("percent").register(meterRegistry);
+		Gauge.builder(PREFIX + ".slow.call.rate", breaker, CircuitBreaker::getSlowCallRate).tags(tags)
+				.baseUnit("percent").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".calls", breaker, CircuitBreaker::getSuccessfulCallCount)
+				.tags(tags.and("kind", "successful")).register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".calls", breaker, CircuitBreaker::getFailedCallCount)
+				.tags(tags.and("kind", "failed")).register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".calls", breaker, CircuitBreaker::getSlowCallCount)
+				.tags(tags.and("kind", "slow")).register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".calls", breaker, CircuitBreaker::getNotPermittedCallCount)
+				.tags(tags.and("kind", "not_permitted")).register(meterRegistry);
+	}
+
+}
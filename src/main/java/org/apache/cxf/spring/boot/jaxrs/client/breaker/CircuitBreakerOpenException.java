@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import javax.ws.rs.ProcessingException;
+
+/**
+ * Thrown instead of calling a base address whose circuit breaker is open, or
+ * half-open with no trial call left.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@SuppressWarnings("serial")
+public class CircuitBreakerOpenException extends ProcessingException {
+
+	private final String address;
+	private final CircuitState state;
+
+	public CircuitBreakerOpenException(String address, CircuitState state) {
+		super("Circuit breaker of " + address + " is " + state + ", call not permitted");
+		this.address = address;
+		this.state = state;
+	}
+
+	public String getAddress() {
+		return address;
+	}
+
+	public CircuitState getState() {
+		return state;
+	}
+
+}
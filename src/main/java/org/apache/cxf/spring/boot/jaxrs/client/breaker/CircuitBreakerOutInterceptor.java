@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import java.io.IOException;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.interceptor.MessageSenderInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Asks the breaker of the request's base address for permission right before
+ * the conduit connects, and records transport failures (connection refused,
+ * timeouts) when the chain unwinds. Other faults, raised on the client side,
+ * say nothing about the server: their permit is returned without an outcome.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakerOutInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	static final String CALL_KEY = CircuitBreaker.class.getName() + ".call";
+	static final String START_KEY = CircuitBreaker.class.getName() + ".start";
+	static final String PERMIT_KEY = CircuitBreaker.class.getName() + ".permit";
+
+	private final CircuitBreakerRegistry registry;
+
+	public CircuitBreakerOutInterceptor(CircuitBreakerRegistry registry) {
+		super(Phase.PREPARE_SEND);
+		addBefore(MessageSenderInterceptor.class.getName());
+		this.registry = registry;
+	}
+
+	@Override
+	public void handleMessage(Message message) {
+		String address = (String) message.get(Message.ENDPOINT_ADDRESS);
+		CircuitBreaker breaker = registry.getCircuitBreaker(address);
+		long permit = breaker.tryAcquirePermission();
+		if (permit == CircuitBreaker.NOT_PERMITTED) {
+			throw new Fault(new CircuitBreakerOpenException(breaker.getAddress(), breaker.getState()));
+		}
+		Exchange exchange = message.getExchange();
+		exchange.put(START_KEY, System.nanoTime());
+		exchange.put(PERMIT_KEY, permit);
+		exchange.put(CALL_KEY, breaker);
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		Exchange exchange = message.getExchange();
+		CircuitBreaker breaker = (CircuitBreaker) exchange.remove(CALL_KEY);
+		if (breaker == null) {
+			return;
+		}
+		long permit = (Long) exchange.get(PERMIT_KEY);
+		if (isTransportFailure(message.getContent(Exception.class))) {
+			breaker.onFailure(permit, System.nanoTime() - (Long) exchange.get(START_KEY));
+		} else {
+			breaker.releasePermission(permit);
+		}
+	}
+
+	/**
+	 * @return whether the fault comes from the connection (refused, reset, timed out) rather than from the client itself
+	 */
+	protected boolean isTransportFailure(Throwable fault) {
+		for (Throwable cause = fault; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+			if (cause instanceof IOException) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
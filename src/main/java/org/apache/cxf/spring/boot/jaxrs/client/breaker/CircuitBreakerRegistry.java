@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.apache.cxf.spring.boot.property.CircuitBreakerProperty;
+
+/**
+ * The circuit breakers of all base addresses (scheme://host:port) called by the
+ * starter-managed clients, created on first use.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CircuitBreakerRegistry {
+
+	private final CircuitBreakerProperty property;
+	private final ConcurrentMap<String, CircuitBreaker> breakers = new ConcurrentHashMap<String, CircuitBreaker>();
+	private final List<Consumer<CircuitBreaker>> listeners = new CopyOnWriteArrayList<Consumer<CircuitBreaker>>();
+
+	public CircuitBreakerRegistry(CircuitBreakerProperty property) {
+		this.property = property;
+	}
+
+	/**
+	 * @param address a request or base address
+	 * @return the breaker of the address's base address
+	 */
+	public CircuitBreaker getCircuitBreaker(String address) {
+		String baseAddress = getBaseAddress(address);
+		CircuitBreaker breaker = breakers.get(baseAddress);
+		if (breaker == null) {
+			CircuitBreaker created = new CircuitBreaker(baseAddress, property);
+			breaker = breakers.putIfAbsent(baseAddress, created);
+			if (breaker == null) {
+				breaker = created;
+				for (Consumer<CircuitBreaker> listener : listeners) {
+					listener.accept(created);
+				}
+			}
+		}
+		return breaker;
+	}
+
+	/**
+	 * @param address the request address, e.g. http://host:8080/api/orders/1
+	 * @return the scheme and authority, e.g. http://host:8080
+	 */
+	public static String getBaseAddress(String address) {
+		if (address == null) {
+			return "";
+		}
+		int scheme = address.indexOf("://");
+		if (scheme < 0) {
+			return address;
+		}
+		int path = address.indexOf('/', scheme + 3);
+		return path < 0 ? address : address.substring(0, path);
+	}
+
+	/**
+	 * @param listener notified of each breaker created from now on, e.g. to register its metrics
+	 */
+	public void addListener(Consumer<CircuitBreaker> listener) {
+		listeners.add(listener);
+	}
+
+	public Collection<CircuitBreaker> getCircuitBreakers() {
+		return Collections.unmodifiableCollection(breakers.values());
+	}
+
+	public CircuitBreakerProperty getProperty() {
+		return property;
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+/**
+ * States of a {@link CircuitBreaker}.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public enum CircuitState {
+
+	/**
+	 * 正常放行，统计滑动窗口内的失败率及慢调用率
+	 */
+	CLOSED,
+	/**
+	 * 拒绝所有调用，直至等待时间结束
+	 */
+	OPEN,
+	/**
+	 * 放行有限个试探调用，据其结果决定关闭或重新打开
+	 */
+	HALF_OPEN
+
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.breaker;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Outcomes and latencies of the most recent calls, kept in a fixed ring.
+ * <p>
+ * Recording a call swaps the slot it lands in and adjusts the aggregates by
+ * the difference with the outcome it replaced, so both recording and reading
+ * the rates are lock-free and constant time.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SlidingWindow {
+
+	private static final int SUCCESS = 1;
+	private static final int FAILURE = 2;
+	private static final int SLOW = 4;
+
+	private final int size;
+	private final AtomicIntegerArray outcomes;
+	private final AtomicLongArray latencies;
+	private final AtomicLong cursor = new AtomicLong();
+	private final AtomicInteger calls = new AtomicInteger();
+	private final AtomicInteger failures = new AtomicInteger();
+	private final AtomicInteger slowCalls = new AtomicInteger();
+	private final AtomicLong totalLatency = new AtomicLong();
+
+	public SlidingWindow(int size) {
+		this.size = Math.max(1, size);
+		this.outcomes = new AtomicIntegerArray(this.size);
+		this.latencies = new AtomicLongArray(this.size);
+	}
+
+	public void record(boolean failure, boolean slow, long latencyNanos) {
+		int index = (int) (cursor.getAndIncrement() % size);
+		int outcome = (failure ? FAILURE : SUCCESS) | (slow ? SLOW : 0);
+		int previous = outcomes.getAndSet(index, outcome);
+		long previousLatency = latencies.getAndSet(index, latencyNanos);
+		if (previous == 0) {
+			calls.incrementAndGet();
+		}
+		failures.addAndGet(bit(outcome, FAILURE) - bit(previous, FAILURE));
+		slowCalls.addAndGet(bit(outcome, SLOW) - bit(previous, SLOW));
+		totalLatency.addAndGet(latencyNanos - previousLatency);
+	}
+
+	private static int bit(int outcome, int flag) {
+		return (outcome & flag) != 0 ? 1 : 0;
+	}
+
+	/**
+	 * @return the calls currently in the window, at most its size
+	 */
+	public int getCalls() {
+		return calls.get();
+	}
+
+	public int getFailures() {
+		return failures.get();
+	}
+
+	public int getSlowCalls() {
+		return slowCalls.get();
+	}
+
+	/**
+	 * @return the failure rate in percent, or -1 when the window is empty
+	 */
+	public float getFailureRate() {
+		int n = calls.get();
+		return n == 0 ? -1f : failures.get() * 100f / n;
+	}
+
+	/**
+	 * @return the slow-call rate in percent, or -1 when the window is empty
+	 */
+	public float getSlowCallRate() {
+		int n = calls.get();
+		return n == 0 ? -1f : slowCalls.get() * 100f / n;
+	}
+
+	/**
+	 * @return the average latency of the calls in the window, in milliseconds
+	 */
+	public double getAverageLatency() {
+		int n = calls.get();
+		return n == 0 ? 0d : (double) totalLatency.get() / n / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+/**
+ * A cached <code>200 OK</code> response: the raw body bytes (kept in memory or
+ * spilled to a file), the response headers and the freshness information.
+ * Bodies are cached undecoded so that every hit is read again by the regular
+ * MessageBodyReader, whatever type the caller asks for.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class HttpCacheEntry {
+
+	private final MultivaluedMap<String, String> headers;
+	/**
+	 * Request header values named by the response <code>Vary</code> header
+	 */
+	private final Map<String, String> varyValues;
+	private final byte[] body;
+	private final Path file;
+	private final long size;
+	private final String etag;
+	private final String lastModified;
+	private final boolean mustRevalidate;
+	private volatile long expiresAt;
+
+	HttpCacheEntry(MultivaluedMap<String, String> headers, Map<String, String> varyValues, byte[] body, Path file,
+			long size, String etag, String lastModified, boolean mustRevalidate, long expiresAt) {
+		this.headers = headers;
+		this.varyValues = varyValues;
+		this.body = body;
+		this.file = file;
+		this.size = size;
+		this.etag = etag;
+		this.lastModified = lastModified;
+		this.mustRevalidate = mustRevalidate;
+		this.expiresAt = expiresAt;
+	}
+
+	public boolean isFresh(long now) {
+		return !mustRevalidate && now < expiresAt;
+	}
+
+	public boolean hasValidator() {
+		return etag != null || lastModified != null;
+	}
+
+	public boolean isOnDisk() {
+		return file != null;
+	}
+
+	public InputStream openBody() throws IOException {
+		return file != null ? Files.newInputStream(file) : new ByteArrayInputStream(body);
+	}
+
+	void setExpiresAt(long expiresAt) {
+		this.expiresAt = expiresAt;
+	}
+
+	void delete() {
+		if (file != null) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				// 文件已被移除或占用，忽略
+			}
+		}
+	}
+
+	public MultivaluedMap<String, String> getHeaders() {
+		return headers;
+	}
+
+	public Map<String, String> getVaryValues() {
+		return varyValues;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	public String getLastModified() {
+		return lastModified;
+	}
+
+	public long getExpiresAt() {
+		return expiresAt;
+	}
+
+}
@@ -0,0 +1,384 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.client.ClientRequestContext;
+import javax.ws.rs.client.ClientRequestFilter;
+import javax.ws.rs.client.ClientResponseContext;
+import javax.ws.rs.client.ClientResponseFilter;
+import javax.ws.rs.core.CacheControl;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+import org.apache.cxf.spring.boot.property.HttpCacheProperty;
+
+/**
+ * Client-side HTTP cache for <code>GET</code> requests.
+ * <ul>
+ * <li>fresh entries (<code>Cache-Control: max-age</code> or <code>Expires</code>)
+ * are answered locally by aborting the request with the cached response;</li>
+ * <li>stale entries carrying an <code>ETag</code>/<code>Last-Modified</code> are
+ * revalidated with <code>If-None-Match</code>/<code>If-Modified-Since</code>, and a
+ * <code>304 Not Modified</code> is turned back into the cached <code>200 OK</code>;</li>
+ * <li><code>no-store</code> and <code>private</code> responses and <code>Vary: *</code>
+ * are never cached, <code>no-cache</code> responses are always revalidated;</li>
+ * <li>the cache is shared by all clients, so responses to requests carrying
+ * <code>Authorization</code> are only stored when marked <code>public</code>,
+ * <code>s-maxage</code> or <code>must-revalidate</code>, and only served back to
+ * requests with the same credentials;</li>
+ * <li>unsafe methods (POST, PUT, DELETE, ...) invalidate the entries of their URI.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Priority(Priorities.USER - 1)
+public class HttpCacheFilter implements ClientRequestFilter, ClientResponseFilter {
+
+	static final String KEY_PROPERTY = "cxf.client.cache.key";
+	static final String HIT_PROPERTY = "cxf.client.cache.hit";
+	static final String VALIDATED_PROPERTY = "cxf.client.cache.validated";
+	static final String VALIDATED_BODY_PROPERTY = "cxf.client.cache.validated.body";
+
+	private static final String PRAGMA = "Pragma";
+	private static final String AGE = "Age";
+
+	private final HttpResponseCache cache;
+
+	public HttpCacheFilter(HttpResponseCache cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	public void filter(ClientRequestContext request) throws IOException {
+
+		String method = request.getMethod();
+		if (!HttpMethod.GET.equals(method)) {
+			if (!HttpMethod.HEAD.equals(method) && !HttpMethod.OPTIONS.equals(method)) {
+				cache.invalidate(request.getUri().toString());
+			}
+			return;
+		}
+
+		CacheControl requestControl = parseCacheControl(request.getHeaderString(HttpHeaders.CACHE_CONTROL));
+		if (requestControl != null && requestControl.isNoStore()) {
+			return;
+		}
+		// 调用方自行发起的条件请求原样透传
+		if (request.getHeaders().containsKey(HttpHeaders.IF_NONE_MATCH)
+				|| request.getHeaders().containsKey(HttpHeaders.IF_MODIFIED_SINCE)) {
+			return;
+		}
+
+		String key = request.getUri().toString() + ' ' + StringUtils.defaultString(request.getHeaderString(HttpHeaders.ACCEPT));
+		String authorization = request.getHeaderString(HttpHeaders.AUTHORIZATION);
+		if (authorization != null) {
+			// 不同凭证的响应互不可见
+			key += ' ' + DigestUtils.sha256Hex(authorization);
+		}
+		request.setProperty(KEY_PROPERTY, key);
+
+		HttpCacheEntry entry = cache.get(key);
+		if (entry == null || !matchesVary(entry, request)) {
+			cache.recordMiss();
+			return;
+		}
+
+		boolean noCache = "no-cache".equalsIgnoreCase(request.getHeaderString(PRAGMA))
+				|| (requestControl != null && (requestControl.isNoCache() || requestControl.getMaxAge() == 0));
+		if (!noCache && entry.isFresh(System.currentTimeMillis())) {
+			InputStream body = openBody(key, entry);
+			if (body == null) {
+				// 溢出文件已被淘汰删除，按未命中走网络
+				cache.recordMiss();
+				return;
+			}
+			Response.ResponseBuilder builder = Response.ok(body);
+			for (Map.Entry<String, List<String>> header : entry.getHeaders().entrySet()) {
+				for (String value : header.getValue()) {
+					builder.header(header.getKey(), value);
+				}
+			}
+			request.setProperty(HIT_PROPERTY, Boolean.TRUE);
+			cache.recordHit();
+			request.abortWith(builder.build());
+			return;
+		}
+
+		if (entry.hasValidator()) {
+			if (entry.isOnDisk()) {
+				// 先打开溢出文件：等待304期间文件可能被淘汰删除，已打开的流仍可读取
+				InputStream body = openBody(key, entry);
+				if (body == null) {
+					cache.recordMiss();
+					return;
+				}
+				request.setProperty(VALIDATED_BODY_PROPERTY, body);
+			}
+			if (entry.getEtag() != null) {
+				request.getHeaders().putSingle(HttpHeaders.IF_NONE_MATCH, entry.getEtag());
+			}
+			if (entry.getLastModified() != null) {
+				request.getHeaders().putSingle(HttpHeaders.IF_MODIFIED_SINCE, entry.getLastModified());
+			}
+			request.setProperty(VALIDATED_PROPERTY, entry);
+		} else {
+			cache.remove(key);
+			cache.recordMiss();
+		}
+	}
+
+	@Override
+	public void filter(ClientRequestContext request, ClientResponseContext response) throws IOException {
+
+		String key = (String) request.getProperty(KEY_PROPERTY);
+		if (key == null || request.getProperty(HIT_PROPERTY) != null) {
+			return;
+		}
+
+		long now = System.currentTimeMillis();
+		HttpCacheEntry validated = (HttpCacheEntry) request.getProperty(VALIDATED_PROPERTY);
+		InputStream validatedBody = (InputStream) request.getProperty(VALIDATED_BODY_PROPERTY);
+		if (validatedBody != null && response.getStatus() != Response.Status.NOT_MODIFIED.getStatusCode()) {
+			validatedBody.close();
+		}
+		if (validated != null) {
+			if (response.getStatus() == Response.Status.NOT_MODIFIED.getStatusCode()) {
+				cache.recordRevalidation();
+				// 304未携带新鲜度信息时沿用缓存响应的Cache-Control
+				MultivaluedMap<String, String> freshness = response.getHeaders().containsKey(HttpHeaders.CACHE_CONTROL)
+						|| response.getHeaders().containsKey(HttpHeaders.EXPIRES) ? response.getHeaders() : validated.getHeaders();
+				validated.setExpiresAt(computeExpiresAt(
+						parseCacheControl(freshness.getFirst(HttpHeaders.CACHE_CONTROL)), freshness, now));
+				// 304无响应体：还原为缓存中的200响应
+				MultivaluedMap<String, String> headers = response.getHeaders();
+				for (Map.Entry<String, List<String>> header : validated.getHeaders().entrySet()) {
+					if (!headers.containsKey(header.getKey()) || HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(header.getKey())) {
+						headers.put(header.getKey(), header.getValue());
+					}
+				}
+				response.setStatus(Response.Status.OK.getStatusCode());
+				response.setEntityStream(validatedBody != null ? validatedBody : validated.openBody());
+				return;
+			}
+			cache.recordMiss();
+		}
+
+		if (response.getStatus() != Response.Status.OK.getStatusCode()) {
+			return;
+		}
+
+		MultivaluedMap<String, String> headers = response.getHeaders();
+		CacheControl control = parseCacheControl(headers.getFirst(HttpHeaders.CACHE_CONTROL));
+		String vary = headers.getFirst(HttpHeaders.VARY);
+		if ((control != null && (control.isNoStore() || control.isPrivate())) || "*".equals(StringUtils.trim(vary))
+				|| (request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION) && !isSharable(control, headers.getFirst(HttpHeaders.CACHE_CONTROL)))) {
+			cache.remove(key);
+			return;
+		}
+
+		long expiresAt = computeExpiresAt(control, headers, now);
+		boolean mustRevalidate = control != null && control.isNoCache();
+		String etag = headers.getFirst(HttpHeaders.ETAG);
+		String lastModified = headers.getFirst(HttpHeaders.LAST_MODIFIED);
+		if ((mustRevalidate || expiresAt <= now) && etag == null && lastModified == null) {
+			// 既不新鲜也无法校验，缓存没有意义
+			return;
+		}
+
+		HttpCacheProperty property = cache.getProperty();
+		InputStream in = response.getEntityStream();
+		if (in == null || response.getLength() > property.getMaxBodySize()) {
+			return;
+		}
+
+		MultivaluedMap<String, String> storedHeaders = copyHeaders(headers);
+		Map<String, String> varyValues = varyValues(vary, request);
+
+		byte[] head = readUpTo(in, property.getMaxMemoryEntrySize() + 1);
+		if (head.length <= property.getMaxMemoryEntrySize()) {
+			cache.put(key, new HttpCacheEntry(storedHeaders, varyValues, head, null, head.length, etag, lastModified,
+					mustRevalidate, expiresAt));
+			response.setEntityStream(new ByteArrayInputStream(head));
+			return;
+		}
+		if (!cache.isSpillEnabled()) {
+			response.setEntityStream(new SequenceInputStream(new ByteArrayInputStream(head), in));
+			return;
+		}
+
+		// 大响应体溢出到磁盘
+		Path file = cache.createSpillFile();
+		long size;
+		try (OutputStream out = Files.newOutputStream(file)) {
+			out.write(head);
+			size = head.length + copyUpTo(in, out, property.getMaxBodySize() - head.length + 1);
+		} catch (IOException e) {
+			Files.deleteIfExists(file);
+			throw e;
+		}
+		if (size > property.getMaxBodySize()) {
+			// 超过上限不缓存：已落盘的部分与剩余流拼接后交还调用方
+			response.setEntityStream(new SequenceInputStream(
+					Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE), in));
+			return;
+		}
+		in.close();
+		InputStream body = Files.newInputStream(file);
+		cache.put(key, new HttpCacheEntry(storedHeaders, varyValues, null, file, size, etag, lastModified,
+				mustRevalidate, expiresAt));
+		response.setEntityStream(body);
+	}
+
+	/**
+	 * 带Authorization请求的响应仅在服务端明确允许共享缓存时存储（RFC 7234 3.2）
+	 * @param control the parsed response Cache-Control, may be null
+	 * @param value the raw response Cache-Control, the parser drops <code>public</code>
+	 * @return whether the response may be stored by a shared cache despite the request credentials
+	 */
+	protected boolean isSharable(CacheControl control, String value) {
+		if (control == null) {
+			return false;
+		}
+		if (control.getSMaxAge() >= 0 || control.isMustRevalidate()) {
+			return true;
+		}
+		for (String directive : StringUtils.split(value, ',')) {
+			if ("public".equalsIgnoreCase(directive.trim())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	protected long computeExpiresAt(CacheControl control, MultivaluedMap<String, String> headers, long now) {
+		// 共享缓存：s-maxage优先于max-age
+		int maxAge = control == null ? -1 : control.getSMaxAge() >= 0 ? control.getSMaxAge() : control.getMaxAge();
+		if (maxAge >= 0) {
+			long age = NumberUtils.toLong(headers.getFirst(AGE));
+			return now + (maxAge - age) * 1000L;
+		}
+		String expires = headers.getFirst(HttpHeaders.EXPIRES);
+		if (expires != null) {
+			Date date = HttpUtils.getHttpDate(StringUtils.strip(expires, "'\""));
+			if (date != null) {
+				return date.getTime();
+			}
+		}
+		return now;
+	}
+
+	/**
+	 * @return the entry body, or null when its spilled file has been evicted in the meantime
+	 */
+	private InputStream openBody(String key, HttpCacheEntry entry) {
+		try {
+			return entry.openBody();
+		} catch (IOException e) {
+			if (cache.get(key) == entry) {
+				cache.remove(key);
+			}
+			return null;
+		}
+	}
+
+	protected boolean matchesVary(HttpCacheEntry entry, ClientRequestContext request) {
+		for (Map.Entry<String, String> vary : entry.getVaryValues().entrySet()) {
+			if (!StringUtils.defaultString(request.getHeaderString(vary.getKey())).equals(vary.getValue())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static Map<String, String> varyValues(String vary, ClientRequestContext request) {
+		if (StringUtils.isBlank(vary)) {
+			return Collections.emptyMap();
+		}
+		Map<String, String> values = new LinkedHashMap<String, String>();
+		for (String name : StringUtils.split(vary, ',')) {
+			name = name.trim();
+			values.put(name, StringUtils.defaultString(request.getHeaderString(name)));
+		}
+		return values;
+	}
+
+	private static MultivaluedMap<String, String> copyHeaders(MultivaluedMap<String, String> headers) {
+		MultivaluedMap<String, String> copy = new MetadataMap<String, String>(false, true);
+		for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+			if (header.getKey() != null && !"Transfer-Encoding".equalsIgnoreCase(header.getKey())
+					&& !"Connection".equalsIgnoreCase(header.getKey())) {
+				copy.put(header.getKey(), header.getValue());
+			}
+		}
+		return copy;
+	}
+
+	private static CacheControl parseCacheControl(String value) {
+		if (StringUtils.isBlank(value)) {
+			return null;
+		}
+		try {
+			return CacheControl.valueOf(value);
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	private static byte[] readUpTo(InputStream in, long limit) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		copyUpTo(in, out, limit);
+		return out.toByteArray();
+	}
+
+	private static long copyUpTo(InputStream in, OutputStream out, long limit) throws IOException {
+		byte[] buffer = new byte[8192];
+		long total = 0;
+		int read;
+		while (total < limit && (read = in.read(buffer, 0, (int) Math.min(buffer.length, limit - total))) != -1) {
+			out.write(buffer, 0, read);
+			total += read;
+		}
+		return total;
+	}
+
+	public HttpResponseCache getCache() {
+		return cache;
+	}
+
+}
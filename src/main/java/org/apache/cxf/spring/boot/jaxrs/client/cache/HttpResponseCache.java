@@ -0,0 +1,335 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.cache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.cxf.spring.boot.property.HttpCacheProperty;
+
+/**
+ * Bounded, two-tier store of the client HTTP cache.
+ * <p>
+ * Small bodies stay on the heap, bodies larger than
+ * {@link HttpCacheProperty#getMaxMemoryEntrySize()} are spilled to files under
+ * {@link HttpCacheProperty#getDiskDirectory()}. Both tiers are trimmed
+ * independently against their own byte budget.
+ * <p>
+ * Entries are spread over stripes by request URI, each an access-ordered map
+ * under its own lock, so lookups of different resources do not contend and
+ * invalidating a URI touches one stripe. Sizes are counted across stripes;
+ * when a budget is passed, the stripes give up their eldest entries in turn,
+ * which approximates a single LRU order.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class HttpResponseCache {
+
+	private static final int STRIPES = 16;
+
+	private static final class Stripe {
+
+		/**
+		 * 受Stripe锁保护
+		 */
+		final LinkedHashMap<String, HttpCacheEntry> entries = new LinkedHashMap<String, HttpCacheEntry>(16, 0.75f, true);
+
+	}
+
+	private final HttpCacheProperty property;
+	private final Stripe[] stripes = new Stripe[STRIPES];
+	private final AtomicInteger entryCount = new AtomicInteger();
+	private final AtomicLong memorySize = new AtomicLong();
+	private final AtomicLong diskSize = new AtomicLong();
+	/**
+	 * 下次超出预算时首先淘汰的Stripe
+	 */
+	private final AtomicInteger nextVictim = new AtomicInteger();
+	private volatile Path diskDirectory;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder revalidations = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder stores = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+
+	public HttpResponseCache(HttpCacheProperty property) {
+		this.property = property;
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe();
+		}
+	}
+
+	public HttpCacheEntry get(String key) {
+		Stripe stripe = stripe(key);
+		synchronized (stripe) {
+			return stripe.entries.get(key);
+		}
+	}
+
+	public void put(String key, HttpCacheEntry entry) {
+		Stripe stripe = stripe(key);
+		HttpCacheEntry previous;
+		synchronized (stripe) {
+			previous = stripe.entries.put(key, entry);
+			if (previous != null) {
+				release(previous);
+			}
+			account(entry, 1);
+		}
+		if (previous != null) {
+			previous.delete();
+		}
+		stores.increment();
+		trim();
+	}
+
+	public void remove(String key) {
+		Stripe stripe = stripe(key);
+		HttpCacheEntry removed;
+		synchronized (stripe) {
+			removed = stripe.entries.remove(key);
+			if (removed != null) {
+				release(removed);
+			}
+		}
+		if (removed != null) {
+			removed.delete();
+		}
+	}
+
+	/**
+	 * 删除某个URI的所有缓存（不区分Accept），用于非安全方法（POST/PUT/DELETE）之后
+	 * @param uri the request URI
+	 */
+	public void invalidate(String uri) {
+		String prefix = uri + ' ';
+		Stripe stripe = stripes[index(uri)];
+		List<HttpCacheEntry> removed = new ArrayList<HttpCacheEntry>();
+		synchronized (stripe) {
+			for (Iterator<Map.Entry<String, HttpCacheEntry>> it = stripe.entries.entrySet().iterator(); it.hasNext();) {
+				Map.Entry<String, HttpCacheEntry> entry = it.next();
+				if (entry.getKey().startsWith(prefix)) {
+					it.remove();
+					release(entry.getValue());
+					removed.add(entry.getValue());
+				}
+			}
+		}
+		for (HttpCacheEntry entry : removed) {
+			entry.delete();
+		}
+	}
+
+	public void clear() {
+		for (Stripe stripe : stripes) {
+			List<HttpCacheEntry> removed;
+			synchronized (stripe) {
+				removed = new ArrayList<HttpCacheEntry>(stripe.entries.values());
+				stripe.entries.clear();
+				for (HttpCacheEntry entry : removed) {
+					release(entry);
+				}
+			}
+			for (HttpCacheEntry entry : removed) {
+				entry.delete();
+			}
+		}
+	}
+
+	/**
+	 * @return a new, empty file of the disk tier; the caller deletes it when the body is not cached after all
+	 */
+	public Path createSpillFile() throws IOException {
+		return Files.createTempFile(getDiskDirectory(), "entry-", ".body");
+	}
+
+	public boolean isSpillEnabled() {
+		return property.isDiskEnabled() && property.getMaxDiskSize() > 0;
+	}
+
+	protected Path getDiskDirectory() throws IOException {
+		Path directory = diskDirectory;
+		if (directory == null) {
+			synchronized (this) {
+				directory = diskDirectory;
+				if (directory == null) {
+					directory = StringUtils.isNotBlank(property.getDiskDirectory())
+							? Files.createDirectories(Paths.get(property.getDiskDirectory()))
+							: Files.createTempDirectory("cxf-jaxrs-client-cache");
+					diskDirectory = directory;
+				}
+			}
+		}
+		return directory;
+	}
+
+	/**
+	 * 键以请求URI开头，按URI分配Stripe，使同一URI的各个变体位于同一Stripe
+	 */
+	private Stripe stripe(String key) {
+		int end = key.indexOf(' ');
+		return stripes[index(end < 0 ? key : key.substring(0, end))];
+	}
+
+	private static int index(String uri) {
+		int hash = uri.hashCode();
+		return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+	}
+
+	/**
+	 * 超出预算时各Stripe轮流淘汰其最久未访问的条目；只在淘汰时逐个锁定Stripe
+	 */
+	private void trim() {
+		for (int i = 0; i < STRIPES && isOverBudget(); i++) {
+			trim(stripes[nextVictim.getAndIncrement() & (STRIPES - 1)]);
+		}
+	}
+
+	private void trim(Stripe stripe) {
+		List<HttpCacheEntry> evicted = new ArrayList<HttpCacheEntry>();
+		synchronized (stripe) {
+			Iterator<HttpCacheEntry> it = stripe.entries.values().iterator();
+			while (it.hasNext() && isOverBudget()) {
+				HttpCacheEntry eldest = it.next();
+				boolean overCount = entryCount.get() > property.getMaxEntries();
+				boolean overTier = eldest.isOnDisk() ? diskSize.get() > property.getMaxDiskSize()
+						: memorySize.get() > property.getMaxMemorySize();
+				if (overCount || overTier) {
+					it.remove();
+					release(eldest);
+					evicted.add(eldest);
+				}
+			}
+		}
+		for (HttpCacheEntry entry : evicted) {
+			entry.delete();
+			evictions.increment();
+		}
+	}
+
+	private boolean isOverBudget() {
+		return entryCount.get() > property.getMaxEntries() || memorySize.get() > property.getMaxMemorySize()
+				|| diskSize.get() > property.getMaxDiskSize();
+	}
+
+	private void release(HttpCacheEntry entry) {
+		account(entry, -1);
+	}
+
+	private void account(HttpCacheEntry entry, int sign) {
+		entryCount.addAndGet(sign);
+		if (entry.isOnDisk()) {
+			diskSize.addAndGet(sign * entry.getSize());
+		} else {
+			memorySize.addAndGet(sign * entry.getSize());
+		}
+	}
+
+	void recordHit() {
+		hits.increment();
+	}
+
+	void recordRevalidation() {
+		revalidations.increment();
+	}
+
+	void recordMiss() {
+		misses.increment();
+	}
+
+	/**
+	 * @return responses served from the cache without contacting the server
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return responses served from the cache after a <code>304 Not Modified</code>
+	 */
+	public long getRevalidationCount() {
+		return revalidations.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getStoreCount() {
+		return stores.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return share of cacheable requests whose body came from the cache, revalidated hits included
+	 */
+	public double getHitRatio() {
+		long served = hits.sum() + revalidations.sum();
+		long total = served + misses.sum();
+		return total == 0 ? 0d : (double) served / total;
+	}
+
+	public int getEntryCount() {
+		return entryCount.get();
+	}
+
+	public long getMemorySize() {
+		return memorySize.get();
+	}
+
+	public long getDiskSize() {
+		return diskSize.get();
+	}
+
+	public HttpCacheProperty getProperty() {
+		return property;
+	}
+
+	/**
+	 * 关闭时删除磁盘缓存文件
+	 */
+	public void destroy() {
+		clear();
+		Path directory = diskDirectory;
+		if (directory != null && StringUtils.isBlank(property.getDiskDirectory())) {
+			try {
+				Files.deleteIfExists(directory);
+			} catch (IOException e) {
+				// 目录非空（仍有正在读取的溢出文件），留给系统清理
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "HttpResponseCache[entries=" + getEntryCount() + ", hitRatio=" + getHitRatio() + "]";
+	}
+
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics of the client HTTP cache.
+ * <ul>
+ * <li>cxf.client.cache.requests: cacheable requests by result hit, revalidated, miss</li>
+ * <li>cxf.client.cache.hit.ratio: share of cacheable requests served from the cache</li>
+ * <li>cxf.client.cache.entries: cached responses, both tiers included</li>
+ * <li>cxf.client.cache.size: bytes of cached bodies by tier memory, disk</li>
+ * <li>cxf.client.cache.stores / evictions: responses stored, and dropped to stay within budget</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class HttpResponseCacheMetrics implements MeterBinder {
+
+	private static final String PREFIX = "cxf.client.cache";
+
+	private final HttpResponseCache cache;
+
+	public HttpResponseCacheMetrics(HttpResponseCache cache) {
+		this.cache = cache;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry meterRegistry) {
+		FunctionCounter.builder(PREFIX + ".requests", cache, HttpResponseCache::getHitCount)
+				.tag("result", "hit").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".requests", cache, HttpResponseCache::getRevalidationCount)
+				.tag("result", "revalidated").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".requests", cache, HttpResponseCache::getMissCount)
+				.tag("result", "miss").register(meterRegistry);
+		Gauge.builder(PREFIX + ".hit.ratio", cache, HttpResponseCache::getHitRatio).register(meterRegistry);
+		Gauge.builder(PREFIX + ".entries", cache, HttpResponseCache::getEntryCount).register(meterRegistry);
+		Gauge.builder(PREFIX + ".size", cache, HttpResponseCache::getMemorySize).tag("tier", "memory")
+				.baseUnit("bytes").register(meterRegistry);
+		Gauge.builder(PREFIX + ".size", cache, HttpResponseCache::getDiskSize).tag("tier", "disk")
+				.baseUnit("bytes").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".stores", cache, HttpResponseCache::getStoreCount).register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".evictions", cache, HttpResponseCache::getEvictionCount)
+				.register(meterRegistry);
+	}
+
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.retry;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.apache.cxf.spring.boot.jaxrs.deadline.DeadlineContext;
+import org.slf4j.MDC;
+
+/**
+ * Thread-bound state of the calling thread that attempts run on hedging threads
+ * must see as well: the request deadline and the slf4j MDC.
+ * <p>
+ * The in-flight CXF message is deliberately not carried over, as it is not
+ * thread-safe. Attempts that need the caller's Spring Security context should
+ * run on an executor that propagates it, e.g. a
+ * <code>DelegatingSecurityContextExecutorService</code> set through
+ * <code>ClientApiTemplate#setHedgingExecutor</code>.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class CallerContext {
+
+	private final Map<String, String> mdc;
+
+	private CallerContext(Map<String, String> mdc) {
+		this.mdc = mdc;
+	}
+
+	/**
+	 * Wraps a task handed over to another thread so that it runs with the state of the current thread,
+	 * restoring the other thread's own state afterwards.
+	 * @param task the task
+	 * @return the wrapped task
+	 */
+	static <V> Callable<V> wrap(Callable<V> task) {
+		CallerContext caller = capture();
+		Callable<V> deadlineAware = DeadlineContext.wrap(task);
+		return () -> {
+			CallerContext previous = capture();
+			caller.apply();
+			try {
+				return deadlineAware.call();
+			} finally {
+				previous.apply();
+			}
+		};
+	}
+
+	static CallerContext capture() {
+		return new CallerContext(MDC.getCopyOfContextMap());
+	}
+
+	void apply() {
+		if (mdc == null) {
+			MDC.clear();
+		} else {
+			MDC.setContextMap(mdc);
+		}
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.retry;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latencies of the most recent calls of one operation, kept in a fixed ring,
+ * and the percentile derived from them. The percentile is recomputed every
+ * {@link #RECOMPUTE_INTERVAL} samples rather than on every read.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LatencyRecorder {
+
+	static final int SIZE = 256;
+	static final int RECOMPUTE_INTERVAL = 32;
+	/**
+	 * 样本数不足时百分位不可信
+	 */
+	static final int MIN_SAMPLES = 32;
+
+	private final AtomicLongArray samples = new AtomicLongArray(SIZE);
+	private final AtomicLong count = new AtomicLong();
+	private final double percentile;
+	private volatile long cached = -1;
+
+	public LatencyRecorder(double percentile) {
+		this.percentile = Math.min(100d, Math.max(0d, percentile));
+	}
+
+	public void record(long latencyNanos) {
+		long n = count.getAndIncrement();
+		samples.set((int) (n % SIZE), latencyNanos);
+		if ((n + 1) >= MIN_SAMPLES && (n + 1) % RECOMPUTE_INTERVAL == 0) {
+			cached = compute(Math.min(n + 1, SIZE));
+		}
+	}
+
+	/**
+	 * @return the latency percentile in nanoseconds, or -1 while there are too few samples
+	 */
+	public long getPercentile() {
+		return cached;
+	}
+
+	private long compute(long filled) {
+		long[] copy = new long[(int) filled];
+		for (int i = 0; i < copy.length; i++) {
+			copy[i] = samples.get(i);
+		}
+		Arrays.sort(copy);
+		int index = (int) Math.ceil(percentile / 100d * copy.length) - 1;
+		return copy[Math.max(0, Math.min(copy.length - 1, index))];
+	}
+
+}
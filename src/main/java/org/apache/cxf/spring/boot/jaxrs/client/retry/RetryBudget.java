@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Process-wide budget shared by all retries and hedged attempts.
+ * <p>
+ * Every original request deposits <code>ratio</code> of a token, every retry or
+ * hedge withdraws a whole one; on top of that <code>minRetriesPerSecond</code>
+ * tokens are granted each second so that low traffic can still retry. When a
+ * downstream fails, retries therefore add at most <code>ratio</code> extra load
+ * instead of multiplying it by the number of attempts.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RetryBudget {
+
+	private static final long SCALE = 1000;
+
+	/**
+	 * 余额，单位为千分之一个令牌
+	 */
+	private final AtomicLong balance = new AtomicLong();
+	private final AtomicLong reserve = new AtomicLong();
+	private final AtomicLong reserveSecond = new AtomicLong();
+	private final long deposit;
+	private final long maxBalance;
+	private final int minRetriesPerSecond;
+
+	private final LongAdder granted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public RetryBudget(double ratio, int minRetriesPerSecond) {
+		this.deposit = Math.max(0, Math.round(ratio * SCALE));
+		// 余额上限：约等于最近千次请求所允许的重试次数
+		this.maxBalance = Math.max(SCALE, deposit * 1000);
+		this.minRetriesPerSecond = Math.max(0, minRetriesPerSecond);
+	}
+
+	/**
+	 * Called once per original request.
+	 */
+	public void deposit() {
+		if (deposit == 0) {
+			return;
+		}
+		long current;
+		do {
+			current = balance.get();
+			if (current >= maxBalance) {
+				return;
+			}
+		} while (!balance.compareAndSet(current, Math.min(maxBalance, current + deposit)));
+	}
+
+	/**
+	 * @return whether a retry or hedged attempt may be sent
+	 */
+	public boolean tryWithdraw() {
+		long current;
+		do {
+			current = balance.get();
+			if (current < SCALE) {
+				if (tryReserve()) {
+					granted.increment();
+					return true;
+				}
+				rejected.increment();
+				return false;
+			}
+		} while (!balance.compareAndSet(current, current - SCALE));
+		granted.increment();
+		return true;
+	}
+
+	private boolean tryReserve() {
+		if (minRetriesPerSecond == 0) {
+			return false;
+		}
+		long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+		long last = reserveSecond.get();
+		if (last != second && reserveSecond.compareAndSet(last, second)) {
+			reserve.set(minRetriesPerSecond);
+		}
+		return reserve.getAndUpdate(left -> left > 0 ? left - 1 : 0) > 0;
+	}
+
+	public long getGrantedCount() {
+		return granted.sum();
+	}
+
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	public double getBalance() {
+		return (double) balance.get() / SCALE;
+	}
+
+}
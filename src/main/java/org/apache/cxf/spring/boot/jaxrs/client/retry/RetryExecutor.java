@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.retry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.ws.rs.ProcessingException;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.spring.boot.jaxrs.client.breaker.CircuitBreakerOpenException;
+import org.apache.cxf.spring.boot.jaxrs.deadline.DeadlineContext;
+
+/**
+ * Runs idempotent calls with budgeted retries and, optionally, hedging.
+ * <ul>
+ * <li>hedging: when the call has not answered after the operation's latency
+ * percentile, a second attempt is sent and the first answer wins; the slower
+ * attempt is cancelled, and its result closed if it still arrives, so that a
+ * losing {@link Response} does not hold on to its connection;</li>
+ * <li>retries: I/O errors, timeouts and the configured statuses are retried
+ * with jittered exponential back-off, up to <code>maxAttempts</code>. A status
+ * counts whether it surfaces as a {@link WebApplicationException} from a proxy
+ * or as a {@link Response} returned by the call; a discarded response is
+ * closed, and the last one is returned as is.</li>
+ * </ul>
+ * Both hedged attempts and retries draw from the shared {@link RetryBudget};
+ * once it is spent, failures surface immediately. Retries also stop when the
+ * deadline of the current request has passed.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RetryExecutor {
+
+	/**
+	 * 对冲中落败的尝试所返回的结果
+	 */
+	private static final Object LOST = new Object();
+
+	private final RetryBudget budget;
+	private final ExecutorService executor;
+
+	public RetryExecutor(RetryBudget budget, ExecutorService executor) {
+		this.budget = budget;
+		this.executor = executor;
+	}
+
+	public <T> T execute(RetryOperation operation, Callable<T> call) throws Exception {
+
+		operation.calls.increment();
+		budget.deposit();
+
+		int maxAttempts = Math.max(1, operation.getProperty().getMaxAttempts());
+		long backoff = operation.getProperty().getBackoff();
+		for (int attempt = 1;; attempt++) {
+			T result = null;
+			Exception failure = null;
+			try {
+				result = operation.getProperty().isHedging() ? hedged(operation, call) : timed(operation, call);
+				if (attempt >= maxAttempts || !isRetryable(operation, result)) {
+					return result;
+				}
+			} catch (Exception e) {
+				if (attempt >= maxAttempts || !isRetryable(operation, e)) {
+					throw e;
+				}
+				failure = e;
+			}
+			long pause = backoff > 0 ? ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1) : 0;
+			DeadlineContext deadline = DeadlineContext.current();
+			if (!budget.tryWithdraw() || deadline.isExpired() || deadline.getRemainingMillis() <= pause) {
+				if (failure != null) {
+					throw failure;
+				}
+				return result;
+			}
+			// 重试前释放被丢弃的响应
+			close(result);
+			operation.retries.increment();
+			if (pause > 0) {
+				TimeUnit.MILLISECONDS.sleep(pause);
+			}
+			backoff *= 2;
+		}
+	}
+
+	protected <T> T timed(RetryOperation operation, Callable<T> call) throws Exception {
+		long start = System.nanoTime();
+		T result = call.call();
+		operation.getLatency().record(System.nanoTime() - start);
+		return result;
+	}
+
+	@SuppressWarnings("unchecked")
+	protected <T> T hedged(RetryOperation operation, Callable<T> call) throws Exception {
+
+		// 首个成功的尝试胜出；落败者的结果无人接收，由其自己关闭
+		AtomicBoolean decided = new AtomicBoolean();
+		// 尝试在对冲线程上执行：带上调用线程的截止时间及MDC
+		Callable<Object> attempt = CallerContext.wrap(() -> {
+			T result = timed(operation, call);
+			if (!decided.compareAndSet(false, true)) {
+				close(result);
+				return LOST;
+			}
+			return result;
+		});
+		CompletionService<Object> completion = new ExecutorCompletionService<Object>(executor);
+		Future<Object> first = completion.submit(attempt);
+		int pending = 1;
+
+		Future<Object> hedge = null;
+		Future<Object> done = completion.poll(operation.getHedgingDelay(), TimeUnit.NANOSECONDS);
+		if (done == null && budget.tryWithdraw()) {
+			// 首个请求慢于百分位延迟：发出对冲请求，取先返回者
+			hedge = completion.submit(attempt);
+			operation.hedges.increment();
+			pending++;
+		}
+
+		Exception failure = null;
+		while (pending > 0) {
+			if (done == null) {
+				done = completion.take();
+			}
+			pending--;
+			try {
+				Object result = done.get();
+				if (result == LOST) {
+					// 另一尝试已胜出，其结果仍在队列中
+					done = null;
+					continue;
+				}
+				if (done == hedge) {
+					operation.hedgeWins.increment();
+				}
+				Future<Object> loser = done == first ? hedge : first;
+				if (loser != null) {
+					loser.cancel(true);
+				}
+				return (T) result;
+			} catch (ExecutionException e) {
+				failure = unwrap(e);
+				done = null;
+			}
+		}
+		throw failure;
+	}
+
+	/**
+	 * @return whether a response returned by the call has one of the retryable statuses
+	 */
+	protected boolean isRetryable(RetryOperation operation, Object result) {
+		return result instanceof Response && operation.isRetryableStatus(((Response) result).getStatus());
+	}
+
+	protected boolean isRetryable(RetryOperation operation, Exception e) {
+		if (e instanceof WebApplicationException) {
+			return ((WebApplicationException) e).getResponse() != null
+					&& operation.isRetryableStatus(((WebApplicationException) e).getResponse().getStatus());
+		}
+		// 熔断器打开时重试只会再次被拒绝，白白消耗预算
+		return e instanceof ProcessingException && !(e instanceof CircuitBreakerOpenException);
+	}
+
+	private static void close(Object result) {
+		if (result instanceof Response) {
+			((Response) result).close();
+		} else if (result instanceof Closeable) {
+			try {
+				((Closeable) result).close();
+			} catch (IOException e) {
+				// 已丢弃的结果，忽略关闭失败
+			}
+		}
+	}
+
+	private static Exception unwrap(ExecutionException e) {
+		Throwable cause = e.getCause();
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		return cause instanceof Exception ? (Exception) cause : e;
+	}
+
+	public RetryBudget getBudget() {
+		return budget;
+	}
+
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.retry;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.ProcessingException;
+
+import org.apache.cxf.jaxrs.client.Client;
+import org.apache.cxf.jaxrs.client.InvocationHandlerAware;
+import org.apache.cxf.spring.boot.property.ClientRetryProperty;
+
+/**
+ * Wraps a thread-safe JAX-RS client proxy so that its idempotent operations go
+ * through the {@link RetryExecutor}. Operations are idempotent when mapped to
+ * GET, HEAD, OPTIONS, PUT or DELETE, unless the operation settings say otherwise.
+ * Settings are looked up by <code>SimpleInterfaceName.method</code>, then by
+ * <code>method</code>, then fall back to the profile defaults.
+ * <p>
+ * The wrapper also implements {@link Client} and {@link InvocationHandlerAware}
+ * when the target does, delegating to it, so that <code>WebClient.client(proxy)</code>
+ * and <code>WebClient.getConfig(proxy)</code> keep working.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RetryInvocationHandler implements InvocationHandler {
+
+	private static final Set<String> IDEMPOTENT_METHODS = new HashSet<String>(
+			Arrays.asList(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.PUT, HttpMethod.DELETE));
+	/**
+	 * 不重试的方法的占位，ConcurrentHashMap不支持null值
+	 */
+	private static final RetryOperation NONE = new RetryOperation("none", new ClientRetryProperty());
+
+	private final Class<?> serviceClass;
+	private final Object target;
+	private final RetryExecutor executor;
+	private final ClientRetryProperty defaults;
+	private final Map<String, ClientRetryProperty> operations;
+	private final ConcurrentMap<Method, RetryOperation> resolved = new ConcurrentHashMap<Method, RetryOperation>();
+
+	public RetryInvocationHandler(Class<?> serviceClass, Object target, RetryExecutor executor,
+			ClientRetryProperty defaults, Map<String, ClientRetryProperty> operations) {
+		this.serviceClass = serviceClass;
+		this.target = target;
+		this.executor = executor;
+		this.defaults = defaults;
+		this.operations = operations == null ? Collections.<String, ClientRetryProperty>emptyMap() : operations;
+	}
+
+	public static <T> T wrap(Class<T> serviceClass, T target, RetryExecutor executor, ClientRetryProperty defaults,
+			Map<String, ClientRetryProperty> operations) {
+		RetryInvocationHandler handler = new RetryInvocationHandler(serviceClass, target, executor, defaults, operations);
+		Set<Class<?>> interfaces = new LinkedHashSet<Class<?>>();
+		interfaces.add(serviceClass);
+		if (target instanceof Client) {
+			interfaces.add(Client.class);
+		}
+		if (target instanceof InvocationHandlerAware) {
+			interfaces.add(InvocationHandlerAware.class);
+		}
+		return serviceClass.cast(Proxy.newProxyInstance(target.getClass().getClassLoader(),
+				interfaces.toArray(new Class<?>[interfaces.size()]), handler));
+	}
+
+	/**
+	 * @return the proxy wrapped by a retrying proxy, or null when the object is not one
+	 */
+	public static Object getTarget(Object retrying) {
+		if (retrying != null && Proxy.isProxyClass(retrying.getClass())) {
+			InvocationHandler handler = Proxy.getInvocationHandler(retrying);
+			if (handler instanceof RetryInvocationHandler) {
+				return ((RetryInvocationHandler) handler).getTarget();
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+		if (method.getDeclaringClass() == Object.class) {
+			switch (method.getName()) {
+			case "equals":
+				return proxy == args[0];
+			case "hashCode":
+				return System.identityHashCode(proxy);
+			default:
+				return "Retrying " + target;
+			}
+		}
+
+		Class<?> declaring = method.getDeclaringClass();
+		if ((declaring == Client.class || declaring == InvocationHandlerAware.class) && !declaring.isAssignableFrom(serviceClass)) {
+			// WebClient.client(proxy)、WebClient.getConfig(proxy)等直接交给池中的代理
+			return invokeTarget(method, args);
+		}
+
+		RetryOperation operation = resolved.computeIfAbsent(method, this::resolve);
+		if (operation == NONE) {
+			return invokeTarget(method, args);
+		}
+		try {
+			return executor.execute(operation, () -> invokeTarget(method, args));
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			for (Class<?> declared : method.getExceptionTypes()) {
+				if (declared.isInstance(e)) {
+					throw e;
+				}
+			}
+			throw new ProcessingException(e);
+		}
+	}
+
+	protected RetryOperation resolve(Method method) {
+		String name = serviceClass.getSimpleName() + "." + method.getName();
+		ClientRetryProperty property = operations.get(name);
+		if (property == null) {
+			property = operations.get(method.getName());
+		}
+		if (property == null) {
+			property = defaults;
+		}
+		if (property == null || !property.isEnabled()) {
+			return NONE;
+		}
+		boolean idempotent = property.getIdempotent() != null ? property.getIdempotent() : isIdempotent(method);
+		return idempotent ? new RetryOperation(name, property) : NONE;
+	}
+
+	protected boolean isIdempotent(Method method) {
+		for (Annotation annotation : method.getAnnotations()) {
+			HttpMethod httpMethod = annotation.annotationType().getAnnotation(HttpMethod.class);
+			if (httpMethod != null) {
+				return IDEMPOTENT_METHODS.contains(httpMethod.value());
+			}
+		}
+		// 子资源定位方法等
+		return false;
+	}
+
+	private Object invokeTarget(Method method, Object[] args) throws Exception {
+		try {
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getTargetException();
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw cause instanceof Exception ? (Exception) cause : e;
+		}
+	}
+
+	/**
+	 * @return the operations resolved so far that are retried
+	 */
+	public Collection<RetryOperation> getOperations() {
+		return resolved.values().stream().filter(operation -> operation != NONE).collect(Collectors.toList());
+	}
+
+	public Object getTarget() {
+		return target;
+	}
+
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client.retry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.spring.boot.property.ClientRetryProperty;
+
+/**
+ * Retry/hedging settings of one operation together with its observed latencies
+ * and counters.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RetryOperation {
+
+	private final String name;
+	private final ClientRetryProperty property;
+	private final LatencyRecorder latency;
+
+	final LongAdder calls = new LongAdder();
+	final LongAdder retries = new LongAdder();
+	final LongAdder hedges = new LongAdder();
+	final LongAdder hedgeWins = new LongAdder();
+
+	public RetryOperation(String name, ClientRetryProperty property) {
+		this.name = name;
+		this.property = property;
+		this.latency = new LatencyRecorder(property.getHedgingPercentile());
+	}
+
+	/**
+	 * @return the delay after which a hedged attempt is sent, in nanoseconds
+	 */
+	long getHedgingDelay() {
+		long percentile = latency.getPercentile();
+		if (percentile < 0) {
+			return TimeUnit.MILLISECONDS.toNanos(property.getHedgingDelay());
+		}
+		return Math.max(percentile, TimeUnit.MILLISECONDS.toNanos(property.getHedgingMinDelay()));
+	}
+
+	boolean isRetryableStatus(int status) {
+		return property.getRetryStatuses().contains(status);
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public ClientRetryProperty getProperty() {
+		return property;
+	}
+
+	public LatencyRecorder getLatency() {
+		return latency;
+	}
+
+	public long getCallCount() {
+		return calls.sum();
+	}
+
+	public long getRetryCount() {
+		return retries.sum();
+	}
+
+	public long getHedgeCount() {
+		return hedges.sum();
+	}
+
+	/**
+	 * @return hedged attempts that answered before the original one
+	 */
+	public long getHedgeWinCount() {
+		return hedgeWins.sum();
+	}
+
+	@Override
+	public String toString() {
+		return "RetryOperation[" + name + ", calls=" + getCallCount() + ", retries=" + getRetryCount() + ", hedges="
+				+ getHedgeCount() + ", hedgeWins=" + getHedgeWinCount() + "]";
+	}
+
+}
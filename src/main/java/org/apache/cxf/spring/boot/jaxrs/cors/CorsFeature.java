@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.cors;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.rs.security.cors.CrossOriginResourceSharingFilter;
+import org.apache.cxf.spring.boot.property.CorsFeatureProperty;
+
+/**
+ * Cross-origin resource sharing for the published endpoints, configured under
+ * <code>cxf.jaxrs.cors.*</code>.
+ * <p>
+ * By default a {@link CorsFilter} answers preflight requests before resource
+ * selection. With <code>resource-annotations</code> the CXF
+ * {@link CrossOriginResourceSharingFilter} is installed instead, so that
+ * <code>&#64;CrossOriginResourceSharing</code> on resources is honoured.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CorsFeature extends AbstractFeature {
+
+	private final CorsFeatureProperty property;
+	private final Object filter;
+
+	public CorsFeature(CorsFeatureProperty property) {
+		CorsPolicy.validateAllowCredentials(property);
+		this.property = property;
+		this.filter = property.isResourceAnnotations() ? createResourceFilter(property)
+				: new CorsFilter(new CorsPolicy(property), property.getPreflightErrorStatus());
+	}
+
+	private static CrossOriginResourceSharingFilter createResourceFilter(CorsFeatureProperty property) {
+		CrossOriginResourceSharingFilter filter = new CrossOriginResourceSharingFilter();
+		// CXF以空列表表示允许所有Origin
+		List<String> origins = new ArrayList<String>(property.getAllowOrigins());
+		origins.remove(CorsPolicy.ANY);
+		filter.setAllowOrigins(origins);
+		filter.setAllowHeaders(property.getAllowHeaders());
+		filter.setExposeHeaders(property.getExposeHeaders());
+		filter.setAllowCredentials(property.isAllowCredentials());
+		if (property.getMaxAge() >= 0) {
+			filter.setMaxAge((int) Math.min(Integer.MAX_VALUE, property.getMaxAge()));
+		}
+		filter.setPreflightErrorStatus(property.getPreflightErrorStatus());
+		filter.setFindResourceMethod(true);
+		return filter;
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		ServerProviderFactory factory = (ServerProviderFactory) server.getEndpoint()
+				.get(ServerProviderFactory.class.getName());
+		if (factory != null) {
+			factory.setUserProviders(Collections.singletonList(filter));
+		}
+	}
+
+	public CorsFeatureProperty getProperty() {
+		return property;
+	}
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.cors;
+
+import java.io.IOException;
+
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+
+import org.apache.cxf.rs.security.cors.CorsHeaderConstants;
+
+/**
+ * CORS filter applying one {@link CorsPolicy}.
+ * <ul>
+ * <li>preflight requests (OPTIONS with Origin and Access-Control-Request-Method)
+ * are answered before resource selection, with Access-Control-Max-Age so the
+ * browser stops preflighting every call;</li>
+ * <li>other cross-origin requests get Access-Control-Allow-Origin and the
+ * exposed headers on their response.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@PreMatching
+@Priority(Priorities.AUTHENTICATION - 100)
+public class CorsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+
+	private final CorsPolicy policy;
+	private final int preflightErrorStatus;
+
+	public CorsFilter(CorsPolicy policy, int preflightErrorStatus) {
+		this.policy = policy;
+		this.preflightErrorStatus = preflightErrorStatus;
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) throws IOException {
+
+		String origin = requestContext.getHeaderString(CorsHeaderConstants.HEADER_ORIGIN);
+		if (origin == null || !isPreflight(requestContext)) {
+			// 普通的OPTIONS请求，交给资源处理
+			return;
+		}
+		String method = requestContext.getHeaderString(CorsHeaderConstants.HEADER_AC_REQUEST_METHOD);
+
+		String requestHeaders = requestContext.getHeaderString(CorsHeaderConstants.HEADER_AC_REQUEST_HEADERS);
+		if (!policy.isAllowedOrigin(origin) || !policy.isAllowedMethod(method)
+				|| !policy.isAllowedHeaders(requestHeaders)) {
+			requestContext.abortWith(Response.status(preflightErrorStatus).build());
+			return;
+		}
+
+		ResponseBuilder builder = Response.ok()
+				.header(CorsHeaderConstants.HEADER_AC_ALLOW_ORIGIN, policy.getAllowOrigin(origin))
+				.header(CorsHeaderConstants.HEADER_AC_ALLOW_METHODS, policy.getAllowMethods());
+		String allowHeaders = policy.getAllowHeaders() != null ? policy.getAllowHeaders() : requestHeaders;
+		if (allowHeaders != null && !allowHeaders.isEmpty()) {
+			builder.header(CorsHeaderConstants.HEADER_AC_ALLOW_HEADERS, allowHeaders);
+		}
+		if (policy.isAllowCredentials()) {
+			builder.header(CorsHeaderConstants.HEADER_AC_ALLOW_CREDENTIALS, "true");
+		}
+		if (policy.getMaxAge() != null) {
+			builder.header(CorsHeaderConstants.HEADER_AC_MAX_AGE, policy.getMaxAge());
+		}
+		if (policy.isVaryOrigin()) {
+			builder.header(HttpHeaders.VARY, CorsHeaderConstants.HEADER_ORIGIN);
+		}
+		requestContext.abortWith(builder.build());
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+			throws IOException {
+
+		String origin = requestContext.getHeaderString(CorsHeaderConstants.HEADER_ORIGIN);
+		// 预检请求已在请求阶段应答，被拒绝的预检不能再补上CORS头
+		if (origin == null || isPreflight(requestContext)) {
+			return;
+		}
+		MultivaluedMap<String, Object> headers = responseContext.getHeaders();
+		if (policy.isVaryOrigin()) {
+			headers.add(HttpHeaders.VARY, CorsHeaderConstants.HEADER_ORIGIN);
+		}
+		if (!policy.isAllowedOrigin(origin)) {
+			return;
+		}
+		headers.putSingle(CorsHeaderConstants.HEADER_AC_ALLOW_ORIGIN, policy.getAllowOrigin(origin));
+		if (policy.isAllowCredentials()) {
+			headers.putSingle(CorsHeaderConstants.HEADER_AC_ALLOW_CREDENTIALS, "true");
+		}
+		if (policy.getExposeHeaders() != null) {
+			headers.putSingle(CorsHeaderConstants.HEADER_AC_EXPOSE_HEADERS, policy.getExposeHeaders());
+		}
+	}
+
+	private static boolean isPreflight(ContainerRequestContext requestContext) {
+		return HttpMethod.OPTIONS.equals(requestContext.getMethod())
+				&& requestContext.getHeaderString(CorsHeaderConstants.HEADER_AC_REQUEST_METHOD) != null;
+	}
+
+	public CorsPolicy getPolicy() {
+		return policy;
+	}
+
+}
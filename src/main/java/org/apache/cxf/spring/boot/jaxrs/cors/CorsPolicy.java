@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.cors;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import org.apache.cxf.spring.boot.property.CorsFeatureProperty;
+
+/**
+ * CORS settings turned into lookup sets and ready-to-send header values, so
+ * that answering a request never joins lists or formats numbers.
+ * <p>
+ * Credentials are only allowed together with an explicit list of origins:
+ * echoing any origin back with Access-Control-Allow-Credentials would let
+ * every site make authenticated calls on behalf of the user.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CorsPolicy {
+
+	static final String ANY = "*";
+
+	private final boolean anyOrigin;
+	private final Set<String> origins;
+	private final Set<String> methods;
+	private final boolean anyHeader;
+	private final Set<String> headers;
+	private final boolean allowCredentials;
+	private final String allowMethods;
+	private final String allowHeaders;
+	private final String exposeHeaders;
+	private final String maxAge;
+
+	public CorsPolicy(CorsFeatureProperty property) {
+		validateAllowCredentials(property);
+		this.anyOrigin = property.getAllowOrigins().contains(ANY);
+		this.origins = new HashSet<String>(property.getAllowOrigins());
+		this.methods = new HashSet<String>(property.getAllowMethods());
+		this.anyHeader = property.getAllowHeaders().isEmpty() || property.getAllowHeaders().contains(ANY);
+		this.headers = new HashSet<String>();
+		for (String header : property.getAllowHeaders()) {
+			headers.add(header.trim().toLowerCase(Locale.ENGLISH));
+		}
+		this.allowCredentials = property.isAllowCredentials();
+		this.allowMethods = join(property.getAllowMethods());
+		this.allowHeaders = anyHeader ? null : join(property.getAllowHeaders());
+		this.exposeHeaders = property.getExposeHeaders().isEmpty() ? null : join(property.getExposeHeaders());
+		this.maxAge = property.getMaxAge() < 0 ? null : String.valueOf(property.getMaxAge());
+	}
+
+	/**
+	 * 与Spring的CorsConfiguration.validateAllowCredentials一致：允许凭证时不能允许任意Origin
+	 */
+	public static void validateAllowCredentials(CorsFeatureProperty property) {
+		if (property.isAllowCredentials()
+				&& (property.getAllowOrigins().isEmpty() || property.getAllowOrigins().contains(ANY))) {
+			throw new IllegalStateException("When allow-credentials is true, allow-origins cannot be empty or contain \"*\": "
+					+ "list the allowed origins explicitly.");
+		}
+	}
+
+	private static String join(Collection<String> values) {
+		StringBuilder builder = new StringBuilder();
+		for (String value : values) {
+			if (builder.length() > 0) {
+				builder.append(", ");
+			}
+			builder.append(value.trim());
+		}
+		return builder.toString();
+	}
+
+	public boolean isAllowedOrigin(String origin) {
+		return anyOrigin || origins.contains(origin);
+	}
+
+	/**
+	 * @return the Access-Control-Allow-Origin value for an allowed origin
+	 */
+	public String getAllowOrigin(String origin) {
+		// 允许凭证时不会是任意Origin，见validateAllowCredentials
+		return anyOrigin ? ANY : origin;
+	}
+
+	/**
+	 * @return whether responses depend on the Origin header and must say so in Vary
+	 */
+	public boolean isVaryOrigin() {
+		return !anyOrigin;
+	}
+
+	public boolean isAllowedMethod(String method) {
+		return methods.contains(method);
+	}
+
+	/**
+	 * @param requestHeaders the Access-Control-Request-Headers value, may be null
+	 */
+	public boolean isAllowedHeaders(String requestHeaders) {
+		if (anyHeader || requestHeaders == null) {
+			return true;
+		}
+		for (String header : requestHeaders.split(",")) {
+			header = header.trim();
+			if (!header.isEmpty() && !headers.contains(header.toLowerCase(Locale.ENGLISH))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public boolean isAllowCredentials() {
+		return allowCredentials;
+	}
+
+	public String getAllowMethods() {
+		return allowMethods;
+	}
+
+	/**
+	 * @return the configured header list, or null when any requested header is echoed back
+	 */
+	public String getAllowHeaders() {
+		return allowHeaders;
+	}
+
+	public String getExposeHeaders() {
+		return exposeHeaders;
+	}
+
+	public String getMaxAge() {
+		return maxAge;
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.deadline;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.cxf.interceptor.Fault;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.spring.boot.property.DeadlineFeatureProperty;
+import org.apache.cxf.transport.Conduit;
+import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.Headers;
+
+/**
+ * Propagates the remaining budget of the request being served by the current
+ * thread on outbound client calls: the relative timeout is sent in the timeout
+ * header and also caps the receive timeout of the conduit. Calls made after the
+ * deadline has passed fail fast without reaching the network.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DeadlineClientInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private final DeadlineFeatureProperty property;
+
+	public DeadlineClientInterceptor(DeadlineFeatureProperty property) {
+		super(Phase.SETUP);
+		this.property = property;
+	}
+
+	@Override
+	public void handleMessage(Message message) {
+		DeadlineContext context = DeadlineContext.current();
+		if (!context.hasDeadline()) {
+			return;
+		}
+		long remaining = context.getRemainingMillis();
+		if (remaining <= 0) {
+			throw new Fault(new TimeoutException("Deadline exceeded before calling " + message.get(Message.ENDPOINT_ADDRESS)));
+		}
+		Map<String, List<String>> headers = Headers.getSetProtocolHeaders(message);
+		if (!headers.containsKey(property.getTimeoutHeaderName())) {
+			headers.put(property.getTimeoutHeaderName(), Collections.singletonList(String.valueOf(remaining)));
+		}
+		long receiveTimeout = getReceiveTimeout(message);
+		if (receiveTimeout <= 0 || receiveTimeout > remaining) {
+			message.put(Message.RECEIVE_TIMEOUT, remaining);
+		}
+	}
+
+	private long getReceiveTimeout(Message message) {
+		Object timeout = message.getContextualProperty(Message.RECEIVE_TIMEOUT);
+		if (timeout != null) {
+			try {
+				return Long.parseLong(timeout.toString());
+			} catch (NumberFormatException e) {
+				return 0;
+			}
+		}
+		Conduit conduit = message.getExchange().getConduit(message);
+		if (conduit instanceof HTTPConduit && ((HTTPConduit) conduit).getClient() != null) {
+			return ((HTTPConduit) conduit).getClient().getReceiveTimeout();
+		}
+		return 0;
+	}
+
+}
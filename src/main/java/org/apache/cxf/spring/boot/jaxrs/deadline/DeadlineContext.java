@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.deadline;
+
+import java.util.concurrent.Callable;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * The time budget of the current request, resolved from the deadline/timeout
+ * request header. Resource methods can inject it with
+ * <code>@Context DeadlineContext deadline</code> and stop early once the caller
+ * has given up.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public final class DeadlineContext {
+
+	/**
+	 * Context of requests that arrived without any deadline.
+	 */
+	public static final DeadlineContext NONE = new DeadlineContext(Long.MAX_VALUE);
+
+	private static final ThreadLocal<DeadlineContext> CURRENT = new ThreadLocal<DeadlineContext>();
+
+	/**
+	 * Absolute deadline, as returned by {@link System#currentTimeMillis()}.
+	 */
+	private final long deadlineMillis;
+
+	private DeadlineContext(long deadlineMillis) {
+		this.deadlineMillis = deadlineMillis;
+	}
+
+	public static DeadlineContext at(long deadlineMillis) {
+		return new DeadlineContext(deadlineMillis);
+	}
+
+	public static DeadlineContext after(long timeoutMillis) {
+		return new DeadlineContext(System.currentTimeMillis() + Math.max(0, timeoutMillis));
+	}
+
+	/**
+	 * @return the deadline of the request being processed by the current thread,
+	 *         or {@link #NONE}
+	 */
+	public static DeadlineContext current() {
+		DeadlineContext context = CURRENT.get();
+		return context == null ? NONE : context;
+	}
+
+	/**
+	 * Wraps a task handed over to another thread so that it runs, and propagates
+	 * outbound, under the deadline of the current request.
+	 * @param task the task
+	 * @return the wrapped task, or the task itself when there is no deadline
+	 */
+	public static <V> Callable<V> wrap(Callable<V> task) {
+		DeadlineContext context = current();
+		if (context == NONE) {
+			return task;
+		}
+		return () -> {
+			DeadlineContext previous = attach(context);
+			try {
+				return task.call();
+			} finally {
+				restore(previous);
+			}
+		};
+	}
+
+	/**
+	 * @return the context bound to the current thread before, null when there was none
+	 */
+	static DeadlineContext attach(DeadlineContext context) {
+		DeadlineContext previous = CURRENT.get();
+		CURRENT.set(context);
+		return previous;
+	}
+
+	/**
+	 * @param previous the context returned by {@link #attach(DeadlineContext)}
+	 */
+	static void restore(DeadlineContext previous) {
+		if (previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(previous);
+		}
+	}
+
+	public boolean hasDeadline() {
+		return deadlineMillis != Long.MAX_VALUE;
+	}
+
+	public long getDeadlineMillis() {
+		return deadlineMillis;
+	}
+
+	/**
+	 * @return the remaining budget in milliseconds, never negative;
+	 *         {@link Long#MAX_VALUE} when the request has no deadline
+	 */
+	public long getRemainingMillis() {
+		if (!hasDeadline()) {
+			return Long.MAX_VALUE;
+		}
+		return Math.max(0, deadlineMillis - System.currentTimeMillis());
+	}
+
+	public boolean isExpired() {
+		return hasDeadline() && System.currentTimeMillis() >= deadlineMillis;
+	}
+
+	/**
+	 * Cooperative cancellation point for long running resource methods.
+	 * @throws WebApplicationException with status 504 when the deadline has passed
+	 */
+	public void checkDeadline() {
+		if (isExpired()) {
+			throw new WebApplicationException(Response.Status.GATEWAY_TIMEOUT);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return hasDeadline() ? "DeadlineContext[remaining=" + getRemainingMillis() + "ms]" : "DeadlineContext[none]";
+	}
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.deadline;
+
+import org.apache.cxf.jaxrs.ext.ContextProvider;
+import org.apache.cxf.message.Message;
+
+/**
+ * Makes {@link DeadlineContext} injectable through <code>@Context</code>.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DeadlineContextProvider implements ContextProvider<DeadlineContext> {
+
+	@Override
+	public DeadlineContext createContext(Message message) {
+		DeadlineContext context = message.getExchange().get(DeadlineContext.class);
+		return context == null ? DeadlineContext.NONE : context;
+	}
+
+}
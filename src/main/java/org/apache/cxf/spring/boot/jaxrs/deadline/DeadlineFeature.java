@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.deadline;
+
+import java.util.Collections;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.spring.boot.property.DeadlineFeatureProperty;
+
+/**
+ * Deadline propagation and timeout-aware cancellation.
+ * <ul>
+ * <li>On endpoints: reads the timeout/deadline header, exposes the remaining
+ * budget through an injectable {@link DeadlineContext} and answers 504 once the
+ * deadline has passed;</li>
+ * <li>On clients: propagates the remaining budget of the current request on
+ * outbound calls.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DeadlineFeature extends AbstractFeature {
+
+	private final DeadlineFeatureProperty property;
+
+	public DeadlineFeature(DeadlineFeatureProperty property) {
+		this.property = property;
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		Endpoint endpoint = server.getEndpoint();
+		endpoint.getInInterceptors().add(new DeadlineInInterceptor(Phase.RECEIVE, property));
+		endpoint.getInInterceptors().add(new DeadlineInInterceptor(Phase.PRE_INVOKE, property));
+		DeadlineOutInterceptor outInterceptor = new DeadlineOutInterceptor();
+		endpoint.getOutInterceptors().add(outInterceptor);
+		endpoint.getOutFaultInterceptors().add(outInterceptor);
+
+		ServerProviderFactory factory = (ServerProviderFactory) endpoint.get(ServerProviderFactory.class.getName());
+		if (factory != null) {
+			factory.setUserProviders(Collections.singletonList(new DeadlineContextProvider()));
+		}
+	}
+
+	/**
+	 * JAX-RS clients hand their ClientConfiguration over as the interceptor provider.
+	 */
+	@Override
+	protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+		if (property.isPropagate()) {
+			provider.getOutInterceptors().add(new DeadlineClientInterceptor(property));
+		}
+	}
+
+	public DeadlineFeatureProperty getProperty() {
+		return property;
+	}
+
+}
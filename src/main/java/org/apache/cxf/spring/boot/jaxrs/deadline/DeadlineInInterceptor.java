@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.deadline;
+
+import javax.ws.rs.core.Response;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.spring.boot.property.DeadlineFeatureProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves the {@link DeadlineContext} of an incoming request and aborts it with
+ * 504 once the deadline has passed. Installed twice by {@link DeadlineFeature}: at
+ * {@link Phase#RECEIVE}, before resource matching, and at {@link Phase#PRE_INVOKE},
+ * right before the resource method is called.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DeadlineInInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(DeadlineInInterceptor.class);
+	/**
+	 * 交换中保存的、本请求绑定之前线程上的截止时间
+	 */
+	private static final String PREVIOUS_CONTEXT = DeadlineContext.class.getName() + ".previous";
+	private static final Object UNBOUND = new Object();
+	private final DeadlineFeatureProperty property;
+
+	public DeadlineInInterceptor(DeadlineFeatureProperty property) {
+		this(Phase.RECEIVE, property);
+	}
+
+	public DeadlineInInterceptor(String phase, DeadlineFeatureProperty property) {
+		super(phase);
+		this.property = property;
+	}
+
+	@Override
+	public void handleMessage(Message message) {
+		Exchange exchange = message.getExchange();
+		DeadlineContext context = exchange.get(DeadlineContext.class);
+		if (context == null) {
+			context = resolve(message);
+			exchange.put(DeadlineContext.class, context);
+			// 同一线程内嵌套的请求（如local://直接分发）结束时须恢复外层请求的截止时间
+			DeadlineContext previous = DeadlineContext.attach(context);
+			exchange.put(PREVIOUS_CONTEXT, previous == null ? UNBOUND : previous);
+		}
+		if (context.isExpired() && exchange.get(Response.class) == null) {
+			LOG.debug("Deadline exceeded before {}, aborting request.", getPhase());
+			// JAXRSInInterceptor and JAXRSInvoker both short-circuit on a response already in the exchange
+			exchange.put(Response.class, Response.status(Response.Status.GATEWAY_TIMEOUT).build());
+		}
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		release(message.getExchange());
+	}
+
+	/**
+	 * Restores the context the worker thread had before the request of the exchange was attached.
+	 */
+	static void release(Exchange exchange) {
+		Object previous = exchange.remove(PREVIOUS_CONTEXT);
+		if (previous != null) {
+			DeadlineContext.restore(previous instanceof DeadlineContext ? (DeadlineContext) previous : null);
+		}
+	}
+
+	protected DeadlineContext resolve(Message message) {
+		long timeout = parse(HttpUtils.getProtocolHeader(message, property.getTimeoutHeaderName(), null));
+		if (timeout >= 0) {
+			return DeadlineContext.after(bound(timeout));
+		}
+		long deadline = parse(HttpUtils.getProtocolHeader(message, property.getDeadlineHeaderName(), null));
+		if (deadline >= 0) {
+			long now = System.currentTimeMillis();
+			return DeadlineContext.at(now + bound(deadline - now));
+		}
+		if (property.getDefaultTimeout() > 0) {
+			return DeadlineContext.after(bound(property.getDefaultTimeout()));
+		}
+		return DeadlineContext.NONE;
+	}
+
+	private long bound(long timeout) {
+		if (property.getMaxTimeout() > 0) {
+			return Math.min(timeout, property.getMaxTimeout());
+		}
+		return timeout;
+	}
+
+	private long parse(String value) {
+		if (StringUtils.isBlank(value)) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(value.trim());
+		} catch (NumberFormatException e) {
+			LOG.warn("Ignoring malformed deadline header value '{}'.", value);
+			return -1;
+		}
+	}
+
+}
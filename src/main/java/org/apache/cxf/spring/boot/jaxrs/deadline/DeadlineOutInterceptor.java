@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.deadline;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+
+/**
+ * Releases the {@link DeadlineContext} bound to the worker thread once the
+ * response (or fault) of the request starts being written, restoring the
+ * context of an enclosing request dispatched on the same thread.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class DeadlineOutInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	public DeadlineOutInterceptor() {
+		super(Phase.SETUP);
+	}
+
+	@Override
+	public void handleMessage(Message message) {
+		DeadlineInInterceptor.release(message.getExchange());
+	}
+
+	@Override
+	public void handleFault(Message message) {
+		DeadlineInInterceptor.release(message.getExchange());
+	}
+
+}
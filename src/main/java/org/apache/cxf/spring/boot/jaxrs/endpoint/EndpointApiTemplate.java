@@ -15,6 +15,8 @@
  */
 package org.apache.cxf.spring.boot.jaxrs.endpoint;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -22,13 +24,20 @@ import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.cxf.Bus;
 import org.apache.cxf.endpoint.ServerImpl;
 import org.apache.cxf.ext.logging.LoggingFeature;
+import org.apache.cxf.feature.Feature;
 import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
 import org.apache.cxf.metrics.MetricsFeature;
 import org.apache.cxf.spring.boot.CxfJaxrsServerProperties;
 import org.apache.cxf.spring.boot.jaxrs.callback.DefaultEndpointCallback;
+import org.apache.cxf.spring.boot.jaxrs.filter.OperationFilterFeature;
+import org.apache.cxf.spring.boot.jaxrs.routing.ResourceRoutingFeature;
+import org.apache.cxf.spring.boot.jaxrs.routing.ResourceSelection;
+import org.apache.cxf.spring.boot.jaxrs.swagger.SwaggerDocumentCache;
+import org.apache.cxf.spring.boot.property.Swagger2FeatureProperty;
 import org.apache.cxf.validation.BeanValidationFeature;
 
 import com.fasterxml.jackson.jaxrs.json.JacksonJaxbJsonProvider;
+import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 
 /**
  * TODO
@@ -38,17 +47,44 @@ public class EndpointApiTemplate {
 	
 	private ConcurrentMap<String, ServerImpl> endpointServers = new ConcurrentHashMap<String, ServerImpl>();
 	private Bus bus;
-	private EndpointCallback callback;
+	private volatile EndpointCallback callback;
 	private LoggingFeature loggingFeature;
 	private MetricsFeature metricsFeature;
 	private BeanValidationFeature validationFeature;
+	/**
+	 * 附加到每个发布的Endpoint上的Feature
+	 */
+	private List<Feature> features = new ArrayList<Feature>();
+	/**
+	 * 发布时按操作编译成过滤器链的JAX-RS过滤器与拦截器，见{@link OperationFilterFeature}
+	 */
+	private List<Object> operationFilters = new ArrayList<Object>();
+	/**
+	 * 服务端与客户端共享的Json Provider
+	 */
+	private JacksonJsonProvider jsonProvider = new JacksonJaxbJsonProvider();
 	private CxfJaxrsServerProperties serverProperties;
+	/**
+	 * 非空时默认回调为每个发布的Endpoint附加Swagger2Feature
+	 */
+	private Swagger2FeatureProperty swaggerProperty;
+	/**
+	 * 已生成的Swagger文档，发布或销毁Endpoint时失效
+	 */
+	private SwaggerDocumentCache swaggerDocumentCache;
+	/**
+	 * 不为空时，发布的Endpoint同时注册在local://传输上
+	 */
+	private LocalEndpointRegistry localEndpointRegistry;
+	/**
+	 * multipart请求流式读取时，默认回调不添加会缓存请求体的日志拦截器
+	 */
+	private boolean multipartStreaming;
 	
 
 	public EndpointApiTemplate(Bus bus, CxfJaxrsServerProperties serverProperties) {
 		this.bus = bus;
 		this.serverProperties = serverProperties;
-		this.callback = new DefaultEndpointCallback( loggingFeature, metricsFeature, validationFeature);
 	}
 
 	/**
@@ -59,7 +95,7 @@ public class EndpointApiTemplate {
 	 * @return
 	 */
 	public ServerImpl publish(String addr, Object... implementors) {
-		return this.publish(addr, callback, implementors);
+		return this.publish(addr, getCallback(), implementors);
 	}
 
 	/**
@@ -85,16 +121,25 @@ public class EndpointApiTemplate {
 		factoryBean.setLanguageMappings(serverProperties.getLanguageMappings());;
 		factoryBean.setProperties(serverProperties.getProperties());
 		// 添加 Provider
-		factoryBean.setProvider(new JacksonJaxbJsonProvider());
+		factoryBean.setProvider(jsonProvider);
 		factoryBean.setPublishedEndpointUrl(serverProperties.getPublishedEndpointUrl());
 		
 		// 3). 调用回调函数，个性化设置拦截器、Provider、Feature
 		callback.doCallback(factoryBean, implementors );
+		factoryBean.getFeatures().addAll(features);
+		if (!operationFilters.isEmpty()) {
+			factoryBean.getFeatures().add(new OperationFilterFeature(operationFilters));
+		}
+		if (serverProperties.getResourceSelection(addr) == ResourceSelection.TRIE) {
+			factoryBean.getFeatures().add(new ResourceRoutingFeature());
+		}
 		
 		// 4). 创建并发布服务，会发起一个http服务，默认使用Jetty
 		ServerImpl server = (ServerImpl) factoryBean.create();
 		
 		endpointServers.put(addr, server);
+		registerLocal(addr, server, implementors);
+		invalidateDocuments();
 
 		return server;
 	}
@@ -121,17 +166,26 @@ public class EndpointApiTemplate {
 		factoryBean.setLanguageMappings(serverProperties.getLanguageMappings());
 		factoryBean.setProperties(serverProperties.getProperties());
 		// 添加 Provider
-		factoryBean.setProvider(new JacksonJaxbJsonProvider());
+		factoryBean.setProvider(jsonProvider);
 		factoryBean.setPublishedEndpointUrl(serverProperties.getPublishedEndpointUrl());
 		factoryBean.setResourceClasses(classes);
 		
 		// 3). 调用回调函数，个性化设置拦截器、Provider、Feature
 		callback.doCallback(factoryBean, classes );
+		factoryBean.getFeatures().addAll(features);
+		if (!operationFilters.isEmpty()) {
+			factoryBean.getFeatures().add(new OperationFilterFeature(operationFilters));
+		}
+		if (serverProperties.getResourceSelection(addr) == ResourceSelection.TRIE) {
+			factoryBean.getFeatures().add(new ResourceRoutingFeature());
+		}
 		
 		// 4). 创建并发布服务，会发起一个http服务，默认使用Jetty
 		ServerImpl server = (ServerImpl) factoryBean.create();
 		
 		endpointServers.put(addr, server);
+		registerLocal(addr, server);
+		invalidateDocuments();
 
 		return server;
 	}
@@ -142,10 +196,54 @@ public class EndpointApiTemplate {
 	 * @param addr
 	 */
 	public void destroy(String addr) {
-		ServerImpl myServer = (ServerImpl) endpointServers.get(addr);
+		ServerImpl myServer = endpointServers.remove(addr);
 		if (myServer != null) {
+			if (localEndpointRegistry != null) {
+				localEndpointRegistry.unregister(addr);
+			}
 			myServer.destroy();
+			invalidateDocuments();
+		}
+	}
+
+	/**
+	 * 同时在local://传输上注册，供同进程内的客户端调用
+	 */
+	private void registerLocal(String addr, ServerImpl server, Object... implementors) {
+		if (localEndpointRegistry != null) {
+			localEndpointRegistry.register(addr, server, implementors);
+		}
+	}
+
+	private void invalidateDocuments() {
+		if (swaggerDocumentCache != null) {
+			swaggerDocumentCache.invalidate();
+		}
+	}
+
+	/**
+	 * 默认回调在首次发布时创建，以便使用通过setter注入的Feature；并发发布时只创建一次
+	 */
+	public EndpointCallback getCallback() {
+		EndpointCallback current = callback;
+		if (current == null) {
+			synchronized (this) {
+				current = callback;
+				if (current == null) {
+					DefaultEndpointCallback defaultCallback = new DefaultEndpointCallback(loggingFeature, metricsFeature,
+							validationFeature, jsonProvider);
+					defaultCallback.setSwaggerProperty(swaggerProperty);
+					defaultCallback.setSwaggerDocumentCache(swaggerDocumentCache);
+					defaultCallback.setMultipartStreaming(multipartStreaming);
+					callback = current = defaultCallback;
+				}
+			}
 		}
+		return current;
+	}
+
+	public void setCallback(EndpointCallback callback) {
+		this.callback = callback;
 	}
 
 	public Bus getBus() {
@@ -179,5 +277,61 @@ public class EndpointApiTemplate {
 	public void setValidationFeature(BeanValidationFeature validationFeature) {
 		this.validationFeature = validationFeature;
 	}
+
+	public JacksonJsonProvider getJsonProvider() {
+		return jsonProvider;
+	}
+
+	public void setJsonProvider(JacksonJsonProvider jsonProvider) {
+		this.jsonProvider = jsonProvider;
+	}
+
+	public List<Feature> getFeatures() {
+		return features;
+	}
+
+	public void setFeatures(List<Feature> features) {
+		this.features = features;
+	}
+
+	public List<Object> getOperationFilters() {
+		return operationFilters;
+	}
+
+	public void setOperationFilters(List<Object> operationFilters) {
+		this.operationFilters = operationFilters;
+	}
+
+	public boolean isMultipartStreaming() {
+		return multipartStreaming;
+	}
+
+	public void setMultipartStreaming(boolean multipartStreaming) {
+		this.multipartStreaming = multipartStreaming;
+	}
+
+	public Swagger2FeatureProperty getSwaggerProperty() {
+		return swaggerProperty;
+	}
+
+	public void setSwaggerProperty(Swagger2FeatureProperty swaggerProperty) {
+		this.swaggerProperty = swaggerProperty;
+	}
+
+	public SwaggerDocumentCache getSwaggerDocumentCache() {
+		return swaggerDocumentCache;
+	}
+
+	public void setSwaggerDocumentCache(SwaggerDocumentCache swaggerDocumentCache) {
+		this.swaggerDocumentCache = swaggerDocumentCache;
+	}
+
+	public LocalEndpointRegistry getLocalEndpointRegistry() {
+		return localEndpointRegistry;
+	}
+
+	public void setLocalEndpointRegistry(LocalEndpointRegistry localEndpointRegistry) {
+		this.localEndpointRegistry = localEndpointRegistry;
+	}
 	
 }
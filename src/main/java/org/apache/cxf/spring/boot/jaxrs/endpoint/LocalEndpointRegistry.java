@@ -0,0 +1,263 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.endpoint;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusException;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.spring.boot.property.LocalTransportProperty;
+import org.apache.cxf.transport.Destination;
+import org.apache.cxf.transport.DestinationFactory;
+import org.apache.cxf.transport.DestinationFactoryManager;
+import org.apache.cxf.transport.MessageObserver;
+import org.apache.cxf.transport.local.LocalTransportFactory;
+
+/**
+ * Endpoints published by {@link EndpointApiTemplate} that are also reachable
+ * on CXF's <code>local://</code> transport.
+ * <p>
+ * The local destination shares the message observer of the published server,
+ * so local calls run through the same interceptors, filters and providers
+ * without a socket. Client addresses are mapped to the local address by path:
+ * relative endpoint addresses are resolved under the CXF servlet path and
+ * match the hosts configured as local, absolute ones must match scheme, host
+ * and port. Clients created before an endpoint is published keep using HTTP.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class LocalEndpointRegistry {
+
+	public static final String LOCAL_SCHEME = "local://";
+
+	private final ConcurrentMap<String, LocalEndpoint> endpoints = new ConcurrentHashMap<String, LocalEndpoint>();
+	private final Bus bus;
+	private final LocalTransportProperty property;
+	/**
+	 * 相对地址发布的Endpoint所在的Servlet路径
+	 */
+	private final String basePath;
+
+	public LocalEndpointRegistry(Bus bus, LocalTransportProperty property, String basePath) {
+		this.bus = bus;
+		this.property = property;
+		this.basePath = trimSlash(basePath == null ? "" : basePath);
+	}
+
+	/**
+	 * 在local://传输上注册已发布的Endpoint
+	 * @param address the address the endpoint was published at
+	 * @param server the published server
+	 * @param implementors the service beans of the endpoint, used for direct invocation
+	 * @return the local address of the endpoint
+	 */
+	public String register(String address, Server server, Object... implementors) {
+		URI uri = URI.create(address);
+		String path = uri.isAbsolute() ? trimSlash(uri.getRawPath()) : basePath + trimSlash(address);
+		String localAddress = LOCAL_SCHEME + (path.startsWith("/") ? path.substring(1) : path);
+
+		LocalEndpoint endpoint = new LocalEndpoint(uri.isAbsolute() ? uri : null, path, localAddress,
+				server.getDestination().getMessageObserver(),
+				implementors == null ? Collections.emptyList() : Arrays.asList(implementors));
+		LocalEndpoint previous = endpoints.put(address, endpoint);
+		if (previous != null) {
+			previous.shutdown();
+		}
+		endpoint.getDestination(localAddress);
+		return localAddress;
+	}
+
+	public void unregister(String address) {
+		LocalEndpoint endpoint = endpoints.remove(address);
+		if (endpoint != null) {
+			endpoint.shutdown();
+		}
+	}
+
+	/**
+	 * @param address a client address
+	 * @return the local:// address serving it, or null when no co-located endpoint matches
+	 */
+	public String resolve(String address) {
+		URI uri = URI.create(address);
+		LocalEndpoint endpoint = find(uri);
+		if (endpoint == null) {
+			return null;
+		}
+		String remainder = uri.getRawPath().substring(endpoint.path.length());
+		String localAddress = endpoint.localAddress + remainder + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+		// LocalConduit按客户端基地址精确查找Destination：带子路径的地址需要共享同一Observer的别名
+		endpoint.getDestination(localAddress);
+		return localAddress;
+	}
+
+	/**
+	 * @param address the base address of a client proxy
+	 * @param serviceClass the resource interface
+	 * @return the co-located service bean published exactly at the address, or null
+	 */
+	public <T> T getImplementor(String address, Class<T> serviceClass) {
+		URI uri = URI.create(address);
+		LocalEndpoint endpoint = find(uri);
+		if (endpoint == null || trimSlash(uri.getRawPath()).length() != endpoint.path.length()) {
+			return null;
+		}
+		for (Object implementor : endpoint.implementors) {
+			if (serviceClass.isInstance(implementor)) {
+				return serviceClass.cast(implementor);
+			}
+		}
+		return null;
+	}
+
+	private LocalEndpoint find(URI uri) {
+		if (!uri.isAbsolute() || uri.getRawPath() == null || "local".equalsIgnoreCase(uri.getScheme())) {
+			return null;
+		}
+		String path = uri.getRawPath();
+		LocalEndpoint found = null;
+		for (LocalEndpoint endpoint : endpoints.values()) {
+			boolean prefix = path.startsWith(endpoint.path)
+					&& (path.length() == endpoint.path.length() || path.charAt(endpoint.path.length()) == '/');
+			// 多个Endpoint匹配时取路径最长者
+			if (prefix && isCoLocated(endpoint, uri) && (found == null || endpoint.path.length() > found.path.length())) {
+				found = endpoint;
+			}
+		}
+		return found;
+	}
+
+	private boolean isCoLocated(LocalEndpoint endpoint, URI uri) {
+		if (endpoint.uri != null) {
+			return endpoint.uri.getScheme().equalsIgnoreCase(uri.getScheme())
+					&& endpoint.uri.getHost() != null && endpoint.uri.getHost().equalsIgnoreCase(uri.getHost())
+					&& port(endpoint.uri) == port(uri);
+		}
+		for (String host : property.getHosts()) {
+			if (host.equalsIgnoreCase(uri.getHost())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static int port(URI uri) {
+		return uri.getPort() >= 0 ? uri.getPort() : "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+	}
+
+	private static String trimSlash(String path) {
+		if (path == null || path.isEmpty() || "/".equals(path)) {
+			return "";
+		}
+		String trimmed = path.startsWith("/") ? path : "/" + path;
+		return trimmed.endsWith("/") ? trimmed.substring(0, trimmed.length() - 1) : trimmed;
+	}
+
+	private Destination createDestination(String localAddress, MessageObserver observer) {
+		EndpointInfo endpointInfo = new EndpointInfo();
+		endpointInfo.setAddress(localAddress);
+		try {
+			Destination destination = getTransportFactory().getDestination(endpointInfo, bus);
+			destination.setMessageObserver(observer);
+			return destination;
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to register the local destination " + localAddress, e);
+		}
+	}
+
+	private DestinationFactory getTransportFactory() {
+		DestinationFactoryManager manager = bus.getExtension(DestinationFactoryManager.class);
+		try {
+			return manager.getDestinationFactory(LocalTransportFactory.TRANSPORT_ID);
+		} catch (BusException e) {
+			throw new IllegalStateException("The CXF local transport is not available on the bus.", e);
+		}
+	}
+
+	/**
+	 * @return the local addresses of the registered endpoints
+	 */
+	public List<String> getLocalAddresses() {
+		List<String> addresses = new ArrayList<String>();
+		for (LocalEndpoint endpoint : endpoints.values()) {
+			addresses.add(endpoint.localAddress);
+		}
+		return addresses;
+	}
+
+	public boolean isDirectDispatch() {
+		return property.isDirectDispatch();
+	}
+
+	public boolean isDirectInvocation() {
+		return property.isDirectInvocation();
+	}
+
+	public LocalTransportProperty getProperty() {
+		return property;
+	}
+
+	private final class LocalEndpoint {
+
+		private final URI uri;
+		private final String path;
+		private final String localAddress;
+		private final MessageObserver observer;
+		private final List<Object> implementors;
+		private final ConcurrentMap<String, Destination> destinations = new ConcurrentHashMap<String, Destination>();
+
+		LocalEndpoint(URI uri, String path, String localAddress, MessageObserver observer, List<Object> implementors) {
+			this.uri = uri;
+			this.path = path;
+			this.localAddress = localAddress;
+			this.observer = observer;
+			this.implementors = implementors;
+		}
+
+		Destination getDestination(String address) {
+			return destinations.computeIfAbsent(address, key -> {
+				String prefix = URI.create(key).getRawPath();
+				return createDestination(key, message -> {
+					// 客户端给出的请求路径相对于其基地址（即本Destination地址），补全后再以Endpoint地址为基准匹配资源
+					String requestUri = (String) message.get(Message.REQUEST_URI);
+					message.put(Message.REQUEST_URI, requestUri == null || "/".equals(requestUri)
+							? (prefix.isEmpty() ? "/" : prefix) : prefix + requestUri);
+					message.put(Message.BASE_PATH, localAddress);
+					observer.onMessage(message);
+				});
+			});
+		}
+
+		void shutdown() {
+			for (Destination destination : destinations.values()) {
+				destination.setMessageObserver(null);
+				destination.shutdown();
+			}
+			destinations.clear();
+		}
+
+	}
+
+}
@@ -17,20 +17,46 @@ package org.apache.cxf.spring.boot.jaxrs.filter;
 
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ResourceInfo;
 
-import org.apache.cxf.jaxrs.model.ClassResourceInfo;
-import org.apache.cxf.jaxrs.model.OperationResourceInfo;
-import org.apache.cxf.jaxrs.utils.JAXRSUtils;
-import org.apache.cxf.message.Message;
-
-
-public class CustomRequestFilter implements ContainerRequestFilter {
-    public void filter(ContainerRequestContext context) {
-        Message message = JAXRSUtils.getCurrentMessage();
-       ClassResourceInfo cri = message.getExchange().get(OperationResourceInfo.class).getClassResourceInfo();
- 
-        // or consider using JAX-RS 2.0 ResourceInfo context
- 
-        // finally use context.abortWith(Response) if you need to block the request 
-    }
-}
\ No newline at end of file
+/**
+ * Sample request filter compiled per operation by {@link OperationFilterFeature}:
+ * the resource class is bound when the endpoint is published instead of being
+ * looked up in the exchange on every request.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CustomRequestFilter implements ContainerRequestFilter, OperationScoped {
+
+	private final Class<?> resourceClass;
+
+	public CustomRequestFilter() {
+		this(null);
+	}
+
+	protected CustomRequestFilter(Class<?> resourceClass) {
+		this.resourceClass = resourceClass;
+	}
+
+	@Override
+	public boolean appliesTo(ResourceInfo resourceInfo) {
+		return true;
+	}
+
+	@Override
+	public Object bind(ResourceInfo resourceInfo) {
+		return new CustomRequestFilter(resourceInfo.getResourceClass());
+	}
+
+	@Override
+	public void filter(ContainerRequestContext context) {
+		
+		// work with resourceClass, the service class of the matched resource
+		
+		// finally use context.abortWith(Response) if you need to block the request
+	}
+
+	public Class<?> getResourceClass() {
+		return resourceClass;
+	}
+
+}
@@ -15,25 +15,56 @@
  */
 package org.apache.cxf.spring.boot.jaxrs.filter;
 
+import java.lang.reflect.Method;
+
+import javax.ws.rs.HttpMethod;
 import javax.ws.rs.container.ContainerRequestContext;
 import javax.ws.rs.container.ContainerResponseContext;
 import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
 
-import org.apache.cxf.jaxrs.model.OperationResourceInfo;
-import org.apache.cxf.jaxrs.utils.JAXRSUtils;
-import org.apache.cxf.message.Message;
+import org.apache.cxf.jaxrs.utils.AnnotationUtils;
 
-public class CustomResponseFilter implements ContainerResponseFilter {
-	
-	public void filter(ContainerRequestContext inContext, ContainerResponseContext outContext) {
-		
-		Message message = JAXRSUtils.getCurrentMessage();
-		OperationResourceInfo cri = message.getExchange().get(OperationResourceInfo.class);
+/**
+ * Sample response filter compiled per operation by {@link OperationFilterFeature}:
+ * it only joins the chains of <code>GET</code> operations, and receives the
+ * resource method when the endpoint is published.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CustomResponseFilter implements ContainerResponseFilter, OperationScoped {
+
+	private final Method resourceMethod;
+
+	public CustomResponseFilter() {
+		this(null);
+	}
+
+	protected CustomResponseFilter(Method resourceMethod) {
+		this.resourceMethod = resourceMethod;
+	}
 
-		// or consider using JAX-RS 2.0 ResourceInfo context
+	@Override
+	public boolean appliesTo(ResourceInfo resourceInfo) {
+		Method method = AnnotationUtils.getAnnotatedMethod(resourceInfo.getResourceClass(), resourceInfo.getResourceMethod());
+		return HttpMethod.GET.equals(AnnotationUtils.getHttpMethodValue(method));
+	}
+
+	@Override
+	public Object bind(ResourceInfo resourceInfo) {
+		return new CustomResponseFilter(resourceInfo.getResourceMethod());
+	}
 
+	@Override
+	public void filter(ContainerRequestContext inContext, ContainerResponseContext outContext) {
+		
+		// work with resourceMethod, the method of the matched operation
+		
 		// finally, work with ContainerResponseContext to modify specific Response
 		// properties
 	}
-	
+
+	public Method getResourceMethod() {
+		return resourceMethod;
+	}
+
 }
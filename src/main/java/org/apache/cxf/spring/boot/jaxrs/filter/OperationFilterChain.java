@@ -0,0 +1,426 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.filter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseContext;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.ResourceInfo;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.ReaderInterceptorContext;
+import javax.ws.rs.ext.WriterInterceptor;
+import javax.ws.rs.ext.WriterInterceptorContext;
+
+import org.apache.cxf.jaxrs.impl.ResourceInfoImpl;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Message;
+
+/**
+ * The filters and interceptors of one priority, compiled into a minimal chain
+ * per {@link OperationResourceInfo}.
+ * <p>
+ * Chains are built when the endpoint is published; operations only known at
+ * request time (e.g. sub-resources returned as <code>Object</code>) are
+ * compiled on first use. A request resolves its operation once per chain and
+ * then runs only the providers that apply to it, in registration order.
+ * Requests no operation matched (<code>404</code>, <code>405</code>, or
+ * aborted before matching) run the providers that are not
+ * {@link OperationScoped}, as they would without this chain.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+class OperationFilterChain implements ContainerRequestFilter, ContainerResponseFilter, ReaderInterceptor, WriterInterceptor {
+
+	private static final Operation EMPTY = new Operation(new ContainerRequestFilter[0],
+			new ContainerResponseFilter[0], new ReaderInterceptor[0], new WriterInterceptor[0]);
+
+	private final List<Object> providers;
+	private final ConcurrentMap<OperationResourceInfo, Operation> operations = new ConcurrentHashMap<OperationResourceInfo, Operation>();
+	/**
+	 * 未匹配到操作的请求所执行的链
+	 */
+	private final Operation unmatched;
+
+	OperationFilterChain(List<Object> providers) {
+		this.providers = providers;
+		this.unmatched = compile((OperationResourceInfo) null);
+	}
+
+	/**
+	 * @param priority the priority shared by the providers of this chain
+	 * @return the contracts implemented by the providers, with the given priority
+	 */
+	Map<Class<?>, Integer> getContracts(int priority) {
+		Map<Class<?>, Integer> contracts = new HashMap<Class<?>, Integer>();
+		for (Object provider : providers) {
+			for (Class<?> contract : new Class<?>[] { ContainerRequestFilter.class, ContainerResponseFilter.class,
+					ReaderInterceptor.class, WriterInterceptor.class }) {
+				if (contract.isInstance(provider)) {
+					contracts.put(contract, priority);
+				}
+			}
+		}
+		return contracts;
+	}
+
+	void compile(Collection<OperationResourceInfo> resources) {
+		for (OperationResourceInfo resource : resources) {
+			operations.computeIfAbsent(resource, this::compile);
+		}
+	}
+
+	/**
+	 * @param resource the operation; null for requests that matched none
+	 */
+	private Operation compile(OperationResourceInfo resource) {
+		ResourceInfo resourceInfo = resource != null ? new ResourceInfoImpl(resource) : null;
+		List<ContainerRequestFilter> requestFilters = new ArrayList<ContainerRequestFilter>();
+		List<ContainerResponseFilter> responseFilters = new ArrayList<ContainerResponseFilter>();
+		List<ReaderInterceptor> readerInterceptors = new ArrayList<ReaderInterceptor>();
+		List<WriterInterceptor> writerInterceptors = new ArrayList<WriterInterceptor>();
+		for (Object provider : providers) {
+			Object bound = provider;
+			if (provider instanceof OperationScoped) {
+				OperationScoped scoped = (OperationScoped) provider;
+				bound = resourceInfo != null && scoped.appliesTo(resourceInfo) ? scoped.bind(resourceInfo) : null;
+			}
+			if (bound instanceof ContainerRequestFilter && provider instanceof ContainerRequestFilter) {
+				requestFilters.add((ContainerRequestFilter) bound);
+			}
+			if (bound instanceof ContainerResponseFilter && provider instanceof ContainerResponseFilter) {
+				responseFilters.add((ContainerResponseFilter) bound);
+			}
+			if (bound instanceof ReaderInterceptor && provider instanceof ReaderInterceptor) {
+				readerInterceptors.add((ReaderInterceptor) bound);
+			}
+			if (bound instanceof WriterInterceptor && provider instanceof WriterInterceptor) {
+				writerInterceptors.add((WriterInterceptor) bound);
+			}
+		}
+		if (requestFilters.isEmpty() && responseFilters.isEmpty() && readerInterceptors.isEmpty()
+				&& writerInterceptors.isEmpty()) {
+			return EMPTY;
+		}
+		return new Operation(requestFilters.toArray(new ContainerRequestFilter[0]),
+				responseFilters.toArray(new ContainerResponseFilter[0]),
+				readerInterceptors.toArray(new ReaderInterceptor[0]),
+				writerInterceptors.toArray(new WriterInterceptor[0]));
+	}
+
+	private Operation lookup(Message message) {
+		OperationResourceInfo resource = message == null ? null : message.getExchange().get(OperationResourceInfo.class);
+		if (resource == null) {
+			return unmatched;
+		}
+		Operation operation = operations.get(resource);
+		return operation != null ? operation : operations.computeIfAbsent(resource, this::compile);
+	}
+
+	/**
+	 * @return the number of operations compiled so far, with or without providers
+	 */
+	int size() {
+		return operations.size();
+	}
+
+	/**
+	 * @return the number of operations at least one provider applies to
+	 */
+	int getBoundCount() {
+		int count = 0;
+		for (Operation operation : operations.values()) {
+			if (operation != EMPTY) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) throws IOException {
+		Message message = JAXRSUtils.getCurrentMessage();
+		for (ContainerRequestFilter filter : lookup(message).requestFilters) {
+			filter.filter(requestContext);
+			// 与CXF一致：调用abortWith后不再执行后续过滤器
+			if (message.getExchange().get(Response.class) != null) {
+				return;
+			}
+		}
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext, ContainerResponseContext responseContext)
+			throws IOException {
+		for (ContainerResponseFilter filter : lookup(JAXRSUtils.getCurrentMessage()).responseFilters) {
+			filter.filter(requestContext, responseContext);
+		}
+	}
+
+	@Override
+	public Object aroundReadFrom(ReaderInterceptorContext context) throws IOException, WebApplicationException {
+		ReaderInterceptor[] interceptors = lookup(JAXRSUtils.getCurrentMessage()).readerInterceptors;
+		return interceptors.length == 0 ? context.proceed() : new ReaderContext(context, interceptors).proceed();
+	}
+
+	@Override
+	public void aroundWriteTo(WriterInterceptorContext context) throws IOException, WebApplicationException {
+		WriterInterceptor[] interceptors = lookup(JAXRSUtils.getCurrentMessage()).writerInterceptors;
+		if (interceptors.length == 0) {
+			context.proceed();
+		} else {
+			new WriterContext(context, interceptors).proceed();
+		}
+	}
+
+	private static final class Operation {
+
+		private final ContainerRequestFilter[] requestFilters;
+		private final ContainerResponseFilter[] responseFilters;
+		private final ReaderInterceptor[] readerInterceptors;
+		private final WriterInterceptor[] writerInterceptors;
+
+		Operation(ContainerRequestFilter[] requestFilters, ContainerResponseFilter[] responseFilters,
+				ReaderInterceptor[] readerInterceptors, WriterInterceptor[] writerInterceptors) {
+			this.requestFilters = requestFilters;
+			this.responseFilters = responseFilters;
+			this.readerInterceptors = readerInterceptors;
+			this.writerInterceptors = writerInterceptors;
+		}
+
+	}
+
+	/**
+	 * 依次调用链中的拦截器，链尾再交回CXF的上下文
+	 */
+	private static final class ReaderContext implements ReaderInterceptorContext {
+
+		private final ReaderInterceptorContext delegate;
+		private final ReaderInterceptor[] interceptors;
+		private int index;
+
+		ReaderContext(ReaderInterceptorContext delegate, ReaderInterceptor[] interceptors) {
+			this.delegate = delegate;
+			this.interceptors = interceptors;
+		}
+
+		@Override
+		public Object proceed() throws IOException, WebApplicationException {
+			return index < interceptors.length ? interceptors[index++].aroundReadFrom(this) : delegate.proceed();
+		}
+
+		@Override
+		public InputStream getInputStream() {
+			return delegate.getInputStream();
+		}
+
+		@Override
+		public void setInputStream(InputStream is) {
+			delegate.setInputStream(is);
+		}
+
+		@Override
+		public MultivaluedMap<String, String> getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			return delegate.getProperty(name);
+		}
+
+		@Override
+		public Collection<String> getPropertyNames() {
+			return delegate.getPropertyNames();
+		}
+
+		@Override
+		public void setProperty(String name, Object object) {
+			delegate.setProperty(name, object);
+		}
+
+		@Override
+		public void removeProperty(String name) {
+			delegate.removeProperty(name);
+		}
+
+		@Override
+		public Annotation[] getAnnotations() {
+			return delegate.getAnnotations();
+		}
+
+		@Override
+		public void setAnnotations(Annotation[] annotations) {
+			delegate.setAnnotations(annotations);
+		}
+
+		@Override
+		public Class<?> getType() {
+			return delegate.getType();
+		}
+
+		@Override
+		public void setType(Class<?> type) {
+			delegate.setType(type);
+		}
+
+		@Override
+		public Type getGenericType() {
+			return delegate.getGenericType();
+		}
+
+		@Override
+		public void setGenericType(Type genericType) {
+			delegate.setGenericType(genericType);
+		}
+
+		@Override
+		public MediaType getMediaType() {
+			return delegate.getMediaType();
+		}
+
+		@Override
+		public void setMediaType(MediaType mediaType) {
+			delegate.setMediaType(mediaType);
+		}
+
+	}
+
+	private static final class WriterContext implements WriterInterceptorContext {
+
+		private final WriterInterceptorContext delegate;
+		private final WriterInterceptor[] interceptors;
+		private int index;
+
+		WriterContext(WriterInterceptorContext delegate, WriterInterceptor[] interceptors) {
+			this.delegate = delegate;
+			this.interceptors = interceptors;
+		}
+
+		@Override
+		public void proceed() throws IOException, WebApplicationException {
+			if (index < interceptors.length) {
+				interceptors[index++].aroundWriteTo(this);
+			} else {
+				delegate.proceed();
+			}
+		}
+
+		@Override
+		public Object getEntity() {
+			return delegate.getEntity();
+		}
+
+		@Override
+		public void setEntity(Object entity) {
+			delegate.setEntity(entity);
+		}
+
+		@Override
+		public OutputStream getOutputStream() {
+			return delegate.getOutputStream();
+		}
+
+		@Override
+		public void setOutputStream(OutputStream os) {
+			delegate.setOutputStream(os);
+		}
+
+		@Override
+		public MultivaluedMap<String, Object> getHeaders() {
+			return delegate.getHeaders();
+		}
+
+		@Override
+		public Object getProperty(String name) {
+			return delegate.getProperty(name);
+		}
+
+		@Override
+		public Collection<String> getPropertyNames() {
+			return delegate.getPropertyNames();
+		}
+
+		@Override
+		public void setProperty(String name, Object object) {
+			delegate.setProperty(name, object);
+		}
+
+		@Override
+		public void removeProperty(String name) {
+			delegate.removeProperty(name);
+		}
+
+		@Override
+		public Annotation[] getAnnotations() {
+			return delegate.getAnnotations();
+		}
+
+		@Override
+		public void setAnnotations(Annotation[] annotations) {
+			delegate.setAnnotations(annotations);
+		}
+
+		@Override
+		public Class<?> getType() {
+			return delegate.getType();
+		}
+
+		@Override
+		public void setType(Class<?> type) {
+			delegate.setType(type);
+		}
+
+		@Override
+		public Type getGenericType() {
+			return delegate.getGenericType();
+		}
+
+		@Override
+		public void setGenericType(Type genericType) {
+			delegate.setGenericType(genericType);
+		}
+
+		@Override
+		public MediaType getMediaType() {
+			return delegate.getMediaType();
+		}
+
+		@Override
+		public void setMediaType(MediaType mediaType) {
+			delegate.setMediaType(mediaType);
+		}
+
+	}
+
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.filter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.ContainerResponseFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.ext.ReaderInterceptor;
+import javax.ws.rs.ext.WriterInterceptor;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.common.util.ClassHelper;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.FilterProviderInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.jaxrs.utils.AnnotationUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Compiles JAX-RS filters and interceptors into per-operation chains when an
+ * endpoint is published.
+ * <ul>
+ * <li>each provider declares the operations it applies to through
+ * {@link OperationScoped}, and may bind per-operation state there instead of
+ * looking it up on every request;</li>
+ * <li>providers of the same <code>&#64;Priority</code> form one chain,
+ * registered with CXF at that priority, so ordering relative to other
+ * providers is unchanged;</li>
+ * <li>operations no provider applies to cost a single lookup per chain;</li>
+ * <li>requests that match no operation, such as <code>404</code> and
+ * <code>405</code> responses or requests aborted by a pre-matching filter, run
+ * the providers that are not {@link OperationScoped} and skip the scoped
+ * ones.</li>
+ * </ul>
+ * Compiled providers are not injected with <code>&#64;Context</code> fields;
+ * pre-matching filters have no operation and are rejected.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OperationFilterFeature extends AbstractFeature {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OperationFilterFeature.class);
+
+	private final List<Object> providers;
+
+	public OperationFilterFeature(List<?> providers) {
+		this.providers = new ArrayList<Object>(providers);
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		Endpoint endpoint = server.getEndpoint();
+		ServerProviderFactory factory = (ServerProviderFactory) endpoint.get(ServerProviderFactory.class.getName());
+		if (providers.isEmpty() || factory == null || !(endpoint.getService() instanceof JAXRSServiceImpl)) {
+			return;
+		}
+		List<OperationResourceInfo> operations = getOperations(((JAXRSServiceImpl) endpoint.getService()).getClassResourceInfos());
+
+		Map<Integer, List<Object>> priorities = new TreeMap<Integer, List<Object>>();
+		for (Object provider : providers) {
+			Class<?> providerClass = ClassHelper.getRealClass(bus, provider);
+			if (!isSupported(provider)) {
+				throw new IllegalStateException(providerClass.getName() + " is not a JAX-RS filter or interceptor.");
+			}
+			if (providerClass.isAnnotationPresent(PreMatching.class)) {
+				throw new IllegalStateException("Pre-matching filter " + providerClass.getName() + " cannot be bound to operations.");
+			}
+			priorities.computeIfAbsent(AnnotationUtils.getBindingPriority(providerClass), k -> new ArrayList<Object>()).add(provider);
+		}
+
+		List<Object> chains = new ArrayList<Object>();
+		for (Map.Entry<Integer, List<Object>> entry : priorities.entrySet()) {
+			OperationFilterChain chain = new OperationFilterChain(entry.getValue());
+			chain.compile(operations);
+			LOG.debug("Compiled {} providers at priority {}: {} of {} operations bound.", entry.getValue().size(),
+					entry.getKey(), chain.getBoundCount(), chain.size());
+			chains.add(new FilterProviderInfo<Object>(OperationFilterChain.class, OperationFilterChain.class, chain, bus,
+					chain.getContracts(entry.getKey())));
+		}
+		factory.setUserProviders(chains);
+	}
+
+	private static boolean isSupported(Object provider) {
+		return provider instanceof ContainerRequestFilter || provider instanceof ContainerResponseFilter
+				|| provider instanceof ReaderInterceptor || provider instanceof WriterInterceptor;
+	}
+
+	private static List<OperationResourceInfo> getOperations(List<ClassResourceInfo> resources) {
+		List<OperationResourceInfo> operations = new ArrayList<OperationResourceInfo>();
+		Set<ClassResourceInfo> visited = Collections.newSetFromMap(new IdentityHashMap<ClassResourceInfo, Boolean>());
+		for (ClassResourceInfo resource : resources) {
+			collect(resource, operations, visited);
+		}
+		return operations;
+	}
+
+	private static void collect(ClassResourceInfo resource, List<OperationResourceInfo> operations,
+			Set<ClassResourceInfo> visited) {
+		if (!visited.add(resource)) {
+			return;
+		}
+		operations.addAll(resource.getMethodDispatcher().getOperationResourceInfos());
+		for (ClassResourceInfo subResource : resource.getSubResources()) {
+			collect(subResource, operations, visited);
+		}
+	}
+
+	public List<Object> getProviders() {
+		return providers;
+	}
+
+}
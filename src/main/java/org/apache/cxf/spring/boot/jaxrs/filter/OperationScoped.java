@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.filter;
+
+import javax.ws.rs.container.ResourceInfo;
+
+/**
+ * Implemented by filters and interceptors published through
+ * {@link OperationFilterFeature} to declare the operations they apply to.
+ * <p>
+ * Both methods are called once per operation when the endpoint is published,
+ * never per request. Providers not implementing this interface apply to every
+ * operation.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public interface OperationScoped {
+
+	/**
+	 * @param resourceInfo the resource class and method of the operation
+	 * @return whether the provider takes part in the chain of the operation
+	 */
+	boolean appliesTo(ResourceInfo resourceInfo);
+
+	/**
+	 * 返回加入该操作链的实例，可在发布时绑定操作相关的状态，请求时无需再查找
+	 * @param resourceInfo the resource class and method of the operation
+	 * @return the provider to run for the operation, implementing the same
+	 *         contracts as this one; <code>null</code> leaves the operation out
+	 */
+	default Object bind(ResourceInfo resourceInfo) {
+		return this;
+	}
+
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.multipart;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+/**
+ * Stream failing with 413 once more than the allowed bytes were read.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+class LimitedInputStream extends FilterInputStream {
+
+	private final long limit;
+	private long count;
+
+	LimitedInputStream(InputStream in, long limit) {
+		super(in);
+		this.limit = limit;
+	}
+
+	@Override
+	public int read() throws IOException {
+		int b = super.read();
+		if (b != -1) {
+			count(1);
+		}
+		return b;
+	}
+
+	@Override
+	public int read(byte[] b, int off, int len) throws IOException {
+		int n = super.read(b, off, len);
+		// 跨越边界时MimeBodyPartInputStream可能返回0，对调用方隐藏
+		while (n == 0 && len > 0) {
+			n = super.read(b, off, len);
+		}
+		if (n > 0) {
+			count(n);
+		}
+		return n;
+	}
+
+	@Override
+	public long skip(long n) throws IOException {
+		long skipped = super.skip(n);
+		count(skipped);
+		return skipped;
+	}
+
+	private void count(long n) {
+		count += n;
+		if (limit >= 0 && count > limit) {
+			throw new WebApplicationException(Response.Status.REQUEST_ENTITY_TOO_LARGE);
+		}
+	}
+
+	long getCount() {
+		return count;
+	}
+
+	@Override
+	public boolean markSupported() {
+		return false;
+	}
+
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.multipart;
+
+import java.io.IOException;
+
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Closes the {@link StreamingMultipart} of the exchange once the response,
+ * or the fault, was written, deleting the parts spilled to disk.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+class MultipartCleanupInterceptor extends AbstractPhaseInterceptor<Message> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MultipartCleanupInterceptor.class);
+
+	MultipartCleanupInterceptor() {
+		super(Phase.SETUP_ENDING);
+	}
+
+	@Override
+	public void handleMessage(Message message) {
+		StreamingMultipart multipart = (StreamingMultipart) message.getExchange().remove(StreamingMultipart.class.getName());
+		if (multipart == null) {
+			return;
+		}
+		try {
+			multipart.close();
+		} catch (IOException e) {
+			LOG.warn("Failed to delete the spilled parts of a multipart request", e);
+		}
+	}
+
+}
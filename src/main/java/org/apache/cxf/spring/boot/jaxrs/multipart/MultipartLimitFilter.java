@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.multipart;
+
+import java.io.IOException;
+
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+
+/**
+ * Enforces the request size limit of multipart requests: a declared
+ * Content-Length above the limit is rejected before the body is read, a
+ * chunked body fails with 413 as soon as the limit is crossed.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@PreMatching
+public class MultipartLimitFilter implements ContainerRequestFilter {
+
+	private final long maxRequestSize;
+
+	public MultipartLimitFilter(long maxRequestSize) {
+		this.maxRequestSize = maxRequestSize;
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) throws IOException {
+		MediaType mediaType = requestContext.getMediaType();
+		if (maxRequestSize < 0 || mediaType == null || !"multipart".equalsIgnoreCase(mediaType.getType())) {
+			return;
+		}
+		if (requestContext.getLength() > maxRequestSize) {
+			requestContext.abortWith(Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE).build());
+			return;
+		}
+		requestContext.setEntityStream(new LimitedInputStream(requestContext.getEntityStream(), maxRequestSize));
+	}
+
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.multipart;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.attachment.AttachmentDeserializer;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.spring.boot.property.MultipartStreamingProperty;
+
+/**
+ * Multipart uploads of the published endpoints, configured under
+ * <code>cxf.jaxrs.multipart.*</code>.
+ * <ul>
+ * <li>resources taking a {@link StreamingMultipart} read the parts lazily from
+ * the request stream, so an upload never sits on the heap as a whole and the
+ * client is only read as fast as the resource consumes;</li>
+ * <li>MultipartBody, Attachment and &#64;Multipart parameters keep using CXF's
+ * attachment cache, with the configured directory, memory threshold and part
+ * size limit;</li>
+ * <li>the request size limit applies to both.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MultipartStreamingFeature extends AbstractFeature {
+
+	private final MultipartStreamingProperty property;
+	private final Path directory;
+
+	public MultipartStreamingFeature(MultipartStreamingProperty property) {
+		this.property = property;
+		this.directory = property.getDirectory() != null ? Paths.get(property.getDirectory())
+				: Paths.get(System.getProperty("java.io.tmpdir"), "cxf-multipart");
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to create the multipart directory " + directory, e);
+		}
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+
+		Endpoint endpoint = server.getEndpoint();
+		endpoint.put(AttachmentDeserializer.ATTACHMENT_DIRECTORY, directory.toFile());
+		endpoint.put(AttachmentDeserializer.ATTACHMENT_MEMORY_THRESHOLD, property.getMemoryThreshold());
+		endpoint.put(AttachmentDeserializer.ATTACHMENT_MAX_HEADER_SIZE, property.getMaxHeaderSize());
+		if (property.getMaxPartSize() >= 0) {
+			endpoint.put(AttachmentDeserializer.ATTACHMENT_MAX_SIZE, property.getMaxPartSize());
+		}
+
+		ServerProviderFactory factory = (ServerProviderFactory) endpoint.get(ServerProviderFactory.class.getName());
+		if (factory != null) {
+			factory.setUserProviders(Arrays.asList(new StreamingMultipartProvider(property, directory),
+					new MultipartLimitFilter(property.getMaxRequestSize())));
+		}
+
+		MultipartCleanupInterceptor cleanup = new MultipartCleanupInterceptor();
+		endpoint.getOutInterceptors().add(cleanup);
+		endpoint.getOutFaultInterceptors().add(cleanup);
+	}
+
+	public MultipartStreamingProperty getProperty() {
+		return property;
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.multipart;
+
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.TreeMap;
+
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.attachment.AttachmentUtil;
+import org.apache.cxf.attachment.MimeBodyPartInputStream;
+import org.apache.cxf.spring.boot.property.MultipartStreamingProperty;
+
+/**
+ * A multipart request body read part by part, straight from the request
+ * stream.
+ * <p>
+ * Only the current part is open: asking for the next part skips whatever is
+ * left of the current one, nothing is cached. A resource that needs a part
+ * after reading the following ones calls {@link StreamingPart#spill()} to
+ * write it to the multipart directory first. The parts can be iterated once;
+ * spilled files are deleted when the multipart is closed, which
+ * {@link MultipartStreamingFeature} does after the response was sent.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StreamingMultipart implements Iterable<StreamingPart>, Closeable {
+
+	private final PushbackInputStream stream;
+	private final byte[] boundary;
+	private final MultipartStreamingProperty property;
+	private final Path directory;
+	private final int bufferSize;
+	private final List<Path> files = new ArrayList<Path>();
+	private StreamingPart current;
+	private boolean iterated;
+	private boolean finished;
+
+	public StreamingMultipart(InputStream in, String boundary, MultipartStreamingProperty property, Path directory) {
+		// 预读缓冲至少能容纳两个边界，以便在缓冲内识别边界
+		this.bufferSize = Math.max(property.getBufferSize(), 2 * boundary.length() + 8);
+		this.stream = new PushbackInputStream(in, bufferSize);
+		this.boundary = ("--" + boundary).getBytes(StandardCharsets.US_ASCII);
+		this.property = property;
+		this.directory = directory;
+	}
+
+	/**
+	 * 读取下一个Part，当前Part中未读取的内容被跳过
+	 * @return the next part, or null after the last one
+	 * @throws IOException if the request could not be read
+	 */
+	public StreamingPart nextPart() throws IOException {
+		if (finished) {
+			return null;
+		}
+		if (current == null) {
+			if (!skipPreamble()) {
+				finished = true;
+				return null;
+			}
+		} else {
+			current.discard();
+			int next = stream.read();
+			if (next == -1) {
+				finished = true;
+				return null;
+			}
+			stream.unread(next);
+		}
+		Map<String, List<String>> headers = readHeaders();
+		if (headers.isEmpty()) {
+			// 结束边界之后的尾声
+			finished = true;
+			return null;
+		}
+		LimitedInputStream raw = new LimitedInputStream(
+				new MimeBodyPartInputStream(stream, boundary, bufferSize), property.getMaxPartSize());
+		List<String> encoding = headers.get("Content-Transfer-Encoding");
+		InputStream body = new FilterInputStream(AttachmentUtil.decode(raw, encoding != null ? encoding.get(0) : null)) {
+
+			@Override
+			public void close() {
+				// 关闭Part的流不能关闭请求流，剩余内容在读取下一个Part时跳过
+			}
+
+		};
+		current = new StreamingPart(this, headers, raw, body);
+		return current;
+	}
+
+	@Override
+	public Iterator<StreamingPart> iterator() {
+		if (iterated) {
+			throw new IllegalStateException("The parts of a streamed multipart can only be iterated once.");
+		}
+		iterated = true;
+		return new Iterator<StreamingPart>() {
+
+			private StreamingPart next;
+
+			@Override
+			public boolean hasNext() {
+				if (next == null) {
+					try {
+						next = nextPart();
+					} catch (IOException e) {
+						throw new WebApplicationException(e, Response.Status.BAD_REQUEST);
+					}
+				}
+				return next != null;
+			}
+
+			@Override
+			public StreamingPart next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				StreamingPart part = next;
+				next = null;
+				return part;
+			}
+
+		};
+	}
+
+	Path createTempFile() throws IOException {
+		Path file = Files.createTempFile(directory, "part-", ".tmp");
+		files.add(file);
+		return file;
+	}
+
+	int getBufferSize() {
+		return bufferSize;
+	}
+
+	/**
+	 * 删除溢出到磁盘的Part文件；请求流本身由容器关闭
+	 */
+	@Override
+	public void close() throws IOException {
+		finished = true;
+		for (Path file : files) {
+			Files.deleteIfExists(file);
+		}
+		files.clear();
+	}
+
+	private boolean skipPreamble() throws IOException {
+		String dashBoundary = new String(boundary, StandardCharsets.US_ASCII);
+		String line;
+		while ((line = readLine(property.getMaxHeaderSize(), false)) != null) {
+			line = trimTrailing(line);
+			if (line.equals(dashBoundary)) {
+				return true;
+			}
+			if (line.equals(dashBoundary + "--")) {
+				return false;
+			}
+		}
+		return false;
+	}
+
+	private Map<String, List<String>> readHeaders() throws IOException {
+		Map<String, List<String>> headers = new TreeMap<String, List<String>>(String.CASE_INSENSITIVE_ORDER);
+		String name = null;
+		String line;
+		// 限制整个Part头部的大小，而不仅是单行：否则大量短头部同样会占满内存
+		int remaining = property.getMaxHeaderSize();
+		while ((line = readLine(remaining, true)) != null && !line.isEmpty()) {
+			remaining -= line.length();
+			if ((line.charAt(0) == ' ' || line.charAt(0) == '\t') && name != null) {
+				// 折叠的头部
+				List<String> values = headers.get(name);
+				values.set(values.size() - 1, values.get(values.size() - 1) + " " + line.trim());
+				continue;
+			}
+			int separator = line.indexOf(':');
+			name = (separator < 0 ? line : line.substring(0, separator)).trim();
+			headers.computeIfAbsent(name, key -> new ArrayList<String>(1))
+					.add(separator < 0 ? "" : line.substring(separator + 1).trim());
+		}
+		return headers;
+	}
+
+	/**
+	 * @param max the maximum number of characters kept
+	 * @param strict whether a longer line fails the request instead of being truncated
+	 */
+	private String readLine(int max, boolean strict) throws IOException {
+		StringBuilder line = new StringBuilder(64);
+		int c;
+		while ((c = stream.read()) != -1 && c != '\n') {
+			if (c == '\r') {
+				continue;
+			}
+			if (line.length() < max) {
+				line.append((char) c);
+			} else if (strict) {
+				throw new WebApplicationException(Response.Status.REQUEST_HEADER_FIELDS_TOO_LARGE);
+			}
+		}
+		return c == -1 && line.length() == 0 ? null : line.toString();
+	}
+
+	private static String trimTrailing(String line) {
+		int end = line.length();
+		while (end > 0 && (line.charAt(end - 1) == ' ' || line.charAt(end - 1) == '\t')) {
+			end--;
+		}
+		return line.substring(0, end);
+	}
+
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.file.Path;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.WebApplicationException;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.ext.MessageBodyReader;
+
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.spring.boot.property.MultipartStreamingProperty;
+
+/**
+ * Reads multipart request bodies into a {@link StreamingMultipart} for
+ * resources declaring a parameter of that type. The body is not read here:
+ * parts are parsed as the resource iterates them.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Consumes("multipart/*")
+public class StreamingMultipartProvider implements MessageBodyReader<StreamingMultipart> {
+
+	private final MultipartStreamingProperty property;
+	private final Path directory;
+
+	public StreamingMultipartProvider(MultipartStreamingProperty property, Path directory) {
+		this.property = property;
+		this.directory = directory;
+	}
+
+	@Override
+	public boolean isReadable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+		return StreamingMultipart.class == type;
+	}
+
+	@Override
+	public StreamingMultipart readFrom(Class<StreamingMultipart> type, Type genericType, Annotation[] annotations,
+			MediaType mediaType, MultivaluedMap<String, String> httpHeaders, InputStream entityStream)
+			throws IOException, WebApplicationException {
+
+		String boundary = mediaType.getParameters().get("boundary");
+		if (boundary == null || boundary.isEmpty()) {
+			throw new WebApplicationException(Response.Status.BAD_REQUEST);
+		}
+		if (boundary.length() > 1 && boundary.startsWith("\"") && boundary.endsWith("\"")) {
+			boundary = boundary.substring(1, boundary.length() - 1);
+		}
+		StreamingMultipart multipart = new StreamingMultipart(entityStream, boundary, property, directory);
+		Message message = JAXRSUtils.getCurrentMessage();
+		if (message != null) {
+			// 响应发送之后由MultipartCleanupInterceptor删除溢出的文件
+			message.getExchange().put(StreamingMultipart.class, multipart);
+		}
+		return multipart;
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.core.MediaType;
+
+import org.apache.cxf.jaxrs.ext.multipart.ContentDisposition;
+import org.apache.cxf.spring.boot.property.MultipartStreamingProperty;
+
+/**
+ * One part of a {@link StreamingMultipart}. Its content is read from the
+ * request as it is consumed and stays readable until the next part is
+ * requested; the per-part limit of {@link MultipartStreamingProperty} applies
+ * to the encoded bytes.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StreamingPart {
+
+	private final StreamingMultipart multipart;
+	private final Map<String, List<String>> headers;
+	private final LimitedInputStream raw;
+	private final InputStream body;
+
+	StreamingPart(StreamingMultipart multipart, Map<String, List<String>> headers, LimitedInputStream raw,
+			InputStream body) {
+		this.multipart = multipart;
+		this.headers = Collections.unmodifiableMap(headers);
+		this.raw = raw;
+		this.body = body;
+	}
+
+	public Map<String, List<String>> getHeaders() {
+		return headers;
+	}
+
+	public String getHeader(String name) {
+		List<String> values = headers.get(name);
+		return values == null || values.isEmpty() ? null : values.get(0);
+	}
+
+	/**
+	 * @return the part's media type, text/plain when none was sent
+	 */
+	public MediaType getMediaType() {
+		String contentType = getHeader("Content-Type");
+		return contentType != null ? MediaType.valueOf(contentType) : MediaType.TEXT_PLAIN_TYPE;
+	}
+
+	public ContentDisposition getContentDisposition() {
+		String disposition = getHeader("Content-Disposition");
+		return disposition != null ? new ContentDisposition(disposition) : null;
+	}
+
+	/**
+	 * @return the form field name of the part, or null
+	 */
+	public String getName() {
+		ContentDisposition disposition = getContentDisposition();
+		return disposition != null ? disposition.getParameter("name") : null;
+	}
+
+	/**
+	 * @return the file name sent with the part, or null
+	 */
+	public String getFileName() {
+		ContentDisposition disposition = getContentDisposition();
+		return disposition != null ? disposition.getFilename() : null;
+	}
+
+	/**
+	 * @return the decoded content of the part, read from the request as it is consumed
+	 */
+	public InputStream getInputStream() {
+		return body;
+	}
+
+	/**
+	 * 通过FileChannel将剩余内容写入指定文件，数据不经过堆内存中的整块缓冲
+	 * @param target the file to write, replaced if it exists
+	 * @return the number of bytes written
+	 * @throws IOException if the part could not be read or the file written
+	 */
+	public long transferTo(Path target) throws IOException {
+		ReadableByteChannel source = Channels.newChannel(body);
+		try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			long position = 0;
+			long transferred;
+			while ((transferred = channel.transferFrom(source, position, multipart.getBufferSize())) > 0) {
+				position += transferred;
+			}
+			return position;
+		}
+	}
+
+	/**
+	 * 将剩余内容溢出到multipart目录，以便在读取后续Part之后再使用；文件在请求结束时删除
+	 * @return the temporary file holding the part
+	 * @throws IOException if the part could not be read or the file written
+	 */
+	public Path spill() throws IOException {
+		Path file = multipart.createTempFile();
+		transferTo(file);
+		return file;
+	}
+
+	/**
+	 * @return the encoded bytes of the part read from the request so far
+	 */
+	public long getReadCount() {
+		return raw.getCount();
+	}
+
+	void discard() throws IOException {
+		byte[] buffer = new byte[multipart.getBufferSize()];
+		while (raw.read(buffer) != -1) {
+			// 跳过未读取的内容
+		}
+	}
+
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Message;
+
+/**
+ * Selects the root resources of a request through {@link SegmentTrie}s
+ * compiled from the class and method templates of an endpoint.
+ * <ul>
+ * <li>root resources sharing a class template (e.g. several services under
+ * <code>/customer</code>) form one group, matched once;</li>
+ * <li>within the selected group only the resources owning a method or
+ * sub-resource locator that may match the rest of the path are handed to
+ * {@link JAXRSUtils#findTargetMethod}, which makes the final choice;</li>
+ * <li>paths with encoded characters or matrix parameters, and groups where
+ * no method may match, fall back to the complete candidate list so that CXF
+ * reports the error as usual.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ResourceRouter {
+
+	private final List<ClassResourceInfo> resources;
+	private final SegmentTrie<Group> classes = new SegmentTrie<Group>();
+	private final Map<ClassResourceInfo, Group> groups = new IdentityHashMap<ClassResourceInfo, Group>();
+
+	public ResourceRouter(List<ClassResourceInfo> resources) {
+		this.resources = resources;
+		Map<String, Group> templates = new LinkedHashMap<String, Group>();
+		for (ClassResourceInfo resource : resources) {
+			URITemplate template = resource.getURITemplate();
+			if (template == null) {
+				continue;
+			}
+			Group group = templates.get(template.getValue());
+			if (group == null) {
+				group = new Group(resource);
+				templates.put(template.getValue(), group);
+				groups.put(resource, group);
+				classes.add(template.getValue(), group, true);
+			}
+			group.add(resource);
+		}
+	}
+
+	/**
+	 * @return the resources the router was compiled for
+	 */
+	public List<ClassResourceInfo> getResources() {
+		return resources;
+	}
+
+	/**
+	 * Same contract as {@link JAXRSUtils#selectResourceClass(List, String, Message)}.
+	 * @param path the path to match
+	 * @param message the current message
+	 * @return the matched resources with their template values, or null
+	 */
+	public Map<ClassResourceInfo, MultivaluedMap<String, String>> select(String path, Message message) {
+		if (path.indexOf('%') >= 0 || path.indexOf(';') >= 0 || path.contains("//")) {
+			return JAXRSUtils.selectResourceClass(resources, path, message);
+		}
+		Set<Group> candidates = new LinkedHashSet<Group>();
+		classes.match(path, candidates);
+		if (candidates.isEmpty()) {
+			return null;
+		}
+		Map<ClassResourceInfo, MultivaluedMap<String, String>> matched;
+		if (candidates.size() == 1) {
+			Group group = candidates.iterator().next();
+			MultivaluedMap<String, String> values = new MetadataMap<String, String>();
+			if (!group.representative.getURITemplate().match(path, values)) {
+				return null;
+			}
+			matched = Collections.singletonMap(group.representative, values);
+		} else {
+			List<ClassResourceInfo> representatives = new ArrayList<ClassResourceInfo>(candidates.size());
+			for (Group group : candidates) {
+				representatives.add(group.representative);
+			}
+			matched = JAXRSUtils.selectResourceClass(representatives, path, message);
+			if (matched == null) {
+				return null;
+			}
+		}
+		Map<ClassResourceInfo, MultivaluedMap<String, String>> selected = new LinkedHashMap<ClassResourceInfo, MultivaluedMap<String, String>>();
+		for (Map.Entry<ClassResourceInfo, MultivaluedMap<String, String>> entry : matched.entrySet()) {
+			groups.get(entry.getKey()).select(entry.getValue(), selected);
+		}
+		return selected;
+	}
+
+	private static final class Group {
+
+		private final ClassResourceInfo representative;
+		private final List<ClassResourceInfo> resources = new ArrayList<ClassResourceInfo>(1);
+		private final SegmentTrie<ClassResourceInfo> operations = new SegmentTrie<ClassResourceInfo>();
+
+		Group(ClassResourceInfo representative) {
+			this.representative = representative;
+		}
+
+		void add(ClassResourceInfo resource) {
+			resources.add(resource);
+			for (OperationResourceInfo operation : resource.getMethodDispatcher().getOperationResourceInfos()) {
+				if (operation.getURITemplate() != null) {
+					operations.add(operation.getURITemplate().getValue(), resource, operation.isSubResourceLocator());
+				}
+			}
+		}
+
+		void select(MultivaluedMap<String, String> values, Map<ClassResourceInfo, MultivaluedMap<String, String>> selected) {
+			if (resources.size() == 1) {
+				selected.put(representative, values);
+				return;
+			}
+			String path = values.getFirst(URITemplate.FINAL_MATCH_GROUP);
+			Set<ClassResourceInfo> candidates = new LinkedHashSet<ClassResourceInfo>();
+			operations.match(path == null ? "/" : path, candidates);
+			// 没有可能匹配的方法时交给CXF按原有方式报告404/405
+			for (ClassResourceInfo resource : candidates.isEmpty() ? resources : candidates) {
+				selected.put(resource, values);
+			}
+		}
+
+	}
+
+}
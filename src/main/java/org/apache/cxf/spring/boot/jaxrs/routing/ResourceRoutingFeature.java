@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.routing;
+
+import java.util.List;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.Interceptor;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.interceptor.JAXRSInInterceptor;
+import org.apache.cxf.message.Message;
+
+/**
+ * Replaces the {@link JAXRSInInterceptor} of an endpoint's binding with a
+ * {@link RoutingJAXRSInInterceptor}, whose router is compiled from the class
+ * and method templates when the endpoint is published.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ResourceRoutingFeature extends AbstractFeature {
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		Endpoint endpoint = server.getEndpoint();
+		if (!(endpoint.getService() instanceof JAXRSServiceImpl)) {
+			return;
+		}
+		List<Interceptor<? extends Message>> interceptors = endpoint.getBinding().getInInterceptors();
+		for (int i = 0; i < interceptors.size(); i++) {
+			if (interceptors.get(i).getClass() == JAXRSInInterceptor.class) {
+				RoutingJAXRSInInterceptor interceptor = new RoutingJAXRSInInterceptor();
+				interceptor.getRouter(((JAXRSServiceImpl) endpoint.getService()).getClassResourceInfos());
+				interceptors.set(i, interceptor);
+				return;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.routing;
+
+/**
+ * How the root resource of a request is selected.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public enum ResourceSelection {
+
+	/**
+	 * CXF默认方式：逐个匹配资源类的正则模板
+	 */
+	DEFAULT,
+	/**
+	 * 按路径段编译的前缀树，字面量段优先，见{@link ResourceRouter}
+	 */
+	TRIE
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.routing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import org.apache.cxf.jaxrs.utils.HttpUtils;
+
+/**
+ * URI templates split into path segments and stored in a trie.
+ * <p>
+ * A lookup returns every value whose template <em>may</em> match the path:
+ * literal segments are compared exactly (literal children are tried first),
+ * plain <code>{var}</code> segments match any one segment, and a variable with
+ * a custom regex matches whatever remains. The result is therefore a superset
+ * of the real matches, to be confirmed with {@link org.apache.cxf.jaxrs.model.URITemplate}.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SegmentTrie<T> {
+
+	private static final Pattern PLAIN_VARIABLE = Pattern.compile("[^{}:]*(\\{[^{}:]+\\}[^{}:]*)+");
+
+	private final Node<T> root = new Node<T>();
+	private int size;
+
+	/**
+	 * @param template the URI template
+	 * @param value the value returned for matching paths
+	 * @param prefix whether the template also matches longer paths, as class
+	 *        templates and sub-resource locators do
+	 */
+	public void add(String template, T value, boolean prefix) {
+		Node<T> node = root;
+		for (String segment : split(template)) {
+			if (segment.indexOf('{') < 0) {
+				node = node.literals.computeIfAbsent(HttpUtils.encodePartiallyEncoded(segment, false), k -> new Node<T>());
+			} else if (PLAIN_VARIABLE.matcher(segment).matches()) {
+				if (node.variable == null) {
+					node.variable = new Node<T>();
+				}
+				node = node.variable;
+			} else {
+				// 自定义正则可能跨越多个路径段，剩余部分一律视为匹配
+				node.rest.add(value);
+				size++;
+				return;
+			}
+		}
+		(prefix ? node.prefix : node.exact).add(value);
+		size++;
+	}
+
+	/**
+	 * @param path the encoded path, without matrix parameters
+	 * @param results receives the candidates; a value may be added more than once
+	 */
+	public void match(String path, Collection<T> results) {
+		List<String> segments = new ArrayList<String>();
+		int start = 0;
+		for (int i = 0; i <= path.length(); i++) {
+			if (i == path.length() || path.charAt(i) == '/') {
+				if (i > start) {
+					segments.add(path.substring(start, i));
+				}
+				start = i + 1;
+			}
+		}
+		match(root, segments, 0, results);
+	}
+
+	private static <T> void match(Node<T> node, List<String> segments, int index, Collection<T> results) {
+		results.addAll(node.rest);
+		results.addAll(node.prefix);
+		if (index == segments.size()) {
+			results.addAll(node.exact);
+			return;
+		}
+		Node<T> literal = node.literals.get(segments.get(index));
+		if (literal != null) {
+			match(literal, segments, index + 1, results);
+		}
+		if (node.variable != null) {
+			match(node.variable, segments, index + 1, results);
+		}
+	}
+
+	/**
+	 * 按不在花括号内的'/'切分，忽略空段
+	 */
+	static List<String> split(String template) {
+		List<String> segments = new ArrayList<String>();
+		int depth = 0;
+		int start = 0;
+		for (int i = 0; i <= template.length(); i++) {
+			char ch = i == template.length() ? '/' : template.charAt(i);
+			if (ch == '{') {
+				depth++;
+			} else if (ch == '}') {
+				depth--;
+			} else if (ch == '/' && depth <= 0) {
+				if (i > start) {
+					segments.add(template.substring(start, i));
+				}
+				start = i + 1;
+			}
+		}
+		return segments;
+	}
+
+	/**
+	 * @return the number of templates added
+	 */
+	public int size() {
+		return size;
+	}
+
+	private static final class Node<T> {
+
+		private final Map<String, Node<T>> literals = new HashMap<String, Node<T>>(4);
+		private final List<T> exact = new ArrayList<T>(1);
+		private final List<T> prefix = new ArrayList<T>(1);
+		private final List<T> rest = new ArrayList<T>(1);
+		private Node<T> variable;
+
+	}
+
+}
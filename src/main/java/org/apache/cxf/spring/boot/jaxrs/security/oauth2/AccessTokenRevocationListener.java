@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+/**
+ * Notified when an access token is removed from the data provider, whether
+ * revoked or expired, so that copies held elsewhere can be dropped.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@FunctionalInterface
+public interface AccessTokenRevocationListener {
+
+	/**
+	 * @param tokenKey the key of the removed access token
+	 */
+	void onRevoked(String tokenKey);
+
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free, blocked Bloom filter over strings, sized from the expected number
+ * of insertions and the wanted false positive probability.
+ * <p>
+ * All the bits of a key fall in one 64-bit word (Putze, Sanders &amp; Singler),
+ * so a membership test is a single memory read and a mask comparison. The
+ * word is chosen from {@link String#hashCode()}, which strings cache, and the
+ * mask is the union of two precomputed patterns picked by further hash bits,
+ * rather than k bit positions computed one by one. Blocking and patterns cost
+ * some accuracy, which the sizing makes up for with a fifth more bits. Bits are
+ * only ever set, never cleared.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BloomFilter {
+
+	private static final int MAX_HASHES = 10;
+	private static final int PATTERNS = 256;
+
+	private final AtomicLongArray words;
+	private final int wordCount;
+	private final int hashCount;
+	private final int capacity;
+	private final long[] lowPatterns = new long[PATTERNS];
+	private final long[] highPatterns = new long[PATTERNS];
+
+	/**
+	 * @param expectedInsertions the number of keys the filter is sized for
+	 * @param fpp the false positive probability at that number of keys
+	 */
+	public BloomFilter(int expectedInsertions, double fpp) {
+		this.capacity = Math.max(1, expectedInsertions);
+		double p = Math.min(0.5d, Math.max(1e-6d, fpp));
+		double bitsPerKey = -Math.log(p) / (Math.log(2) * Math.log(2)) * 1.2d;
+		long bits = (long) Math.ceil(capacity * bitsPerKey);
+		this.wordCount = (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, (bits + 63) >>> 6));
+		this.words = new AtomicLongArray(wordCount);
+		this.hashCount = (int) Math.max(2, Math.min(MAX_HASHES, Math.round(bitsPerKey / 1.2d * Math.log(2))));
+		long seed = 0x2545F4914F6CDD1DL;
+		for (int i = 0; i < PATTERNS; i++) {
+			seed = pattern(lowPatterns, i, (hashCount + 1) / 2, seed);
+			seed = pattern(highPatterns, i, hashCount / 2, seed);
+		}
+	}
+
+	private static long pattern(long[] patterns, int index, int bits, long seed) {
+		long mask = 0L;
+		while (Long.bitCount(mask) < bits) {
+			seed = mix(seed + 0x9E3779B97F4A7C15L);
+			mask |= 1L << seed;
+		}
+		patterns[index] = mask;
+		return seed;
+	}
+
+	public void put(String key) {
+		long hash = key.hashCode() * 0x9E3779B97F4A7C15L;
+		int word = index(hash);
+		long mask = mask(hash);
+		long current;
+		while (((current = words.get(word)) & mask) != mask && !words.compareAndSet(word, current, current | mask)) {
+			// 其它线程同时修改了同一个字，重试
+		}
+	}
+
+	/**
+	 * @return <code>false</code> when the key was certainly never added
+	 */
+	public boolean mightContain(String key) {
+		long hash = key.hashCode() * 0x9E3779B97F4A7C15L;
+		long mask = mask(hash);
+		return (words.get(index(hash)) & mask) == mask;
+	}
+
+	/**
+	 * @return the number of keys the filter was sized for
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public long getBitCount() {
+		return (long) wordCount << 6;
+	}
+
+	public int getHashCount() {
+		return hashCount;
+	}
+
+	private int index(long hash) {
+		// 高32位乘以字数取高位，代替取模
+		return (int) (((hash >>> 32) * wordCount) >>> 32);
+	}
+
+	private long mask(long hash) {
+		// 与选字所用的高32位错开
+		return lowPatterns[(int) (hash >>> 16) & (PATTERNS - 1)] | highPatterns[(int) (hash >>> 24) & (PATTERNS - 1)];
+	}
+
+	/**
+	 * MurmurHash3 64-bit finalizer, used to draw the patterns.
+	 */
+	private static long mix(long hash) {
+		hash ^= hash >>> 33;
+		hash *= 0xFF51AFD7ED558CCDL;
+		hash ^= hash >>> 33;
+		hash *= 0xC4CEB93FE1A85EC3L;
+		hash ^= hash >>> 33;
+		return hash;
+	}
+
+}
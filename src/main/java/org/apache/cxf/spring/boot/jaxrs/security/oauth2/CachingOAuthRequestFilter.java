@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+import org.apache.cxf.rs.security.oauth2.filters.OAuthRequestFilter;
+import org.apache.cxf.rs.security.oauth2.provider.OAuthDataProvider;
+import org.apache.cxf.rs.security.oauth2.utils.AuthorizationUtils;
+
+/**
+ * {@link OAuthRequestFilter} that remembers the tokens it has verified in a
+ * {@link VerifiedTokenCache}, so that a token presented again skips JWS
+ * signature verification or remote introspection.
+ * <p>
+ * Revocation is honoured in one of two ways: data providers that publish
+ * revocations (see {@link InMemoryCodeDataProvider#addRevocationListener})
+ * evict the entry directly; otherwise, when <code>revocationLookup</code> is
+ * on, every hit is confirmed by a plain data provider lookup, which is still
+ * far cheaper than the crypto it replaces.
+ * <p>
+ * With a {@link RevocationIndex}, every request is checked against it instead,
+ * hit or miss. This also rejects a token revoked while its validation was in
+ * flight, and self-contained tokens accepted without a data provider lookup;
+ * the Bloom filter in front answers the usual "not revoked" case.
+ * <p>
+ * Without one, a revocation published while a token was being verified is
+ * caught by the cache's revocation generation: when it moved, the freshly
+ * cached entry is confirmed against the data provider, or dropped when there
+ * is nothing to confirm it against.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingOAuthRequestFilter extends OAuthRequestFilter {
+
+	private final VerifiedTokenCache tokenCache;
+	private OAuthDataProvider dataProvider;
+	private boolean revocationLookup;
+	private RevocationIndex revocationIndex;
+
+	public CachingOAuthRequestFilter(VerifiedTokenCache tokenCache) {
+		this.tokenCache = tokenCache;
+	}
+
+	@Override
+	protected AccessTokenValidation getAccessTokenValidation(String authScheme, String authSchemeData,
+			MultivaluedMap<String, String> extraProps) {
+		AccessTokenValidation validation = tokenCache.get(authScheme, authSchemeData);
+		if (validation != null && isLive(validation)) {
+			return validation;
+		}
+		if (validation != null) {
+			tokenCache.invalidate(authScheme, authSchemeData);
+		}
+		long generation = tokenCache.getRevocationGeneration();
+		// 未命中：由父类完成校验，失败时抛出异常，不会进入缓存
+		validation = super.getAccessTokenValidation(authScheme, authSchemeData, extraProps);
+		if (isRevoked(validation)) {
+			AuthorizationUtils.throwAuthorizationFailure(supportedSchemes, realm);
+		}
+		tokenCache.put(authScheme, authSchemeData, validation);
+		// 校验期间发生过撤销：撤销通知可能早于put到达，放入的条目需要复核
+		if (revocationIndex == null && generation != tokenCache.getRevocationGeneration()) {
+			recheck(authScheme, authSchemeData, validation);
+		}
+		return validation;
+	}
+
+	private void recheck(String authScheme, String authSchemeData, AccessTokenValidation validation) {
+		if (dataProvider == null || validation.getTokenKey() == null) {
+			// 无从复核，仅放弃缓存，下次请求重新校验
+			tokenCache.invalidate(authScheme, authSchemeData);
+		} else if (dataProvider.getAccessToken(validation.getTokenKey()) == null) {
+			tokenCache.invalidate(authScheme, authSchemeData);
+			AuthorizationUtils.throwAuthorizationFailure(supportedSchemes, realm);
+		}
+	}
+
+	private boolean isLive(AccessTokenValidation validation) {
+		if (revocationIndex != null) {
+			return !isRevoked(validation);
+		}
+		return !revocationLookup || dataProvider == null || validation.getTokenKey() == null
+				|| dataProvider.getAccessToken(validation.getTokenKey()) != null;
+	}
+
+	private boolean isRevoked(AccessTokenValidation validation) {
+		return revocationIndex != null && validation.getTokenKey() != null
+				&& revocationIndex.isRevoked(validation.getTokenKey());
+	}
+
+	@Override
+	public void setDataProvider(OAuthDataProvider dataProvider) {
+		super.setDataProvider(dataProvider);
+		this.dataProvider = dataProvider;
+	}
+
+	public VerifiedTokenCache getTokenCache() {
+		return tokenCache;
+	}
+
+	public boolean isRevocationLookup() {
+		return revocationLookup;
+	}
+
+	public void setRevocationLookup(boolean revocationLookup) {
+		this.revocationLookup = revocationLookup;
+	}
+
+	public RevocationIndex getRevocationIndex() {
+		return revocationIndex;
+	}
+
+	public void setRevocationIndex(RevocationIndex revocationIndex) {
+		this.revocationIndex = revocationIndex;
+	}
+
+}
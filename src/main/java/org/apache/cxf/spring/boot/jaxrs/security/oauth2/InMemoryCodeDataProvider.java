@@ -0,0 +1,472 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.OAuthPermission;
+import org.apache.cxf.rs.security.oauth2.common.ServerAccessToken;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.apache.cxf.rs.security.oauth2.grants.code.AbstractCodeDataProvider;
+import org.apache.cxf.rs.security.oauth2.grants.code.ServerAuthorizationCodeGrant;
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+import org.apache.cxf.rs.security.oauth2.tokens.refresh.RefreshToken;
+import org.apache.cxf.rs.security.oauth2.utils.OAuthUtils;
+import org.apache.cxf.spring.boot.jaxrs.util.TimingWheel;
+
+/**
+ * In-memory {@link org.apache.cxf.rs.security.oauth2.grants.code.AuthorizationCodeDataProvider}.
+ * <ul>
+ * <li>clients, code grants, access and refresh tokens live in concurrent maps
+ * keyed by their identifiers;</li>
+ * <li>entries with a lifetime are scheduled on a {@link TimingWheel} when saved,
+ * and a single daemon thread advances the wheels once per tick, so expiry costs
+ * nothing per live entry and never scans the maps;</li>
+ * <li>{@link SubjectIndex} keeps the keys per client id and per subject login,
+ * so the <code>getAccessTokens</code>, <code>getRefreshTokens</code> and
+ * <code>getCodeGrants</code> lookups only visit the matching entries.</li>
+ * </ul>
+ * Lookups never return an expired entry, even between two ticks. Removed access
+ * tokens are published to the registered {@link AccessTokenRevocationListener}s,
+ * and those revoked before their expiry are recorded in the {@link RevocationIndex}.
+ * <p>
+ * Scope lists are converted to permissions once per distinct list of scopes;
+ * every caller gets its own copy of the list. The cache is cleared when the
+ * permission map, the supported or the required scopes change, and is not used
+ * at all by subclasses overriding <code>convertSingleScopeToPermission</code>,
+ * whose conversion may depend on the client.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InMemoryCodeDataProvider extends AbstractCodeDataProvider {
+
+	private final ConcurrentMap<String, Client> clients = new ConcurrentHashMap<String, Client>();
+	private final ConcurrentMap<String, ServerAuthorizationCodeGrant> codeGrants = new ConcurrentHashMap<String, ServerAuthorizationCodeGrant>();
+	private final ConcurrentMap<String, ServerAccessToken> accessTokens = new ConcurrentHashMap<String, ServerAccessToken>();
+	private final ConcurrentMap<String, RefreshToken> refreshTokens = new ConcurrentHashMap<String, RefreshToken>();
+
+	private final SubjectIndex codeGrantIndex = new SubjectIndex();
+	private final SubjectIndex accessTokenIndex = new SubjectIndex();
+	private final SubjectIndex refreshTokenIndex = new SubjectIndex();
+
+	private final TimingWheel<String> codeGrantWheel;
+	private final TimingWheel<String> accessTokenWheel;
+	private final TimingWheel<String> refreshTokenWheel;
+	private final ScheduledExecutorService scheduler;
+
+	private final LongAdder expired = new LongAdder();
+	private final List<AccessTokenRevocationListener> revocationListeners = new CopyOnWriteArrayList<AccessTokenRevocationListener>();
+	private volatile RevocationIndex revocationIndex;
+
+	private final ConcurrentMap<List<String>, List<OAuthPermission>> permissionCache = new ConcurrentHashMap<List<String>, List<OAuthPermission>>();
+	private int scopeCacheSize = 1024;
+	private final boolean scopeConversionOverridden = isScopeConversionOverridden(getClass());
+	private final LongAdder scopeCacheHits = new LongAdder();
+	private final LongAdder scopeCacheMisses = new LongAdder();
+
+	public InMemoryCodeDataProvider() {
+		this(1000L);
+	}
+
+	/**
+	 * @param tickMillis resolution of the expiry timing wheels, in milliseconds
+	 */
+	public InMemoryCodeDataProvider(long tickMillis) {
+		long now = System.currentTimeMillis();
+		this.codeGrantWheel = new TimingWheel<String>(tickMillis, now);
+		this.accessTokenWheel = new TimingWheel<String>(tickMillis, now);
+		this.refreshTokenWheel = new TimingWheel<String>(tickMillis, now);
+		this.revocationIndex = new RevocationIndex(10000, 0.01d, tickMillis);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "oauth2-token-expiry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long tick = codeGrantWheel.getTickMillis();
+		this.scheduler.scheduleWithFixedDelay(this::expire, tick, tick, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Removes the entries whose deadline has passed; entries found still live,
+	 * e.g. after a clock adjustment, are scheduled again.
+	 */
+	protected void expire() {
+		long now = System.currentTimeMillis();
+		codeGrantWheel.advance(now, code -> {
+			ServerAuthorizationCodeGrant grant = codeGrants.get(code);
+			if (grant == null) {
+				return;
+			}
+			if (!isExpired(grant)) {
+				schedule(codeGrantWheel, code, grant.getIssuedAt(), grant.getExpiresIn());
+			} else if (codeGrants.remove(code, grant)) {
+				codeGrantIndex.remove(grant.getClient(), grant.getSubject(), code);
+				expired.increment();
+			}
+		});
+		accessTokenWheel.advance(now, key -> {
+			ServerAccessToken token = accessTokens.get(key);
+			if (token == null) {
+				return;
+			}
+			if (!isExpired(token)) {
+				schedule(accessTokenWheel, key, token.getIssuedAt(), token.getExpiresIn());
+			} else {
+				doRevokeAccessToken(token);
+				expired.increment();
+			}
+		});
+		refreshTokenWheel.advance(now, key -> {
+			RefreshToken token = refreshTokens.get(key);
+			if (token == null) {
+				return;
+			}
+			if (!isExpired(token)) {
+				schedule(refreshTokenWheel, key, token.getIssuedAt(), token.getExpiresIn());
+			} else {
+				doRevokeRefreshToken(token);
+				expired.increment();
+			}
+		});
+		revocationIndex.expire(now);
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+		super.close();
+	}
+
+	// ---------------------------------------------------------------- clients
+
+	@Override
+	public void setClient(Client client) {
+		clients.put(client.getClientId(), client);
+	}
+
+	@Override
+	public List<Client> getClients(UserSubject resourceOwner) {
+		List<Client> list = new ArrayList<Client>();
+		for (Client client : clients.values()) {
+			if (isClientMatched(client, resourceOwner)) {
+				list.add(client);
+			}
+		}
+		return list;
+	}
+
+	@Override
+	protected Client doGetClient(String clientId) throws OAuthServiceException {
+		return clients.get(clientId);
+	}
+
+	@Override
+	protected void doRemoveClient(Client client) {
+		removeClientCodeGrants(client);
+		clients.remove(client.getClientId());
+	}
+
+	// ---------------------------------------------------------------- code grants
+
+	@Override
+	protected void saveCodeGrant(ServerAuthorizationCodeGrant grant) {
+		codeGrants.put(grant.getCode(), grant);
+		codeGrantIndex.add(grant.getClient(), grant.getSubject(), grant.getCode());
+		schedule(codeGrantWheel, grant.getCode(), grant.getIssuedAt(), grant.getExpiresIn());
+	}
+
+	@Override
+	public ServerAuthorizationCodeGrant removeCodeGrant(String code) throws OAuthServiceException {
+		ServerAuthorizationCodeGrant grant = codeGrants.remove(code);
+		if (grant == null) {
+			return null;
+		}
+		codeGrantIndex.remove(grant.getClient(), grant.getSubject(), code);
+		return isExpired(grant) ? null : grant;
+	}
+
+	@Override
+	public List<ServerAuthorizationCodeGrant> getCodeGrants(Client client, UserSubject subject)
+			throws OAuthServiceException {
+		List<ServerAuthorizationCodeGrant> list = new ArrayList<ServerAuthorizationCodeGrant>();
+		for (ServerAuthorizationCodeGrant grant : lookup(codeGrants, codeGrantIndex, client, subject)) {
+			if (isCodeMatched(grant, client, subject) && !isExpired(grant)) {
+				list.add(grant);
+			}
+		}
+		return list;
+	}
+
+	// ---------------------------------------------------------------- tokens
+
+	@Override
+	protected void saveAccessToken(ServerAccessToken token) {
+		accessTokens.put(token.getTokenKey(), token);
+		accessTokenIndex.add(token.getClient(), token.getSubject(), token.getTokenKey());
+		schedule(accessTokenWheel, token.getTokenKey(), token.getIssuedAt(), token.getExpiresIn());
+	}
+
+	@Override
+	protected void saveRefreshToken(RefreshToken token) {
+		refreshTokens.put(token.getTokenKey(), token);
+		refreshTokenIndex.add(token.getClient(), token.getSubject(), token.getTokenKey());
+		schedule(refreshTokenWheel, token.getTokenKey(), token.getIssuedAt(), token.getExpiresIn());
+	}
+
+	@Override
+	public ServerAccessToken getAccessToken(String accessToken) throws OAuthServiceException {
+		ServerAccessToken token = accessTokens.get(accessToken);
+		if (token != null && isExpired(token)) {
+			// 尚未被时间轮处理的过期令牌；父类的revokeAccessToken会回调本方法，故直接移除
+			doRevokeAccessToken(token);
+			return null;
+		}
+		return token;
+	}
+
+	@Override
+	protected RefreshToken getRefreshToken(String refreshTokenKey) {
+		RefreshToken token = refreshTokens.get(refreshTokenKey);
+		if (token != null && isExpired(token)) {
+			doRevokeRefreshToken(token);
+			return null;
+		}
+		return token;
+	}
+
+	@Override
+	public List<ServerAccessToken> getAccessTokens(Client client, UserSubject subject) throws OAuthServiceException {
+		List<ServerAccessToken> list = new ArrayList<ServerAccessToken>();
+		for (ServerAccessToken token : lookup(accessTokens, accessTokenIndex, client, subject)) {
+			if (isTokenMatched(token, client, subject) && !isExpired(token)) {
+				list.add(token);
+			}
+		}
+		return list;
+	}
+
+	@Override
+	public List<RefreshToken> getRefreshTokens(Client client, UserSubject subject) throws OAuthServiceException {
+		List<RefreshToken> list = new ArrayList<RefreshToken>();
+		for (RefreshToken token : lookup(refreshTokens, refreshTokenIndex, client, subject)) {
+			if (isTokenMatched(token, client, subject) && !isExpired(token)) {
+				list.add(token);
+			}
+		}
+		return list;
+	}
+
+	@Override
+	protected void doRevokeAccessToken(ServerAccessToken token) {
+		if (accessTokens.remove(token.getTokenKey()) != null) {
+			accessTokenIndex.remove(token.getClient(), token.getSubject(), token.getTokenKey());
+			if (!isExpired(token)) {
+				// 过期移除无需记录：令牌本身的过期时间已足以拒绝它
+				revocationIndex.revoke(token.getTokenKey(), token.getExpiresIn() > 0
+						? TimeUnit.SECONDS.toMillis(token.getIssuedAt() + token.getExpiresIn() + 1) : Long.MAX_VALUE);
+			}
+			for (AccessTokenRevocationListener listener : revocationListeners) {
+				listener.onRevoked(token.getTokenKey());
+			}
+		}
+	}
+
+	@Override
+	protected void doRevokeRefreshToken(RefreshToken token) {
+		if (refreshTokens.remove(token.getTokenKey()) != null) {
+			refreshTokenIndex.remove(token.getClient(), token.getSubject(), token.getTokenKey());
+		}
+	}
+
+	// ---------------------------------------------------------------- scopes
+
+	@Override
+	public List<OAuthPermission> convertScopeToPermissions(Client client, List<String> requestedScopes) {
+		if (scopeCacheSize <= 0 || scopeConversionOverridden || requestedScopes.isEmpty()) {
+			return super.convertScopeToPermissions(client, requestedScopes);
+		}
+		List<OAuthPermission> permissions = permissionCache.get(requestedScopes);
+		if (permissions != null) {
+			// 校验可能与客户端相关，每次都执行
+			checkRequestedScopes(client, requestedScopes);
+			scopeCacheHits.increment();
+			// 调用方（如令牌）可能修改返回的列表，不能交出缓存本身
+			return new ArrayList<OAuthPermission>(permissions);
+		}
+		scopeCacheMisses.increment();
+		permissions = super.convertScopeToPermissions(client, requestedScopes);
+		if (permissionCache.size() < scopeCacheSize) {
+			permissionCache.putIfAbsent(Collections.unmodifiableList(new ArrayList<String>(requestedScopes)),
+					Collections.unmodifiableList(new ArrayList<OAuthPermission>(permissions)));
+		}
+		return permissions;
+	}
+
+	@Override
+	public void setPermissionMap(Map<String, OAuthPermission> permissionMap) {
+		super.setPermissionMap(permissionMap);
+		clearScopeCache();
+	}
+
+	@Override
+	public void setSupportedScopes(Map<String, String> scopes) {
+		super.setSupportedScopes(scopes);
+		clearScopeCache();
+	}
+
+	@Override
+	public void setRequiredScopes(List<String> requiredScopes) {
+		super.setRequiredScopes(requiredScopes);
+		clearScopeCache();
+	}
+
+	/**
+	 * Drops the interned conversions, e.g. after the permission map was changed in place.
+	 */
+	public void clearScopeCache() {
+		// 父类构造期间调用setter时缓存尚未初始化
+		if (permissionCache != null) {
+			permissionCache.clear();
+		}
+	}
+
+	// ---------------------------------------------------------------- helpers
+
+	/**
+	 * @return whether a subclass overrides <code>convertSingleScopeToPermission</code>, which may then depend on the client
+	 */
+	private static boolean isScopeConversionOverridden(Class<?> type) {
+		for (Class<?> current = type; current != InMemoryCodeDataProvider.class; current = current.getSuperclass()) {
+			try {
+				current.getDeclaredMethod("convertSingleScopeToPermission", Client.class, String.class, List.class);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// 继续检查父类
+			}
+		}
+		return false;
+	}
+
+	private static <V> Collection<V> lookup(ConcurrentMap<String, V> entries, SubjectIndex index, Client client,
+			UserSubject subject) {
+		Collection<String> keys = index.candidates(client, subject);
+		if (keys == null) {
+			return entries.values();
+		}
+		List<V> values = new ArrayList<V>(keys.size());
+		for (String key : keys) {
+			V value = entries.get(key);
+			if (value != null) {
+				values.add(value);
+			}
+		}
+		return values;
+	}
+
+	private static void schedule(TimingWheel<String> wheel, String key, long issuedAt, long expiresIn) {
+		if (expiresIn > 0) {
+			// OAuthUtils.isExpired按整秒严格比较，截止时间的下一秒才视为过期
+			long deadline = TimeUnit.SECONDS.toMillis(issuedAt + expiresIn + 1);
+			wheel.schedule(key, deadline);
+		}
+	}
+
+	protected static boolean isExpired(ServerAccessToken token) {
+		return OAuthUtils.isExpired(token.getIssuedAt(), token.getExpiresIn());
+	}
+
+	protected static boolean isExpired(ServerAuthorizationCodeGrant grant) {
+		return OAuthUtils.isExpired(grant.getIssuedAt(), grant.getExpiresIn());
+	}
+
+	public void addRevocationListener(AccessTokenRevocationListener listener) {
+		revocationListeners.add(listener);
+	}
+
+	public void removeRevocationListener(AccessTokenRevocationListener listener) {
+		revocationListeners.remove(listener);
+	}
+
+	public RevocationIndex getRevocationIndex() {
+		return revocationIndex;
+	}
+
+	public void setRevocationIndex(RevocationIndex revocationIndex) {
+		this.revocationIndex = revocationIndex;
+	}
+
+	public int getScopeCacheSize() {
+		return scopeCacheSize;
+	}
+
+	/**
+	 * @param scopeCacheSize the maximum number of distinct scope lists whose
+	 *        permissions are interned; 0 disables the cache
+	 */
+	public void setScopeCacheSize(int scopeCacheSize) {
+		this.scopeCacheSize = scopeCacheSize;
+		if (scopeCacheSize <= 0) {
+			clearScopeCache();
+		}
+	}
+
+	public int getScopeCacheEntryCount() {
+		return permissionCache.size();
+	}
+
+	public long getScopeCacheHitCount() {
+		return scopeCacheHits.sum();
+	}
+
+	public long getScopeCacheMissCount() {
+		return scopeCacheMisses.sum();
+	}
+
+	public int getClientCount() {
+		return clients.size();
+	}
+
+	public int getCodeGrantCount() {
+		return codeGrants.size();
+	}
+
+	public int getAccessTokenCount() {
+		return accessTokens.size();
+	}
+
+	public int getRefreshTokenCount() {
+		return refreshTokens.size();
+	}
+
+	/**
+	 * @return the number of entries removed by the timing wheels
+	 */
+	public long getExpiredCount() {
+		return expired.sum();
+	}
+
+}
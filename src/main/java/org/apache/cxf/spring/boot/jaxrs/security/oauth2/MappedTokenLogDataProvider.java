@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.ServerAccessToken;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.apache.cxf.rs.security.oauth2.grants.code.ServerAuthorizationCodeGrant;
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+import org.apache.cxf.rs.security.oauth2.tokens.refresh.RefreshToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * {@link InMemoryCodeDataProvider} whose clients, code grants and tokens survive
+ * restarts in a {@link TokenLog}.
+ * <ul>
+ * <li>every change appends a record; a background thread forces the log to
+ * disk every <code>flushInterval</code>, so writes are batched. With a
+ * {@link TokenDurability} other than write-through, changes are handed to a
+ * {@link TokenLogWriter} and appended in batches off the request path, while
+ * being visible in memory at once;</li>
+ * <li>at startup only record headers are scanned: clients are loaded, and the
+ * locations of the live tokens are indexed by key. A token is deserialized on
+ * first use, and a background warm-up loads the rest, so startup does not grow
+ * with the serialization cost of millions of tokens;</li>
+ * <li>once <code>compactSegments</code> segments are sealed, the live entries are
+ * written to a snapshot in the background and the old segments are dropped.</li>
+ * </ul>
+ * Records are written by the {@link TokenCodec}.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MappedTokenLogDataProvider extends InMemoryCodeDataProvider {
+
+	private static final Logger LOG = LoggerFactory.getLogger(MappedTokenLogDataProvider.class);
+
+	private final TokenLog log;
+	private final TokenCodec codec;
+	private final int compactSegments;
+	private final ScheduledExecutorService worker;
+	private final TokenLogWriter writer;
+	/**
+	 * 已恢复但尚未反序列化的条目：Key到日志位置
+	 */
+	private final ConcurrentMap<String, Long> pendingCodeGrants = new ConcurrentHashMap<String, Long>();
+	private final ConcurrentMap<String, Long> pendingAccessTokens = new ConcurrentHashMap<String, Long>();
+	private final ConcurrentMap<String, Long> pendingRefreshTokens = new ConcurrentHashMap<String, Long>();
+	private volatile boolean compacting;
+
+	/**
+	 * @param tickMillis resolution of the expiry timing wheels, in milliseconds
+	 * @param directory the directory of the log files
+	 * @param segmentSize the size of a log segment, in bytes
+	 * @param flushInterval the interval between two syncs of the log, in milliseconds
+	 * @param compactSegments the number of sealed segments that triggers a compaction
+	 */
+	public MappedTokenLogDataProvider(long tickMillis, Path directory, int segmentSize, long flushInterval,
+			int compactSegments) throws IOException {
+		this(tickMillis, directory, segmentSize, flushInterval, compactSegments, TokenDurability.WRITE_THROUGH, 0, 0);
+	}
+
+	/**
+	 * @param tickMillis resolution of the expiry timing wheels, in milliseconds
+	 * @param directory the directory of the log files
+	 * @param segmentSize the size of a log segment, in bytes
+	 * @param flushInterval the interval between two syncs of the log, in milliseconds
+	 * @param compactSegments the number of sealed segments that triggers a compaction
+	 * @param durability when changes reach the log
+	 * @param queueCapacity the maximum number of changes waiting to be written, unless write-through
+	 * @param batchSize the maximum number of changes written at once, unless write-through
+	 */
+	public MappedTokenLogDataProvider(long tickMillis, Path directory, int segmentSize, long flushInterval,
+			int compactSegments, TokenDurability durability, int queueCapacity, int batchSize) throws IOException {
+		this(tickMillis, directory, segmentSize, flushInterval, compactSegments, durability, queueCapacity, batchSize,
+				TokenCodec.DEFAULT_ALLOWED_PACKAGES);
+	}
+
+	/**
+	 * @param tickMillis resolution of the expiry timing wheels, in milliseconds
+	 * @param directory the directory of the log files
+	 * @param segmentSize the size of a log segment, in bytes
+	 * @param flushInterval the interval between two syncs of the log, in milliseconds
+	 * @param compactSegments the number of sealed segments that triggers a compaction
+	 * @param durability when changes reach the log
+	 * @param queueCapacity the maximum number of changes waiting to be written, unless write-through
+	 * @param batchSize the maximum number of changes written at once, unless write-through
+	 * @param serializablePackages the package prefixes whose classes may be Java-serialized into the log,
+	 *            see {@link TokenCodec}
+	 */
+	public MappedTokenLogDataProvider(long tickMillis, Path directory, int segmentSize, long flushInterval,
+			int compactSegments, TokenDurability durability, int queueCapacity, int batchSize,
+			List<String> serializablePackages) throws IOException {
+		super(tickMillis);
+		this.codec = new TokenCodec(this::doGetClient, serializablePackages);
+		this.log = new TokenLog(directory, segmentSize);
+		this.compactSegments = Math.max(1, compactSegments);
+		recover();
+		this.writer = durability == null || durability == TokenDurability.WRITE_THROUGH ? null
+				: new TokenLogWriter(log, codec::encode, durability, queueCapacity, batchSize);
+		this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "oauth2-token-log");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.worker.execute(this::warmUp);
+		this.worker.scheduleWithFixedDelay(this::maintain, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+	}
+
+	private void recover() throws IOException {
+		long start = System.nanoTime();
+		long now = System.currentTimeMillis();
+		Map<String, Long> clients = new HashMap<String, Long>();
+		log.replay((type, key, deadline, location) -> {
+			Map<String, Long> pending = pending((byte) (type & ~TokenLog.REMOVAL), clients);
+			if (pending == null) {
+				return;
+			}
+			if ((type & TokenLog.REMOVAL) != 0 || (deadline > 0 && deadline <= now)) {
+				pending.remove(key);
+			} else {
+				pending.put(key, location);
+			}
+		});
+		for (Long location : clients.values()) {
+			Client client = (Client) decode(location);
+			if (client != null) {
+				super.setClient(client);
+			}
+		}
+		LOG.info("Recovered {} clients, {} code grants, {} access tokens and {} refresh tokens from {} in {} ms",
+				getClientCount(), pendingCodeGrants.size(), pendingAccessTokens.size(), pendingRefreshTokens.size(),
+				log.getDirectory(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+	}
+
+	private Map<String, Long> pending(byte type, Map<String, Long> clients) {
+		switch (type) {
+		case TokenLog.CLIENT:
+			return clients;
+		case TokenLog.CODE_GRANT:
+			return pendingCodeGrants;
+		case TokenLog.ACCESS_TOKEN:
+			return pendingAccessTokens;
+		case TokenLog.REFRESH_TOKEN:
+			return pendingRefreshTokens;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 * Deserializes the entries not used since startup.
+	 */
+	public void warmUp() {
+		for (String key : pendingRefreshTokens.keySet()) {
+			loadRefreshToken(key);
+		}
+		for (String key : pendingAccessTokens.keySet()) {
+			loadAccessToken(key);
+		}
+		for (String key : pendingCodeGrants.keySet()) {
+			loadCodeGrant(key);
+		}
+	}
+
+	protected void maintain() {
+		try {
+			log.flush();
+			if (!compacting && log.getSealedSegmentCount() >= compactSegments) {
+				compact();
+			}
+		} catch (Exception e) {
+			LOG.error("Token log maintenance failed", e);
+		}
+	}
+
+	/**
+	 * Writes the live entries into a snapshot and drops the sealed segments.
+	 */
+	public void compact() throws IOException {
+		compacting = true;
+		try {
+			// 快照只写内存中的条目，先确保不再引用旧段
+			warmUp();
+			int upTo = log.roll();
+			long start = System.nanoTime();
+			log.compact(upTo, appender -> {
+				for (Client client : getClients(null)) {
+					appender.append(TokenLog.CLIENT, client.getClientId(), 0L, codec.encode(client));
+				}
+				for (ServerAuthorizationCodeGrant grant : getCodeGrants(null, null)) {
+					appender.append(TokenLog.CODE_GRANT, grant.getCode(), deadline(grant.getIssuedAt(), grant.getExpiresIn()),
+							codec.encode(grant));
+				}
+				for (ServerAccessToken token : getAccessTokens(null, null)) {
+					appender.append(TokenLog.ACCESS_TOKEN, token.getTokenKey(), deadline(token.getIssuedAt(), token.getExpiresIn()),
+							codec.encode(token));
+				}
+				for (RefreshToken token : getRefreshTokens(null, null)) {
+					appender.append(TokenLog.REFRESH_TOKEN, token.getTokenKey(), deadline(token.getIssuedAt(), token.getExpiresIn()),
+							codec.encode(token));
+				}
+			});
+			LOG.debug("Compacted token log up to segment {} in {} ms", upTo,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		} finally {
+			compacting = false;
+		}
+	}
+
+	@Override
+	public void close() {
+		if (writer != null) {
+			// 先写完队列中的变更
+			writer.close();
+		}
+		worker.shutdownNow();
+		log.close();
+		super.close();
+	}
+
+	// ---------------------------------------------------------------- lazy loading
+
+	/*
+	 * 在computeIfPresent中加载：并发的查询会等待加载完成，而不会在条目移出待加载集合、
+	 * 尚未放入内存的间隙中查不到令牌
+	 */
+
+	private ServerAccessToken loadAccessToken(String key) {
+		pendingAccessTokens.computeIfPresent(key, (k, location) -> {
+			ServerAccessToken token = (ServerAccessToken) decode(location);
+			if (token != null && !isExpired(token)) {
+				super.saveAccessToken(token);
+			}
+			return null;
+		});
+		return super.getAccessToken(key);
+	}
+
+	private RefreshToken loadRefreshToken(String key) {
+		pendingRefreshTokens.computeIfPresent(key, (k, location) -> {
+			RefreshToken token = (RefreshToken) decode(location);
+			if (token != null && !isExpired(token)) {
+				super.saveRefreshToken(token);
+			}
+			return null;
+		});
+		return super.getRefreshToken(key);
+	}
+
+	private void loadCodeGrant(String code) {
+		pendingCodeGrants.computeIfPresent(code, (k, location) -> {
+			ServerAuthorizationCodeGrant grant = (ServerAuthorizationCodeGrant) decode(location);
+			if (grant != null && !isExpired(grant)) {
+				super.saveCodeGrant(grant);
+			}
+			return null;
+		});
+	}
+
+	@Override
+	public ServerAccessToken getAccessToken(String accessToken) throws OAuthServiceException {
+		ServerAccessToken token = super.getAccessToken(accessToken);
+		return token != null || pendingAccessTokens.isEmpty() ? token : loadAccessToken(accessToken);
+	}
+
+	@Override
+	protected RefreshToken getRefreshToken(String refreshTokenKey) {
+		RefreshToken token = super.getRefreshToken(refreshTokenKey);
+		return token != null || pendingRefreshTokens.isEmpty() ? token : loadRefreshToken(refreshTokenKey);
+	}
+
+	@Override
+	public List<ServerAccessToken> getAccessTokens(Client client, UserSubject subject) throws OAuthServiceException {
+		if (!pendingAccessTokens.isEmpty()) {
+			warmUp();
+		}
+		return super.getAccessTokens(client, subject);
+	}
+
+	@Override
+	public List<RefreshToken> getRefreshTokens(Client client, UserSubject subject) throws OAuthServiceException {
+		if (!pendingRefreshTokens.isEmpty()) {
+			warmUp();
+		}
+		return super.getRefreshTokens(client, subject);
+	}
+
+	@Override
+	public List<ServerAuthorizationCodeGrant> getCodeGrants(Client client, UserSubject subject)
+			throws OAuthServiceException {
+		if (!pendingCodeGrants.isEmpty()) {
+			warmUp();
+		}
+		return super.getCodeGrants(client, subject);
+	}
+
+	// ---------------------------------------------------------------- logging
+
+	@Override
+	public void setClient(Client client) {
+		super.setClient(client);
+		append(TokenLog.CLIENT, client.getClientId(), 0L, client);
+	}
+
+	@Override
+	protected void doRemoveClient(Client client) {
+		super.doRemoveClient(client);
+		remove(TokenLog.CLIENT, client.getClientId());
+	}
+
+	@Override
+	protected void saveCodeGrant(ServerAuthorizationCodeGrant grant) {
+		super.saveCodeGrant(grant);
+		append(TokenLog.CODE_GRANT, grant.getCode(), deadline(grant.getIssuedAt(), grant.getExpiresIn()), grant);
+	}
+
+	@Override
+	public ServerAuthorizationCodeGrant removeCodeGrant(String code) throws OAuthServiceException {
+		if (!pendingCodeGrants.isEmpty()) {
+			loadCodeGrant(code);
+		}
+		ServerAuthorizationCodeGrant grant = super.removeCodeGrant(code);
+		if (grant != null) {
+			remove(TokenLog.CODE_GRANT, code);
+		}
+		return grant;
+	}
+
+	@Override
+	protected void saveAccessToken(ServerAccessToken token) {
+		super.saveAccessToken(token);
+		append(TokenLog.ACCESS_TOKEN, token.getTokenKey(), deadline(token.getIssuedAt(), token.getExpiresIn()), token);
+	}
+
+	@Override
+	protected void saveRefreshToken(RefreshToken token) {
+		super.saveRefreshToken(token);
+		append(TokenLog.REFRESH_TOKEN, token.getTokenKey(), deadline(token.getIssuedAt(), token.getExpiresIn()), token);
+	}
+
+	@Override
+	protected void doRevokeAccessToken(ServerAccessToken token) {
+		super.doRevokeAccessToken(token);
+		// 过期的记录在恢复时按截止时间跳过，无需写删除记录
+		if (!isExpired(token)) {
+			remove(TokenLog.ACCESS_TOKEN, token.getTokenKey());
+		}
+	}
+
+	@Override
+	protected void doRevokeRefreshToken(RefreshToken token) {
+		super.doRevokeRefreshToken(token);
+		if (!isExpired(token)) {
+			remove(TokenLog.REFRESH_TOKEN, token.getTokenKey());
+		}
+	}
+
+	private void append(byte type, String key, long deadline, Object value) {
+		if (writer != null) {
+			// 在调用线程上编码，不可写的值立即失败
+			writer.append(type, key, deadline, value);
+			return;
+		}
+		try {
+			log.append(type, key, deadline, codec.encode(value));
+		} catch (IOException e) {
+			throw new OAuthServiceException("Failed to persist " + key, e);
+		}
+	}
+
+	private void remove(byte type, String key) {
+		if (writer != null) {
+			writer.remove(type, key);
+			return;
+		}
+		try {
+			log.remove(type, key);
+		} catch (IOException e) {
+			throw new OAuthServiceException("Failed to persist the removal of " + key, e);
+		}
+	}
+
+	// ---------------------------------------------------------------- serialization
+
+	private static long deadline(long issuedAt, long expiresIn) {
+		return expiresIn > 0 ? TimeUnit.SECONDS.toMillis(issuedAt + expiresIn + 1) : 0L;
+	}
+
+	private Object decode(long location) {
+		byte[] payload = log.read(location);
+		if (payload == null) {
+			LOG.warn("Skipping damaged token record at segment {}, offset {}", location >>> 32, (int) location);
+			return null;
+		}
+		try {
+			return codec.decode(payload);
+		} catch (IOException | ClassNotFoundException | RuntimeException e) {
+			LOG.warn("Skipping unreadable token record at segment {}, offset {}", location >>> 32, (int) location, e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the write-behind queue, or <code>null</code> when changes are written through
+	 */
+	public TokenLogWriter getWriter() {
+		return writer;
+	}
+
+	/**
+	 * @return the number of recovered entries not loaded yet
+	 */
+	public int getPendingCount() {
+		return pendingCodeGrants.size() + pendingAccessTokens.size() + pendingRefreshTokens.size();
+	}
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.util.Collections;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.rs.security.oauth2.filters.OAuthRequestFilter;
+
+/**
+ * Protects the endpoints it is applied to with the given {@link OAuthRequestFilter}.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OAuth2Feature extends AbstractFeature {
+
+	private final OAuthRequestFilter filter;
+
+	public OAuth2Feature(OAuthRequestFilter filter) {
+		this.filter = filter;
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		ServerProviderFactory factory = (ServerProviderFactory) server.getEndpoint().get(ServerProviderFactory.class.getName());
+		if (factory != null) {
+			factory.setUserProviders(Collections.singletonList(filter));
+		}
+	}
+
+	public OAuthRequestFilter getFilter() {
+		return filter;
+	}
+
+}
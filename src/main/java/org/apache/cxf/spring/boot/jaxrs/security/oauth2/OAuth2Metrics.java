@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics of the OAuth2 data provider and, when present, of the
+ * verified token cache of the request filter.
+ * <ul>
+ * <li>cxf.oauth2.tokens: live entries by kind client, code_grant, access_token, refresh_token</li>
+ * <li>cxf.oauth2.revocation.checks: by result filtered (Bloom filter negative), false_positive, total</li>
+ * <li>cxf.oauth2.revocation.index.size / revocations: revoked keys kept, and recorded in total</li>
+ * <li>cxf.oauth2.scope.cache: interned conversions by result hit, miss; .size the entries</li>
+ * <li>cxf.oauth2.token.cache: verified tokens by result hit, miss, eviction, revocation; .size the entries</li>
+ * <li>cxf.oauth2.store.queue.size / store.written / store.batches / store.failures: the write-behind queue
+ * of the token log, when there is one</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OAuth2Metrics implements MeterBinder {
+
+	private static final String PREFIX = "cxf.oauth2";
+
+	private final InMemoryCodeDataProvider dataProvider;
+	private final VerifiedTokenCache tokenCache;
+
+	/**
+	 * @param dataProvider the data provider, may be <code>null</code> when another provider is in use
+	 * @param tokenCache the verified token cache of the request filter, may be <code>null</code>
+	 */
+	public OAuth2Metrics(InMemoryCodeDataProvider dataProvider, VerifiedTokenCache tokenCache) {
+		this.dataProvider = dataProvider;
+		this.tokenCache = tokenCache;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry meterRegistry) {
+		if (dataProvider != null) {
+			bindDataProvider(meterRegistry);
+		}
+		if (tokenCache != null) {
+			bindTokenCache(meterRegistry);
+		}
+	}
+
+	private void bindDataProvider(MeterRegistry meterRegistry) {
+
+		Gauge.builder(PREFIX + ".tokens", dataProvider, InMemoryCodeDataProvider::getClientCount)
+				.tag("kind", "client").register(meterRegistry);
+		Gauge.builder(PREFIX + ".tokens", dataProvider, InMemoryCodeDataProvider::getCodeGrantCount)
+				.tag("kind", "code_grant").register(meterRegistry);
+		Gauge.builder(PREFIX + ".tokens", dataProvider, InMemoryCodeDataProvider::getAccessTokenCount)
+				.tag("kind", "access_token").register(meterRegistry);
+		Gauge.builder(PREFIX + ".tokens", dataProvider, InMemoryCodeDataProvider::getRefreshTokenCount)
+				.tag("kind", "refresh_token").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".tokens.expired", dataProvider, InMemoryCodeDataProvider::getExpiredCount)
+				.register(meterRegistry);
+
+		// 撤销索引可被替换，每次读取时取当前实例
+		FunctionCounter.builder(PREFIX + ".revocation.checks", dataProvider, p -> p.getRevocationIndex().getCheckCount())
+				.tag("result", "total").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".revocation.checks", dataProvider, p -> p.getRevocationIndex().getFilteredCount())
+				.tag("result", "filtered").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".revocation.checks", dataProvider, p -> p.getRevocationIndex().getFalsePositiveCount())
+				.tag("result", "false_positive").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".revocation.revocations", dataProvider, p -> p.getRevocationIndex().getRevocationCount())
+				.register(meterRegistry);
+		Gauge.builder(PREFIX + ".revocation.index.size", dataProvider, p -> p.getRevocationIndex().size())
+				.register(meterRegistry);
+
+		FunctionCounter.builder(PREFIX + ".scope.cache", dataProvider, InMemoryCodeDataProvider::getScopeCacheHitCount)
+				.tag("result", "hit").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".scope.cache", dataProvider, InMemoryCodeDataProvider::getScopeCacheMissCount)
+				.tag("result", "miss").register(meterRegistry);
+		Gauge.builder(PREFIX + ".scope.cache.size", dataProvider, InMemoryCodeDataProvider::getScopeCacheEntryCount)
+				.register(meterRegistry);
+
+		TokenLogWriter writer = dataProvider instanceof MappedTokenLogDataProvider
+				? ((MappedTokenLogDataProvider) dataProvider).getWriter() : null;
+		if (writer != null) {
+			Gauge.builder(PREFIX + ".store.queue.size", writer, TokenLogWriter::getQueueSize)
+					.register(meterRegistry);
+			FunctionCounter.builder(PREFIX + ".store.written", writer, TokenLogWriter::getWrittenCount)
+					.register(meterRegistry);
+			FunctionCounter.builder(PREFIX + ".store.batches", writer, TokenLogWriter::getBatchCount)
+					.register(meterRegistry);
+			FunctionCounter.builder(PREFIX + ".store.failures", writer, TokenLogWriter::getFailureCount)
+					.register(meterRegistry);
+		}
+	}
+
+	private void bindTokenCache(MeterRegistry meterRegistry) {
+		FunctionCounter.builder(PREFIX + ".token.cache", tokenCache, VerifiedTokenCache::getHitCount)
+				.tag("result", "hit").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".token.cache", tokenCache, VerifiedTokenCache::getMissCount)
+				.tag("result", "miss").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".token.cache", tokenCache, VerifiedTokenCache::getEvictionCount)
+				.tag("result", "eviction").register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".token.cache", tokenCache, VerifiedTokenCache::getRevocationCount)
+				.tag("result", "revocation").register(meterRegistry);
+		Gauge.builder(PREFIX + ".token.cache.size", tokenCache, VerifiedTokenCache::size)
+				.register(meterRegistry);
+	}
+
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.spring.boot.jaxrs.util.TimingWheel;
+
+/**
+ * Keys of the access tokens revoked before their expiry, fronted by a
+ * {@link BloomFilter}.
+ * <p>
+ * Almost every token checked has not been revoked; the filter answers that
+ * case from a few bit tests, without hashing into the map. Only when the
+ * filter reports a possible match is the exact map consulted, which settles
+ * false positives.
+ * <p>
+ * A key is kept until the token would have expired anyway, after which
+ * expiry alone rejects it. Keys are retired by a {@link TimingWheel} advanced
+ * through {@link #expire(long)}. Bloom filter bits cannot be cleared, so the
+ * filter is rebuilt from the map once enough keys have been retired, or
+ * resized when the live keys outgrow it.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RevocationIndex {
+
+	private final ConcurrentMap<String, Long> revoked = new ConcurrentHashMap<String, Long>();
+	private final TimingWheel<String> wheel;
+	private final int expectedInsertions;
+	private final double fpp;
+	private volatile BloomFilter filter;
+	/**
+	 * 自上次重建以来移除的键，它们仍占据过滤器中的位
+	 */
+	private int retired;
+
+	private final LongAdder lookups = new LongAdder();
+	private final LongAdder filtered = new LongAdder();
+	private final LongAdder falsePositives = new LongAdder();
+	private final LongAdder revocations = new LongAdder();
+	private final LongAdder rebuilds = new LongAdder();
+
+	/**
+	 * @param expectedInsertions the number of revoked, unexpired keys the filter is sized for
+	 * @param fpp the false positive probability at that number of keys
+	 * @param tickMillis resolution of the retention timing wheel, in milliseconds
+	 */
+	public RevocationIndex(int expectedInsertions, double fpp, long tickMillis) {
+		this.expectedInsertions = Math.max(16, expectedInsertions);
+		this.fpp = fpp;
+		this.filter = new BloomFilter(this.expectedInsertions, fpp);
+		this.wheel = new TimingWheel<String>(tickMillis, System.currentTimeMillis());
+	}
+
+	/**
+	 * @param tokenKey the key of the revoked access token
+	 * @param retainUntil epoch milliseconds after which the token is expired anyway,
+	 *        or {@link Long#MAX_VALUE} when it never expires
+	 */
+	public synchronized void revoke(String tokenKey, long retainUntil) {
+		// 先写入精确集合再置位：读者看到过滤器命中时集合中必然已有该键
+		if (revoked.put(tokenKey, retainUntil) == null) {
+			revocations.increment();
+		}
+		if (retainUntil != Long.MAX_VALUE) {
+			wheel.schedule(tokenKey, retainUntil);
+		}
+		if (revoked.size() > filter.getCapacity()) {
+			rebuild();
+		}
+		filter.put(tokenKey);
+	}
+
+	/**
+	 * @return whether the token was revoked before its expiry
+	 */
+	public boolean isRevoked(String tokenKey) {
+		if (!filter.mightContain(tokenKey)) {
+			filtered.increment();
+			return false;
+		}
+		lookups.increment();
+		if (revoked.containsKey(tokenKey)) {
+			return true;
+		}
+		falsePositives.increment();
+		return false;
+	}
+
+	/**
+	 * Retires the keys of the tokens that have expired by now.
+	 */
+	public void expire(long nowMillis) {
+		wheel.advance(nowMillis, key -> {
+			Long retainUntil = revoked.get(key);
+			if (retainUntil == null) {
+				return;
+			}
+			if (retainUntil > nowMillis) {
+				wheel.schedule(key, retainUntil);
+			} else if (revoked.remove(key, retainUntil)) {
+				synchronized (this) {
+					retired++;
+				}
+			}
+		});
+		synchronized (this) {
+			if (retired > 0 && retired >= Math.max(revoked.size(), filter.getCapacity() / 4)) {
+				rebuild();
+			}
+		}
+	}
+
+	private void rebuild() {
+		BloomFilter rebuilt = new BloomFilter(Math.max(expectedInsertions, revoked.size() * 2), fpp);
+		for (String key : revoked.keySet()) {
+			rebuilt.put(key);
+		}
+		filter = rebuilt;
+		retired = 0;
+		rebuilds.increment();
+	}
+
+	public int size() {
+		return revoked.size();
+	}
+
+	/**
+	 * @return the number of {@link #isRevoked(String)} calls
+	 */
+	public long getCheckCount() {
+		return filtered.sum() + lookups.sum();
+	}
+
+	/**
+	 * @return the checks answered by the Bloom filter alone
+	 */
+	public long getFilteredCount() {
+		return filtered.sum();
+	}
+
+	/**
+	 * @return the checks the Bloom filter let through for a key that was not revoked
+	 */
+	public long getFalsePositiveCount() {
+		return falsePositives.sum();
+	}
+
+	public long getRevocationCount() {
+		return revocations.sum();
+	}
+
+	public long getRebuildCount() {
+		return rebuilds.sum();
+	}
+
+	/**
+	 * @return the number of keys the current Bloom filter is sized for
+	 */
+	public int getFilterCapacity() {
+		return filter.getCapacity();
+	}
+
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+
+/**
+ * Secondary indexes from client id and from subject login to the keys of the
+ * grants or tokens issued for them, so that lookups by client and/or subject
+ * only visit matching entries.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SubjectIndex {
+
+	private final ConcurrentMap<String, Set<String>> byClient = new ConcurrentHashMap<String, Set<String>>();
+	private final ConcurrentMap<String, Set<String>> bySubject = new ConcurrentHashMap<String, Set<String>>();
+
+	public void add(Client client, UserSubject subject, String key) {
+		add(byClient, client != null ? client.getClientId() : null, key);
+		add(bySubject, subject != null ? subject.getLogin() : null, key);
+	}
+
+	public void remove(Client client, UserSubject subject, String key) {
+		remove(byClient, client != null ? client.getClientId() : null, key);
+		remove(bySubject, subject != null ? subject.getLogin() : null, key);
+	}
+
+	/**
+	 * @param client the client, may be null
+	 * @param subject the subject, may be null
+	 * @return the keys that may match, the smaller of the two indexes when both
+	 *         are given; null when neither is given and every entry may match
+	 */
+	public Collection<String> candidates(Client client, UserSubject subject) {
+		Set<String> clientKeys = client != null ? keys(byClient, client.getClientId()) : null;
+		Set<String> subjectKeys = subject != null && subject.getLogin() != null ? keys(bySubject, subject.getLogin()) : null;
+		if (clientKeys == null) {
+			return subjectKeys;
+		}
+		if (subjectKeys == null) {
+			return clientKeys;
+		}
+		return clientKeys.size() <= subjectKeys.size() ? clientKeys : subjectKeys;
+	}
+
+	private static Set<String> keys(ConcurrentMap<String, Set<String>> index, String name) {
+		Set<String> keys = name != null ? index.get(name) : null;
+		return keys != null ? keys : Collections.<String>emptySet();
+	}
+
+	private static void add(ConcurrentMap<String, Set<String>> index, String name, String key) {
+		if (name == null) {
+			return;
+		}
+		index.compute(name, (k, keys) -> {
+			Set<String> set = keys != null ? keys : ConcurrentHashMap.<String>newKeySet();
+			set.add(key);
+			return set;
+		});
+	}
+
+	private static void remove(ConcurrentMap<String, Set<String>> index, String name, String key) {
+		if (name == null) {
+			return;
+		}
+		// 集合为空时在同一原子操作中移除，避免与并发的add竞争
+		index.computeIfPresent(name, (k, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	/**
+	 * @return the number of indexed clients
+	 */
+	public int getClientCount() {
+		return byClient.size();
+	}
+
+	/**
+	 * @return the number of indexed subjects
+	 */
+	public int getSubjectCount() {
+		return bySubject.size();
+	}
+
+}
@@ -0,0 +1,484 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.cxf.rs.security.oauth2.common.AuthenticationMethod;
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.OAuthPermission;
+import org.apache.cxf.rs.security.oauth2.common.ServerAccessToken;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.apache.cxf.rs.security.oauth2.grants.code.ServerAuthorizationCodeGrant;
+import org.apache.cxf.rs.security.oauth2.tokens.bearer.BearerAccessToken;
+import org.apache.cxf.rs.security.oauth2.tokens.refresh.RefreshToken;
+
+/**
+ * Binary form of the OAuth2 model kept in the {@link TokenLog}.
+ * <p>
+ * {@link BearerAccessToken}, {@link RefreshToken} and
+ * {@link ServerAuthorizationCodeGrant} are written field by field. Their
+ * client is written as its id and resolved again on reading. A record is a few
+ * hundred bytes and takes about a microsecond each way. Clients, subclasses of
+ * the model and subject subclasses fall back to Java serialization, limited to
+ * the classes of the allowed packages: by default <code>java.*</code> and
+ * <code>org.apache.cxf.rs.security.*</code>, i.e. all of CXF's security
+ * modules, not just the OAuth2 model. The same list is enforced when writing,
+ * so a value whose classes could not be read back fails at encoding instead
+ * of becoming an unreadable record.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TokenCodec {
+
+	private static final byte SERIALIZED = 0;
+	private static final byte CLIENT = 1;
+	private static final byte BEARER_TOKEN = 2;
+	private static final byte REFRESH_TOKEN = 3;
+	private static final byte CODE_GRANT = 4;
+
+	private static final byte NO_SUBJECT = 0;
+	private static final byte SUBJECT = 1;
+	private static final byte SERIALIZED_SUBJECT = 2;
+
+	public static final List<String> DEFAULT_ALLOWED_PACKAGES = Collections.unmodifiableList(
+			Arrays.asList("java.", "org.apache.cxf.rs.security."));
+
+	private final Function<String, Client> clients;
+	private final List<String> allowedPackages;
+
+	/**
+	 * @param clients looks up a client by id when reading
+	 */
+	public TokenCodec(Function<String, Client> clients) {
+		this(clients, DEFAULT_ALLOWED_PACKAGES);
+	}
+
+	/**
+	 * @param clients looks up a client by id when reading
+	 * @param allowedPackages the package prefixes, e.g. <code>com.example.</code>,
+	 *            whose classes may be serialized into and read from a record
+	 */
+	public TokenCodec(Function<String, Client> clients, List<String> allowedPackages) {
+		this.clients = clients;
+		this.allowedPackages = allowedPackages == null || allowedPackages.isEmpty() ? DEFAULT_ALLOWED_PACKAGES
+				: Collections.unmodifiableList(new ArrayList<String>(allowedPackages));
+	}
+
+	/**
+	 * Fails fast, on the caller's thread, when the class of the value or of its
+	 * subject would have to be serialized and is not allowed. The classes
+	 * reachable from their fields are only checked by {@link #encode(Object)}.
+	 */
+	public void checkEncodable(Object value) throws InvalidClassException {
+		Class<?> type = value.getClass();
+		if (type != BearerAccessToken.class && type != RefreshToken.class
+				&& type != ServerAuthorizationCodeGrant.class) {
+			checkAllowed(type.getName());
+			return;
+		}
+		UserSubject subject = value instanceof ServerAccessToken ? ((ServerAccessToken) value).getSubject()
+				: ((ServerAuthorizationCodeGrant) value).getSubject();
+		if (subject != null && subject.getClass() != UserSubject.class) {
+			checkAllowed(subject.getClass().getName());
+		}
+	}
+
+	public List<String> getAllowedPackages() {
+		return allowedPackages;
+	}
+
+	public byte[] encode(Object value) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+		DataOutputStream out = new DataOutputStream(bytes);
+		Class<?> type = value.getClass();
+		if (type == BearerAccessToken.class || type == RefreshToken.class) {
+			out.writeByte(type == BearerAccessToken.class ? BEARER_TOKEN : REFRESH_TOKEN);
+			writeToken(out, (ServerAccessToken) value);
+			if (type == RefreshToken.class) {
+				writeList(out, ((RefreshToken) value).getAccessTokens());
+			}
+		} else if (type == ServerAuthorizationCodeGrant.class) {
+			out.writeByte(CODE_GRANT);
+			writeCodeGrant(out, (ServerAuthorizationCodeGrant) value);
+		} else if (value instanceof Client) {
+			out.writeByte(CLIENT);
+			serialize(out, value, false);
+		} else {
+			out.writeByte(SERIALIZED);
+			serialize(out, value, true);
+		}
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	public Object decode(byte[] payload) throws IOException, ClassNotFoundException {
+		// 直接读取ByteBuffer：DataInputStream逐字节的同步读取是解码的主要开销
+		ByteBuffer in = ByteBuffer.wrap(payload);
+		byte kind = in.get();
+		switch (kind) {
+		case BEARER_TOKEN:
+			return readToken(in, new BearerAccessToken());
+		case REFRESH_TOKEN:
+			RefreshToken token = readToken(in, new RefreshToken());
+			token.setAccessTokens(readList(in));
+			return token;
+		case CODE_GRANT:
+			return readCodeGrant(in);
+		case CLIENT:
+		case SERIALIZED:
+			return deserialize(in);
+		default:
+			throw new IOException("Unknown token record kind " + kind);
+		}
+	}
+
+	// ---------------------------------------------------------------- model
+
+	private void writeToken(DataOutputStream out, ServerAccessToken token) throws IOException {
+		writeString(out, token.getTokenKey());
+		writeString(out, token.getTokenType());
+		writeString(out, token.getRefreshToken());
+		out.writeLong(token.getExpiresIn());
+		out.writeLong(token.getIssuedAt());
+		out.writeLong(token.getNotBefore());
+		writeString(out, token.getIssuer());
+		writeString(out, token.getEncodedToken());
+		writeMap(out, token.getParameters());
+		writeString(out, token.getGrantType());
+		writeString(out, token.getClient() != null ? token.getClient().getClientId() : null);
+		List<OAuthPermission> scopes = token.getScopes();
+		out.writeInt(scopes != null ? scopes.size() : -1);
+		if (scopes != null) {
+			for (OAuthPermission scope : scopes) {
+				writeString(out, scope.getPermission());
+				writeString(out, scope.getDescription());
+				writeList(out, scope.getHttpVerbs());
+				writeList(out, scope.getUris());
+				out.writeBoolean(scope.isDefaultPermission());
+				out.writeBoolean(scope.isInvisibleToClient());
+			}
+		}
+		writeSubject(out, token.getSubject());
+		writeList(out, token.getAudiences());
+		writeString(out, token.getClientCodeVerifier());
+		writeString(out, token.getNonce());
+		writeString(out, token.getResponseType());
+		writeString(out, token.getGrantCode());
+		writeMap(out, token.getExtraProperties());
+	}
+
+	private <T extends ServerAccessToken> T readToken(ByteBuffer in, T token) throws IOException, ClassNotFoundException {
+		token.setTokenKey(readString(in));
+		token.setTokenType(readString(in));
+		token.setRefreshToken(readString(in));
+		token.setExpiresIn(in.getLong());
+		token.setIssuedAt(in.getLong());
+		token.setNotBefore(in.getLong());
+		token.setIssuer(readString(in));
+		token.setEncodedToken(readString(in));
+		token.setParameters(readMap(in));
+		token.setGrantType(readString(in));
+		token.setClient(client(readString(in)));
+		int size = in.getInt();
+		if (size >= 0) {
+			List<OAuthPermission> scopes = new ArrayList<OAuthPermission>(size);
+			for (int i = 0; i < size; i++) {
+				OAuthPermission scope = new OAuthPermission(readString(in), readString(in));
+				scope.setHttpVerbs(readList(in));
+				scope.setUris(readList(in));
+				scope.setDefaultPermission(in.get() != 0);
+				scope.setInvisibleToClient(in.get() != 0);
+				scopes.add(scope);
+			}
+			token.setScopes(scopes);
+		}
+		token.setSubject(readSubject(in));
+		token.setAudiences(readList(in));
+		token.setClientCodeVerifier(readString(in));
+		token.setNonce(readString(in));
+		token.setResponseType(readString(in));
+		token.setGrantCode(readString(in));
+		token.setExtraProperties(readMap(in));
+		return token;
+	}
+
+	private void writeCodeGrant(DataOutputStream out, ServerAuthorizationCodeGrant grant) throws IOException {
+		writeString(out, grant.getCode());
+		writeString(out, grant.getRedirectUri());
+		writeString(out, grant.getCodeVerifier());
+		out.writeLong(grant.getIssuedAt());
+		out.writeLong(grant.getExpiresIn());
+		writeString(out, grant.getClient() != null ? grant.getClient().getClientId() : null);
+		writeList(out, grant.getApprovedScopes());
+		writeList(out, grant.getRequestedScopes());
+		writeSubject(out, grant.getSubject());
+		writeString(out, grant.getAudience());
+		writeString(out, grant.getResponseType());
+		writeString(out, grant.getClientCodeChallenge());
+		writeString(out, grant.getNonce());
+		out.writeBoolean(grant.isPreauthorizedTokenAvailable());
+		writeMap(out, grant.getExtraProperties());
+	}
+
+	private ServerAuthorizationCodeGrant readCodeGrant(ByteBuffer in) throws IOException, ClassNotFoundException {
+		ServerAuthorizationCodeGrant grant = new ServerAuthorizationCodeGrant();
+		grant.setCode(readString(in));
+		grant.setRedirectUri(readString(in));
+		grant.setCodeVerifier(readString(in));
+		grant.setIssuedAt(in.getLong());
+		grant.setExpiresIn(in.getLong());
+		grant.setClient(client(readString(in)));
+		grant.setApprovedScopes(readList(in));
+		grant.setRequestedScopes(readList(in));
+		grant.setSubject(readSubject(in));
+		grant.setAudience(readString(in));
+		grant.setResponseType(readString(in));
+		grant.setClientCodeChallenge(readString(in));
+		grant.setNonce(readString(in));
+		grant.setPreauthorizedTokenAvailable(in.get() != 0);
+		grant.setExtraProperties(readMap(in));
+		return grant;
+	}
+
+	private void writeSubject(DataOutputStream out, UserSubject subject) throws IOException {
+		if (subject == null) {
+			out.writeByte(NO_SUBJECT);
+		} else if (subject.getClass() == UserSubject.class) {
+			out.writeByte(SUBJECT);
+			writeString(out, subject.getLogin());
+			writeString(out, subject.getId());
+			writeList(out, subject.getRoles());
+			writeMap(out, subject.getProperties());
+			writeString(out, subject.getAuthenticationMethod() != null ? subject.getAuthenticationMethod().name() : null);
+		} else {
+			// 如OidcUserSubject等子类
+			out.writeByte(SERIALIZED_SUBJECT);
+			serialize(out, subject, true);
+		}
+	}
+
+	private UserSubject readSubject(ByteBuffer in) throws IOException, ClassNotFoundException {
+		byte kind = in.get();
+		if (kind == NO_SUBJECT) {
+			return null;
+		}
+		if (kind == SERIALIZED_SUBJECT) {
+			return (UserSubject) deserialize(in);
+		}
+		UserSubject subject = new UserSubject(readString(in), readString(in));
+		subject.setRoles(readList(in));
+		subject.setProperties(readMap(in));
+		String method = readString(in);
+		if (method != null) {
+			subject.setAuthenticationMethod(AuthenticationMethod.valueOf(method));
+		}
+		return subject;
+	}
+
+	private Client client(String clientId) {
+		if (clientId == null) {
+			return null;
+		}
+		Client client = clients.apply(clientId);
+		return client != null ? client : new Client(clientId, null, true);
+	}
+
+	// ---------------------------------------------------------------- primitives
+
+	private static void writeString(DataOutputStream out, String value) throws IOException {
+		if (value == null) {
+			out.writeInt(-1);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer in) throws IOException {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+		in.position(in.position() + length);
+		return value;
+	}
+
+	private static void writeList(DataOutputStream out, List<String> values) throws IOException {
+		out.writeInt(values != null ? values.size() : -1);
+		if (values != null) {
+			for (String value : values) {
+				writeString(out, value);
+			}
+		}
+	}
+
+	private static List<String> readList(ByteBuffer in) throws IOException {
+		int size = in.getInt();
+		if (size < 0) {
+			return null;
+		}
+		List<String> values = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++) {
+			values.add(readString(in));
+		}
+		return values;
+	}
+
+	private static void writeMap(DataOutputStream out, Map<String, String> values) throws IOException {
+		out.writeInt(values != null ? values.size() : -1);
+		if (values != null) {
+			for (Map.Entry<String, String> entry : values.entrySet()) {
+				writeString(out, entry.getKey());
+				writeString(out, entry.getValue());
+			}
+		}
+	}
+
+	private static Map<String, String> readMap(ByteBuffer in) throws IOException {
+		int size = in.getInt();
+		if (size < 0) {
+			return null;
+		}
+		Map<String, String> values = new LinkedHashMap<String, String>(Math.max(4, size * 2));
+		for (int i = 0; i < size; i++) {
+			values.put(readString(in), readString(in));
+		}
+		return values;
+	}
+
+	// ---------------------------------------------------------------- serialization
+
+	private void serialize(DataOutputStream out, Object value, boolean clientById) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(512);
+		try (ObjectOutputStream stream = new ClientReplacingOutputStream(bytes, clientById)) {
+			stream.writeObject(value);
+		}
+		out.writeInt(bytes.size());
+		bytes.writeTo(out);
+	}
+
+	private Object deserialize(ByteBuffer in) throws IOException, ClassNotFoundException {
+		int length = in.getInt();
+		ByteArrayInputStream bytes = new ByteArrayInputStream(in.array(), in.arrayOffset() + in.position(), length);
+		in.position(in.position() + length);
+		try (ObjectInputStream stream = new ClientResolvingInputStream(bytes)) {
+			return stream.readObject();
+		}
+	}
+
+	/**
+	 * 仅允许白名单包中的类与基本类型数组，写入与读取使用同一规则
+	 */
+	private void checkAllowed(String name) throws InvalidClassException {
+		int start = 0;
+		while (name.charAt(start) == '[') {
+			start++;
+		}
+		if (start > 0 && name.charAt(start) == 'L') {
+			start++;
+		}
+		if (name.length() - start <= 1 || name.equals(ClientReference.class.getName())) {
+			return;
+		}
+		for (String allowed : allowedPackages) {
+			if (name.startsWith(allowed, start)) {
+				return;
+			}
+		}
+		throw new InvalidClassException(name, "Not allowed in a token record");
+	}
+
+	/**
+	 * Stands for a client in a serialized record.
+	 */
+	private static final class ClientReference implements Serializable {
+
+		private static final long serialVersionUID = 1L;
+		private final String clientId;
+
+		ClientReference(String clientId) {
+			this.clientId = clientId;
+		}
+
+	}
+
+	private final class ClientReplacingOutputStream extends ObjectOutputStream {
+
+		ClientReplacingOutputStream(OutputStream out, boolean clientById) throws IOException {
+			super(out);
+			enableReplaceObject(clientById);
+		}
+
+		@Override
+		protected void annotateClass(Class<?> cl) throws IOException {
+			// 写入时即按读取的规则校验，避免写出无法恢复的记录
+			checkAllowed(cl.getName());
+		}
+
+		@Override
+		protected void annotateProxyClass(Class<?> cl) throws IOException {
+			throw new InvalidClassException(cl.getName(), "Proxies are not allowed in a token record");
+		}
+
+		@Override
+		protected Object replaceObject(Object obj) throws IOException {
+			return obj instanceof Client ? new ClientReference(((Client) obj).getClientId()) : obj;
+		}
+
+	}
+
+	private final class ClientResolvingInputStream extends ObjectInputStream {
+
+		ClientResolvingInputStream(InputStream in) throws IOException {
+			super(in);
+			enableResolveObject(true);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+			checkAllowed(desc.getName());
+			return super.resolveClass(desc);
+		}
+
+		@Override
+		protected Object resolveObject(Object obj) throws IOException {
+			return obj instanceof ClientReference ? client(((ClientReference) obj).clientId) : obj;
+		}
+
+	}
+
+}
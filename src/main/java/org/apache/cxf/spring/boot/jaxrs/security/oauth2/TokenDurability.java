@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+/**
+ * When a change to the {@link MappedTokenLogDataProvider} reaches the token log.
+ * In every mode the change is visible in memory as soon as the call returns.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public enum TokenDurability {
+
+	/**
+	 * Serialized and appended by the calling thread; the log is synced every
+	 * flush interval, so a crash loses at most that interval
+	 */
+	WRITE_THROUGH,
+	/**
+	 * Queued and appended in batches by a writer thread; the caller only waits
+	 * when the queue is full. A crash loses the queued changes as well
+	 */
+	WRITE_BEHIND,
+	/**
+	 * Queued like {@link #WRITE_BEHIND}, but the caller waits until its batch
+	 * has been appended and synced; one sync covers every change in the batch
+	 */
+	GROUP_COMMIT
+
+}
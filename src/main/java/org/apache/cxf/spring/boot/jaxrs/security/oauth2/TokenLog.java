@@ -0,0 +1,389 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of token records in memory-mapped segment files.
+ * <p>
+ * A record is laid out as
+ * <code>[int length][int crc][byte type][long deadline][short keyLength][key][payload]</code>.
+ * The length is written last, so an unfinished record reads as the end of the
+ * segment. Appends copy into the mapped segment; {@link #flush()} forces it to
+ * disk, so several appends share one sync. When a segment is full, the log rolls
+ * over to a new one.
+ * <p>
+ * {@link #replay(Visitor)} only reads record headers and hands out the record
+ * locations; payloads are read on demand with {@link #read(long)}, which checks
+ * the CRC. {@link #compact(int, Snapshot)} writes the live records into
+ * <code>tokens-N.snapshot</code> and then drops the segments up to N. Replay
+ * starts from the latest snapshot, so a crash at any step leaves a consistent
+ * log.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TokenLog implements Closeable {
+
+	public static final byte CLIENT = 1;
+	public static final byte CODE_GRANT = 2;
+	public static final byte ACCESS_TOKEN = 3;
+	public static final byte REFRESH_TOKEN = 4;
+	/**
+	 * 删除记录的类型标志位
+	 */
+	public static final byte REMOVAL = 0x10;
+
+	static final int HEADER = 4 + 4 + 1 + 8 + 2;
+	private static final Pattern FILE = Pattern.compile("tokens-(\\d+)\\.(log|snapshot)");
+
+	/**
+	 * Receives the records found by {@link TokenLog#replay(Visitor)}, oldest first.
+	 */
+	public interface Visitor {
+
+		void visit(byte type, String key, long deadline, long location);
+
+	}
+
+	/**
+	 * Writes the live records of a compaction.
+	 */
+	public interface Snapshot {
+
+		void writeTo(Appender appender) throws IOException;
+
+	}
+
+	public interface Appender {
+
+		void append(byte type, String key, long deadline, byte[] payload) throws IOException;
+
+	}
+
+	private final Path directory;
+	private final int segmentSize;
+	private final ConcurrentNavigableMap<Integer, Segment> segments = new ConcurrentSkipListMap<Integer, Segment>();
+	/**
+	 * 读取与删除段文件之间的互斥
+	 */
+	private final ReadWriteLock segmentsLock = new ReentrantReadWriteLock();
+	private Segment active;
+	private boolean dirty;
+
+	public TokenLog(Path directory, int segmentSize) throws IOException {
+		this.directory = Files.createDirectories(directory);
+		this.segmentSize = segmentSize;
+	}
+
+	/**
+	 * Scans the latest snapshot and the segments written after it, then opens a
+	 * new segment for appends. Must be called once, before any append.
+	 */
+	public synchronized void replay(Visitor visitor) throws IOException {
+
+		TreeMap<Integer, Path> logs = new TreeMap<Integer, Path>();
+		TreeMap<Integer, Path> snapshots = new TreeMap<Integer, Path>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				Matcher matcher = FILE.matcher(file.getFileName().toString());
+				if (matcher.matches()) {
+					("log".equals(matcher.group(2)) ? logs : snapshots).put(Integer.valueOf(matcher.group(1)), file);
+				} else if (file.getFileName().toString().endsWith(".tmp")) {
+					// 未完成的压缩
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+
+		int last = 0;
+		if (!snapshots.isEmpty()) {
+			Map.Entry<Integer, Path> snapshot = snapshots.lastEntry();
+			last = snapshot.getKey();
+			// 最新快照之前的段与快照均已失效
+			for (Path stale : logs.headMap(last, true).values()) {
+				Files.deleteIfExists(stale);
+			}
+			for (Path stale : snapshots.headMap(last, false).values()) {
+				Files.deleteIfExists(stale);
+			}
+			scan(open(last, snapshot.getValue()), visitor);
+		}
+		for (Map.Entry<Integer, Path> log : logs.tailMap(last, false).entrySet()) {
+			scan(open(log.getKey(), log.getValue()), visitor);
+			last = log.getKey();
+		}
+		roll(last + 1);
+	}
+
+	private Segment open(int seq, Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			Segment segment = new Segment(seq, file, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+			segments.put(seq, segment);
+			return segment;
+		}
+	}
+
+	private void scan(Segment segment, Visitor visitor) {
+		ByteBuffer buffer = segment.buffer.duplicate();
+		int position = 0;
+		while (position + HEADER <= buffer.capacity()) {
+			int length = buffer.getInt(position);
+			if (length < HEADER || position + length > buffer.capacity()) {
+				break;
+			}
+			byte type = buffer.get(position + 8);
+			short keyLength = buffer.getShort(position + 17);
+			if (HEADER + keyLength > length) {
+				break;
+			}
+			// 删除记录很小，扫描时即校验，避免残缺记录误删有效条目
+			if ((type & REMOVAL) != 0 && !isIntact(buffer, position, length)) {
+				break;
+			}
+			byte[] key = new byte[keyLength];
+			buffer.position(position + HEADER);
+			buffer.get(key);
+			visitor.visit(type, new String(key, StandardCharsets.UTF_8), buffer.getLong(position + 9),
+					location(segment.seq, position));
+			position += length;
+		}
+		segment.position = position;
+	}
+
+	/**
+	 * @return the location of the record
+	 */
+	public synchronized long append(byte type, String key, long deadline, byte[] payload) throws IOException {
+		ByteBuffer record = encode(type, key, deadline, payload);
+		int length = record.remaining();
+		if (length > segmentSize) {
+			throw new IOException("Token record of " + length + " bytes exceeds the segment size " + segmentSize);
+		}
+		if (active.position + length > active.buffer.capacity()) {
+			roll(active.seq + 1);
+		}
+		int position = active.position;
+		ByteBuffer target = active.buffer.duplicate();
+		target.position(position + 4);
+		record.position(4);
+		target.put(record);
+		// 最后写入长度，使记录完整后才可见
+		active.buffer.putInt(position, length);
+		active.position = position + length;
+		dirty = true;
+		return location(active.seq, position);
+	}
+
+	public long remove(byte type, String key) throws IOException {
+		return append((byte) (type | REMOVAL), key, 0L, new byte[0]);
+	}
+
+	/**
+	 * @return the payload of the record, or null when it is damaged or its segment was compacted
+	 */
+	public byte[] read(long location) {
+		segmentsLock.readLock().lock();
+		try {
+			Segment segment = segments.get((int) (location >>> 32));
+			if (segment == null) {
+				return null;
+			}
+			ByteBuffer buffer = segment.buffer.duplicate();
+			int position = (int) location;
+			int length = buffer.getInt(position);
+			if (!isIntact(buffer, position, length)) {
+				return null;
+			}
+			int keyLength = buffer.getShort(position + 17);
+			byte[] payload = new byte[length - HEADER - keyLength];
+			buffer.position(position + HEADER + keyLength);
+			buffer.get(payload);
+			return payload;
+		} finally {
+			segmentsLock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Forces the appended records to disk.
+	 */
+	public synchronized void flush() {
+		if (dirty) {
+			active.buffer.force();
+			dirty = false;
+		}
+	}
+
+	/**
+	 * Seals the current segment and starts a new one.
+	 * @return the sequence number of the sealed segment
+	 */
+	public synchronized int roll() throws IOException {
+		int sealed = active.seq;
+		roll(sealed + 1);
+		return sealed;
+	}
+
+	private void roll(int seq) throws IOException {
+		if (active != null) {
+			active.buffer.force();
+			dirty = false;
+		}
+		Path file = directory.resolve("tokens-" + seq + ".log");
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			active = new Segment(seq, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize));
+		}
+		segments.put(seq, active);
+	}
+
+	/**
+	 * Replaces the segments up to <code>upTo</code>, which must have been sealed
+	 * by {@link #roll()}, with a snapshot of the live records.
+	 */
+	public void compact(int upTo, Snapshot snapshot) throws IOException {
+
+		Path temp = directory.resolve("tokens-" + upTo + ".snapshot.tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.WRITE)) {
+			ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+			snapshot.writeTo((type, key, deadline, payload) -> {
+				ByteBuffer record = encode(type, key, deadline, payload);
+				if (record.remaining() > buffer.remaining()) {
+					buffer.flip();
+					while (buffer.hasRemaining()) {
+						channel.write(buffer);
+					}
+					buffer.clear();
+				}
+				if (record.remaining() > buffer.capacity()) {
+					while (record.hasRemaining()) {
+						channel.write(record);
+					}
+				} else {
+					buffer.put(record);
+				}
+			});
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		}
+		Files.move(temp, directory.resolve("tokens-" + upTo + ".snapshot"), StandardCopyOption.ATOMIC_MOVE);
+
+		segmentsLock.writeLock().lock();
+		try {
+			for (Segment segment : segments.headMap(upTo, true).values()) {
+				segments.remove(segment.seq);
+				Files.deleteIfExists(segment.file);
+			}
+		} finally {
+			segmentsLock.writeLock().unlock();
+		}
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "tokens-*.snapshot")) {
+			for (Path file : files) {
+				Matcher matcher = FILE.matcher(file.getFileName().toString());
+				if (matcher.matches() && Integer.parseInt(matcher.group(1)) < upTo) {
+					Files.deleteIfExists(file);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the number of segments before the one being appended to
+	 */
+	public int getSealedSegmentCount() {
+		return Math.max(0, segments.size() - 1);
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	@Override
+	public synchronized void close() {
+		flush();
+		segments.clear();
+	}
+
+	static long location(int seq, int position) {
+		return ((long) seq << 32) | (position & 0xFFFFFFFFL);
+	}
+
+	private static ByteBuffer encode(byte type, String key, long deadline, byte[] payload) {
+		byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+		if (keyBytes.length > Short.MAX_VALUE) {
+			throw new IllegalArgumentException("Token key too long: " + keyBytes.length + " bytes");
+		}
+		int length = HEADER + keyBytes.length + payload.length;
+		ByteBuffer record = ByteBuffer.allocate(length);
+		record.putInt(length).putInt(0).put(type).putLong(deadline).putShort((short) keyBytes.length).put(keyBytes)
+				.put(payload);
+		record.putInt(4, crc(record, 0, length));
+		record.flip();
+		return record;
+	}
+
+	private static boolean isIntact(ByteBuffer buffer, int position, int length) {
+		return length >= HEADER && position + length <= buffer.capacity()
+				&& buffer.getInt(position + 4) == crc(buffer, position, length);
+	}
+
+	private static int crc(ByteBuffer buffer, int position, int length) {
+		ByteBuffer body = buffer.duplicate();
+		body.limit(position + length).position(position + 8);
+		CRC32 crc = new CRC32();
+		crc.update(body);
+		return (int) crc.getValue();
+	}
+
+	private static final class Segment {
+
+		private final int seq;
+		private final Path file;
+		private final MappedByteBuffer buffer;
+		private int position;
+
+		Segment(int seq, Path file, MappedByteBuffer buffer) {
+			this.seq = seq;
+			this.file = file;
+			this.buffer = buffer;
+		}
+
+	}
+
+}
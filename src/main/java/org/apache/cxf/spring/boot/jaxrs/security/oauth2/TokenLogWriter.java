@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind queue in front of a {@link TokenLog}.
+ * <p>
+ * Changes are queued in a bounded queue, in the order they were made, and a
+ * single writer thread drains them in batches of up to <code>batchSize</code>.
+ * The values are serialized on the caller's thread before queueing: the record
+ * is a snapshot of the token as it was when changed, even if a request goes on
+ * mutating it, and a value that cannot be encoded fails its own caller. Only
+ * the I/O is left to the writer. When the queue is full the caller blocks
+ * until there is room; changes are never dropped, nor written out of order.
+ * A change that fails to be written is counted and logged on its own, without
+ * affecting the rest of its batch.
+ * <p>
+ * With {@link TokenDurability#GROUP_COMMIT} the writer syncs the log after
+ * every batch and the callers of that batch are released together; otherwise
+ * syncing is left to the periodic flush of the owner.
+ * <p>
+ * {@link #close()} stops accepting changes, writes the queued ones and syncs
+ * the log. A JVM shutdown hook does the same if the owner is never closed.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TokenLogWriter implements AutoCloseable {
+
+	private static final Logger LOG = LoggerFactory.getLogger(TokenLogWriter.class);
+
+	/**
+	 * Serializes a value on the thread making the change.
+	 */
+	@FunctionalInterface
+	public interface Encoder {
+
+		byte[] encode(Object value) throws IOException;
+
+	}
+
+	private static final class Change {
+
+		final byte type;
+		final String key;
+		final long deadline;
+		/**
+		 * 已编码的记录，为null时表示删除
+		 */
+		final byte[] payload;
+		/**
+		 * 以下两项受committed保护
+		 */
+		boolean done;
+		Exception error;
+
+		Change(byte type, String key, long deadline, byte[] payload) {
+			this.type = type;
+			this.key = key;
+			this.deadline = deadline;
+			this.payload = payload;
+		}
+
+	}
+
+	private final TokenLog log;
+	private final Encoder encoder;
+	private final TokenDurability durability;
+	private final int batchSize;
+	private final BlockingQueue<Change> queue;
+	private final Thread writer;
+	private final Thread shutdownHook;
+
+	private final Object committed = new Object();
+	private volatile boolean closed;
+
+	private final LongAdder written = new LongAdder();
+	private final LongAdder batches = new LongAdder();
+	private final LongAdder failures = new LongAdder();
+
+	/**
+	 * @param log the log to write to
+	 * @param encoder serializes the values, on the caller's thread
+	 * @param durability {@link TokenDurability#WRITE_BEHIND} or {@link TokenDurability#GROUP_COMMIT}
+	 * @param queueCapacity the maximum number of queued changes
+	 * @param batchSize the maximum number of changes written per batch
+	 */
+	public TokenLogWriter(TokenLog log, Encoder encoder, TokenDurability durability, int queueCapacity, int batchSize) {
+		this.log = log;
+		this.encoder = encoder;
+		this.durability = durability;
+		this.batchSize = Math.max(1, batchSize);
+		this.queue = new ArrayBlockingQueue<Change>(Math.max(1, queueCapacity));
+		this.writer = new Thread(this::run, "oauth2-token-writer");
+		this.writer.setDaemon(true);
+		this.writer.start();
+		this.shutdownHook = new Thread(this::close, "oauth2-token-writer-shutdown");
+		Runtime.getRuntime().addShutdownHook(shutdownHook);
+	}
+
+	public void append(byte type, String key, long deadline, Object value) {
+		byte[] payload;
+		try {
+			payload = encoder.encode(value);
+		} catch (IOException | RuntimeException e) {
+			throw new OAuthServiceException("Failed to persist " + key, e);
+		}
+		submit(new Change(type, key, deadline, payload));
+	}
+
+	public void remove(byte type, String key) {
+		submit(new Change(type, key, 0L, null));
+	}
+
+	private void submit(Change change) {
+		if (closed) {
+			throw new OAuthServiceException("Token log writer is closed, cannot persist " + change.key);
+		}
+		try {
+			queue.put(change);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new OAuthServiceException("Interrupted while queueing " + change.key, e);
+		}
+		if (durability == TokenDurability.GROUP_COMMIT) {
+			awaitCommitted(change);
+		}
+	}
+
+	private void awaitCommitted(Change change) {
+		synchronized (committed) {
+			while (!change.done) {
+				try {
+					committed.wait();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new OAuthServiceException("Interrupted while persisting " + change.key, e);
+				}
+			}
+			if (change.error != null) {
+				throw new OAuthServiceException("Failed to persist " + change.key, change.error);
+			}
+		}
+	}
+
+	private void run() {
+		List<Change> batch = new ArrayList<Change>(batchSize);
+		while (true) {
+			try {
+				Change first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					if (closed && queue.isEmpty()) {
+						return;
+					}
+					continue;
+				}
+				batch.add(first);
+				queue.drainTo(batch, batchSize - 1);
+				write(batch);
+				batch.clear();
+			} catch (InterruptedException e) {
+				// 关闭时由close()写完剩余的变更
+				return;
+			}
+		}
+	}
+
+	private void write(List<Change> batch) {
+		// 逐条写入：一条失败只影响它自己的调用者
+		Exception[] errors = new Exception[batch.size()];
+		int succeeded = 0;
+		for (int i = 0; i < batch.size(); i++) {
+			Change change = batch.get(i);
+			try {
+				if (change.payload == null) {
+					log.remove(change.type, change.key);
+				} else {
+					log.append(change.type, change.key, change.deadline, change.payload);
+				}
+				succeeded++;
+			} catch (IOException | RuntimeException e) {
+				errors[i] = e;
+				failures.increment();
+				LOG.error("Failed to write the token log change of {}", change.key, e);
+			}
+		}
+		if (durability == TokenDurability.GROUP_COMMIT) {
+			try {
+				log.flush();
+			} catch (RuntimeException e) {
+				// 未能落盘时整批的调用者都失败
+				for (int i = 0; i < errors.length; i++) {
+					if (errors[i] == null) {
+						errors[i] = e;
+						failures.increment();
+					}
+				}
+				succeeded = 0;
+				LOG.error("Failed to sync {} token log changes", batch.size(), e);
+			}
+		}
+		written.add(succeeded);
+		batches.increment();
+		if (durability == TokenDurability.GROUP_COMMIT) {
+			synchronized (committed) {
+				for (int i = 0; i < batch.size(); i++) {
+					Change change = batch.get(i);
+					change.done = true;
+					change.error = errors[i];
+				}
+				committed.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Stops accepting changes, writes the queued ones and syncs the log.
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			writer.join(TimeUnit.SECONDS.toMillis(30));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		if (writer.isAlive()) {
+			LOG.warn("Token log writer did not finish, {} changes may be lost", queue.size());
+		} else {
+			// 与关闭同时入队的变更
+			List<Change> rest = new ArrayList<Change>();
+			while (queue.drainTo(rest, batchSize) > 0) {
+				write(rest);
+				rest.clear();
+			}
+		}
+		log.flush();
+		try {
+			Runtime.getRuntime().removeShutdownHook(shutdownHook);
+		} catch (IllegalStateException e) {
+			// 已在关闭JVM的过程中
+		}
+	}
+
+	public TokenDurability getDurability() {
+		return durability;
+	}
+
+	/**
+	 * @return the number of changes waiting to be written
+	 */
+	public int getQueueSize() {
+		return queue.size();
+	}
+
+	public int getQueueCapacity() {
+		return queue.size() + queue.remainingCapacity();
+	}
+
+	public long getWrittenCount() {
+		return written.sum();
+	}
+
+	public long getBatchCount() {
+		return batches.sum();
+	}
+
+	/**
+	 * @return the number of changes that could not be written
+	 */
+	public long getFailureCount() {
+		return failures.sum();
+	}
+
+}
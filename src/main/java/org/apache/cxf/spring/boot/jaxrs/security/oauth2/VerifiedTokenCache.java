@@ -0,0 +1,237 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+import org.apache.cxf.spring.boot.jaxrs.util.TimingWheel;
+
+/**
+ * Bounded cache of verified access tokens, so that a token presented again
+ * does not go through signature verification or introspection.
+ * <ul>
+ * <li>entries are keyed by the SHA-256 of the case-normalized scheme and the
+ * token: the raw bearer string is never kept as a key, and a token presented
+ * as "Bearer" or "bearer" shares one entry;</li>
+ * <li>an entry lives until the token expires, but no longer than
+ * <code>maxTtl</code>; tokens without a lifetime are therefore re-verified
+ * periodically. Expiry goes through a {@link TimingWheel} advanced on writes;
+ * reads check the deadline themselves;</li>
+ * <li>once <code>maxSize</code> is reached an arbitrary entry is evicted;</li>
+ * <li>{@link #onRevoked(String)} drops the entry of a revoked token and bumps
+ * the {@link #getRevocationGeneration() revocation generation}, which lets a
+ * caller detect a revocation that raced with its own verification.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class VerifiedTokenCache implements AccessTokenRevocationListener {
+
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+	/**
+	 * 令牌Key到缓存Key的映射，用于撤销时定位
+	 */
+	private final ConcurrentMap<String, String> tokenKeys = new ConcurrentHashMap<String, String>();
+	private final TimingWheel<String> wheel;
+	private final int maxSize;
+	private final long maxTtlMillis;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder revocations = new LongAdder();
+	/**
+	 * 每次撤销通知递增，用于发现与校验并发的撤销
+	 */
+	private final AtomicLong revocationGeneration = new AtomicLong();
+
+	/**
+	 * @param maxSize the maximum number of cached tokens
+	 * @param maxTtl the maximum time a token is trusted without verification, in seconds
+	 * @param tickMillis the resolution of the expiry wheel, in milliseconds
+	 */
+	public VerifiedTokenCache(int maxSize, long maxTtl, long tickMillis) {
+		this.maxSize = Math.max(1, maxSize);
+		this.maxTtlMillis = TimeUnit.SECONDS.toMillis(Math.max(1, maxTtl));
+		this.wheel = new TimingWheel<String>(tickMillis, System.currentTimeMillis());
+	}
+
+	/**
+	 * @param authScheme the authorization scheme, e.g. Bearer
+	 * @param token the token as presented by the client
+	 * @return the cached validation, or null when absent or expired
+	 */
+	public AccessTokenValidation get(String authScheme, String token) {
+		String hash = hash(authScheme, token);
+		Entry entry = entries.get(hash);
+		if (entry == null) {
+			misses.increment();
+			return null;
+		}
+		if (entry.deadline <= System.currentTimeMillis()) {
+			remove(hash, entry);
+			misses.increment();
+			return null;
+		}
+		hits.increment();
+		return entry.validation;
+	}
+
+	public void put(String authScheme, String token, AccessTokenValidation validation) {
+		long now = System.currentTimeMillis();
+		long deadline = now + maxTtlMillis;
+		if (validation.getTokenLifetime() > 0) {
+			deadline = Math.min(deadline, TimeUnit.SECONDS.toMillis(validation.getTokenIssuedAt() + validation.getTokenLifetime()));
+		}
+		if (deadline <= now) {
+			return;
+		}
+		wheel.advance(now, this::expire);
+		while (entries.size() >= maxSize) {
+			Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+			if (!it.hasNext()) {
+				break;
+			}
+			Map.Entry<String, Entry> victim = it.next();
+			if (remove(victim.getKey(), victim.getValue())) {
+				evictions.increment();
+			}
+		}
+		String hash = hash(authScheme, token);
+		Entry entry = new Entry(validation, deadline);
+		Entry previous = entries.put(hash, entry);
+		if (previous != null && previous.validation.getTokenKey() != null) {
+			tokenKeys.remove(previous.validation.getTokenKey(), hash);
+		}
+		if (validation.getTokenKey() != null) {
+			tokenKeys.put(validation.getTokenKey(), hash);
+		}
+		wheel.schedule(hash, deadline);
+	}
+
+	/**
+	 * Drops the entry of the given token as presented by the client.
+	 */
+	public void invalidate(String authScheme, String token) {
+		String hash = hash(authScheme, token);
+		Entry entry = entries.get(hash);
+		if (entry != null) {
+			remove(hash, entry);
+		}
+	}
+
+	@Override
+	public void onRevoked(String tokenKey) {
+		revocationGeneration.incrementAndGet();
+		String hash = tokenKey != null ? tokenKeys.remove(tokenKey) : null;
+		Entry entry = hash != null ? entries.remove(hash) : null;
+		if (entry != null) {
+			revocations.increment();
+		}
+	}
+
+	public void clear() {
+		entries.clear();
+		tokenKeys.clear();
+	}
+
+	private void expire(String hash) {
+		Entry entry = entries.get(hash);
+		if (entry != null && entry.deadline <= System.currentTimeMillis()) {
+			remove(hash, entry);
+		}
+	}
+
+	private boolean remove(String hash, Entry entry) {
+		if (!entries.remove(hash, entry)) {
+			return false;
+		}
+		if (entry.validation.getTokenKey() != null) {
+			tokenKeys.remove(entry.validation.getTokenKey(), hash);
+		}
+		return true;
+	}
+
+	static String hash(String authScheme, String token) {
+		MessageDigest digest = SHA256.get();
+		digest.reset();
+		if (authScheme != null) {
+			digest.update(authScheme.toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+		}
+		digest.update((byte) ' ');
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * @return a counter incremented on every revocation notice, whether or not
+	 *         the revoked token was cached
+	 */
+	public long getRevocationGeneration() {
+		return revocationGeneration.get();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	public long getRevocationCount() {
+		return revocations.sum();
+	}
+
+	private static final class Entry {
+
+		private final AccessTokenValidation validation;
+		private final long deadline;
+
+		Entry(AccessTokenValidation validation, long deadline) {
+			this.validation = validation;
+			this.deadline = deadline;
+		}
+
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.cxf.helpers.DOMUtils;
+import org.apache.cxf.rs.security.saml.sso.AuthnRequestBuilder;
+import org.apache.wss4j.common.saml.OpenSAMLUtil;
+import org.apache.wss4j.common.util.DOM2Writer;
+import org.opensaml.saml.saml2.core.AuthnRequest;
+import org.w3c.dom.Document;
+
+/**
+ * An AuthnRequest rendered once by the configured {@link AuthnRequestBuilder}
+ * and kept as text, with slots for the values that change per request: the ID,
+ * the IssueInstant, the issuer and the assertion consumer service address.
+ * Filling the slots replaces building, marshalling and serializing an OpenSAML
+ * object on every unauthenticated request.
+ * <p>
+ * Only builders whose output does not depend on the message, such as the
+ * {@link org.apache.cxf.rs.security.saml.sso.DefaultAuthnRequestBuilder}, can
+ * be rendered this way.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class AuthnRequestTemplate {
+
+	private static final String ISSUER = "urn:cxf:template:issuer";
+	private static final String ASSERTION_CONSUMER_SERVICE = "urn:cxf:template:acs";
+	private static final Pattern ID = Pattern.compile(" ID=\"([^\"]*)\"");
+	private static final Pattern ISSUE_INSTANT = Pattern.compile(" IssueInstant=\"([^\"]*)\"");
+	private static final DateTimeFormatter SECOND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.")
+			.withZone(ZoneOffset.UTC);
+	/**
+	 * 同一秒内的请求复用已格式化的日期部分
+	 */
+	private static volatile FormattedSecond lastSecond = new FormattedSecond(Long.MIN_VALUE, null);
+
+	private static final int SLOT_ID = 0;
+	private static final int SLOT_ISSUE_INSTANT = 1;
+	private static final int SLOT_ISSUER = 2;
+	private static final int SLOT_ASSERTION_CONSUMER_SERVICE = 3;
+
+	private final String[] segments;
+	private final int[] slots;
+	private final int length;
+
+	protected AuthnRequestTemplate(String[] segments, int[] slots) {
+		this.segments = segments;
+		this.slots = slots;
+		int length = 0;
+		for (String segment : segments) {
+			length += segment.length();
+		}
+		this.length = length;
+	}
+
+	/**
+	 * @param builder the builder whose output is captured
+	 * @param destination the Destination attribute, set when requests are signed; may be null
+	 * @return the template of the builder's AuthnRequest
+	 */
+	public static AuthnRequestTemplate render(AuthnRequestBuilder builder, String destination) throws Exception {
+
+		OpenSAMLUtil.initSamlEngine();
+		AuthnRequest authnRequest = builder.createAuthnRequest(null, ISSUER, ASSERTION_CONSUMER_SERVICE);
+		if (destination != null) {
+			authnRequest.setDestination(destination);
+		}
+		Document doc = DOMUtils.createDocument();
+		doc.appendChild(doc.createElement("root"));
+		String xml = DOM2Writer.nodeToString(OpenSAMLUtil.toDom(authnRequest, doc));
+
+		// 位置 -> {结束位置, 槽位}
+		TreeMap<Integer, int[]> found = new TreeMap<Integer, int[]>();
+		find(xml, ID, SLOT_ID, found);
+		find(xml, ISSUE_INSTANT, SLOT_ISSUE_INSTANT, found);
+		find(xml, ISSUER, SLOT_ISSUER, found);
+		find(xml, ASSERTION_CONSUMER_SERVICE, SLOT_ASSERTION_CONSUMER_SERVICE, found);
+
+		List<String> segments = new ArrayList<String>();
+		int[] slots = new int[found.size()];
+		int from = 0;
+		int i = 0;
+		for (Map.Entry<Integer, int[]> entry : found.entrySet()) {
+			segments.add(xml.substring(from, entry.getKey()));
+			slots[i++] = entry.getValue()[1];
+			from = entry.getValue()[0];
+		}
+		segments.add(xml.substring(from));
+		return new AuthnRequestTemplate(segments.toArray(new String[segments.size()]), slots);
+	}
+
+	private static void find(String xml, Pattern pattern, int slot, TreeMap<Integer, int[]> found) {
+		Matcher matcher = pattern.matcher(xml);
+		if (!matcher.find()) {
+			throw new IllegalStateException("AuthnRequest has no " + pattern.pattern().trim());
+		}
+		found.put(matcher.start(1), new int[] { matcher.end(1), slot });
+	}
+
+	private static void find(String xml, String sentinel, int slot, TreeMap<Integer, int[]> found) {
+		for (int index = xml.indexOf(sentinel); index >= 0; index = xml.indexOf(sentinel, index + 1)) {
+			found.put(index, new int[] { index + sentinel.length(), slot });
+		}
+	}
+
+	/**
+	 * @return a new request ID, in the form OpenSAML generates it
+	 */
+	public static String newId() {
+		return "_" + UUID.randomUUID().toString();
+	}
+
+	/**
+	 * @return the instant as OpenSAML writes it, e.g. 2018-01-01T08:00:00.000Z
+	 */
+	public static String issueInstant(long millis) {
+		long second = Math.floorDiv(millis, 1000L);
+		FormattedSecond formatted = lastSecond;
+		if (formatted.second != second) {
+			formatted = new FormattedSecond(second, SECOND_FORMAT.format(Instant.ofEpochSecond(second)));
+			lastSecond = formatted;
+		}
+		int fraction = (int) Math.floorMod(millis, 1000L);
+		StringBuilder instant = new StringBuilder(24).append(formatted.prefix);
+		if (fraction < 100) {
+			instant.append(fraction < 10 ? "00" : "0");
+		}
+		return instant.append(fraction).append('Z').toString();
+	}
+
+	public String create(String id, String issueInstant, String issuerId, String assertionConsumerServiceAddress) {
+		StringBuilder xml = new StringBuilder(length + 256);
+		xml.append(segments[0]);
+		for (int i = 0; i < slots.length; i++) {
+			switch (slots[i]) {
+			case SLOT_ID:
+				escape(xml, id);
+				break;
+			case SLOT_ISSUE_INSTANT:
+				xml.append(issueInstant);
+				break;
+			case SLOT_ISSUER:
+				escape(xml, issuerId);
+				break;
+			default:
+				escape(xml, assertionConsumerServiceAddress);
+				break;
+			}
+			xml.append(segments[i + 1]);
+		}
+		return xml.toString();
+	}
+
+	/**
+	 * 同时适用于属性值与文本内容的转义
+	 */
+	private static void escape(StringBuilder xml, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '&':
+				xml.append("&amp;");
+				break;
+			case '<':
+				xml.append("&lt;");
+				break;
+			case '>':
+				xml.append("&gt;");
+				break;
+			case '"':
+				xml.append("&quot;");
+				break;
+			default:
+				xml.append(c);
+			}
+		}
+	}
+
+	private static class FormattedSecond {
+
+		private final long second;
+		private final String prefix;
+
+		FormattedSecond(long second, String prefix) {
+			this.second = second;
+			this.prefix = prefix;
+		}
+
+	}
+
+}
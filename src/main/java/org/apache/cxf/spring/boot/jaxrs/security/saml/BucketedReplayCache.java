@@ -0,0 +1,410 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.cxf.rs.security.saml.sso.TokenReplayCache;
+import org.apache.wss4j.common.cache.ReplayCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process replay cache for SAML assertion and message IDs, usable both as
+ * a wss4j {@link ReplayCache} and as the {@link TokenReplayCache} of the SSO
+ * request assertion consumer service.
+ * <ul>
+ * <li>IDs are kept in hash sets, one per time bucket; an ID goes to the bucket
+ * in which it expires. Expiry drops whole buckets, and a bucket is reused
+ * once its time has passed, so there is no per-entry bookkeeping. IDs may be
+ * remembered up to one bucket longer than asked, never shorter;</li>
+ * <li>the number of IDs is capped. By default the cache fails closed: once
+ * <code>maxEntries</code> IDs are remembered, an unknown ID is reported as a
+ * replay, and counted as rejected, until buckets expire. IDs that were
+ * accepted are still added, so the cap may be passed by the requests in
+ * flight. With <code>evictWhenFull</code>, the bucket closest to expiry is
+ * dropped early instead, and counted as evicted; its IDs could then be
+ * replayed;</li>
+ * <li>with a snapshot file, the live IDs are written on {@link #close()} (and
+ * every <code>snapshotInterval</code>, if set) and read back on start, so a
+ * replay is still detected after a restart.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BucketedReplayCache implements ReplayCache, TokenReplayCache<String> {
+
+	private static final Logger LOG = LoggerFactory.getLogger(BucketedReplayCache.class);
+	private static final int SNAPSHOT_MAGIC = 0x52435331;
+
+	private static final class Bucket {
+
+		/**
+		 * 桶在 index * bucketMillis 时刻到期
+		 */
+		final long index;
+		final Set<String> ids = ConcurrentHashMap.newKeySet();
+
+		Bucket(long index) {
+			this.index = index;
+		}
+
+	}
+
+	private final AtomicReferenceArray<Bucket> ring;
+	private final long bucketMillis;
+	private final long defaultTimeToLive;
+	private final long maxTimeToLive;
+	private final int maxEntries;
+	private final boolean evictWhenFull;
+	private final Path snapshotFile;
+	private final ScheduledExecutorService scheduler;
+
+	private final AtomicInteger size = new AtomicInteger();
+	private volatile long sweptIndex;
+
+	private final LongAdder replays = new LongAdder();
+	private final LongAdder expired = new LongAdder();
+	private final LongAdder evicted = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+
+	public BucketedReplayCache() {
+		this(300, 3600, 32, 100000, null, 0);
+	}
+
+	/**
+	 * @param defaultTimeToLive lifetime of IDs added without one, in seconds
+	 * @param maxTimeToLive the longest lifetime kept, in seconds; longer ones are shortened to it
+	 * @param buckets the number of time buckets spanning <code>maxTimeToLive</code>
+	 * @param maxEntries the maximum number of IDs kept
+	 * @param snapshotFile file the IDs are saved to and restored from; null to keep them in memory only
+	 * @param snapshotInterval seconds between snapshots; 0 to save on close only
+	 */
+	public BucketedReplayCache(long defaultTimeToLive, long maxTimeToLive, int buckets, int maxEntries,
+			Path snapshotFile, long snapshotInterval) {
+		this(defaultTimeToLive, maxTimeToLive, buckets, maxEntries, snapshotFile, snapshotInterval, false);
+	}
+
+	/**
+	 * @param defaultTimeToLive lifetime of IDs added without one, in seconds
+	 * @param maxTimeToLive the longest lifetime kept, in seconds; longer ones are shortened to it
+	 * @param buckets the number of time buckets spanning <code>maxTimeToLive</code>
+	 * @param maxEntries the maximum number of IDs kept
+	 * @param snapshotFile file the IDs are saved to and restored from; null to keep them in memory only
+	 * @param snapshotInterval seconds between snapshots; 0 to save on close only
+	 * @param evictWhenFull whether to drop the IDs closest to expiry when full, rather than reject unknown IDs
+	 */
+	public BucketedReplayCache(long defaultTimeToLive, long maxTimeToLive, int buckets, int maxEntries,
+			Path snapshotFile, long snapshotInterval, boolean evictWhenFull) {
+		this.maxTimeToLive = Math.max(1, maxTimeToLive);
+		this.defaultTimeToLive = Math.min(Math.max(1, defaultTimeToLive), this.maxTimeToLive);
+		this.bucketMillis = Math.max(1, TimeUnit.SECONDS.toMillis(this.maxTimeToLive) / Math.max(1, buckets));
+		// 最长有效期跨越的桶数，加上当前桶与向上取整的一个桶
+		this.ring = new AtomicReferenceArray<Bucket>(
+				(int) ((TimeUnit.SECONDS.toMillis(this.maxTimeToLive) + bucketMillis - 1) / bucketMillis) + 2);
+		this.maxEntries = Math.max(1, maxEntries);
+		this.evictWhenFull = evictWhenFull;
+		this.snapshotFile = snapshotFile;
+		this.sweptIndex = System.currentTimeMillis() / bucketMillis;
+		if (snapshotFile != null) {
+			restore();
+		}
+		if (snapshotFile != null && snapshotInterval > 0) {
+			this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+				Thread thread = new Thread(runnable, "saml-replay-cache-snapshot");
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.scheduler.scheduleWithFixedDelay(this::trySnapshot, snapshotInterval, snapshotInterval, TimeUnit.SECONDS);
+		} else {
+			this.scheduler = null;
+		}
+	}
+
+	// ---------------------------------------------------------------- ReplayCache
+
+	@Override
+	public void add(String identifier) {
+		add(identifier, defaultTimeToLive);
+	}
+
+	/**
+	 * @param timeToLive in seconds; the default lifetime is used when not positive
+	 */
+	@Override
+	public void add(String identifier, long timeToLive) {
+		if (identifier == null || identifier.isEmpty()) {
+			return;
+		}
+		long ttl = timeToLive > 0 ? Math.min(timeToLive, maxTimeToLive) : defaultTimeToLive;
+		long now = System.currentTimeMillis();
+		addUntil(identifier, now + TimeUnit.SECONDS.toMillis(ttl), now);
+	}
+
+	@Override
+	public boolean contains(String identifier) {
+		if (identifier == null) {
+			return false;
+		}
+		long current = System.currentTimeMillis() / bucketMillis;
+		for (int i = 0; i < ring.length(); i++) {
+			Bucket bucket = ring.get(i);
+			if (bucket != null && bucket.index > current && bucket.ids.contains(identifier)) {
+				replays.increment();
+				return true;
+			}
+		}
+		if (!evictWhenFull && isFull(current)) {
+			// 已满时无法记住新ID，按重放拒绝
+			rejected.increment();
+			return true;
+		}
+		return false;
+	}
+
+	// ---------------------------------------------------------------- TokenReplayCache
+
+	@Override
+	public String getId(String id) {
+		return contains(id) ? id : null;
+	}
+
+	@Override
+	public void putId(String id) {
+		add(id);
+	}
+
+	@Override
+	public void putId(String id, long timeToLive) {
+		add(id, timeToLive);
+	}
+
+	// ---------------------------------------------------------------- buckets
+
+	private void addUntil(String identifier, long expiresAt, long now) {
+		long current = now / bucketMillis;
+		if (current > sweptIndex) {
+			sweep(current);
+		}
+		// 到期时刻向上取整到桶边界
+		long index = expiresAt / bucketMillis + 1;
+		if (bucket(index).ids.add(identifier) && size.incrementAndGet() > maxEntries && evictWhenFull) {
+			evict(current);
+		}
+	}
+
+	private boolean isFull(long current) {
+		if (size.get() < maxEntries) {
+			return false;
+		}
+		if (current > sweptIndex) {
+			sweep(current);
+		}
+		return size.get() >= maxEntries;
+	}
+
+	private Bucket bucket(long index) {
+		int slot = (int) (index % ring.length());
+		Bucket bucket = ring.get(slot);
+		// 较晚的桶只在系统时钟回拨时出现，多保留一段时间无妨
+		if (bucket != null && bucket.index >= index) {
+			return bucket;
+		}
+		synchronized (this) {
+			bucket = ring.get(slot);
+			if (bucket == null || bucket.index < index) {
+				// 槽位上只可能是已到期的旧桶
+				if (bucket != null) {
+					drop(bucket, expired);
+				}
+				bucket = new Bucket(index);
+				ring.set(slot, bucket);
+			}
+			return bucket;
+		}
+	}
+
+	private synchronized void sweep(long current) {
+		if (current <= sweptIndex) {
+			return;
+		}
+		for (int i = 0; i < ring.length(); i++) {
+			Bucket bucket = ring.get(i);
+			if (bucket != null && bucket.index <= current) {
+				ring.set(i, null);
+				drop(bucket, expired);
+			}
+		}
+		sweptIndex = current;
+	}
+
+	private synchronized void evict(long current) {
+		while (size.get() > maxEntries) {
+			int oldest = -1;
+			for (int i = 0; i < ring.length(); i++) {
+				Bucket bucket = ring.get(i);
+				if (bucket != null && !bucket.ids.isEmpty()
+						&& (oldest < 0 || bucket.index < ring.get(oldest).index)) {
+					oldest = i;
+				}
+			}
+			if (oldest < 0) {
+				return;
+			}
+			Bucket bucket = ring.get(oldest);
+			ring.set(oldest, null);
+			drop(bucket, bucket.index > current ? evicted : expired);
+		}
+	}
+
+	private void drop(Bucket bucket, LongAdder counter) {
+		int count = bucket.ids.size();
+		size.addAndGet(-count);
+		counter.add(count);
+	}
+
+	// ---------------------------------------------------------------- snapshot
+
+	/**
+	 * Writes the live IDs to the snapshot file, replacing it atomically.
+	 */
+	public synchronized void snapshot() throws IOException {
+		if (snapshotFile == null) {
+			return;
+		}
+		long current = System.currentTimeMillis() / bucketMillis;
+		Path temp = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+			out.writeInt(SNAPSHOT_MAGIC);
+			for (int i = 0; i < ring.length(); i++) {
+				Bucket bucket = ring.get(i);
+				if (bucket == null || bucket.index <= current || bucket.ids.isEmpty()) {
+					continue;
+				}
+				String[] ids = bucket.ids.toArray(new String[0]);
+				out.writeLong(bucket.index * bucketMillis);
+				out.writeInt(ids.length);
+				for (String id : ids) {
+					out.writeUTF(id);
+				}
+			}
+			out.writeLong(-1L);
+		}
+		Files.move(temp, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void trySnapshot() {
+		try {
+			snapshot();
+		} catch (IOException e) {
+			LOG.warn("Cannot write replay cache snapshot {}", snapshotFile, e);
+		}
+	}
+
+	private void restore() {
+		if (!Files.isReadable(snapshotFile)) {
+			return;
+		}
+		long now = System.currentTimeMillis();
+		long maxExpiry = now + TimeUnit.SECONDS.toMillis(maxTimeToLive);
+		int restored = 0;
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+			if (in.readInt() != SNAPSHOT_MAGIC) {
+				LOG.warn("Ignoring replay cache snapshot {} of unknown format", snapshotFile);
+				return;
+			}
+			for (long expiresAt = in.readLong(); expiresAt >= 0; expiresAt = in.readLong()) {
+				int count = in.readInt();
+				for (int i = 0; i < count; i++) {
+					String id = in.readUTF();
+					if (expiresAt > now) {
+						// 桶边界已向上取整，这里减一避免再多保留一个桶
+						addUntil(id, Math.min(expiresAt - 1, maxExpiry), now);
+						restored++;
+					}
+				}
+			}
+			LOG.info("Restored {} replay cache entries from {}", restored, snapshotFile);
+		} catch (IOException e) {
+			LOG.warn("Cannot read replay cache snapshot {}, {} entries restored", snapshotFile, restored, e);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+		snapshot();
+	}
+
+	// ---------------------------------------------------------------- statistics
+
+	/**
+	 * @return IDs currently remembered, including those of buckets due but not yet swept
+	 */
+	public int size() {
+		return Math.max(0, size.get());
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	/**
+	 * @return lookups that found the ID, i.e. detected replays
+	 */
+	public long getReplayCount() {
+		return replays.sum();
+	}
+
+	public long getExpiredCount() {
+		return expired.sum();
+	}
+
+	/**
+	 * @return IDs dropped before their expiry because the cap was reached
+	 */
+	public long getEvictedCount() {
+		return evicted.sum();
+	}
+
+	/**
+	 * @return unknown IDs reported as replays because the cap was reached
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	public boolean isEvictWhenFull() {
+		return evictWhenFull;
+	}
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.io.InputStream;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.cert.X509Certificate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import javax.security.auth.callback.CallbackHandler;
+
+import org.apache.wss4j.common.crypto.Crypto;
+import org.apache.wss4j.common.crypto.CryptoType;
+import org.apache.wss4j.common.ext.WSSecurityException;
+
+/**
+ * {@link Crypto} that remembers the certificate chains looked up by alias and
+ * the private keys loaded by alias and password, so that signing an
+ * AuthnRequest no longer reads and decrypts the keystore entry on every
+ * request. All other operations go to the wrapped instance.
+ * <p>
+ * The SAML filters destroy the private key after each signature; keys that
+ * actually support {@link PrivateKey#destroy()} are loaded again once destroyed.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingCrypto implements Crypto {
+
+	private final Crypto delegate;
+	private final ConcurrentMap<String, X509Certificate[]> certificates = new ConcurrentHashMap<String, X509Certificate[]>();
+	private final ConcurrentMap<String, CachedKey> privateKeys = new ConcurrentHashMap<String, CachedKey>();
+
+	private final LongAdder keyHits = new LongAdder();
+	private final LongAdder keyLoads = new LongAdder();
+
+	public CachingCrypto(Crypto delegate) {
+		this.delegate = Objects.requireNonNull(delegate, "delegate");
+	}
+
+	@Override
+	public X509Certificate[] getX509Certificates(CryptoType cryptoType) throws WSSecurityException {
+		if (cryptoType == null || cryptoType.getType() != CryptoType.TYPE.ALIAS || cryptoType.getAlias() == null) {
+			return delegate.getX509Certificates(cryptoType);
+		}
+		X509Certificate[] chain = certificates.get(cryptoType.getAlias());
+		if (chain == null) {
+			chain = delegate.getX509Certificates(cryptoType);
+			if (chain == null || chain.length == 0) {
+				return chain;
+			}
+			certificates.put(cryptoType.getAlias(), chain);
+		}
+		// 调用方可能修改数组，返回副本
+		return chain.clone();
+	}
+
+	@Override
+	public PrivateKey getPrivateKey(String identifier, String password) throws WSSecurityException {
+		if (identifier == null) {
+			return delegate.getPrivateKey(identifier, password);
+		}
+		CachedKey cached = privateKeys.get(identifier);
+		if (cached != null && Objects.equals(cached.password, password) && !cached.key.isDestroyed()) {
+			keyHits.increment();
+			return cached.key;
+		}
+		PrivateKey key = delegate.getPrivateKey(identifier, password);
+		keyLoads.increment();
+		if (key != null) {
+			privateKeys.put(identifier, new CachedKey(password, key));
+		}
+		return key;
+	}
+
+	@Override
+	public PrivateKey getPrivateKey(X509Certificate certificate, CallbackHandler callbackHandler)
+			throws WSSecurityException {
+		return delegate.getPrivateKey(certificate, callbackHandler);
+	}
+
+	@Override
+	public PrivateKey getPrivateKey(PublicKey publicKey, CallbackHandler callbackHandler) throws WSSecurityException {
+		return delegate.getPrivateKey(publicKey, callbackHandler);
+	}
+
+	/**
+	 * Drops the remembered certificate chains and private keys, e.g. after the
+	 * keystore was replaced.
+	 */
+	public void clear() {
+		certificates.clear();
+		privateKeys.clear();
+	}
+
+	@Override
+	public String getCryptoProvider() {
+		return delegate.getCryptoProvider();
+	}
+
+	@Override
+	public void setCryptoProvider(String provider) {
+		delegate.setCryptoProvider(provider);
+	}
+
+	@Override
+	public String getTrustProvider() {
+		return delegate.getTrustProvider();
+	}
+
+	@Override
+	public void setTrustProvider(String provider) {
+		delegate.setTrustProvider(provider);
+	}
+
+	@Override
+	public String getDefaultX509Identifier() throws WSSecurityException {
+		return delegate.getDefaultX509Identifier();
+	}
+
+	@Override
+	public void setDefaultX509Identifier(String identifier) {
+		delegate.setDefaultX509Identifier(identifier);
+	}
+
+	@Override
+	public void setCertificateFactory(CertificateFactory certFactory) {
+		delegate.setCertificateFactory(certFactory);
+	}
+
+	@Override
+	public CertificateFactory getCertificateFactory() throws WSSecurityException {
+		return delegate.getCertificateFactory();
+	}
+
+	@Override
+	public X509Certificate loadCertificate(InputStream in) throws WSSecurityException {
+		return delegate.loadCertificate(in);
+	}
+
+	@Override
+	public byte[] getSKIBytesFromCert(X509Certificate cert) throws WSSecurityException {
+		return delegate.getSKIBytesFromCert(cert);
+	}
+
+	@Override
+	public byte[] getBytesFromCertificates(X509Certificate[] certs) throws WSSecurityException {
+		return delegate.getBytesFromCertificates(certs);
+	}
+
+	@Override
+	public X509Certificate[] getCertificatesFromBytes(byte[] data) throws WSSecurityException {
+		return delegate.getCertificatesFromBytes(data);
+	}
+
+	@Override
+	public String getX509Identifier(X509Certificate cert) throws WSSecurityException {
+		return delegate.getX509Identifier(cert);
+	}
+
+	@Override
+	public void verifyTrust(X509Certificate[] certs, boolean enableRevocation, Collection<Pattern> subjectCertConstraints,
+			Collection<Pattern> issuerCertConstraints) throws WSSecurityException {
+		delegate.verifyTrust(certs, enableRevocation, subjectCertConstraints, issuerCertConstraints);
+	}
+
+	@Override
+	public void verifyTrust(PublicKey publicKey) throws WSSecurityException {
+		delegate.verifyTrust(publicKey);
+	}
+
+	public Crypto getDelegate() {
+		return delegate;
+	}
+
+	/**
+	 * @return private key requests answered from the cache
+	 */
+	public long getKeyHitCount() {
+		return keyHits.sum();
+	}
+
+	/**
+	 * @return private keys read from the keystore
+	 */
+	public long getKeyLoadCount() {
+		return keyLoads.sum();
+	}
+
+	private static class CachedKey {
+
+		private final String password;
+		private final PrivateKey key;
+
+		CachedKey(String password, PrivateKey key) {
+			this.password = password;
+			this.key = key;
+		}
+
+	}
+
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import org.apache.wss4j.common.cache.ReplayCache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics of the {@link BucketedReplayCache}; nothing is bound for
+ * other replay caches.
+ * <ul>
+ * <li>cxf.saml.replay.cache: IDs remembered</li>
+ * <li>cxf.saml.replay.cache.max: the entry cap</li>
+ * <li>cxf.saml.replay.cache.replays: lookups that found the ID</li>
+ * <li>cxf.saml.replay.cache.expired: IDs dropped at expiry</li>
+ * <li>cxf.saml.replay.cache.evicted: IDs dropped early because the cap was reached</li>
+ * <li>cxf.saml.replay.cache.rejected: unknown IDs rejected because the cap was reached</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class ReplayCacheMetrics implements MeterBinder {
+
+	private static final String PREFIX = "cxf.saml.replay.cache";
+
+	private final ReplayCache replayCache;
+
+	public ReplayCacheMetrics(ReplayCache replayCache) {
+		this.replayCache = replayCache;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry meterRegistry) {
+		if (replayCache instanceof BucketedReplayCache) {
+			bindTo(meterRegistry, (BucketedReplayCache) replayCache);
+		}
+	}
+
+	protected void bindTo(MeterRegistry meterRegistry, BucketedReplayCache replayCache) {
+		Gauge.builder(PREFIX, replayCache, BucketedReplayCache::size).register(meterRegistry);
+		Gauge.builder(PREFIX + ".max", replayCache, BucketedReplayCache::getMaxEntries).register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".replays", replayCache, BucketedReplayCache::getReplayCount)
+				.register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".expired", replayCache, BucketedReplayCache::getExpiredCount)
+				.register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".evicted", replayCache, BucketedReplayCache::getEvictedCount)
+				.register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".rejected", replayCache, BucketedReplayCache::getRejectedCount)
+				.register(meterRegistry);
+	}
+
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+/**
+ * Where the SAML web SSO filters keep their request and response states.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public enum SPStateManagerType {
+
+	/**
+	 * {@link StripedSPStateManager}: striped maps, expiry by timing wheel and a hard entry cap
+	 */
+	STRIPED,
+	/**
+	 * {@link org.apache.cxf.rs.security.saml.sso.state.EHCacheSPStateManager}, requires Ehcache
+	 */
+	EHCACHE,
+	/**
+	 * {@link org.apache.cxf.rs.security.saml.sso.state.MemorySPStateManager}, unbounded and never expired
+	 */
+	MEMORY
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import org.apache.cxf.rs.security.saml.sso.state.SPStateManager;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer metrics of the {@link StripedSPStateManager}; other state managers
+ * keep no statistics, and nothing is bound for them.
+ * <ul>
+ * <li>cxf.saml.sp.states: pending states by kind request, response</li>
+ * <li>cxf.saml.sp.states.max: the entry cap</li>
+ * <li>cxf.saml.sp.states.expired: states removed at their deadline</li>
+ * <li>cxf.saml.sp.states.rejected: states refused because the cap was reached</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SPStateMetrics implements MeterBinder {
+
+	private static final String PREFIX = "cxf.saml.sp.states";
+
+	private final SPStateManager stateManager;
+
+	public SPStateMetrics(SPStateManager stateManager) {
+		this.stateManager = stateManager;
+	}
+
+	@Override
+	public void bindTo(MeterRegistry meterRegistry) {
+		if (stateManager instanceof StripedSPStateManager) {
+			bindTo(meterRegistry, (StripedSPStateManager) stateManager);
+		}
+	}
+
+	protected void bindTo(MeterRegistry meterRegistry, StripedSPStateManager stateManager) {
+		Gauge.builder(PREFIX, stateManager, StripedSPStateManager::getRequestStateCount)
+				.tag("kind", "request").register(meterRegistry);
+		Gauge.builder(PREFIX, stateManager, StripedSPStateManager::getResponseStateCount)
+				.tag("kind", "response").register(meterRegistry);
+		Gauge.builder(PREFIX + ".max", stateManager, StripedSPStateManager::getMaxEntries)
+				.register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".expired", stateManager, StripedSPStateManager::getExpiredCount)
+				.register(meterRegistry);
+		FunctionCounter.builder(PREFIX + ".rejected", stateManager, StripedSPStateManager::getRejectedCount)
+				.register(meterRegistry);
+	}
+
+}
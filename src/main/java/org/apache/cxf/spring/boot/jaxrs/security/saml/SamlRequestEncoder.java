@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.Deflater;
+
+/**
+ * Deflates and Base64-encodes SAML requests the way
+ * {@link org.apache.cxf.rs.security.saml.DeflateEncoderDecoder} and
+ * {@link org.apache.cxf.common.util.Base64Utility} do, but with pooled
+ * {@link Deflater}s and a per-thread deflate buffer instead of a new deflater
+ * and several intermediate arrays per request. The deflated bytes are encoded
+ * straight from that buffer by {@link java.util.Base64}.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SamlRequestEncoder {
+
+	private static final int BUFFER_SIZE = 4096;
+
+	private final BlockingQueue<Deflater> deflaters;
+	private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+	public SamlRequestEncoder() {
+		this(Runtime.getRuntime().availableProcessors() * 2);
+	}
+
+	/**
+	 * @param poolSize deflaters kept for reuse; more are created under load and released afterwards
+	 */
+	public SamlRequestEncoder(int poolSize) {
+		this.deflaters = new ArrayBlockingQueue<Deflater>(Math.max(1, poolSize));
+	}
+
+	/**
+	 * @param xml the serialized AuthnRequest
+	 * @param deflate whether the request is deflated before encoding, as the redirect binding requires
+	 * @return the Base64 encoded request
+	 */
+	public String encode(String xml, boolean deflate) {
+		byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+		if (!deflate) {
+			return Base64.getEncoder().encodeToString(bytes);
+		}
+		Buffers buffers = this.buffers.get();
+		Deflater deflater = acquire();
+		try {
+			deflater.setInput(bytes);
+			deflater.finish();
+			int length = 0;
+			while (!deflater.finished()) {
+				if (length == buffers.deflated.length) {
+					buffers.deflated = Arrays.copyOf(buffers.deflated, length * 2);
+				}
+				length += deflater.deflate(buffers.deflated, length, buffers.deflated.length - length);
+			}
+			// 只编码缓冲区中已写入的部分
+			ByteBuffer encoded = Base64.getEncoder().encode(ByteBuffer.wrap(buffers.deflated, 0, length));
+			return new String(encoded.array(), 0, encoded.limit(), StandardCharsets.ISO_8859_1);
+		} finally {
+			release(deflater);
+		}
+	}
+
+	private Deflater acquire() {
+		Deflater deflater = deflaters.poll();
+		// 与DeflateEncoderDecoder保持一致：级别DEFLATED(8)、无zlib头
+		return deflater != null ? deflater : new Deflater(Deflater.DEFLATED, true);
+	}
+
+	private void release(Deflater deflater) {
+		deflater.reset();
+		if (!deflaters.offer(deflater)) {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Releases the native memory of the pooled deflaters.
+	 */
+	public void close() {
+		for (Deflater deflater = deflaters.poll(); deflater != null; deflater = deflaters.poll()) {
+			deflater.end();
+		}
+	}
+
+	private static class Buffers {
+
+		private byte[] deflated = new byte[BUFFER_SIZE];
+
+	}
+
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+import javax.ws.rs.ext.MessageBodyWriter;
+import javax.ws.rs.ext.Provider;
+
+import org.apache.cxf.rs.security.saml.sso.SamlRequestInfo;
+
+/**
+ * Writes the auto-submitting form of the SAML POST binding directly to the
+ * response, in place of forwarding to SAMLRequestInfo.jsp through the
+ * {@link org.apache.cxf.jaxrs.provider.RequestDispatcherProvider}. The markup
+ * is the one of the JSP; the three values are HTML-escaped into a buffer sized
+ * up front and written with a single call.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@Provider
+@Produces(MediaType.TEXT_HTML)
+public class SamlRequestInfoFormWriter implements MessageBodyWriter<SamlRequestInfo> {
+
+	private static final String[] SEGMENTS = {
+			"<html xmlns=\"http://www.w3.org/1999/xhtml\">\n"
+			+ "<body onLoad=\"document.forms[0].submit();\">\n"
+			+ "   <form action=\"",
+			"\" method=\"POST\">\n"
+			+ "       <div>\n"
+			+ "        <input type=\"hidden\" name=\"SAMLRequest\" value=\"",
+			"\"/>\n"
+			+ "        <input type=\"hidden\" name=\"RelayState\" value=\"",
+			"\"/>\n"
+			+ "       </div>\n"
+			+ "        <div>\n"
+			+ "         <input type=\"submit\" value=\"Continue\"/>\n"
+			+ "       </div>\n"
+			+ "   </form>\n"
+			+ "</body>\n"
+			+ "</html>" };
+	private static final int SEGMENTS_LENGTH;
+
+	static {
+		int length = 0;
+		for (String segment : SEGMENTS) {
+			length += segment.length();
+		}
+		SEGMENTS_LENGTH = length;
+	}
+
+	@Override
+	public boolean isWriteable(Class<?> type, Type genericType, Annotation[] annotations, MediaType mediaType) {
+		return SamlRequestInfo.class.isAssignableFrom(type);
+	}
+
+	@Override
+	public long getSize(SamlRequestInfo info, Class<?> type, Type genericType, Annotation[] annotations,
+			MediaType mediaType) {
+		return -1;
+	}
+
+	@Override
+	public void writeTo(SamlRequestInfo info, Class<?> type, Type genericType, Annotation[] annotations,
+			MediaType mediaType, MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream)
+			throws IOException {
+		entityStream.write(render(info).getBytes(StandardCharsets.UTF_8));
+	}
+
+	public String render(SamlRequestInfo info) {
+		String action = nullToEmpty(info.getIdpServiceAddress());
+		String samlRequest = nullToEmpty(info.getSamlRequest());
+		String relayState = nullToEmpty(info.getRelayState());
+		// 转义通常只增加少量字符，预留余量避免扩容
+		StringBuilder html = new StringBuilder(SEGMENTS_LENGTH + action.length() + samlRequest.length()
+				+ relayState.length() + 32);
+		html.append(SEGMENTS[0]);
+		escape(html, action);
+		html.append(SEGMENTS[1]);
+		escape(html, samlRequest);
+		html.append(SEGMENTS[2]);
+		escape(html, relayState);
+		html.append(SEGMENTS[3]);
+		return html.toString();
+	}
+
+	private static String nullToEmpty(String value) {
+		return value == null ? "" : value;
+	}
+
+	private static void escape(StringBuilder html, String value) {
+		int start = 0;
+		for (int i = 0; i < value.length(); i++) {
+			String replacement;
+			switch (value.charAt(i)) {
+			case '&':
+				replacement = "&amp;";
+				break;
+			case '<':
+				replacement = "&lt;";
+				break;
+			case '>':
+				replacement = "&gt;";
+				break;
+			case '"':
+				replacement = "&quot;";
+				break;
+			case '\'':
+				replacement = "&#39;";
+				break;
+			default:
+				continue;
+			}
+			html.append(value, start, i).append(replacement);
+			start = i + 1;
+		}
+		html.append(value, start, value.length());
+	}
+
+}
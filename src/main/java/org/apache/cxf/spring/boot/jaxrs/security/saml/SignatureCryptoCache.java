@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+import java.security.cert.X509Certificate;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+
+import org.apache.cxf.common.util.StringUtils;
+import org.apache.cxf.rt.security.utils.SecurityUtils;
+import org.apache.wss4j.common.crypto.CryptoFactory;
+import org.apache.wss4j.common.crypto.CryptoType;
+import org.apache.wss4j.common.crypto.WSProviderConfig;
+import org.apache.wss4j.common.ext.WSPasswordCallback;
+import org.apache.wss4j.common.ext.WSSecurityException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * One {@link CachingCrypto} per signature properties file, shared by the
+ * redirect and POST binding filters instead of each filter loading its own
+ * keystore on the first signed request.
+ * <p>
+ * {@link #getCrypto(String, String, String)} checks the signing entry when the
+ * crypto is first requested: the certificate chain must exist and be within its
+ * validity period, and the private key must open with the password supplied by
+ * the callback handler. A broken keystore therefore fails the application
+ * start rather than the first login, and the key is already cached when the
+ * first request arrives.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SignatureCryptoCache {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SignatureCryptoCache.class);
+
+	private final ConcurrentMap<String, CachingCrypto> cryptos = new ConcurrentHashMap<String, CachingCrypto>();
+
+	/**
+	 * @param propertiesFile the wss4j crypto properties, as a classpath resource, file or URL
+	 * @param username the signing alias; the keystore's default identifier when empty
+	 * @param callbackHandlerClass the handler supplying the private key password; the key is not checked when empty
+	 * @return the shared, validated crypto of the properties file
+	 */
+	public CachingCrypto getCrypto(String propertiesFile, String username, String callbackHandlerClass) {
+		CachingCrypto crypto = cryptos.computeIfAbsent(propertiesFile, this::load);
+		validate(propertiesFile, crypto, username, callbackHandlerClass);
+		return crypto;
+	}
+
+	protected CachingCrypto load(String propertiesFile) {
+		if (StringUtils.isEmpty(propertiesFile)) {
+			throw new IllegalStateException("No signature properties file configured for signing SAML requests");
+		}
+		Properties properties = SecurityUtils.loadProperties(propertiesFile);
+		if (properties == null) {
+			throw new IllegalStateException("Cannot load signature properties using: " + propertiesFile);
+		}
+		try {
+			// 初始化xml-security，否则密钥库异常信息无法解析
+			WSProviderConfig.init();
+			return new CachingCrypto(CryptoFactory.getInstance(properties));
+		} catch (WSSecurityException e) {
+			throw new IllegalStateException("Error in loading the signature Crypto of " + propertiesFile, e);
+		}
+	}
+
+	protected void validate(String propertiesFile, CachingCrypto crypto, String username, String callbackHandlerClass) {
+		try {
+			String alias = StringUtils.isEmpty(username) ? crypto.getDefaultX509Identifier() : username;
+			if (StringUtils.isEmpty(alias)) {
+				throw new IllegalStateException("No signature username configured and " + propertiesFile
+						+ " declares no default alias");
+			}
+
+			CryptoType cryptoType = new CryptoType(CryptoType.TYPE.ALIAS);
+			cryptoType.setAlias(alias);
+			X509Certificate[] chain = crypto.getX509Certificates(cryptoType);
+			if (chain == null || chain.length == 0) {
+				throw new IllegalStateException("No certificate found for alias '" + alias + "' in " + propertiesFile);
+			}
+			chain[0].checkValidity();
+
+			if (StringUtils.isEmpty(callbackHandlerClass)) {
+				LOG.warn("No callback handler configured for {}, the private key of '{}' is not checked", propertiesFile, alias);
+				return;
+			}
+			CallbackHandler callbackHandler = SecurityUtils.getCallbackHandler(callbackHandlerClass);
+			WSPasswordCallback callback = new WSPasswordCallback(alias, WSPasswordCallback.SIGNATURE);
+			callbackHandler.handle(new Callback[] { callback });
+			// 同时预热私钥缓存
+			PrivateKey privateKey = crypto.getPrivateKey(alias, callback.getPassword());
+			if (privateKey == null) {
+				throw new IllegalStateException("No private key found for alias '" + alias + "' in " + propertiesFile);
+			}
+			LOG.info("Signature key '{}' of {} loaded, certificate valid until {}", alias, propertiesFile,
+					chain[0].getNotAfter());
+		} catch (IllegalStateException e) {
+			throw e;
+		} catch (WSSecurityException | GeneralSecurityException e) {
+			throw new IllegalStateException("Invalid signature keystore " + propertiesFile + ": " + e.getMessage(), e);
+		} catch (Exception e) {
+			throw new IllegalStateException("Cannot load the callback handler " + callbackHandlerClass, e);
+		}
+	}
+
+	/**
+	 * Drops all loaded cryptos; they are loaded and validated again on next use.
+	 */
+	public void clear() {
+		cryptos.clear();
+	}
+
+}
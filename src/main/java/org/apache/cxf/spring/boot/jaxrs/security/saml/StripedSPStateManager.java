@@ -0,0 +1,328 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.ws.rs.ServiceUnavailableException;
+
+import org.apache.cxf.rs.security.saml.sso.state.RequestState;
+import org.apache.cxf.rs.security.saml.sso.state.ResponseState;
+import org.apache.cxf.rs.security.saml.sso.state.SPStateManager;
+import org.apache.cxf.spring.boot.jaxrs.util.TimingWheel;
+
+/**
+ * In-memory {@link SPStateManager} for high SSO login rates.
+ * <ul>
+ * <li>states are spread over stripes by key hash; each stripe has its own
+ * concurrent maps and its own {@link TimingWheel}s, so concurrent logins
+ * rarely meet on a lock;</li>
+ * <li>a state expires at its own deadline: <code>createdAt + timeToLive</code>
+ * for request states, <code>expiresAt</code> for response states, or
+ * <code>stateTimeToLive</code> from its creation when it has none. A daemon
+ * thread advances the wheels once per tick, and lookups never return an
+ * expired state;</li>
+ * <li>the number of states is capped: each stripe holds at most its share of
+ * <code>maxEntries</code>. When a stripe is full, its due states are expired
+ * at once; if it is still full, the new state is refused with a 503, so that
+ * a flood of unauthenticated requests cannot exhaust the heap.</li>
+ * </ul>
+ * States are kept as they are, without serialization. Timing wheel entries
+ * are not cancelled when a state is removed; a stripe whose wheel holds more
+ * than twice its share of entries rebuilds it from the live states, so the
+ * wheels stay bounded by the cap as well, whatever the login rate.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class StripedSPStateManager implements SPStateManager {
+
+	private static final class Stripe {
+
+		final ConcurrentMap<String, RequestState> requests = new ConcurrentHashMap<String, RequestState>();
+		final ConcurrentMap<String, ResponseState> responses = new ConcurrentHashMap<String, ResponseState>();
+		final AtomicInteger size = new AtomicInteger();
+		final long tickMillis;
+		/**
+		 * 以下两项受Stripe锁保护
+		 */
+		TimingWheel<String> requestWheel;
+		TimingWheel<String> responseWheel;
+
+		Stripe(long tickMillis, long now) {
+			this.tickMillis = tickMillis;
+			this.requestWheel = new TimingWheel<String>(tickMillis, now);
+			this.responseWheel = new TimingWheel<String>(tickMillis, now);
+		}
+
+	}
+
+	private final Stripe[] stripes;
+	private final int mask;
+	private final int stripeCapacity;
+	private final long stateTimeToLive;
+	private final ScheduledExecutorService scheduler;
+
+	private final LongAdder expired = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder rebuilds = new LongAdder();
+
+	/**
+	 * @param stateTimeToLive lifetime of the states that carry none, in milliseconds
+	 * @param maxEntries the maximum number of request and response states kept
+	 * @param stripes the number of stripes, rounded up to a power of two; 0 for four per processor
+	 * @param tickMillis resolution of the expiry timing wheels, in milliseconds
+	 */
+	public StripedSPStateManager(long stateTimeToLive, int maxEntries, int stripes, long tickMillis) {
+		int count = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors() * 4;
+		count = Integer.highestOneBit(Math.max(1, Math.min(count, 1 << 16)) * 2 - 1);
+		this.stripes = new Stripe[count];
+		this.mask = count - 1;
+		this.stripeCapacity = Math.max(1, maxEntries / count);
+		this.stateTimeToLive = stateTimeToLive;
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < count; i++) {
+			this.stripes[i] = new Stripe(tickMillis, now);
+		}
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "saml-sp-state-expiry");
+			thread.setDaemon(true);
+			return thread;
+		});
+		long tick = Math.max(1, tickMillis);
+		this.scheduler.scheduleWithFixedDelay(this::expire, tick, tick, TimeUnit.MILLISECONDS);
+	}
+
+	private Stripe stripe(String key) {
+		int hash = key.hashCode();
+		return stripes[(hash ^ (hash >>> 16)) & mask];
+	}
+
+	// ---------------------------------------------------------------- request states
+
+	@Override
+	public void setRequestState(String relayState, RequestState state) {
+		Stripe stripe = stripe(relayState);
+		reserve(stripe);
+		if (stripe.requests.put(relayState, state) != null) {
+			stripe.size.decrementAndGet();
+		}
+		long deadline = deadline(state.getCreatedAt(), state.getTimeToLive());
+		synchronized (stripe) {
+			stripe.requestWheel.schedule(relayState, deadline);
+			if (stripe.requestWheel.size() > 2 * stripeCapacity) {
+				stripe.requestWheel = new TimingWheel<String>(stripe.tickMillis, System.currentTimeMillis());
+				stripe.requests.forEach((key, value) -> stripe.requestWheel.schedule(key,
+						deadline(value.getCreatedAt(), value.getTimeToLive())));
+				rebuilds.increment();
+			}
+		}
+	}
+
+	@Override
+	public RequestState removeRequestState(String relayState) {
+		Stripe stripe = stripe(relayState);
+		RequestState state = stripe.requests.remove(relayState);
+		if (state == null) {
+			return null;
+		}
+		stripe.size.decrementAndGet();
+		return isExpired(deadline(state.getCreatedAt(), state.getTimeToLive())) ? null : state;
+	}
+
+	// ---------------------------------------------------------------- response states
+
+	@Override
+	public void setResponseState(String securityContextKey, ResponseState state) {
+		Stripe stripe = stripe(securityContextKey);
+		reserve(stripe);
+		if (stripe.responses.put(securityContextKey, state) != null) {
+			stripe.size.decrementAndGet();
+		}
+		long deadline = deadline(state);
+		synchronized (stripe) {
+			stripe.responseWheel.schedule(securityContextKey, deadline);
+			if (stripe.responseWheel.size() > 2 * stripeCapacity) {
+				stripe.responseWheel = new TimingWheel<String>(stripe.tickMillis, System.currentTimeMillis());
+				stripe.responses.forEach((key, value) -> stripe.responseWheel.schedule(key, deadline(value)));
+				rebuilds.increment();
+			}
+		}
+	}
+
+	@Override
+	public ResponseState getResponseState(String securityContextKey) {
+		Stripe stripe = stripe(securityContextKey);
+		ResponseState state = stripe.responses.get(securityContextKey);
+		if (state != null && isExpired(deadline(state))) {
+			if (stripe.responses.remove(securityContextKey, state)) {
+				stripe.size.decrementAndGet();
+				expired.increment();
+			}
+			return null;
+		}
+		return state;
+	}
+
+	@Override
+	public ResponseState removeResponseState(String securityContextKey) {
+		Stripe stripe = stripe(securityContextKey);
+		ResponseState state = stripe.responses.remove(securityContextKey);
+		if (state == null) {
+			return null;
+		}
+		stripe.size.decrementAndGet();
+		return isExpired(deadline(state)) ? null : state;
+	}
+
+	// ---------------------------------------------------------------- expiry
+
+	/**
+	 * Takes a slot in the stripe, expiring its due states first when it is full.
+	 */
+	private void reserve(Stripe stripe) {
+		if (stripe.size.incrementAndGet() <= stripeCapacity) {
+			return;
+		}
+		stripe.size.decrementAndGet();
+		expire(stripe, System.currentTimeMillis());
+		if (stripe.size.incrementAndGet() > stripeCapacity) {
+			stripe.size.decrementAndGet();
+			rejected.increment();
+			throw new ServiceUnavailableException("Too many pending SAML SSO states");
+		}
+	}
+
+	/**
+	 * Removes the states whose deadline has passed.
+	 */
+	protected void expire() {
+		long now = System.currentTimeMillis();
+		for (Stripe stripe : stripes) {
+			expire(stripe, now);
+		}
+	}
+
+	private void expire(Stripe stripe, long now) {
+		synchronized (stripe) {
+			expireLocked(stripe, now);
+		}
+	}
+
+	private void expireLocked(Stripe stripe, long now) {
+		stripe.requestWheel.advance(now, key -> {
+			RequestState state = stripe.requests.get(key);
+			if (state == null) {
+				return;
+			}
+			long deadline = deadline(state.getCreatedAt(), state.getTimeToLive());
+			if (deadline > now) {
+				// 同一Key被重新设置过
+				stripe.requestWheel.schedule(key, deadline);
+			} else if (stripe.requests.remove(key, state)) {
+				stripe.size.decrementAndGet();
+				expired.increment();
+			}
+		});
+		stripe.responseWheel.advance(now, key -> {
+			ResponseState state = stripe.responses.get(key);
+			if (state == null) {
+				return;
+			}
+			long deadline = deadline(state);
+			if (deadline > now) {
+				stripe.responseWheel.schedule(key, deadline);
+			} else if (stripe.responses.remove(key, state)) {
+				stripe.size.decrementAndGet();
+				expired.increment();
+			}
+		});
+	}
+
+	private long deadline(long createdAt, long timeToLive) {
+		return createdAt + (timeToLive > 0 ? timeToLive : stateTimeToLive);
+	}
+
+	private long deadline(ResponseState state) {
+		return state.getExpiresAt() > 0 ? state.getExpiresAt() : deadline(state.getCreatedAt(), 0L);
+	}
+
+	private static boolean isExpired(long deadline) {
+		return deadline <= System.currentTimeMillis();
+	}
+
+	@Override
+	public void close() {
+		scheduler.shutdownNow();
+		for (Stripe stripe : stripes) {
+			stripe.requests.clear();
+			stripe.responses.clear();
+			stripe.size.set(0);
+		}
+	}
+
+	// ---------------------------------------------------------------- metrics
+
+	public int getRequestStateCount() {
+		int count = 0;
+		for (Stripe stripe : stripes) {
+			count += stripe.requests.size();
+		}
+		return count;
+	}
+
+	public int getResponseStateCount() {
+		int count = 0;
+		for (Stripe stripe : stripes) {
+			count += stripe.responses.size();
+		}
+		return count;
+	}
+
+	/**
+	 * @return the maximum number of states kept, the share of each stripe times the stripes
+	 */
+	public int getMaxEntries() {
+		return stripeCapacity * stripes.length;
+	}
+
+	public int getStripeCount() {
+		return stripes.length;
+	}
+
+	public long getExpiredCount() {
+		return expired.sum();
+	}
+
+	/**
+	 * @return the number of timing wheels rebuilt to drop the entries of removed states
+	 */
+	public long getWheelRebuildCount() {
+		return rebuilds.sum();
+	}
+
+	/**
+	 * @return the number of states refused because their stripe was full
+	 */
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.net.URI;
+import java.util.UUID;
+
+import javax.ws.rs.core.UriBuilder;
+
+import org.apache.cxf.jaxrs.impl.UriInfoImpl;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.rs.security.saml.sso.AbstractServiceProviderFilter;
+import org.apache.cxf.rs.security.saml.sso.SamlRequestInfo;
+import org.apache.cxf.rs.security.saml.sso.state.RequestState;
+
+/**
+ * The parts of {@code AbstractServiceProviderFilter#createSamlRequestInfo}
+ * that the template filters need but cannot reach, since they are private
+ * upstream.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+final class TemplateRequestSupport {
+
+	private TemplateRequestSupport() {
+	}
+
+	/**
+	 * @return the absolute RACS address, or null when it is neither configured nor collocated
+	 */
+	static String absoluteAssertionServiceAddress(String configured, Message m) {
+		String address = configured;
+		if (address == null) {
+			if (!Boolean.TRUE.equals(JAXRSUtils.getCurrentMessage().get("org.apache.cxf.racs.is.collocated"))) {
+				return null;
+			}
+			address = new UriInfoImpl(m).getAbsolutePath().toString();
+		}
+		if (!address.startsWith("http")) {
+			String httpBasePath = (String) m.get("http.base.path");
+			return UriBuilder.fromUri(httpBasePath).path(address).build().toString();
+		}
+		return address;
+	}
+
+	static String webAppContext(boolean addWebAppContext, boolean addEndpointAddressToContext, Message m) {
+		if (addWebAppContext) {
+			if (addEndpointAddressToContext) {
+				return new UriInfoImpl(m).getBaseUri().getRawPath();
+			}
+			String httpBasePath = (String) m.get("http.base.path");
+			return URI.create(httpBasePath).getRawPath();
+		}
+		return "/";
+	}
+
+	static SamlRequestInfo requestInfo(AbstractServiceProviderFilter filter, Message m, String id, String issuerId,
+			String samlRequest, String webAppContext) {
+
+		SamlRequestInfo info = new SamlRequestInfo();
+		info.setSamlRequest(samlRequest);
+
+		String requestURI = new UriInfoImpl(m).getRequestUri().toString();
+		RequestState requestState = new RequestState(requestURI, filter.getIdpServiceAddress(), id, issuerId,
+				webAppContext, filter.getWebAppDomain(), System.currentTimeMillis(), filter.getStateTimeToLive());
+		// UUID只含十六进制字符与'-'，无需URL编码
+		String relayState = UUID.randomUUID().toString();
+		filter.getStateProvider().setRequestState(relayState, requestState);
+
+		info.setRelayState(relayState);
+		info.setWebAppContext(webAppContext);
+		info.setWebAppDomain(filter.getWebAppDomain());
+		return info;
+	}
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.io.IOException;
+
+import org.apache.cxf.jaxrs.utils.ExceptionUtils;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.rs.security.saml.sso.SamlRedirectBindingFilter;
+import org.apache.cxf.rs.security.saml.sso.SamlRequestInfo;
+import org.apache.wss4j.common.util.DOM2Writer;
+import org.w3c.dom.Element;
+
+/**
+ * {@link SamlRedirectBindingFilter} that fills a pre-rendered {@link AuthnRequestTemplate}
+ * instead of building and marshalling an AuthnRequest per request, and encodes
+ * with the pooled {@link SamlRequestEncoder}. The redirect binding signs the
+ * query string rather than the XML, so the template also serves signed
+ * requests; it must then be rendered with the IdP address as Destination.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TemplateSamlRedirectBindingFilter extends SamlRedirectBindingFilter {
+
+	private String assertionConsumerServiceAddress;
+	private boolean addWebAppContext = true;
+	private boolean addEndpointAddressToContext;
+	private AuthnRequestTemplate requestTemplate;
+	private SamlRequestEncoder requestEncoder;
+
+	@Override
+	protected SamlRequestInfo createSamlRequestInfo(Message m) throws Exception {
+		if (requestTemplate == null || requestEncoder == null) {
+			return super.createSamlRequestInfo(m);
+		}
+		String address = TemplateRequestSupport.absoluteAssertionServiceAddress(assertionConsumerServiceAddress, m);
+		if (address == null) {
+			reportError("MISSING_ASSERTION_SERVICE_URL");
+			throw ExceptionUtils.toInternalServerErrorException(null, null);
+		}
+		if (assertionConsumerServiceAddress == null) {
+			// 与父类一致：首次请求时记住并置的RACS地址
+			setAssertionConsumerServiceAddress(address);
+		}
+		String issuerId = getIssuerId(m);
+		String id = AuthnRequestTemplate.newId();
+		String xml = requestTemplate.create(id, AuthnRequestTemplate.issueInstant(System.currentTimeMillis()), issuerId,
+				address);
+		String webAppContext = TemplateRequestSupport.webAppContext(addWebAppContext, addEndpointAddressToContext, m);
+		return TemplateRequestSupport.requestInfo(this, m, id, issuerId, requestEncoder.encode(xml, true),
+				webAppContext);
+	}
+
+	@Override
+	protected String encodeAuthnRequest(Element authnRequest) throws IOException {
+		if (requestEncoder == null) {
+			return super.encodeAuthnRequest(authnRequest);
+		}
+		return requestEncoder.encode(DOM2Writer.nodeToString(authnRequest), true);
+	}
+
+	@Override
+	public void setAssertionConsumerServiceAddress(String assertionConsumerServiceAddress) {
+		super.setAssertionConsumerServiceAddress(assertionConsumerServiceAddress);
+		this.assertionConsumerServiceAddress = assertionConsumerServiceAddress;
+	}
+
+	@Override
+	public void setAddWebAppContext(boolean addWebAppContext) {
+		super.setAddWebAppContext(addWebAppContext);
+		this.addWebAppContext = addWebAppContext;
+	}
+
+	@Override
+	public void setAddEndpointAddressToContext(boolean addEndpointAddressToContext) {
+		super.setAddEndpointAddressToContext(addEndpointAddressToContext);
+		this.addEndpointAddressToContext = addEndpointAddressToContext;
+	}
+
+	public AuthnRequestTemplate getRequestTemplate() {
+		return requestTemplate;
+	}
+
+	/**
+	 * @param requestTemplate the pre-rendered request; requests are built by the AuthnRequestBuilder when null
+	 */
+	public void setRequestTemplate(AuthnRequestTemplate requestTemplate) {
+		this.requestTemplate = requestTemplate;
+	}
+
+	public SamlRequestEncoder getRequestEncoder() {
+		return requestEncoder;
+	}
+
+	public void setRequestEncoder(SamlRequestEncoder requestEncoder) {
+		this.requestEncoder = requestEncoder;
+	}
+
+}
@@ -13,7 +13,10 @@ import javax.ws.rs.core.MultivaluedMap;
  * from other origins. You may omit using this filter or use CXF's advanced CORS filter
  * org.apache.cxf.rs.security.cors.CrossOriginResourceSharingFilter
  * included in cxf-rt-rs-security-cors if you need a more comprehensive accessibility rules.
+ * @deprecated use {@link org.apache.cxf.spring.boot.jaxrs.cors.CorsFeature}, enabled with
+ * cxf.jaxrs.cors.enabled, which also answers preflight requests
  */
+@Deprecated
 public class ApiOriginFilter implements ContainerResponseFilter {
 
     @Override
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.swagger;
+
+import java.util.Collections;
+
+import javax.ws.rs.core.Application;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.model.ApplicationInfo;
+import org.apache.cxf.jaxrs.provider.ServerProviderFactory;
+import org.apache.cxf.jaxrs.swagger.Swagger2Feature;
+import org.apache.cxf.spring.boot.property.Swagger2FeatureProperty;
+
+/**
+ * {@link Swagger2Feature} that serves the Swagger documents through a
+ * {@link SwaggerDocumentFilter} backed by a shared {@link SwaggerDocumentCache}.
+ * <p>
+ * Swagger2Feature keeps per-endpoint state (base path, host, resource package),
+ * so a new instance must be created for every published endpoint, see
+ * {@link #create(Swagger2FeatureProperty, SwaggerDocumentCache)}.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingSwagger2Feature extends Swagger2Feature {
+
+	private final SwaggerDocumentCache documentCache;
+
+	public CachingSwagger2Feature(SwaggerDocumentCache documentCache) {
+		this.documentCache = documentCache;
+	}
+
+	public static Swagger2Feature create(Swagger2FeatureProperty property, SwaggerDocumentCache documentCache) {
+
+		Swagger2Feature feature = property.isDocumentCache() && documentCache != null
+				? new CachingSwagger2Feature(documentCache) : new Swagger2Feature();
+
+		feature.setRunAsFilter(property.isRunAsFilter());
+		feature.setActivateOnlyIfJaxrsSupported(property.isActivateOnlyIfJaxrsSupported());
+		feature.setResourcePackage(property.getResourcePackage());
+		feature.setVersion(property.getVersion());
+		feature.setBasePath(property.getBasePath());
+		feature.setTitle(property.getTitle());
+		feature.setDescription(property.getDescription());
+		feature.setContact(property.getContact());
+		// setLicense(null)会关闭默认的Apache License
+		if (property.getLicense() != null) {
+			feature.setLicense(property.getLicense());
+		}
+		feature.setLicenseUrl(property.getLicenseUrl());
+		feature.setTermsOfServiceUrl(property.getTermsOfServiceUrl());
+		feature.setFilterClass(property.getFilterClass());
+		feature.setScan(property.isScan());
+		feature.setScanAllResources(property.isScanAllResources());
+		feature.setIgnoreRoutes(property.getIgnoreRoutes());
+		feature.setSupportSwaggerUi(property.isSupportSwaggerUi());
+		feature.setSwaggerUiVersion(property.getSwaggerUiVersion());
+		feature.setSwaggerUiMavenGroupAndArtifact(property.getSwaggerUiMavenGroupAndArtifact());
+		feature.setSwaggerUiMediaTypes(property.getSwaggerUiMediaTypes());
+		feature.setHost(property.getHost());
+		feature.setSchemes(property.getSchemes());
+		feature.setPrettyPrint(property.isPrettyPrint());
+		feature.setUsePathBasedConfig(property.isUsePathBasedConfig());
+		feature.setPropertiesLocation(property.getPropertiesLocation());
+
+		return feature;
+	}
+
+	@Override
+	protected void addSwaggerResource(Server server, Bus bus) {
+		super.addSwaggerResource(server, bus);
+		// SpecFilter按请求头、Cookie与参数裁剪文档，结果不能在请求之间共享
+		if (getFilterClass() != null) {
+			return;
+		}
+		ServerProviderFactory factory = (ServerProviderFactory) server.getEndpoint()
+				.get(ServerProviderFactory.class.getName());
+		ApplicationInfo appInfo = factory.getApplicationProvider();
+		if (appInfo == null) {
+			appInfo = (ApplicationInfo) server.getEndpoint().get(Application.class.getName());
+		}
+		factory.setUserProviders(Collections.singletonList(new SwaggerDocumentFilter(getCustomizer(),
+				appInfo == null ? null : appInfo.getProvider(), documentCache, Boolean.TRUE.equals(isPrettyPrint()))));
+	}
+
+	public SwaggerDocumentCache getDocumentCache() {
+		return documentCache;
+	}
+
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.swagger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+
+/**
+ * One serialized Swagger document: the identity bytes, the gzip variant and
+ * the strong entity tags of both.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SwaggerDocument {
+
+	private final String mediaType;
+	private final byte[] content;
+	private final byte[] gzipContent;
+	private final String etag;
+	private final String gzipEtag;
+
+	public SwaggerDocument(String mediaType, byte[] content) throws IOException {
+		this.mediaType = mediaType;
+		this.content = content;
+		this.gzipContent = gzip(content);
+		String digest = DigestUtils.sha256Hex(content);
+		// 同一资源的不同编码必须使用不同的强ETag
+		this.etag = "\"" + digest + "\"";
+		this.gzipEtag = "\"" + digest + "-gzip\"";
+	}
+
+	private static byte[] gzip(byte[] content) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, content.length / 4));
+		try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+			out.write(content);
+		}
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * @param ifNoneMatch the If-None-Match header of the request, may be null
+	 * @return whether the client already holds either variant of this document
+	 */
+	public boolean matches(String ifNoneMatch) {
+		return matches(ifNoneMatch, etag, gzipEtag);
+	}
+
+	static boolean matches(String ifNoneMatch, String etag, String gzipEtag) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if ("*".equals(tag) || etag.equals(tag) || (gzipEtag != null && gzipEtag.equals(tag))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public String getMediaType() {
+		return mediaType;
+	}
+
+	public byte[] getContent() {
+		return content;
+	}
+
+	public byte[] getGzipContent() {
+		return gzipContent;
+	}
+
+	public String getEtag() {
+		return etag;
+	}
+
+	public String getGzipEtag() {
+		return gzipEtag;
+	}
+
+}
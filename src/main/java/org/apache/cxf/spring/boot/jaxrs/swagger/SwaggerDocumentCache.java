@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.swagger;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Serialized Swagger documents shared by all published endpoints, keyed by the
+ * path they are served from. Documents are rendered on first request and kept
+ * until {@link #invalidate()} is called, which <code>EndpointApiTemplate</code>
+ * does whenever it publishes or destroys an endpoint.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SwaggerDocumentCache {
+
+	private final ConcurrentMap<String, SwaggerDocument> documents = new ConcurrentHashMap<String, SwaggerDocument>();
+	private final AtomicLong generation = new AtomicLong();
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder renders = new LongAdder();
+
+	public SwaggerDocument get(String path) {
+		SwaggerDocument document = documents.get(path);
+		if (document != null) {
+			hits.increment();
+		}
+		return document;
+	}
+
+	/**
+	 * @return the generation to pass to {@link #put(String, long, SwaggerDocument)} when the
+	 *         document rendered afterwards
+	 */
+	public long getGeneration() {
+		return generation.get();
+	}
+
+	public void put(String path, long generation, SwaggerDocument document) {
+		renders.increment();
+		if (generation != this.generation.get()) {
+			return;
+		}
+		documents.put(path, document);
+		// 写入期间有Endpoint发布或销毁：丢弃按旧Endpoint集合生成的文档
+		if (generation != this.generation.get()) {
+			documents.remove(path, document);
+		}
+	}
+
+	public void invalidate() {
+		generation.incrementAndGet();
+		documents.clear();
+	}
+
+	public int size() {
+		return documents.size();
+	}
+
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	public long getRenderCount() {
+		return renders.sum();
+	}
+
+}
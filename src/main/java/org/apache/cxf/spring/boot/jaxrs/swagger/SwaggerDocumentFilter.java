@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.swagger;
+
+import java.io.IOException;
+
+import javax.annotation.Priority;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.Priorities;
+import javax.ws.rs.container.ContainerRequestContext;
+import javax.ws.rs.container.ContainerRequestFilter;
+import javax.ws.rs.container.PreMatching;
+import javax.ws.rs.core.Application;
+import javax.ws.rs.core.Context;
+import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.UriInfo;
+
+import org.apache.cxf.jaxrs.ext.MessageContext;
+import org.apache.cxf.jaxrs.swagger.Swagger2ApiListingResource;
+import org.apache.cxf.jaxrs.swagger.Swagger2Customizer;
+
+import io.swagger.models.Swagger;
+import io.swagger.util.Json;
+import io.swagger.util.Yaml;
+
+/**
+ * Answers <code>swagger.json</code> and <code>swagger.yaml</code> requests from the
+ * {@link SwaggerDocumentCache}. The document is generated through the regular
+ * Swagger listing on the first request only; later requests get the stored bytes,
+ * gzip-encoded when the client accepts it, and a 304 when the client already holds
+ * the current version.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+@PreMatching
+@Priority(Priorities.USER - 100)
+public class SwaggerDocumentFilter extends Swagger2ApiListingResource implements ContainerRequestFilter {
+
+	public static final String JSON_DOCUMENT = "swagger.json";
+	public static final String YAML_DOCUMENT = "swagger.yaml";
+	public static final String YAML_MEDIA_TYPE = "application/yaml";
+
+	@Context
+	protected MessageContext mc;
+
+	private final Application application;
+	private final SwaggerDocumentCache documentCache;
+	private final boolean prettyPrint;
+
+	public SwaggerDocumentFilter(Swagger2Customizer customizer, Application application,
+			SwaggerDocumentCache documentCache, boolean prettyPrint) {
+		super(customizer);
+		this.application = application;
+		this.documentCache = documentCache;
+		this.prettyPrint = prettyPrint;
+	}
+
+	@Override
+	public void filter(ContainerRequestContext requestContext) throws IOException {
+
+		String method = requestContext.getMethod();
+		if (!HttpMethod.GET.equals(method) && !HttpMethod.HEAD.equals(method)) {
+			return;
+		}
+		UriInfo uriInfo = requestContext.getUriInfo();
+		String path = uriInfo.getPath();
+		if (path.startsWith("/")) {
+			path = path.substring(1);
+		}
+		boolean json = JSON_DOCUMENT.equals(path);
+		if (!json && !YAML_DOCUMENT.equals(path)) {
+			return;
+		}
+
+		String key = uriInfo.getRequestUri().getRawPath();
+		SwaggerDocument document = documentCache.get(key);
+		if (document == null) {
+			long generation = documentCache.getGeneration();
+			Swagger swagger = process(application, mc.getServletContext(), mc.getServletConfig(),
+					mc.getHttpHeaders(), uriInfo);
+			if (swagger == null) {
+				requestContext.abortWith(Response.status(Response.Status.NOT_FOUND).build());
+				return;
+			}
+			document = new SwaggerDocument(json ? MediaType.APPLICATION_JSON : YAML_MEDIA_TYPE, serialize(swagger, json));
+			documentCache.put(key, generation, document);
+		}
+
+		requestContext.abortWith(respond(document, requestContext.getHeaderString(HttpHeaders.ACCEPT_ENCODING),
+				requestContext.getHeaderString(HttpHeaders.IF_NONE_MATCH)));
+	}
+
+	protected byte[] serialize(Swagger swagger, boolean json) throws IOException {
+		if (json) {
+			return prettyPrint ? Json.pretty().writeValueAsBytes(swagger) : Json.mapper().writeValueAsBytes(swagger);
+		}
+		return prettyPrint ? Yaml.pretty().writeValueAsBytes(swagger) : Yaml.mapper().writeValueAsBytes(swagger);
+	}
+
+	protected Response respond(SwaggerDocument document, String acceptEncoding, String ifNoneMatch) {
+
+		boolean gzip = acceptsGzip(acceptEncoding);
+		ResponseBuilder builder;
+		if (document.matches(ifNoneMatch)) {
+			builder = Response.notModified();
+		} else {
+			builder = Response.ok(gzip ? document.getGzipContent() : document.getContent(), document.getMediaType());
+			if (gzip) {
+				builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+			}
+		}
+		// 文档随Endpoint发布而变化：允许缓存，但每次使用前须重新验证
+		return builder.header(HttpHeaders.ETAG, gzip ? document.getGzipEtag() : document.getEtag())
+				.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache").build();
+	}
+
+	static boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			String name = parts[0].trim();
+			if (!"gzip".equalsIgnoreCase(name) && !"*".equals(name)) {
+				continue;
+			}
+			for (int i = 1; i < parts.length; i++) {
+				String param = parts[i].trim();
+				if (param.startsWith("q=")) {
+					try {
+						if (Double.parseDouble(param.substring(2)) <= 0) {
+							return false;
+						}
+					} catch (NumberFormatException e) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+}
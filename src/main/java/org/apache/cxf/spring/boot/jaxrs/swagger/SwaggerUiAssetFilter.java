@@ -0,0 +1,191 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.swagger;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import javax.servlet.Filter;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.HttpHeaders;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusException;
+import org.apache.cxf.spring.boot.jaxrs.swagger.SwaggerUiAssets.Asset;
+import org.apache.cxf.transport.DestinationFactory;
+import org.apache.cxf.transport.DestinationFactoryManager;
+import org.apache.cxf.transport.http.DestinationRegistry;
+import org.apache.cxf.transport.http.HTTPTransportFactory;
+
+/**
+ * Servlet filter answering Swagger UI asset requests from the extracted
+ * {@link SwaggerUiAssets} before they reach the CXF servlet, so the assets
+ * never go through JAX-RS dispatch.
+ * <p>
+ * It handles the same paths as <code>SwaggerUiService</code>: everything below
+ * <code>api-docs</code>, plus assets requested directly under the endpoint
+ * address, which the Swagger UI page does when opened without a trailing slash.
+ * Both only for addresses of endpoints published on the CXF servlet; anything
+ * else, and any file missing from the webjar, is passed on.
+ * <p>
+ * Asset URLs carry no version, so by default every response is
+ * <code>no-cache</code>: browsers keep the assets but revalidate them with
+ * the strong entity tag, which is answered by a bodiless 304.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SwaggerUiAssetFilter implements Filter {
+
+	public static final String UI_PATH = "/api-docs";
+	private static final String INDEX = "index.html";
+
+	private static final String HTTP_TRANSPORT_ID = "http://cxf.apache.org/transports/http";
+
+	private final SwaggerUiAssets assets;
+	private final String cacheControl;
+	private final Bus bus;
+	private volatile DestinationRegistry registry;
+
+	/**
+	 * @param assets the extracted assets
+	 * @param maxAge seconds browsers may keep assets without revalidation; 0 means
+	 *            they always revalidate
+	 * @param bus the bus whose HTTP endpoints the assets are served for
+	 */
+	public SwaggerUiAssetFilter(SwaggerUiAssets assets, long maxAge, Bus bus) {
+		this.assets = assets;
+		this.cacheControl = maxAge > 0 ? "public, max-age=" + maxAge : "no-cache";
+		this.bus = bus;
+	}
+
+	@Override
+	public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+			throws IOException, ServletException {
+
+		HttpServletRequest httpRequest = (HttpServletRequest) request;
+		Asset asset = null;
+		if (HttpMethod.GET.equals(httpRequest.getMethod()) || HttpMethod.HEAD.equals(httpRequest.getMethod())) {
+			asset = lookup(httpRequest.getPathInfo());
+		}
+		if (asset == null) {
+			chain.doFilter(request, response);
+			return;
+		}
+		serve(httpRequest, (HttpServletResponse) response, asset);
+	}
+
+	/**
+	 * @param path the path below the CXF servlet
+	 */
+	protected Asset lookup(String path) {
+		if (path == null) {
+			return null;
+		}
+		int index = path.lastIndexOf(UI_PATH);
+		if (index >= 0) {
+			String resource = path.substring(index + UI_PATH.length());
+			if (resource.isEmpty() || resource.charAt(0) == '/') {
+				resource = resource.isEmpty() || "/".equals(resource) ? INDEX : resource.substring(1);
+				Asset asset = assets.get(resource);
+				return asset != null && isEndpoint(path.substring(0, index)) ? asset : null;
+			}
+		}
+		// 页面以 .../api-docs?url= 打开时，相对路径的资源会请求到Endpoint根路径下；仅限已发布Endpoint的根路径
+		int slash = path.lastIndexOf('/');
+		Asset asset = assets.get(path.substring(slash + 1));
+		return asset != null && !asset.isHtml() && isEndpoint(path.substring(0, Math.max(slash, 0))) ? asset : null;
+	}
+
+	/**
+	 * @param address an address relative to the CXF servlet
+	 * @return whether an endpoint is published at exactly that address
+	 */
+	protected boolean isEndpoint(String address) {
+		DestinationRegistry destinations = getRegistry();
+		return destinations != null && destinations.getDestinationForPath(address.isEmpty() ? "/" : address, true) != null;
+	}
+
+	private DestinationRegistry getRegistry() {
+		DestinationRegistry current = registry;
+		if (current == null && bus != null) {
+			try {
+				DestinationFactory factory = bus.getExtension(DestinationFactoryManager.class)
+						.getDestinationFactory(HTTP_TRANSPORT_ID);
+				if (factory instanceof HTTPTransportFactory) {
+					registry = current = ((HTTPTransportFactory) factory).getRegistry();
+				}
+			} catch (BusException e) {
+				// 没有HTTP传输时不会有可匹配的Endpoint
+			}
+		}
+		return current;
+	}
+
+	protected void serve(HttpServletRequest request, HttpServletResponse response, Asset asset) throws IOException {
+
+		boolean gzip = asset.getGzipFile() != null
+				&& SwaggerDocumentFilter.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+
+		if (asset.getGzipFile() != null) {
+			response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+		}
+		response.setHeader(HttpHeaders.ETAG, gzip ? asset.getGzipEtag() : asset.getEtag());
+		// 资源路径不带版本号，升级webjar后须能被发现：默认每次以ETag重新验证；入口页面始终如此
+		response.setHeader(HttpHeaders.CACHE_CONTROL, asset.isHtml() ? "no-cache" : cacheControl);
+
+		if (SwaggerDocument.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), asset.getEtag(), asset.getGzipEtag())) {
+			response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+
+		if (asset.getMediaType() != null) {
+			response.setContentType(asset.getMediaType());
+		}
+		if (gzip) {
+			response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+		}
+		response.setContentLengthLong(gzip ? asset.getGzipLength() : asset.getLength());
+		if (HttpMethod.HEAD.equals(request.getMethod())) {
+			return;
+		}
+		transfer(gzip ? asset.getGzipFile() : asset.getFile(), response);
+	}
+
+	private static void transfer(Path file, HttpServletResponse response) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+			long size = channel.size();
+			long position = 0;
+			while (position < size) {
+				position += channel.transferTo(position, size - position, out);
+			}
+		}
+	}
+
+	public SwaggerUiAssets getAssets() {
+		return assets;
+	}
+
+}
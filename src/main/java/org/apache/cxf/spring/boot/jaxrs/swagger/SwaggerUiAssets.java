@@ -0,0 +1,393 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.swagger;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Swagger UI assets extracted once from the webjar into a local directory,
+ * together with a gzip variant of every compressible asset and the strong
+ * entity tags of both.
+ * <p>
+ * The directory is named after the Swagger UI version and reused across
+ * restarts as long as it was extracted from the same webjar root. Since the
+ * files are served as they are, the base directory is only trusted when it is
+ * a real directory owned by the current user and writable by nobody else, as
+ * under a shared <code>java.io.tmpdir</code> anyone could otherwise plant an
+ * <code>.extracted</code> marker; when missing it is created that way. An
+ * untrusted base directory is left alone and the assets are extracted into a
+ * fresh private temporary directory instead.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SwaggerUiAssets {
+
+	private static final Logger LOG = LoggerFactory.getLogger(SwaggerUiAssets.class);
+	static final String MARKER = ".extracted";
+	static final String GZIP_SUFFIX = ".gz";
+	private static final Map<String, String> DEFAULT_MEDIA_TYPES = new HashMap<String, String>();
+
+	static {
+		// 与SwaggerUiService一致，并补充source map等类型
+		DEFAULT_MEDIA_TYPES.put("html", "text/html");
+		DEFAULT_MEDIA_TYPES.put("png", "image/png");
+		DEFAULT_MEDIA_TYPES.put("gif", "image/gif");
+		DEFAULT_MEDIA_TYPES.put("ico", "image/x-icon");
+		DEFAULT_MEDIA_TYPES.put("css", "text/css");
+		DEFAULT_MEDIA_TYPES.put("js", "application/javascript");
+		DEFAULT_MEDIA_TYPES.put("json", "application/json");
+		DEFAULT_MEDIA_TYPES.put("map", "application/json");
+		DEFAULT_MEDIA_TYPES.put("txt", "text/plain");
+		DEFAULT_MEDIA_TYPES.put("eot", "application/vnd.ms-fontobject");
+		DEFAULT_MEDIA_TYPES.put("ttf", "application/font-sfnt");
+		DEFAULT_MEDIA_TYPES.put("svg", "image/svg+xml");
+		DEFAULT_MEDIA_TYPES.put("woff", "application/font-woff");
+		DEFAULT_MEDIA_TYPES.put("woff2", "application/font-woff2");
+	}
+
+	/**
+	 * Asset types worth compressing; images and fonts are already compressed
+	 */
+	private static final String[] COMPRESSIBLE = { "html", "css", "js", "json", "map", "txt", "svg", "eot", "ttf" };
+
+	private final Path directory;
+	private final Map<String, Asset> assets;
+
+	private SwaggerUiAssets(Path directory, Map<String, Asset> assets) {
+		this.directory = directory;
+		this.assets = assets;
+	}
+
+	/**
+	 * @param directory directory the assets would have been extracted to
+	 * @return assets of a missing webjar: every lookup misses
+	 */
+	public static SwaggerUiAssets empty(Path directory) {
+		return new SwaggerUiAssets(directory, Collections.<String, Asset>emptyMap());
+	}
+
+	/**
+	 * @param root the Swagger UI root, as returned by <code>SwaggerUi.findSwaggerUiRoot</code>
+	 * @param baseDirectory directory holding one extracted copy per Swagger UI version
+	 * @param mediaTypes media types by file extension overriding the defaults, may be null
+	 */
+	public static SwaggerUiAssets extract(String root, Path baseDirectory, Map<String, String> mediaTypes)
+			throws IOException {
+
+		String version = root.endsWith("/") ? root.substring(0, root.length() - 1) : root;
+		version = version.substring(version.lastIndexOf('/') + 1);
+		if (!isPrivate(baseDirectory)) {
+			Path fallback = Files.createTempDirectory("cxf-swagger-ui.");
+			LOG.warn("Not reusing Swagger UI assets from {}: it must be a directory owned by the current user and "
+					+ "writable by nobody else; extracting to {}", baseDirectory, fallback);
+			baseDirectory = fallback;
+		}
+		Path directory = baseDirectory.resolve(version);
+		Path marker = directory.resolve(MARKER);
+
+		if (!Files.exists(marker) || !root.equals(new String(Files.readAllBytes(marker), StandardCharsets.UTF_8))) {
+			// 先解压到临时目录再整体移动，并发启动的实例不会看到不完整的目录
+			Path staging = Files.createTempDirectory(baseDirectory, version + ".");
+			copy(new URL(root), staging);
+			compress(staging);
+			Files.write(staging.resolve(MARKER), root.getBytes(StandardCharsets.UTF_8));
+			if (Files.exists(directory)) {
+				delete(directory);
+			}
+			try {
+				Files.move(staging, directory, StandardCopyOption.ATOMIC_MOVE);
+			} catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+				// 其他实例已完成解压
+				delete(staging);
+			}
+		}
+
+		Map<String, String> types = new HashMap<String, String>(DEFAULT_MEDIA_TYPES);
+		if (mediaTypes != null) {
+			types.putAll(mediaTypes);
+		}
+		return new SwaggerUiAssets(directory, index(directory, types));
+	}
+
+	/**
+	 * 创建或校验解压的基础目录：不能是符号链接，须属于当前用户且其他用户不可写；
+	 * 不支持POSIX属性的文件系统只校验前者
+	 */
+	static boolean isPrivate(Path directory) throws IOException {
+		if (!Files.exists(directory, LinkOption.NOFOLLOW_LINKS)) {
+			Path parent = directory.toAbsolutePath().getParent();
+			if (parent != null) {
+				Files.createDirectories(parent);
+			}
+			try {
+				if (Files.getFileAttributeView(parent, PosixFileAttributeView.class) != null) {
+					Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+				} else {
+					Files.createDirectory(directory);
+				}
+			} catch (FileAlreadyExistsException e) {
+				// 并发启动的实例已创建，按已存在的目录校验
+			}
+		}
+		if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+			return false;
+		}
+		PosixFileAttributeView view = Files.getFileAttributeView(directory, PosixFileAttributeView.class,
+				LinkOption.NOFOLLOW_LINKS);
+		if (view == null) {
+			return true;
+		}
+		PosixFileAttributes attributes = view.readAttributes();
+		Set<PosixFilePermission> permissions = attributes.permissions();
+		return currentUser().equals(attributes.owner()) && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+				&& !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+	}
+
+	/**
+	 * 当前用户以新建文件的属主为准，不依赖user.name在容器中是否可解析
+	 */
+	private static UserPrincipal currentUser() throws IOException {
+		Path probe = Files.createTempFile("cxf-swagger-ui.", ".owner");
+		try {
+			return Files.getOwner(probe);
+		} finally {
+			Files.deleteIfExists(probe);
+		}
+	}
+
+	private static void copy(URL root, Path target) throws IOException {
+		URLConnection connection = root.openConnection();
+		if (connection instanceof JarURLConnection) {
+			JarURLConnection jarConnection = (JarURLConnection) connection;
+			jarConnection.setUseCaches(false);
+			String prefix = jarConnection.getEntryName();
+			try (JarFile jar = jarConnection.getJarFile()) {
+				Enumeration<JarEntry> entries = jar.entries();
+				while (entries.hasMoreElements()) {
+					JarEntry entry = entries.nextElement();
+					if (entry.isDirectory() || !entry.getName().startsWith(prefix)) {
+						continue;
+					}
+					Path file = target.resolve(entry.getName().substring(prefix.length())).normalize();
+					if (!file.startsWith(target)) {
+						continue;
+					}
+					Files.createDirectories(file.getParent());
+					try (InputStream in = jar.getInputStream(entry)) {
+						Files.copy(in, file);
+					}
+				}
+			}
+		} else {
+			Path source = Paths.get(root.getPath());
+			try (Stream<Path> files = Files.walk(source)) {
+				for (Path file : (Iterable<Path>) files::iterator) {
+					if (Files.isRegularFile(file)) {
+						Path copy = target.resolve(source.relativize(file).toString());
+						Files.createDirectories(copy.getParent());
+						Files.copy(file, copy);
+					}
+				}
+			}
+		}
+	}
+
+	private static void compress(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String name = file.getFileName().toString();
+				if (!Files.isRegularFile(file) || !isCompressible(extension(name))) {
+					continue;
+				}
+				Path gzip = file.resolveSibling(name + GZIP_SUFFIX);
+				if (Files.exists(gzip)) {
+					continue;
+				}
+				try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(gzip)) {
+					{
+						def.setLevel(Deflater.BEST_COMPRESSION);
+					}
+				}) {
+					Files.copy(file, out);
+				}
+				// 压缩收益不足10%时不保留压缩版本
+				if (Files.size(gzip) > Files.size(file) * 9 / 10) {
+					Files.delete(gzip);
+				}
+			}
+		}
+	}
+
+	private static Map<String, Asset> index(Path directory, Map<String, String> types) throws IOException {
+		Map<String, Asset> assets = new HashMap<String, Asset>();
+		try (Stream<Path> files = Files.walk(directory)) {
+			for (Path file : (Iterable<Path>) files::iterator) {
+				String name = file.getFileName().toString();
+				if (!Files.isRegularFile(file) || MARKER.equals(name)) {
+					continue;
+				}
+				String resource = directory.relativize(file).toString().replace(File.separatorChar, '/');
+				// 已存在原始文件的.gz只作为压缩版本提供
+				if (name.endsWith(GZIP_SUFFIX)
+						&& Files.exists(file.resolveSibling(name.substring(0, name.length() - GZIP_SUFFIX.length())))) {
+					continue;
+				}
+				Path gzip = file.resolveSibling(name + GZIP_SUFFIX);
+				String digest;
+				try (InputStream in = Files.newInputStream(file)) {
+					digest = DigestUtils.sha256Hex(in);
+				}
+				assets.put(resource, new Asset(file, Files.exists(gzip) ? gzip : null, types.get(extension(name)),
+						Files.size(file), Files.exists(gzip) ? Files.size(gzip) : -1, digest));
+			}
+		}
+		return Collections.unmodifiableMap(assets);
+	}
+
+	private static void delete(Path directory) throws IOException {
+		try (Stream<Path> files = Files.walk(directory)) {
+			Path[] paths = files.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toArray(Path[]::new);
+			for (Path path : paths) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+	static String extension(String name) {
+		int index = name.lastIndexOf('.');
+		return index < 0 ? "" : name.substring(index + 1).toLowerCase();
+	}
+
+	private static boolean isCompressible(String extension) {
+		for (String compressible : COMPRESSIBLE) {
+			if (compressible.equals(extension)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param resource path of the asset relative to the Swagger UI root
+	 * @return the asset, or null if the webjar has no such file
+	 */
+	public Asset get(String resource) {
+		return assets.get(resource);
+	}
+
+	public int size() {
+		return assets.size();
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	/**
+	 * One extracted file and its optional gzip variant.
+	 */
+	public static class Asset {
+
+		private final Path file;
+		private final Path gzipFile;
+		private final String mediaType;
+		private final long length;
+		private final long gzipLength;
+		private final String etag;
+		private final String gzipEtag;
+		private final boolean html;
+
+		Asset(Path file, Path gzipFile, String mediaType, long length, long gzipLength, String digest) {
+			this.file = file;
+			this.gzipFile = gzipFile;
+			this.mediaType = mediaType;
+			this.length = length;
+			this.gzipLength = gzipLength;
+			this.etag = "\"" + digest + "\"";
+			this.gzipEtag = "\"" + digest + "-gzip\"";
+			this.html = "html".equals(extension(file.getFileName().toString()));
+		}
+
+		public Path getFile() {
+			return file;
+		}
+
+		public Path getGzipFile() {
+			return gzipFile;
+		}
+
+		public String getMediaType() {
+			return mediaType;
+		}
+
+		public long getLength() {
+			return length;
+		}
+
+		public long getGzipLength() {
+			return gzipLength;
+		}
+
+		public String getEtag() {
+			return etag;
+		}
+
+		public String getGzipEtag() {
+			return gzipEtag;
+		}
+
+		/**
+		 * @return whether this is an entry page, which must be revalidated rather than cached
+		 */
+		public boolean isHtml() {
+			return html;
+		}
+
+	}
+
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel (after Varghese &amp; Lauck) used to expire entries
+ * without scanning them.
+ * <p>
+ * Time is divided in ticks; level 0 has one slot per tick, and each higher
+ * level has slots {@value #SLOTS} times as wide. Scheduling is constant time.
+ * When a lower level wraps around, the current slot of the next level is
+ * cascaded down. Expiring an entry therefore touches it at most once per
+ * level, whatever the number of live entries. Deadlines beyond the top level
+ * are parked in its farthest slot and re-placed when they come round.
+ * <p>
+ * Entries are not cancelled. The consumer of {@link #advance(long, Consumer)}
+ * must check whether the key is still live and really expired.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TimingWheel<K> {
+
+	static final int BITS = 6;
+	static final int SLOTS = 1 << BITS;
+	static final int MASK = SLOTS - 1;
+	static final int LEVELS = 4;
+
+	private final long tickMillis;
+	private final List<List<Entry<K>>> slots;
+	private long currentTick;
+	private int size;
+
+	public TimingWheel(long tickMillis, long startMillis) {
+		this.tickMillis = Math.max(1, tickMillis);
+		this.currentTick = startMillis / this.tickMillis;
+		this.slots = new ArrayList<List<Entry<K>>>(LEVELS * SLOTS);
+		for (int i = 0; i < LEVELS * SLOTS; i++) {
+			slots.add(new ArrayList<Entry<K>>(0));
+		}
+	}
+
+	/**
+	 * @param key the key to hand back once the deadline has passed
+	 * @param deadlineMillis the deadline, in epoch milliseconds
+	 */
+	public synchronized void schedule(K key, long deadlineMillis) {
+		// 向上取整：到期通知不早于截止时间
+		long tick = (deadlineMillis + tickMillis - 1) / tickMillis;
+		place(new Entry<K>(key, Math.max(tick, currentTick + 1)));
+		size++;
+	}
+
+	private void place(Entry<K> entry) {
+		long delta = entry.tick - currentTick;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+			level++;
+		}
+		long position = delta >= 1L << (BITS * LEVELS)
+				// 超出整个轮的范围：放入顶层最远的槽位，转到时重新放置
+				? (currentTick >>> (BITS * level)) - 1
+				: entry.tick >>> (BITS * level);
+		slots.get(level * SLOTS + (int) (position & MASK)).add(entry);
+	}
+
+	/**
+	 * Moves the wheel up to the given time and hands the keys whose deadline has
+	 * passed to the consumer, outside of the wheel's lock.
+	 * @param nowMillis the current time, in epoch milliseconds
+	 * @param expired the consumer of expired keys
+	 * @return the number of expired keys
+	 */
+	public int advance(long nowMillis, Consumer<K> expired) {
+		List<K> due = new ArrayList<K>();
+		synchronized (this) {
+			long target = nowMillis / tickMillis;
+			while (currentTick < target) {
+				currentTick++;
+				for (int level = 1; level < LEVELS; level++) {
+					if ((currentTick & ((1L << (BITS * level)) - 1)) != 0) {
+						break;
+					}
+					drain(level, (int) ((currentTick >>> (BITS * level)) & MASK), due);
+				}
+				drain(0, (int) (currentTick & MASK), due);
+			}
+			size -= due.size();
+		}
+		for (K key : due) {
+			expired.accept(key);
+		}
+		return due.size();
+	}
+
+	private void drain(int level, int slot, List<K> due) {
+		List<Entry<K>> bucket = slots.get(level * SLOTS + slot);
+		if (bucket.isEmpty()) {
+			return;
+		}
+		slots.set(level * SLOTS + slot, new ArrayList<Entry<K>>(0));
+		for (Entry<K> entry : bucket) {
+			if (entry.tick <= currentTick) {
+				due.add(entry.key);
+			} else {
+				place(entry);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of scheduled entries, including those no longer live
+	 */
+	public synchronized int size() {
+		return size;
+	}
+
+	public long getTickMillis() {
+		return tickMillis;
+	}
+
+	private static final class Entry<K> {
+
+		private final K key;
+		private final long tick;
+
+		Entry(K key, long tick) {
+			this.key = key;
+			this.tick = tick;
+		}
+
+	}
+
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.validation;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.executable.ExecutableValidator;
+
+import org.apache.cxf.validation.BeanValidationProvider;
+import org.apache.cxf.validation.ResponseConstraintViolationException;
+
+/**
+ * {@link BeanValidationProvider} that obtains its validator once instead of on
+ * every validated call, and exposes it for analysing the constraint metadata of
+ * resource methods at publish time.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class CachingBeanValidationProvider extends BeanValidationProvider {
+
+	/**
+	 * Hibernate Validator的快速失败开关，其它实现会忽略该属性
+	 */
+	public static final String FAIL_FAST = "hibernate.validator.fail_fast";
+
+	private final Validator validator;
+	private final ExecutableValidator executableValidator;
+
+	public CachingBeanValidationProvider(ValidatorFactory factory) {
+		super(factory);
+		this.validator = factory.getValidator();
+		this.executableValidator = validator.forExecutables();
+	}
+
+	/**
+	 * @param failFast whether stop at the first constraint violation
+	 * @return a provider backed by the default validation provider
+	 */
+	public static CachingBeanValidationProvider create(boolean failFast) {
+		return new CachingBeanValidationProvider(Validation.byDefaultProvider().configure()
+				.addProperty(FAIL_FAST, String.valueOf(failFast)).buildValidatorFactory());
+	}
+
+	@Override
+	public <T> void validateParameters(T instance, Method method, Object[] arguments) {
+		Set<ConstraintViolation<T>> violations = executableValidator.validateParameters(instance, method, arguments);
+		if (!violations.isEmpty()) {
+			throw new ConstraintViolationException(violations);
+		}
+	}
+
+	@Override
+	public <T> void validateReturnValue(T instance, Method method, Object returnValue) {
+		Set<ConstraintViolation<T>> violations = executableValidator.validateReturnValue(instance, method, returnValue);
+		if (!violations.isEmpty()) {
+			throw new ResponseConstraintViolationException(violations);
+		}
+	}
+
+	public Validator getValidator() {
+		return validator;
+	}
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.validation;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ValidationException;
+import javax.validation.Validator;
+import javax.validation.metadata.BeanDescriptor;
+import javax.validation.metadata.MethodDescriptor;
+
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+
+/**
+ * Which resource methods of an endpoint carry parameter or return-value
+ * constraints (including cascaded ones), worked out once from the
+ * {@link OperationResourceInfo}s when the endpoint is published.
+ * <p>
+ * Methods that were not known at publish time, e.g. those of sub-resources
+ * resolved at runtime, are reported as constrained so that they are validated
+ * as usual.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OperationConstraints {
+
+	private static final int PARAMETERS = 1;
+	private static final int RETURN_VALUE = 2;
+
+	/**
+	 * 发布后只读，按Method对象的引用查找
+	 */
+	private final Map<Method, Integer> operations;
+
+	private OperationConstraints(Map<Method, Integer> operations) {
+		this.operations = operations;
+	}
+
+	public static OperationConstraints analyze(List<ClassResourceInfo> resources, Validator validator) {
+		Map<Method, Integer> operations = new IdentityHashMap<Method, Integer>();
+		Set<Class<?>> visited = new HashSet<Class<?>>();
+		for (ClassResourceInfo resource : resources) {
+			analyze(resource, validator, operations, visited);
+		}
+		return new OperationConstraints(Collections.unmodifiableMap(operations));
+	}
+
+	private static void analyze(ClassResourceInfo resource, Validator validator, Map<Method, Integer> operations,
+			Set<Class<?>> visited) {
+		if (!visited.add(resource.getServiceClass())) {
+			return;
+		}
+		BeanDescriptor bean = describe(resource.getServiceClass(), validator);
+		for (OperationResourceInfo operation : resource.getMethodDispatcher().getOperationResourceInfos()) {
+			Method method = operation.getMethodToInvoke();
+			operations.put(method, bean == null ? PARAMETERS | RETURN_VALUE : flags(bean, method));
+		}
+		for (ClassResourceInfo subResource : resource.getSubResources()) {
+			analyze(subResource, validator, operations, visited);
+		}
+	}
+
+	private static BeanDescriptor describe(Class<?> serviceClass, Validator validator) {
+		try {
+			return validator.getConstraintsForClass(serviceClass);
+		} catch (ValidationException e) {
+			// 元数据无法解析时按有约束处理，交由运行时校验报告错误
+			return null;
+		}
+	}
+
+	private static int flags(BeanDescriptor bean, Method method) {
+		MethodDescriptor descriptor;
+		try {
+			descriptor = bean.getConstraintsForMethod(method.getName(), method.getParameterTypes());
+		} catch (IllegalArgumentException | ValidationException e) {
+			return PARAMETERS | RETURN_VALUE;
+		}
+		if (descriptor == null) {
+			return 0;
+		}
+		return (descriptor.hasConstrainedParameters() ? PARAMETERS : 0)
+				| (descriptor.hasConstrainedReturnValue() ? RETURN_VALUE : 0);
+	}
+
+	public boolean hasConstrainedParameters(Method method) {
+		Integer flags = operations.get(method);
+		return flags == null || (flags & PARAMETERS) != 0;
+	}
+
+	public boolean hasConstrainedReturnValue(Method method) {
+		Integer flags = operations.get(method);
+		return flags == null || (flags & RETURN_VALUE) != 0;
+	}
+
+	/**
+	 * @return the number of operations analysed
+	 */
+	public int size() {
+		return operations.size();
+	}
+
+	/**
+	 * @return the number of operations with neither parameter nor return-value constraints
+	 */
+	public int getUnconstrainedCount() {
+		int count = 0;
+		for (Integer flags : operations.values()) {
+			if (flags == 0) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+}
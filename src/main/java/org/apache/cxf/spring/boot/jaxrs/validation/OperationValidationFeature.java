@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.validation;
+
+import java.util.Collections;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.spring.boot.property.ValidationFeatureProperty;
+import org.apache.cxf.validation.BeanValidationFeature;
+import org.apache.cxf.validation.BeanValidationProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bean validation of JAX-RS endpoints driven by metadata gathered at publish time.
+ * <ul>
+ * <li>each {@link org.apache.cxf.jaxrs.model.OperationResourceInfo} of the
+ * endpoint is analysed once; operations without parameter or return-value
+ * constraints are skipped entirely at request time;</li>
+ * <li>the remaining ones are validated through a validator obtained once (see
+ * {@link CachingBeanValidationProvider}), fail-fast if configured;</li>
+ * <li>parameter and return-value validation can be switched off separately.</li>
+ * </ul>
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OperationValidationFeature extends BeanValidationFeature {
+
+	private static final Logger LOG = LoggerFactory.getLogger(OperationValidationFeature.class);
+
+	private final ValidationFeatureProperty property;
+	private BeanValidationProvider provider;
+	private Validator metadataValidator;
+
+	public OperationValidationFeature(BeanValidationProvider provider, ValidationFeatureProperty property) {
+		this.property = property;
+		setProvider(provider);
+	}
+
+	@Override
+	public void initialize(Server server, Bus bus) {
+		Endpoint endpoint = server.getEndpoint();
+		// 非JAX-RS服务端沿用CXF默认的拦截器
+		if (!(endpoint.getService() instanceof JAXRSServiceImpl)) {
+			super.initialize(server, bus);
+			return;
+		}
+		OperationConstraints constraints = analyze((JAXRSServiceImpl) endpoint.getService());
+		if (property.isValidateParameters()) {
+			OperationValidationInInterceptor in = new OperationValidationInInterceptor(constraints);
+			in.setProvider(provider);
+			endpoint.getInInterceptors().add(in);
+		}
+		if (property.isValidateReturnValue()) {
+			OperationValidationOutInterceptor out = new OperationValidationOutInterceptor(constraints);
+			out.setProvider(provider);
+			endpoint.getOutInterceptors().add(out);
+		}
+	}
+
+	protected OperationConstraints analyze(JAXRSServiceImpl service) {
+		if (!property.isSkipUnconstrained()) {
+			return OperationConstraints.analyze(Collections.<ClassResourceInfo>emptyList(), getMetadataValidator());
+		}
+		OperationConstraints constraints = OperationConstraints.analyze(service.getClassResourceInfos(), getMetadataValidator());
+		LOG.debug("Bean validation skipped for {} of {} operations of {}.", constraints.getUnconstrainedCount(),
+				constraints.size(), service.getName());
+		return constraints;
+	}
+
+	private synchronized Validator getMetadataValidator() {
+		if (metadataValidator == null) {
+			metadataValidator = provider instanceof CachingBeanValidationProvider
+					? ((CachingBeanValidationProvider) provider).getValidator()
+					: Validation.buildDefaultValidatorFactory().getValidator();
+		}
+		return metadataValidator;
+	}
+
+	@Override
+	public void setProvider(BeanValidationProvider provider) {
+		super.setProvider(provider);
+		this.provider = provider;
+	}
+
+	public BeanValidationProvider getProvider() {
+		return provider;
+	}
+
+	public ValidationFeatureProperty getProperty() {
+		return property;
+	}
+
+}
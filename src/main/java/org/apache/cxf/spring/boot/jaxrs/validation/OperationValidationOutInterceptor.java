@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.validation;
+
+import java.lang.reflect.Method;
+
+import org.apache.cxf.jaxrs.validation.JAXRSBeanValidationOutInterceptor;
+import org.apache.cxf.message.Message;
+
+/**
+ * Validates the return values of resource methods, skipping the operations
+ * that have no return-value constraints without touching the validator.
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class OperationValidationOutInterceptor extends JAXRSBeanValidationOutInterceptor {
+
+	private final OperationConstraints constraints;
+
+	public OperationValidationOutInterceptor(OperationConstraints constraints) {
+		this.constraints = constraints;
+	}
+
+	@Override
+	public void handleMessage(Message message) {
+		Method method = getServiceMethod(message);
+		if (method != null && !constraints.hasConstrainedReturnValue(method)) {
+			return;
+		}
+		super.handleMessage(message);
+	}
+
+}
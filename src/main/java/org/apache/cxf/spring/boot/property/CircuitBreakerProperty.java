@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CircuitBreakerProperty {
+
+	/**
+	 * Whether guard the starter-managed clients with a circuit breaker per base address
+	 */
+	private boolean enabled = false;
+	/**
+	 * Number of most recent calls the failure and slow-call rates are computed over
+	 */
+	private int windowSize = 100;
+	/**
+	 * Calls needed in the window before the rates are evaluated
+	 */
+	private int minimumCalls = 20;
+	/**
+	 * Failure rate, in percent, at which the breaker opens
+	 */
+	private float failureRateThreshold = 50f;
+	/**
+	 * Calls taking longer than this are slow, in milliseconds
+	 */
+	private long slowCallDuration = 5000;
+	/**
+	 * Slow-call rate, in percent, at which the breaker opens
+	 */
+	private float slowCallRateThreshold = 100f;
+	/**
+	 * Time the breaker stays open before letting trial calls through, in milliseconds
+	 */
+	private long waitDurationInOpenState = 30000;
+	/**
+	 * Trial calls let through while half-open
+	 */
+	private int permittedCallsInHalfOpenState = 5;
+	/**
+	 * Time the breaker waits in half-open for its trial calls to report before it opens again, in milliseconds
+	 */
+	private long maxWaitDurationInHalfOpenState = 60000;
+	/**
+	 * Response statuses counted as failures, in addition to I/O errors and timeouts
+	 */
+	private List<Integer> failureStatuses = Arrays.asList(500, 502, 503, 504);
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getWindowSize() {
+		return windowSize;
+	}
+
+	public void setWindowSize(int windowSize) {
+		this.windowSize = windowSize;
+	}
+
+	public int getMinimumCalls() {
+		return minimumCalls;
+	}
+
+	public void setMinimumCalls(int minimumCalls) {
+		this.minimumCalls = minimumCalls;
+	}
+
+	public float getFailureRateThreshold() {
+		return failureRateThreshold;
+	}
+
+	public void setFailureRateThreshold(float failureRateThreshold) {
+		this.failureRateThreshold = failureRateThreshold;
+	}
+
+	public long getSlowCallDuration() {
+		return slowCallDuration;
+	}
+
+	public void setSlowCallDuration(long slowCallDuration) {
+		this.slowCallDuration = slowCallDuration;
+	}
+
+	public float getSlowCallRateThreshold() {
+		return slowCallRateThreshold;
+	}
+
+	public void setSlowCallRateThreshold(float slowCallRateThreshold) {
+		this.slowCallRateThreshold = slowCallRateThreshold;
+	}
+
+	public long getWaitDurationInOpenState() {
+		return waitDurationInOpenState;
+	}
+
+	public void setWaitDurationInOpenState(long waitDurationInOpenState) {
+		this.waitDurationInOpenState = waitDurationInOpenState;
+	}
+
+	public int getPermittedCallsInHalfOpenState() {
+		return permittedCallsInHalfOpenState;
+	}
+
+	public void setPermittedCallsInHalfOpenState(int permittedCallsInHalfOpenState) {
+		this.permittedCallsInHalfOpenState = permittedCallsInHalfOpenState;
+	}
+
+	public long getMaxWaitDurationInHalfOpenState() {
+		return maxWaitDurationInHalfOpenState;
+	}
+
+	public void setMaxWaitDurationInHalfOpenState(long maxWaitDurationInHalfOpenState) {
+		this.maxWaitDurationInHalfOpenState = maxWaitDurationInHalfOpenState;
+	}
+
+	public List<Integer> getFailureStatuses() {
+		return failureStatuses;
+	}
+
+	public void setFailureStatuses(List<Integer> failureStatuses) {
+		this.failureStatuses = failureStatuses;
+	}
+
+}
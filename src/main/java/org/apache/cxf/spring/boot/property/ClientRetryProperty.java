@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ClientRetryProperty {
+
+	/**
+	 * Whether retry (and optionally hedge) the idempotent calls of the profile or operation
+	 */
+	private boolean enabled = false;
+	/**
+	 * Max attempts of a call, the first one included
+	 */
+	private int maxAttempts = 2;
+	/**
+	 * Initial back-off between retries, doubled (with jitter) on every retry, in milliseconds
+	 */
+	private long backoff = 50;
+	/**
+	 * Response statuses retried in addition to I/O errors and timeouts
+	 */
+	private List<Integer> retryStatuses = new ArrayList<Integer>(Arrays.asList(502, 503, 504));
+	/**
+	 * Whether the operation is idempotent; when unset it is derived from the HTTP method (GET, HEAD, OPTIONS, PUT, DELETE)
+	 */
+	private Boolean idempotent;
+	/**
+	 * Whether send a second attempt when the first one is slower than the hedging percentile
+	 */
+	private boolean hedging = false;
+	/**
+	 * Latency percentile after which the hedged attempt is sent
+	 */
+	private double hedgingPercentile = 95d;
+	/**
+	 * Hedging delay used until enough latencies have been observed, in milliseconds
+	 */
+	private long hedgingDelay = 50;
+	/**
+	 * Lower bound of the hedging delay, in milliseconds
+	 */
+	private long hedgingMinDelay = 5;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxAttempts() {
+		return maxAttempts;
+	}
+
+	public void setMaxAttempts(int maxAttempts) {
+		this.maxAttempts = maxAttempts;
+	}
+
+	public long getBackoff() {
+		return backoff;
+	}
+
+	public void setBackoff(long backoff) {
+		this.backoff = backoff;
+	}
+
+	public List<Integer> getRetryStatuses() {
+		return retryStatuses;
+	}
+
+	public void setRetryStatuses(List<Integer> retryStatuses) {
+		this.retryStatuses = retryStatuses;
+	}
+
+	public Boolean getIdempotent() {
+		return idempotent;
+	}
+
+	public void setIdempotent(Boolean idempotent) {
+		this.idempotent = idempotent;
+	}
+
+	public boolean isHedging() {
+		return hedging;
+	}
+
+	public void setHedging(boolean hedging) {
+		this.hedging = hedging;
+	}
+
+	public double getHedgingPercentile() {
+		return hedgingPercentile;
+	}
+
+	public void setHedgingPercentile(double hedgingPercentile) {
+		this.hedgingPercentile = hedgingPercentile;
+	}
+
+	public long getHedgingDelay() {
+		return hedgingDelay;
+	}
+
+	public void setHedgingDelay(long hedgingDelay) {
+		this.hedgingDelay = hedgingDelay;
+	}
+
+	public long getHedgingMinDelay() {
+		return hedgingMinDelay;
+	}
+
+	public void setHedgingMinDelay(long hedgingMinDelay) {
+		this.hedgingMinDelay = hedgingMinDelay;
+	}
+
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CorsFeatureProperty {
+
+	/**
+	 * Whether enable CORS on the endpoints published by EndpointApiTemplate
+	 */
+	private boolean enabled = false;
+	/**
+	 * Origins allowed to call the endpoints, "*" allows any origin
+	 */
+	private List<String> allowOrigins = new ArrayList<String>(Arrays.asList("*"));
+	/**
+	 * Methods allowed in preflight requests
+	 */
+	private List<String> allowMethods = new ArrayList<String>(Arrays.asList("GET", "HEAD", "POST", "PUT", "DELETE"));
+	/**
+	 * Request headers allowed in preflight requests; empty allows any requested header
+	 */
+	private List<String> allowHeaders = new ArrayList<String>();
+	/**
+	 * Response headers exposed to the calling script
+	 */
+	private List<String> exposeHeaders = new ArrayList<String>();
+	/**
+	 * Whether allow requests with credentials (cookies, Authorization); requires
+	 * allow-origins to list the origins explicitly, without "*"
+	 */
+	private boolean allowCredentials = false;
+	/**
+	 * Seconds browsers may cache a preflight result; negative omits Access-Control-Max-Age
+	 */
+	private long maxAge = 3600;
+	/**
+	 * Status of the answer to a preflight request that is not allowed
+	 */
+	private int preflightErrorStatus = 403;
+	/**
+	 * Whether use CXF's CrossOriginResourceSharingFilter, which honours
+	 * &#64;CrossOriginResourceSharing on resources but matches the resource of
+	 * every preflight request
+	 */
+	private boolean resourceAnnotations = false;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public List<String> getAllowOrigins() {
+		return allowOrigins;
+	}
+
+	public void setAllowOrigins(List<String> allowOrigins) {
+		this.allowOrigins = allowOrigins;
+	}
+
+	public List<String> getAllowMethods() {
+		return allowMethods;
+	}
+
+	public void setAllowMethods(List<String> allowMethods) {
+		this.allowMethods = allowMethods;
+	}
+
+	public List<String> getAllowHeaders() {
+		return allowHeaders;
+	}
+
+	public void setAllowHeaders(List<String> allowHeaders) {
+		this.allowHeaders = allowHeaders;
+	}
+
+	public List<String> getExposeHeaders() {
+		return exposeHeaders;
+	}
+
+	public void setExposeHeaders(List<String> exposeHeaders) {
+		this.exposeHeaders = exposeHeaders;
+	}
+
+	public boolean isAllowCredentials() {
+		return allowCredentials;
+	}
+
+	public void setAllowCredentials(boolean allowCredentials) {
+		this.allowCredentials = allowCredentials;
+	}
+
+	public long getMaxAge() {
+		return maxAge;
+	}
+
+	public void setMaxAge(long maxAge) {
+		this.maxAge = maxAge;
+	}
+
+	public int getPreflightErrorStatus() {
+		return preflightErrorStatus;
+	}
+
+	public void setPreflightErrorStatus(int preflightErrorStatus) {
+		this.preflightErrorStatus = preflightErrorStatus;
+	}
+
+	public boolean isResourceAnnotations() {
+		return resourceAnnotations;
+	}
+
+	public void setResourceAnnotations(boolean resourceAnnotations) {
+		this.resourceAnnotations = resourceAnnotations;
+	}
+
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
+
+public class CxfJaxrsClientProfileProperty {
+
+	/**
+	 * Base address of the remote service. required
+	 */
+	private String address;
+	/**
+	 * Connection timeout, in milliseconds
+	 */
+	private long connectionTimeout = 30000;
+	/**
+	 * Receive timeout, in milliseconds
+	 */
+	private long receiveTimeout = 60000;
+	/**
+	 * Whether keep connections alive between calls
+	 */
+	private boolean keepAlive = true;
+	/**
+	 * Whether send the requests through the shared, pooled async conduit
+	 */
+	private boolean async = true;
+	private boolean allowChunking = true;
+	private String accept = "application/json";
+	private String contentType = "application/json";
+	/**
+	 * Headers sent with every request of this profile
+	 */
+	private Map<String, String> headers = Collections.emptyMap();
+	/**
+	 * Request context properties of this profile
+	 */
+	private Map<String, Object> properties = Collections.emptyMap();
+	/**
+	 * Client-side load balancing over several addresses
+	 */
+	@NestedConfigurationProperty
+	private LoadBalanceProperty loadBalance = new LoadBalanceProperty();
+	/**
+	 * Default retry/hedging settings of the idempotent operations of this profile
+	 */
+	@NestedConfigurationProperty
+	private ClientRetryProperty retry = new ClientRetryProperty();
+	/**
+	 * Per-operation retry/hedging settings, keyed by SimpleInterfaceName.method or method
+	 */
+	private Map<String, ClientRetryProperty> operations = new LinkedHashMap<String, ClientRetryProperty>();
+
+	public String getAddress() {
+		return address;
+	}
+
+	public void setAddress(String address) {
+		this.address = address;
+	}
+
+	public long getConnectionTimeout() {
+		return connectionTimeout;
+	}
+
+	public void setConnectionTimeout(long connectionTimeout) {
+		this.connectionTimeout = connectionTimeout;
+	}
+
+	public long getReceiveTimeout() {
+		return receiveTimeout;
+	}
+
+	public void setReceiveTimeout(long receiveTimeout) {
+		this.receiveTimeout = receiveTimeout;
+	}
+
+	public boolean isKeepAlive() {
+		return keepAlive;
+	}
+
+	public void setKeepAlive(boolean keepAlive) {
+		this.keepAlive = keepAlive;
+	}
+
+	public boolean isAsync() {
+		return async;
+	}
+
+	public void setAsync(boolean async) {
+		this.async = async;
+	}
+
+	public boolean isAllowChunking() {
+		return allowChunking;
+	}
+
+	public void setAllowChunking(boolean allowChunking) {
+		this.allowChunking = allowChunking;
+	}
+
+	public String getAccept() {
+		return accept;
+	}
+
+	public void setAccept(String accept) {
+		this.accept = accept;
+	}
+
+	public String getContentType() {
+		return contentType;
+	}
+
+	public void setContentType(String contentType) {
+		this.contentType = contentType;
+	}
+
+	public Map<String, String> getHeaders() {
+		return headers;
+	}
+
+	public void setHeaders(Map<String, String> headers) {
+		this.headers = headers;
+	}
+
+	public Map<String, Object> getProperties() {
+		return properties;
+	}
+
+	public void setProperties(Map<String, Object> properties) {
+		this.properties = properties;
+	}
+
+	public LoadBalanceProperty getLoadBalance() {
+		return loadBalance;
+	}
+
+	public void setLoadBalance(LoadBalanceProperty loadBalance) {
+		this.loadBalance = loadBalance;
+	}
+
+	public ClientRetryProperty getRetry() {
+		return retry;
+	}
+
+	public void setRetry(ClientRetryProperty retry) {
+		this.retry = retry;
+	}
+
+	public Map<String, ClientRetryProperty> getOperations() {
+		return operations;
+	}
+
+	public void setOperations(Map<String, ClientRetryProperty> operations) {
+		this.operations = operations;
+	}
+
+}
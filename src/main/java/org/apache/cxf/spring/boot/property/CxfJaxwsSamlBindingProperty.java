@@ -55,6 +55,10 @@ public class CxfJaxwsSamlBindingProperty {
 	private boolean isPassive;
 	private String protocolBinding = "urn:oasis:names:tc:SAML:2.0:bindings:HTTP-POST";
 	private String nameIDFormat = "urn:oasis:names:tc:SAML:2.0:nameid-format:persistent";
+	/**
+	 * 预渲染AuthnRequest模板，每次请求只填充ID、时间戳、Issuer与RACS地址；仅对DefaultAuthnRequestBuilder生效
+	 */
+	private boolean requestTemplate = true;
 
 	public long getStateTimeToLive() {
 		return stateTimeToLive;
@@ -186,4 +190,12 @@ public class CxfJaxwsSamlBindingProperty {
 
 	
 	
+	public boolean isRequestTemplate() {
+		return requestTemplate;
+	}
+
+	public void setRequestTemplate(boolean requestTemplate) {
+		this.requestTemplate = requestTemplate;
+	}
+
 }
@@ -46,6 +46,10 @@ public class CxfJaxwsSamlDispatcherProperty {
     private boolean useCurrentServlet;
     private boolean saveParametersAsAttributes;
     private boolean includeResource;
+    /**
+     * 使用内置的SamlRequestInfo表单渲染而非转发到JSP；未检测到JSP引擎时总是使用内置渲染
+     */
+    private boolean builtInForm;
 	public List<String> getConsumeMediaTypes() {
 		return consumeMediaTypes;
 	}
@@ -184,6 +188,12 @@ public class CxfJaxwsSamlDispatcherProperty {
 	public void setIncludeResource(boolean includeResource) {
 		this.includeResource = includeResource;
 	}
+	public boolean isBuiltInForm() {
+		return builtInForm;
+	}
+	public void setBuiltInForm(boolean builtInForm) {
+		this.builtInForm = builtInForm;
+	}
     
     
     
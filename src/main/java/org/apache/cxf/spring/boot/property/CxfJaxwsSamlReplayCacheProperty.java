@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+public class CxfJaxwsSamlReplayCacheProperty {
+
+	/**
+	 * Lifetime of IDs added without one, in seconds
+	 */
+	private long defaultTimeToLive = 300L;
+	/**
+	 * Longest lifetime kept, in seconds; longer ones are shortened to it
+	 */
+	private long maxTimeToLive = 3600L;
+	/**
+	 * Number of time buckets spanning maxTimeToLive; IDs may be kept up to one bucket longer than asked
+	 */
+	private int buckets = 32;
+	/**
+	 * Maximum number of IDs kept; once reached, unknown IDs are rejected as replays until IDs expire
+	 */
+	private int maxEntries = 100000;
+	/**
+	 * Whether to drop the IDs closest to expiry when maxEntries is reached, rather than reject unknown IDs;
+	 * the dropped IDs could then be replayed
+	 */
+	private boolean evictWhenFull = false;
+	/**
+	 * File the IDs are saved to on shutdown and restored from on start; empty to keep them in memory only
+	 */
+	private String snapshotFile;
+	/**
+	 * Seconds between snapshots; 0 to save on shutdown only
+	 */
+	private long snapshotInterval = 0L;
+	public long getDefaultTimeToLive() {
+		return defaultTimeToLive;
+	}
+
+	public void setDefaultTimeToLive(long defaultTimeToLive) {
+		this.defaultTimeToLive = defaultTimeToLive;
+	}
+
+	public long getMaxTimeToLive() {
+		return maxTimeToLive;
+	}
+
+	public void setMaxTimeToLive(long maxTimeToLive) {
+		this.maxTimeToLive = maxTimeToLive;
+	}
+
+	public int getBuckets() {
+		return buckets;
+	}
+
+	public void setBuckets(int buckets) {
+		this.buckets = buckets;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public boolean isEvictWhenFull() {
+		return evictWhenFull;
+	}
+
+	public void setEvictWhenFull(boolean evictWhenFull) {
+		this.evictWhenFull = evictWhenFull;
+	}
+
+	public String getSnapshotFile() {
+		return snapshotFile;
+	}
+
+	public void setSnapshotFile(String snapshotFile) {
+		this.snapshotFile = snapshotFile;
+	}
+
+	public long getSnapshotInterval() {
+		return snapshotInterval;
+	}
+
+	public void setSnapshotInterval(long snapshotInterval) {
+		this.snapshotInterval = snapshotInterval;
+	}
+
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import org.apache.cxf.spring.boot.jaxrs.security.saml.SPStateManagerType;
+
+public class CxfJaxwsSamlStateManagerProperty {
+
+	/**
+	 * Where request and response states are kept
+	 */
+	private SPStateManagerType type = SPStateManagerType.STRIPED;
+	/**
+	 * Maximum number of pending states; new states are refused with a 503 once it is reached
+	 */
+	private int maxEntries = 100000;
+	/**
+	 * Number of stripes, rounded up to a power of two; 0 for four per processor
+	 */
+	private int stripes = 0;
+	/**
+	 * Resolution of the expiry timing wheel, in milliseconds
+	 */
+	private long expiryTick = 1000L;
+
+	public SPStateManagerType getType() {
+		return type;
+	}
+
+	public void setType(SPStateManagerType type) {
+		this.type = type;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public int getStripes() {
+		return stripes;
+	}
+
+	public void setStripes(int stripes) {
+		this.stripes = stripes;
+	}
+
+	public long getExpiryTick() {
+		return expiryTick;
+	}
+
+	public void setExpiryTick(long expiryTick) {
+		this.expiryTick = expiryTick;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+public class DeadlineFeatureProperty {
+
+	public static final String DEFAULT_TIMEOUT_HEADER = "X-Request-Timeout";
+	public static final String DEFAULT_DEADLINE_HEADER = "X-Request-Deadline";
+
+	/**
+	 * Whether enable deadline propagation and timeout-aware cancellation
+	 */
+	private boolean enabled = false;
+	/**
+	 * Header carrying the relative timeout of the request, in milliseconds
+	 */
+	private String timeoutHeaderName = DEFAULT_TIMEOUT_HEADER;
+	/**
+	 * Header carrying the absolute deadline of the request, in epoch milliseconds
+	 */
+	private String deadlineHeaderName = DEFAULT_DEADLINE_HEADER;
+	/**
+	 * Timeout applied when the request carries no header, in milliseconds; 0 means no deadline
+	 */
+	private long defaultTimeout = 0;
+	/**
+	 * Upper bound of the accepted timeout, in milliseconds; 0 means unbounded
+	 */
+	private long maxTimeout = 0;
+	/**
+	 * Whether propagate the remaining deadline on outbound client calls
+	 */
+	private boolean propagate = true;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getTimeoutHeaderName() {
+		return timeoutHeaderName;
+	}
+
+	public void setTimeoutHeaderName(String timeoutHeaderName) {
+		this.timeoutHeaderName = timeoutHeaderName;
+	}
+
+	public String getDeadlineHeaderName() {
+		return deadlineHeaderName;
+	}
+
+	public void setDeadlineHeaderName(String deadlineHeaderName) {
+		this.deadlineHeaderName = deadlineHeaderName;
+	}
+
+	public long getDefaultTimeout() {
+		return defaultTimeout;
+	}
+
+	public void setDefaultTimeout(long defaultTimeout) {
+		this.defaultTimeout = defaultTimeout;
+	}
+
+	public long getMaxTimeout() {
+		return maxTimeout;
+	}
+
+	public void setMaxTimeout(long maxTimeout) {
+		this.maxTimeout = maxTimeout;
+	}
+
+	public boolean isPropagate() {
+		return propagate;
+	}
+
+	public void setPropagate(boolean propagate) {
+		this.propagate = propagate;
+	}
+
+}
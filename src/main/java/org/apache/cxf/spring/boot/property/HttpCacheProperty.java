@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+public class HttpCacheProperty {
+
+	/**
+	 * Whether enable the client-side HTTP cache of the starter-managed JAX-RS clients
+	 */
+	private boolean enabled = false;
+	/**
+	 * Max number of cached responses, both tiers included
+	 */
+	private int maxEntries = 10000;
+	/**
+	 * Max bytes of response bodies kept on the heap
+	 */
+	private long maxMemorySize = 64L * 1024 * 1024;
+	/**
+	 * Bodies larger than this many bytes are spilled to the disk tier
+	 */
+	private long maxMemoryEntrySize = 256L * 1024;
+	/**
+	 * Whether spill large bodies to the local disk tier; when disabled they are not cached
+	 */
+	private boolean diskEnabled = true;
+	/**
+	 * Directory of the disk tier; a temporary directory removed on shutdown when empty
+	 */
+	private String diskDirectory;
+	/**
+	 * Max bytes of response bodies kept on the disk tier
+	 */
+	private long maxDiskSize = 512L * 1024 * 1024;
+	/**
+	 * Bodies larger than this many bytes are never cached
+	 */
+	private long maxBodySize = 32L * 1024 * 1024;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public int getMaxEntries() {
+		return maxEntries;
+	}
+
+	public void setMaxEntries(int maxEntries) {
+		this.maxEntries = maxEntries;
+	}
+
+	public long getMaxMemorySize() {
+		return maxMemorySize;
+	}
+
+	public void setMaxMemorySize(long maxMemorySize) {
+		this.maxMemorySize = maxMemorySize;
+	}
+
+	public long getMaxMemoryEntrySize() {
+		return maxMemoryEntrySize;
+	}
+
+	public void setMaxMemoryEntrySize(long maxMemoryEntrySize) {
+		this.maxMemoryEntrySize = maxMemoryEntrySize;
+	}
+
+	public boolean isDiskEnabled() {
+		return diskEnabled;
+	}
+
+	public void setDiskEnabled(boolean diskEnabled) {
+		this.diskEnabled = diskEnabled;
+	}
+
+	public String getDiskDirectory() {
+		return diskDirectory;
+	}
+
+	public void setDiskDirectory(String diskDirectory) {
+		this.diskDirectory = diskDirectory;
+	}
+
+	public long getMaxDiskSize() {
+		return maxDiskSize;
+	}
+
+	public void setMaxDiskSize(long maxDiskSize) {
+		this.maxDiskSize = maxDiskSize;
+	}
+
+	public long getMaxBodySize() {
+		return maxBodySize;
+	}
+
+	public void setMaxBodySize(long maxBodySize) {
+		this.maxBodySize = maxBodySize;
+	}
+
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cxf.spring.boot.jaxrs.client.balancer.LoadBalanceMode;
+
+public class LoadBalanceProperty {
+
+	/**
+	 * Whether distribute the requests of the profile over several addresses
+	 */
+	private boolean enabled = false;
+	/**
+	 * Static address list; the profile address defaults to the first one
+	 */
+	private List<String> addresses = new ArrayList<String>();
+	/**
+	 * How the next address is selected: LEAST_OUTSTANDING or EWMA
+	 */
+	private LoadBalanceMode mode = LoadBalanceMode.LEAST_OUTSTANDING;
+	/**
+	 * Whether retry another address when a connection cannot be established
+	 */
+	private boolean failover = true;
+	/**
+	 * Decay time of the EWMA latency, in milliseconds
+	 */
+	private long decayTime = 10000;
+	/**
+	 * Consecutive failures (I/O errors, 5xx) after which an address is ejected; 0 disables ejection
+	 */
+	private int consecutiveFailures = 5;
+	/**
+	 * Base ejection time, multiplied by the number of consecutive ejections, in milliseconds
+	 */
+	private long baseEjectionTime = 30000;
+	/**
+	 * Max ejection time, in milliseconds
+	 */
+	private long maxEjectionTime = 300000;
+	/**
+	 * Max share of the addresses ejected at the same time, in percent
+	 */
+	private int maxEjectionPercent = 50;
+	/**
+	 * Interval of the address list refresh through the AddressResolver bean, in milliseconds; 0 disables refresh
+	 */
+	private long refreshInterval = 30000;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public List<String> getAddresses() {
+		return addresses;
+	}
+
+	public void setAddresses(List<String> addresses) {
+		this.addresses = addresses;
+	}
+
+	public LoadBalanceMode getMode() {
+		return mode;
+	}
+
+	public void setMode(LoadBalanceMode mode) {
+		this.mode = mode;
+	}
+
+	public boolean isFailover() {
+		return failover;
+	}
+
+	public void setFailover(boolean failover) {
+		this.failover = failover;
+	}
+
+	public long getDecayTime() {
+		return decayTime;
+	}
+
+	public void setDecayTime(long decayTime) {
+		this.decayTime = decayTime;
+	}
+
+	public int getConsecutiveFailures() {
+		return consecutiveFailures;
+	}
+
+	public void setConsecutiveFailures(int consecutiveFailures) {
+		this.consecutiveFailures = consecutiveFailures;
+	}
+
+	public long getBaseEjectionTime() {
+		return baseEjectionTime;
+	}
+
+	public void setBaseEjectionTime(long baseEjectionTime) {
+		this.baseEjectionTime = baseEjectionTime;
+	}
+
+	public long getMaxEjectionTime() {
+		return maxEjectionTime;
+	}
+
+	public void setMaxEjectionTime(long maxEjectionTime) {
+		this.maxEjectionTime = maxEjectionTime;
+	}
+
+	public int getMaxEjectionPercent() {
+		return maxEjectionPercent;
+	}
+
+	public void setMaxEjectionPercent(int maxEjectionPercent) {
+		this.maxEjectionPercent = maxEjectionPercent;
+	}
+
+	public long getRefreshInterval() {
+		return refreshInterval;
+	}
+
+	public void setRefreshInterval(long refreshInterval) {
+		this.refreshInterval = refreshInterval;
+	}
+
+}
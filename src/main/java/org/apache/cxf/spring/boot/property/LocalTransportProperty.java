@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class LocalTransportProperty {
+
+	/**
+	 * Whether also register every endpoint published by EndpointApiTemplate on
+	 * the local:// transport, and route starter-managed clients aimed at a
+	 * co-located address there
+	 */
+	private boolean enabled = false;
+	/**
+	 * Whether dispatch local calls on the calling thread instead of through a
+	 * pipe and the transport's executor
+	 */
+	private boolean directDispatch = true;
+	/**
+	 * Whether hand out the co-located service bean itself for client proxies,
+	 * skipping serialization, providers, filters and interceptors
+	 */
+	private boolean directInvocation = false;
+	/**
+	 * Host names under which clients reach the endpoints published at a relative
+	 * (servlet) address of this application
+	 */
+	private List<String> hosts = new ArrayList<String>(Arrays.asList("localhost", "127.0.0.1", "[::1]"));
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isDirectDispatch() {
+		return directDispatch;
+	}
+
+	public void setDirectDispatch(boolean directDispatch) {
+		this.directDispatch = directDispatch;
+	}
+
+	public boolean isDirectInvocation() {
+		return directInvocation;
+	}
+
+	public void setDirectInvocation(boolean directInvocation) {
+		this.directInvocation = directInvocation;
+	}
+
+	public List<String> getHosts() {
+		return hosts;
+	}
+
+	public void setHosts(List<String> hosts) {
+		this.hosts = hosts;
+	}
+
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+public class MultipartStreamingProperty {
+
+	/**
+	 * Whether stream multipart requests of the endpoints published by
+	 * EndpointApiTemplate; also turns off logging of multipart payloads
+	 */
+	private boolean enabled = false;
+	/**
+	 * Directory parts are spilled to, defaults to cxf-multipart under java.io.tmpdir
+	 */
+	private String directory;
+	/**
+	 * Maximum size in bytes of a single part, -1 for no limit
+	 */
+	private long maxPartSize = -1;
+	/**
+	 * Maximum size in bytes of a whole multipart request, -1 for no limit
+	 */
+	private long maxRequestSize = -1;
+	/**
+	 * Bytes of a part CXF keeps in memory before spilling it, when resources read
+	 * MultipartBody, Attachment or &#64;Multipart parameters
+	 */
+	private long memoryThreshold = 100 * 1024;
+	/**
+	 * Maximum size of all the headers of a streamed part together; CXF's own
+	 * attachment parsing applies it to every header line
+	 */
+	private int maxHeaderSize = 1024;
+	/**
+	 * Size of the read-ahead used to find part boundaries, and of the chunks
+	 * written when a part is transferred to a file
+	 */
+	private int bufferSize = 8192;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getDirectory() {
+		return directory;
+	}
+
+	public void setDirectory(String directory) {
+		this.directory = directory;
+	}
+
+	public long getMaxPartSize() {
+		return maxPartSize;
+	}
+
+	public void setMaxPartSize(long maxPartSize) {
+		this.maxPartSize = maxPartSize;
+	}
+
+	public long getMaxRequestSize() {
+		return maxRequestSize;
+	}
+
+	public void setMaxRequestSize(long maxRequestSize) {
+		this.maxRequestSize = maxRequestSize;
+	}
+
+	public long getMemoryThreshold() {
+		return memoryThreshold;
+	}
+
+	public void setMemoryThreshold(long memoryThreshold) {
+		this.memoryThreshold = memoryThreshold;
+	}
+
+	public int getMaxHeaderSize() {
+		return maxHeaderSize;
+	}
+
+	public void setMaxHeaderSize(int maxHeaderSize) {
+		this.maxHeaderSize = maxHeaderSize;
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public void setBufferSize(int bufferSize) {
+		this.bufferSize = bufferSize;
+	}
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.TokenCodec;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.TokenDurability;
+import org.apache.cxf.spring.boot.jaxrs.security.oauth2.TokenStoreType;
+
+public class OAuth2DataProviderProperty {
+
+	/**
+	 * Lifetime of access tokens, in seconds
+	 */
+	private long accessTokenLifetime = 3600L;
+	/**
+	 * Lifetime of refresh tokens, in seconds; -1 means they never expire
+	 */
+	private long refreshTokenLifetime = -1L;
+	/**
+	 * Lifetime of authorization code grants, in seconds
+	 */
+	private long codeLifetime = 600L;
+	/**
+	 * Whether issue a new refresh token on every refresh
+	 */
+	private boolean recycleRefreshTokens = true;
+	/**
+	 * Whether issue access tokens in JWT format
+	 */
+	private boolean useJwtFormatForAccessTokens = true;
+	/**
+	 * Resolution of the expiry timing wheel, in milliseconds
+	 */
+	private long expiryTick = 1000L;
+	/**
+	 * Where clients, grants and tokens are kept
+	 */
+	private TokenStoreType store = TokenStoreType.MEMORY;
+	/**
+	 * Directory of the token log, defaults to cxf-oauth2-tokens under java.io.tmpdir
+	 */
+	private String storeDirectory;
+	/**
+	 * Size of a token log segment, in bytes
+	 */
+	private int storeSegmentSize = 64 * 1024 * 1024;
+	/**
+	 * Interval between two syncs of the token log, in milliseconds
+	 */
+	private long storeFlushInterval = 1000L;
+	/**
+	 * Number of sealed token log segments that triggers a compaction
+	 */
+	private int storeCompactSegments = 4;
+	/**
+	 * When changes reach the token log: write-through, write-behind or group-commit
+	 */
+	private TokenDurability storeDurability = TokenDurability.WRITE_THROUGH;
+	/**
+	 * Maximum number of changes waiting to be written to the token log; callers block when it is full
+	 */
+	private int storeQueueCapacity = 65536;
+	/**
+	 * Maximum number of changes written to the token log at once
+	 */
+	private int storeBatchSize = 512;
+	/**
+	 * Package prefixes whose classes, e.g. custom Client or UserSubject subclasses, may be Java-serialized into the token log
+	 */
+	private List<String> storeSerializablePackages = new ArrayList<String>(TokenCodec.DEFAULT_ALLOWED_PACKAGES);
+	/**
+	 * Number of revoked, unexpired access tokens the revocation Bloom filter is sized for
+	 */
+	private int revocationIndexSize = 10000;
+	/**
+	 * False positive probability of the revocation Bloom filter at that size
+	 */
+	private double revocationIndexFpp = 0.01d;
+	/**
+	 * Maximum number of distinct scope lists whose permissions are interned; 0 disables the cache
+	 */
+	private int scopeCacheSize = 1024;
+
+	public long getAccessTokenLifetime() {
+		return accessTokenLifetime;
+	}
+
+	public void setAccessTokenLifetime(long accessTokenLifetime) {
+		this.accessTokenLifetime = accessTokenLifetime;
+	}
+
+	public long getRefreshTokenLifetime() {
+		return refreshTokenLifetime;
+	}
+
+	public void setRefreshTokenLifetime(long refreshTokenLifetime) {
+		this.refreshTokenLifetime = refreshTokenLifetime;
+	}
+
+	public long getCodeLifetime() {
+		return codeLifetime;
+	}
+
+	public void setCodeLifetime(long codeLifetime) {
+		this.codeLifetime = codeLifetime;
+	}
+
+	public boolean isRecycleRefreshTokens() {
+		return recycleRefreshTokens;
+	}
+
+	public void setRecycleRefreshTokens(boolean recycleRefreshTokens) {
+		this.recycleRefreshTokens = recycleRefreshTokens;
+	}
+
+	public boolean isUseJwtFormatForAccessTokens() {
+		return useJwtFormatForAccessTokens;
+	}
+
+	public void setUseJwtFormatForAccessTokens(boolean useJwtFormatForAccessTokens) {
+		this.useJwtFormatForAccessTokens = useJwtFormatForAccessTokens;
+	}
+
+	public long getExpiryTick() {
+		return expiryTick;
+	}
+
+	public void setExpiryTick(long expiryTick) {
+		this.expiryTick = expiryTick;
+	}
+
+	public TokenStoreType getStore() {
+		return store;
+	}
+
+	public void setStore(TokenStoreType store) {
+		this.store = store;
+	}
+
+	public String getStoreDirectory() {
+		return storeDirectory;
+	}
+
+	public void setStoreDirectory(String storeDirectory) {
+		this.storeDirectory = storeDirectory;
+	}
+
+	public int getStoreSegmentSize() {
+		return storeSegmentSize;
+	}
+
+	public void setStoreSegmentSize(int storeSegmentSize) {
+		this.storeSegmentSize = storeSegmentSize;
+	}
+
+	public long getStoreFlushInterval() {
+		return storeFlushInterval;
+	}
+
+	public void setStoreFlushInterval(long storeFlushInterval) {
+		this.storeFlushInterval = storeFlushInterval;
+	}
+
+	public int getStoreCompactSegments() {
+		return storeCompactSegments;
+	}
+
+	public void setStoreCompactSegments(int storeCompactSegments) {
+		this.storeCompactSegments = storeCompactSegments;
+	}
+
+	public int getRevocationIndexSize() {
+		return revocationIndexSize;
+	}
+
+	public void setRevocationIndexSize(int revocationIndexSize) {
+		this.revocationIndexSize = revocationIndexSize;
+	}
+
+	public double getRevocationIndexFpp() {
+		return revocationIndexFpp;
+	}
+
+	public void setRevocationIndexFpp(double revocationIndexFpp) {
+		this.revocationIndexFpp = revocationIndexFpp;
+	}
+
+	public int getScopeCacheSize() {
+		return scopeCacheSize;
+	}
+
+	public void setScopeCacheSize(int scopeCacheSize) {
+		this.scopeCacheSize = scopeCacheSize;
+	}
+
+	public TokenDurability getStoreDurability() {
+		return storeDurability;
+	}
+
+	public void setStoreDurability(TokenDurability storeDurability) {
+		this.storeDurability = storeDurability;
+	}
+
+	public int getStoreQueueCapacity() {
+		return storeQueueCapacity;
+	}
+
+	public void setStoreQueueCapacity(int storeQueueCapacity) {
+		this.storeQueueCapacity = storeQueueCapacity;
+	}
+
+	public int getStoreBatchSize() {
+		return storeBatchSize;
+	}
+
+	public void setStoreBatchSize(int storeBatchSize) {
+		this.storeBatchSize = storeBatchSize;
+	}
+
+	public List<String> getStoreSerializablePackages() {
+		return storeSerializablePackages;
+	}
+
+	public void setStoreSerializablePackages(List<String> storeSerializablePackages) {
+		this.storeSerializablePackages = storeSerializablePackages;
+	}
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class OAuth2FilterProperty {
+
+	/**
+	 * Whether protect the published endpoints with the OAuth2 request filter
+	 */
+	private boolean enabled = false;
+	/**
+	 * Realm reported in the WWW-Authenticate header
+	 */
+	private String realm;
+	/**
+	 * Scopes every token must have been granted
+	 */
+	private List<String> requiredScopes = new ArrayList<String>();
+	/**
+	 * Whether cache verified access tokens
+	 */
+	private boolean tokenCache = true;
+	/**
+	 * Maximum number of cached tokens
+	 */
+	private int tokenCacheSize = 10000;
+	/**
+	 * Maximum time a cached token is trusted without verification, in seconds
+	 */
+	private long tokenCacheMaxTtl = 300L;
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public String getRealm() {
+		return realm;
+	}
+
+	public void setRealm(String realm) {
+		this.realm = realm;
+	}
+
+	public List<String> getRequiredScopes() {
+		return requiredScopes;
+	}
+
+	public void setRequiredScopes(List<String> requiredScopes) {
+		this.requiredScopes = requiredScopes;
+	}
+
+	public boolean isTokenCache() {
+		return tokenCache;
+	}
+
+	public void setTokenCache(boolean tokenCache) {
+		this.tokenCache = tokenCache;
+	}
+
+	public int getTokenCacheSize() {
+		return tokenCacheSize;
+	}
+
+	public void setTokenCacheSize(int tokenCacheSize) {
+		this.tokenCacheSize = tokenCacheSize;
+	}
+
+	public long getTokenCacheMaxTtl() {
+		return tokenCacheMaxTtl;
+	}
+
+	public void setTokenCacheMaxTtl(long tokenCacheMaxTtl) {
+		this.tokenCacheMaxTtl = tokenCacheMaxTtl;
+	}
+
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+public class RetryBudgetProperty {
+
+	/**
+	 * Retries and hedged attempts allowed per original request, e.g. 0.1 for 10%
+	 */
+	private double ratio = 0.1d;
+	/**
+	 * Retries allowed per second regardless of the ratio, so that low traffic can still retry
+	 */
+	private int minRetriesPerSecond = 10;
+	/**
+	 * Max threads running hedged attempts; calls run on the caller thread when they are all busy
+	 */
+	private int hedgingThreads = 64;
+
+	public double getRatio() {
+		return ratio;
+	}
+
+	public void setRatio(double ratio) {
+		this.ratio = ratio;
+	}
+
+	public int getMinRetriesPerSecond() {
+		return minRetriesPerSecond;
+	}
+
+	public void setMinRetriesPerSecond(int minRetriesPerSecond) {
+		this.minRetriesPerSecond = minRetriesPerSecond;
+	}
+
+	public int getHedgingThreads() {
+		return hedgingThreads;
+	}
+
+	public void setHedgingThreads(int hedgingThreads) {
+		this.hedgingThreads = hedgingThreads;
+	}
+
+}
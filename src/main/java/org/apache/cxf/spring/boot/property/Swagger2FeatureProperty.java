@@ -40,7 +40,32 @@ public class Swagger2FeatureProperty {
 	private static final String HOST_PROPERTY = "host";
 	private static final String USE_PATH_CFG_PROPERTY = "use.path.based.config";
 
-	private boolean licenseWasSet;
+	/**
+	 * Whether enable Swagger2Feature on the endpoints published by EndpointApiTemplate
+	 */
+	private boolean enabled = false;
+	/**
+	 * Whether serve swagger.json/swagger.yaml from a document cache that is only
+	 * regenerated when an endpoint is published or destroyed
+	 */
+	private boolean documentCache = true;
+	/**
+	 * Whether serve the Swagger UI assets from a local copy of the webjar through a
+	 * servlet filter, bypassing JAX-RS dispatch
+	 */
+	private boolean staticUi = true;
+	/**
+	 * Directory the Swagger UI webjar is extracted to, defaults to
+	 * ${java.io.tmpdir}/cxf-swagger-ui; only reused when owned by the current user
+	 * and writable by nobody else
+	 */
+	private String staticUiDirectory;
+	/**
+	 * Seconds browsers may cache the Swagger UI assets without revalidation; the
+	 * asset URLs carry no version, so 0 (the default) makes them revalidate by
+	 * ETag every time (index.html is always revalidated)
+	 */
+	private long staticUiMaxAge = 0;
 	private boolean runAsFilter;
 	private boolean activateOnlyIfJaxrsSupported;
 	private String resourcePackage;
@@ -62,7 +87,7 @@ public class Swagger2FeatureProperty {
 
 	private String ignoreRoutes;
 
-	private boolean supportSwaggerUi;
+	private boolean supportSwaggerUi = true;
 
 	private String swaggerUiVersion;
 	private String swaggerUiMavenGroupAndArtifact;
@@ -78,108 +103,244 @@ public class Swagger2FeatureProperty {
 
 	private String propertiesLocation = DEFAULT_PROPS_LOCATION;
 
-	public boolean isLicenseWasSet() {
-		return licenseWasSet;
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	public void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+
+	public boolean isDocumentCache() {
+		return documentCache;
+	}
+
+	public void setDocumentCache(boolean documentCache) {
+		this.documentCache = documentCache;
+	}
+
+	public boolean isStaticUi() {
+		return staticUi;
+	}
+
+	public void setStaticUi(boolean staticUi) {
+		this.staticUi = staticUi;
+	}
+
+	public String getStaticUiDirectory() {
+		return staticUiDirectory;
+	}
+
+	public void setStaticUiDirectory(String staticUiDirectory) {
+		this.staticUiDirectory = staticUiDirectory;
+	}
+
+	public long getStaticUiMaxAge() {
+		return staticUiMaxAge;
+	}
+
+	public void setStaticUiMaxAge(long staticUiMaxAge) {
+		this.staticUiMaxAge = staticUiMaxAge;
 	}
 
 	public boolean isRunAsFilter() {
 		return runAsFilter;
 	}
 
+	public void setRunAsFilter(boolean runAsFilter) {
+		this.runAsFilter = runAsFilter;
+	}
+
 	public boolean isActivateOnlyIfJaxrsSupported() {
 		return activateOnlyIfJaxrsSupported;
 	}
 
+	public void setActivateOnlyIfJaxrsSupported(boolean activateOnlyIfJaxrsSupported) {
+		this.activateOnlyIfJaxrsSupported = activateOnlyIfJaxrsSupported;
+	}
+
 	public String getResourcePackage() {
 		return resourcePackage;
 	}
 
+	public void setResourcePackage(String resourcePackage) {
+		this.resourcePackage = resourcePackage;
+	}
+
 	public String getVersion() {
 		return version;
 	}
 
+	public void setVersion(String version) {
+		this.version = version;
+	}
+
 	public String getBasePath() {
 		return basePath;
 	}
 
+	public void setBasePath(String basePath) {
+		this.basePath = basePath;
+	}
+
 	public String getTitle() {
 		return title;
 	}
 
+	public void setTitle(String title) {
+		this.title = title;
+	}
+
 	public String getDescription() {
 		return description;
 	}
 
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
 	public String getContact() {
 		return contact;
 	}
 
+	public void setContact(String contact) {
+		this.contact = contact;
+	}
+
 	public String getLicense() {
 		return license;
 	}
 
+	public void setLicense(String license) {
+		this.license = license;
+	}
+
 	public String getLicenseUrl() {
 		return licenseUrl;
 	}
 
+	public void setLicenseUrl(String licenseUrl) {
+		this.licenseUrl = licenseUrl;
+	}
+
 	public String getTermsOfServiceUrl() {
 		return termsOfServiceUrl;
 	}
 
+	public void setTermsOfServiceUrl(String termsOfServiceUrl) {
+		this.termsOfServiceUrl = termsOfServiceUrl;
+	}
+
 	public String getFilterClass() {
 		return filterClass;
 	}
 
+	public void setFilterClass(String filterClass) {
+		this.filterClass = filterClass;
+	}
+
 	public boolean isScan() {
 		return scan;
 	}
 
+	public void setScan(boolean scan) {
+		this.scan = scan;
+	}
+
 	public boolean isScanAllResources() {
 		return scanAllResources;
 	}
 
+	public void setScanAllResources(boolean scanAllResources) {
+		this.scanAllResources = scanAllResources;
+	}
+
 	public String getIgnoreRoutes() {
 		return ignoreRoutes;
 	}
 
+	public void setIgnoreRoutes(String ignoreRoutes) {
+		this.ignoreRoutes = ignoreRoutes;
+	}
+
 	public boolean isSupportSwaggerUi() {
 		return supportSwaggerUi;
 	}
 
+	public void setSupportSwaggerUi(boolean supportSwaggerUi) {
+		this.supportSwaggerUi = supportSwaggerUi;
+	}
+
 	public String getSwaggerUiVersion() {
 		return swaggerUiVersion;
 	}
 
+	public void setSwaggerUiVersion(String swaggerUiVersion) {
+		this.swaggerUiVersion = swaggerUiVersion;
+	}
+
 	public String getSwaggerUiMavenGroupAndArtifact() {
 		return swaggerUiMavenGroupAndArtifact;
 	}
 
+	public void setSwaggerUiMavenGroupAndArtifact(String swaggerUiMavenGroupAndArtifact) {
+		this.swaggerUiMavenGroupAndArtifact = swaggerUiMavenGroupAndArtifact;
+	}
+
 	public Map<String, String> getSwaggerUiMediaTypes() {
 		return swaggerUiMediaTypes;
 	}
 
+	public void setSwaggerUiMediaTypes(Map<String, String> swaggerUiMediaTypes) {
+		this.swaggerUiMediaTypes = swaggerUiMediaTypes;
+	}
+
 	public boolean isDynamicBasePath() {
 		return dynamicBasePath;
 	}
 
+	public void setDynamicBasePath(boolean dynamicBasePath) {
+		this.dynamicBasePath = dynamicBasePath;
+	}
+
 	public String getHost() {
 		return host;
 	}
 
+	public void setHost(String host) {
+		this.host = host;
+	}
+
 	public String[] getSchemes() {
 		return schemes;
 	}
 
+	public void setSchemes(String[] schemes) {
+		this.schemes = schemes;
+	}
+
 	public boolean isPrettyPrint() {
 		return prettyPrint;
 	}
 
+	public void setPrettyPrint(boolean prettyPrint) {
+		this.prettyPrint = prettyPrint;
+	}
+
 	public boolean isUsePathBasedConfig() {
 		return usePathBasedConfig;
 	}
 
+	public void setUsePathBasedConfig(boolean usePathBasedConfig) {
+		this.usePathBasedConfig = usePathBasedConfig;
+	}
+
 	public String getPropertiesLocation() {
 		return propertiesLocation;
 	}
 
+	public void setPropertiesLocation(String propertiesLocation) {
+		this.propertiesLocation = propertiesLocation;
+	}
+
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.property;
+
+public class ValidationFeatureProperty {
+
+	/**
+	 * Whether skip validation of operations found to have no constraints when the endpoint is published
+	 */
+	private boolean skipUnconstrained = true;
+	/**
+	 * Whether stop at the first constraint violation instead of collecting all of them
+	 */
+	private boolean failFast = false;
+	/**
+	 * Whether validate the parameters of resource methods
+	 */
+	private boolean validateParameters = true;
+	/**
+	 * Whether validate the return values of resource methods
+	 */
+	private boolean validateReturnValue = true;
+
+	public boolean isSkipUnconstrained() {
+		return skipUnconstrained;
+	}
+
+	public void setSkipUnconstrained(boolean skipUnconstrained) {
+		this.skipUnconstrained = skipUnconstrained;
+	}
+
+	public boolean isFailFast() {
+		return failFast;
+	}
+
+	public void setFailFast(boolean failFast) {
+		this.failFast = failFast;
+	}
+
+	public boolean isValidateParameters() {
+		return validateParameters;
+	}
+
+	public void setValidateParameters(boolean validateParameters) {
+		this.validateParameters = validateParameters;
+	}
+
+	public boolean isValidateReturnValue() {
+		return validateReturnValue;
+	}
+
+	public void setValidateReturnValue(boolean validateReturnValue) {
+		this.validateReturnValue = validateReturnValue;
+	}
+
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.Response;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.endpoint.Server;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.spring.boot.CxfJaxrsClientProperties;
+import org.apache.cxf.spring.boot.jaxrs.client.balancer.LoadBalanceMode;
+import org.apache.cxf.spring.boot.jaxrs.client.balancer.TargetStats;
+import org.apache.cxf.spring.boot.property.CxfJaxrsClientProfileProperty;
+
+/**
+ * 使用本地嵌入式Jetty模拟三个实例验证负载均衡：一个正常、一个慢（50ms）、一个持续返回503。
+ * 预期大部分请求落在正常实例上，故障实例在连续失败后被摘除。
+ */
+public class LoadBalancerSample {
+
+	private static final ConcurrentMap<String, AtomicInteger> HITS = new ConcurrentHashMap<String, AtomicInteger>();
+
+	@Path("/echo")
+	public static class StandIn {
+
+		private final String name;
+		private final long delay;
+		private final int status;
+
+		public StandIn(String name, long delay, int status) {
+			this.name = name;
+			this.delay = delay;
+			this.status = status;
+		}
+
+		@GET
+		@Produces("text/plain")
+		public Response echo() throws InterruptedException {
+			HITS.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+			if (delay > 0) {
+				TimeUnit.MILLISECONDS.sleep(delay);
+			}
+			return Response.status(status).entity(name).build();
+		}
+
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		Bus bus = BusFactory.getDefaultBus();
+		List<Server> servers = new ArrayList<Server>();
+		servers.add(standIn(bus, "http://localhost:9701/api", new StandIn("fast", 0, 200)));
+		servers.add(standIn(bus, "http://localhost:9702/api", new StandIn("slow", 50, 200)));
+		servers.add(standIn(bus, "http://localhost:9703/api", new StandIn("broken", 0, 503)));
+
+		CxfJaxrsClientProfileProperty profile = new CxfJaxrsClientProfileProperty();
+		profile.setAsync(false);
+		profile.setAccept("text/plain");
+		profile.getLoadBalance().setEnabled(true);
+		profile.getLoadBalance().setMode(args.length > 0 ? LoadBalanceMode.valueOf(args[0]) : LoadBalanceMode.EWMA);
+		profile.getLoadBalance().setAddresses(Arrays.asList("http://localhost:9701/api", "http://localhost:9702/api",
+				"http://localhost:9703/api"));
+
+		CxfJaxrsClientProperties properties = new CxfJaxrsClientProperties();
+		properties.getProfiles().put("echo", profile);
+		ClientApiTemplate template = new ClientApiTemplate(bus, properties);
+
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Integer>> results = new ArrayList<Future<Integer>>();
+		for (int i = 0; i < 2000; i++) {
+			results.add(executor.submit(() -> template.webClient("echo").path("echo").get().getStatus()));
+		}
+		int ok = 0;
+		for (Future<Integer> result : results) {
+			ok += result.get() == 200 ? 1 : 0;
+		}
+
+		System.out.println("mode=" + profile.getLoadBalance().getMode() + " ok=" + ok + "/" + results.size() + " hits=" + HITS);
+		for (TargetStats stats : template.getLoadBalancer("echo").getStats()) {
+			System.out.println(stats);
+		}
+
+		executor.shutdown();
+		template.destroy();
+		for (Server server : servers) {
+			server.destroy();
+		}
+		bus.shutdown(true);
+	}
+
+	private static Server standIn(Bus bus, String address, StandIn resource) {
+		JAXRSServerFactoryBean factoryBean = new JAXRSServerFactoryBean();
+		factoryBean.setBus(bus);
+		factoryBean.setAddress(address);
+		factoryBean.setServiceBean(resource);
+		return factoryBean.create();
+	}
+
+}
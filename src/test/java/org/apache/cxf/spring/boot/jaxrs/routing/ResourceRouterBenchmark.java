@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.ws.rs.HttpMethod;
+import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.MultivaluedMap;
+
+import org.apache.cxf.Bus;
+import org.apache.cxf.BusFactory;
+import org.apache.cxf.endpoint.Endpoint;
+import org.apache.cxf.endpoint.EndpointImpl;
+import org.apache.cxf.jaxrs.JAXRSServiceImpl;
+import org.apache.cxf.jaxrs.impl.MetadataMap;
+import org.apache.cxf.jaxrs.model.ClassResourceInfo;
+import org.apache.cxf.jaxrs.model.OperationResourceInfo;
+import org.apache.cxf.jaxrs.model.URITemplate;
+import org.apache.cxf.jaxrs.utils.JAXRSUtils;
+import org.apache.cxf.jaxrs.utils.ResourceUtils;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.ExchangeImpl;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.service.model.EndpointInfo;
+import org.apache.cxf.spring.boot.jaxrs.CustomerServiceImpl;
+
+/**
+ * Compares resource and method selection of CXF with {@link ResourceRouter}
+ * for 10, 100 and 1,000 resources sharing the <code>/customer</code> class
+ * template, as <code>CustomerServiceImpl</code> to <code>CustomerServiceImpl4</code> do.
+ */
+public class ResourceRouterBenchmark {
+
+	private static final List<MediaType> ACCEPT = Collections.singletonList(MediaType.WILDCARD_TYPE);
+
+	public static void main(String[] args) throws Exception {
+		Bus bus = BusFactory.getDefaultBus(true);
+		for (int count : new int[] { 10, 100, 1000 }) {
+			List<ClassResourceInfo> resources = createResources(count, bus);
+			ResourceRouter router = new ResourceRouter(resources);
+			Endpoint endpoint = new EndpointImpl(bus, new JAXRSServiceImpl(resources, true), new EndpointInfo());
+			String[] paths = new String[1024];
+			for (int i = 0; i < paths.length; i++) {
+				int resource = (i * 7919) % count;
+				paths[i] = i % 2 == 0 ? "/customer/r" + resource + "/" + i + "/info" : "/customer/r" + resource + "/search";
+			}
+			// 预热并校验两种方式选中相同的方法
+			for (int round = 0; round < 20; round++) {
+				for (String path : paths) {
+					if (select(null, endpoint, resources, path) != select(router, endpoint, resources, path)) {
+						throw new IllegalStateException("Different operation selected for " + path);
+					}
+				}
+			}
+			int iterations = Math.max(20000, 2000000 / count);
+			long regex = measure(null, endpoint, resources, paths, iterations);
+			long trie = measure(router, endpoint, resources, paths, iterations);
+			System.out.println(String.format("%5d resources: regex %8d ns/op, trie %6d ns/op, %.1fx", count, regex,
+					trie, (double) regex / trie));
+		}
+	}
+
+	private static List<ClassResourceInfo> createResources(int count, Bus bus) {
+		List<ClassResourceInfo> resources = new ArrayList<ClassResourceInfo>(count);
+		for (int i = 0; i < count; i++) {
+			ClassResourceInfo resource = ResourceUtils.createClassResourceInfo(CustomerServiceImpl.class,
+					CustomerServiceImpl.class, true, true, bus);
+			// 每个资源的方法模板各不相同，类模板均为/customer
+			for (OperationResourceInfo operation : resource.getMethodDispatcher().getOperationResourceInfos()) {
+				operation.setURITemplate(new URITemplate("/r" + i + operation.getURITemplate().getValue()));
+			}
+			resources.add(resource);
+		}
+		return resources;
+	}
+
+	private static long measure(ResourceRouter router, Endpoint endpoint, List<ClassResourceInfo> resources,
+			String[] paths, int iterations) {
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			select(router, endpoint, resources, paths[i & (paths.length - 1)]);
+		}
+		return (System.nanoTime() - start) / iterations;
+	}
+
+	private static OperationResourceInfo select(ResourceRouter router, Endpoint endpoint,
+			List<ClassResourceInfo> resources, String path) {
+		Exchange exchange = new ExchangeImpl();
+		exchange.put(Endpoint.class, endpoint);
+		Message message = new MessageImpl();
+		message.setExchange(exchange);
+		Map<ClassResourceInfo, MultivaluedMap<String, String>> matched = router == null
+				? JAXRSUtils.selectResourceClass(resources, path, message)
+				: router.select(path, message);
+		return JAXRSUtils.findTargetMethod(matched, message, HttpMethod.GET, new MetadataMap<String, String>(),
+				MediaType.WILDCARD, ACCEPT, true, false);
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.OAuthPermission;
+import org.apache.cxf.rs.security.oauth2.common.ServerAccessToken;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.apache.cxf.rs.security.oauth2.tokens.bearer.BearerAccessToken;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 内存授权码数据提供者：时间轮过期、吊销及作用域权限缓存
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class InMemoryCodeDataProviderTest {
+
+	private InMemoryCodeDataProvider provider;
+	private Client client;
+
+	@Before
+	public void setUp() {
+		provider = new InMemoryCodeDataProvider(20);
+		client = new Client("web", "secret", true);
+		provider.setClient(client);
+	}
+
+	@After
+	public void tearDown() {
+		provider.close();
+	}
+
+	@Test
+	public void expiredTokensAreHiddenAtOnceAndRemovedByTheWheel() throws Exception {
+		long now = System.currentTimeMillis() / 1000;
+		ServerAccessToken live = token("live", 3600, now);
+		ServerAccessToken stale = token("stale", 5, now - 60);
+		provider.saveAccessToken(live);
+		provider.saveAccessToken(stale);
+
+		waitFor(() -> provider.getExpiredCount() == 1);
+		assertEquals(1, provider.getAccessTokenCount());
+		assertNull(provider.getAccessToken("stale"));
+		assertNotNull(provider.getAccessToken("live"));
+		assertTrue(provider.getAccessTokens(client, null).contains(live));
+
+		// 两次tick之间查询也不返回已过期的令牌
+		provider.saveAccessToken(token("stale-2", 5, now - 60));
+		assertNull(provider.getAccessToken("stale-2"));
+		// 过期移除不记入吊销索引
+		assertEquals(0, provider.getRevocationIndex().size());
+	}
+
+	@Test
+	public void revocationIsIndexedAndPublished() {
+		List<String> revoked = new ArrayList<String>();
+		provider.addRevocationListener(revoked::add);
+		ServerAccessToken token = token("t1", 3600, System.currentTimeMillis() / 1000);
+		token.setSubject(new UserSubject("alice"));
+		provider.saveAccessToken(token);
+
+		provider.revokeToken(client, "t1", null);
+
+		assertNull(provider.getAccessToken("t1"));
+		assertTrue(provider.getAccessTokens(client, new UserSubject("alice")).isEmpty());
+		assertTrue(provider.getRevocationIndex().isRevoked("t1"));
+		assertEquals(Collections.singletonList("t1"), revoked);
+	}
+
+	@Test
+	public void scopeConversionsAreCachedButHandedOutAsCopies() {
+		provider.setPermissionMap(Collections.singletonMap("read", new OAuthPermission("read", "Read access")));
+		List<String> scopes = Arrays.asList("read");
+
+		List<OAuthPermission> first = provider.convertScopeToPermissions(client, scopes);
+		first.clear();
+		List<OAuthPermission> second = provider.convertScopeToPermissions(client, scopes);
+		List<OAuthPermission> third = provider.convertScopeToPermissions(client, scopes);
+
+		assertEquals(1, second.size());
+		assertNotSame(second, third);
+		assertEquals(1, provider.getScopeCacheEntryCount());
+		assertEquals(2, provider.getScopeCacheHitCount());
+	}
+
+	@Test
+	public void overriddenScopeConversionIsNotCached() {
+		InMemoryCodeDataProvider custom = new InMemoryCodeDataProvider(20) {
+			@Override
+			protected void convertSingleScopeToPermission(Client client, String scope, List<OAuthPermission> perms) {
+				perms.add(new OAuthPermission(scope + "@" + client.getClientId()));
+			}
+		};
+		try {
+			assertEquals("read@web", custom.convertScopeToPermissions(client, Arrays.asList("read")).get(0).getPermission());
+			Client other = new Client("mobile", "secret", true);
+			assertEquals("read@mobile", custom.convertScopeToPermissions(other, Arrays.asList("read")).get(0).getPermission());
+			assertEquals(0, custom.getScopeCacheEntryCount());
+		} finally {
+			custom.close();
+		}
+	}
+
+	private ServerAccessToken token(String key, long lifetime, long issuedAt) {
+		ServerAccessToken token = new BearerAccessToken(client, key, lifetime, issuedAt);
+		token.setGrantType("authorization_code");
+		return token;
+	}
+
+	static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			assertFalse("condition not met in time", System.currentTimeMillis() > deadline);
+			Thread.sleep(10);
+		}
+	}
+
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Path;
+
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.ServerAccessToken;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.apache.cxf.rs.security.oauth2.tokens.bearer.BearerAccessToken;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 令牌日志：重启后恢复客户端及存活的令牌，不恢复已吊销或已过期的令牌
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class MappedTokenLogDataProviderTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void recoversLiveEntriesAfterRestart() throws Exception {
+		Path directory = folder.newFolder("tokens").toPath();
+		long now = System.currentTimeMillis() / 1000;
+
+		MappedTokenLogDataProvider provider = open(directory, TokenDurability.WRITE_THROUGH);
+		Client client = new Client("web", "secret", true);
+		provider.setClient(client);
+		provider.saveAccessToken(token(client, "live", 3600, now, "alice"));
+		provider.saveAccessToken(token(client, "revoked", 3600, now, "alice"));
+		provider.saveAccessToken(token(client, "expired", 5, now - 60, "bob"));
+		provider.revokeToken(client, "revoked", null);
+		provider.close();
+
+		MappedTokenLogDataProvider recovered = open(directory, TokenDurability.WRITE_THROUGH);
+		try {
+			assertNotNull(recovered.getClient("web"));
+			ServerAccessToken live = recovered.getAccessToken("live");
+			assertNotNull(live);
+			assertEquals("alice", live.getSubject().getLogin());
+			assertEquals("web", live.getClient().getClientId());
+			assertNull(recovered.getAccessToken("revoked"));
+			assertNull(recovered.getAccessToken("expired"));
+			assertEquals(1, recovered.getAccessTokens(recovered.getClient("web"), new UserSubject("alice")).size());
+		} finally {
+			recovered.close();
+		}
+	}
+
+	@Test
+	public void writeBehindChangesAreFlushedOnClose() throws Exception {
+		Path directory = folder.newFolder("write-behind").toPath();
+		long now = System.currentTimeMillis() / 1000;
+
+		MappedTokenLogDataProvider provider = open(directory, TokenDurability.WRITE_BEHIND);
+		Client client = new Client("web", "secret", true);
+		provider.setClient(client);
+		for (int i = 0; i < 100; i++) {
+			provider.saveAccessToken(token(client, "t" + i, 3600, now, "alice"));
+		}
+		provider.close();
+
+		MappedTokenLogDataProvider recovered = open(directory, TokenDurability.WRITE_THROUGH);
+		try {
+			for (int i = 0; i < 100; i++) {
+				assertNotNull("t" + i, recovered.getAccessToken("t" + i));
+			}
+		} finally {
+			recovered.close();
+		}
+	}
+
+	private static MappedTokenLogDataProvider open(Path directory, TokenDurability durability) throws Exception {
+		return new MappedTokenLogDataProvider(20, directory, 1 << 20, 1000, 4, durability, 1024, 64);
+	}
+
+	private static ServerAccessToken token(Client client, String key, long lifetime, long issuedAt, String login) {
+		ServerAccessToken token = new BearerAccessToken(client, key, lifetime, issuedAt);
+		token.setGrantType("authorization_code");
+		token.setSubject(new UserSubject(login));
+		return token;
+	}
+
+}
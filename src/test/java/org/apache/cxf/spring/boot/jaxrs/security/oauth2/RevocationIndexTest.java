@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Bloom过滤器及吊销索引：无漏报、到期移除与过滤器重建
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class RevocationIndexTest {
+
+	@Test
+	public void bloomFilterHasNoFalseNegativesAndBoundedFalsePositives() {
+		BloomFilter filter = new BloomFilter(10000, 0.01d);
+		for (int i = 0; i < 10000; i++) {
+			filter.put("member-" + i);
+		}
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(filter.mightContain("member-" + i));
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100000; i++) {
+			if (filter.mightContain("other-" + i)) {
+				falsePositives++;
+			}
+		}
+		// 目标1%，留出余量
+		assertTrue("false positive rate " + falsePositives / 1000d + "%", falsePositives < 3000);
+	}
+
+	@Test
+	public void revokedKeysAreFoundUntilTheTokenWouldHaveExpired() {
+		long now = System.currentTimeMillis();
+		RevocationIndex index = new RevocationIndex(100, 0.01d, 10);
+		index.revoke("short", now + 1000);
+		index.revoke("forever", Long.MAX_VALUE);
+
+		assertTrue(index.isRevoked("short"));
+		assertTrue(index.isRevoked("forever"));
+		assertFalse(index.isRevoked("live"));
+
+		index.expire(now + 500);
+		assertTrue(index.isRevoked("short"));
+
+		index.expire(now + 1100);
+		assertFalse(index.isRevoked("short"));
+		assertTrue(index.isRevoked("forever"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	public void rebuildsTheFilterWhenLiveKeysOutgrowIt() {
+		long now = System.currentTimeMillis();
+		RevocationIndex index = new RevocationIndex(16, 0.01d, 10);
+		for (int i = 0; i < 200; i++) {
+			index.revoke("token-" + i, now + 60000);
+		}
+		assertTrue(index.getRebuildCount() > 0);
+		assertTrue(index.getFilterCapacity() >= 200);
+		for (int i = 0; i < 200; i++) {
+			assertTrue(index.isRevoked("token-" + i));
+		}
+		assertEquals(200, index.getRevocationCount());
+	}
+
+	@Test
+	public void rebuildsTheFilterOnceEnoughKeysAreRetired() {
+		long now = System.currentTimeMillis();
+		RevocationIndex index = new RevocationIndex(100, 0.01d, 10);
+		for (int i = 0; i < 50; i++) {
+			index.revoke("token-" + i, now + 100);
+		}
+		long rebuilds = index.getRebuildCount();
+		index.expire(now + 200);
+		assertEquals(0, index.size());
+		assertEquals(rebuilds + 1, index.getRebuildCount());
+		// 重建后的过滤器不再含有已移除的键，查询不必再落到精确集合上
+		long falsePositives = index.getFalsePositiveCount();
+		for (int i = 0; i < 50; i++) {
+			assertFalse(index.isRevoked("token-" + i));
+		}
+		assertTrue(index.getFalsePositiveCount() - falsePositives < 5);
+	}
+
+}
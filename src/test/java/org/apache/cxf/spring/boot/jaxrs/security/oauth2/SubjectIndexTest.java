@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.junit.Test;
+
+/**
+ * 按客户端及用户的二级索引
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class SubjectIndexTest {
+
+	private final Client web = new Client("web", "secret", true);
+	private final Client mobile = new Client("mobile", "secret", true);
+	private final UserSubject alice = new UserSubject("alice");
+	private final UserSubject bob = new UserSubject("bob");
+
+	@Test
+	public void returnsTheSmallerMatchingIndex() {
+		SubjectIndex index = new SubjectIndex();
+		index.add(web, alice, "t1");
+		index.add(web, bob, "t2");
+		index.add(web, bob, "t3");
+		index.add(mobile, alice, "t4");
+
+		assertEquals(new HashSet<String>(Arrays.asList("t1", "t2", "t3")), new HashSet<String>(index.candidates(web, null)));
+		assertEquals(new HashSet<String>(Arrays.asList("t1", "t4")), new HashSet<String>(index.candidates(null, alice)));
+		// 两者都给出时取较小的一侧，调用方再逐条过滤
+		assertEquals(new HashSet<String>(Arrays.asList("t1", "t4")), new HashSet<String>(index.candidates(web, alice)));
+		assertTrue(index.candidates(new Client("unknown", null, false), null).isEmpty());
+		assertNull(index.candidates(null, null));
+	}
+
+	@Test
+	public void dropsEmptyBucketsOnRemoval() {
+		SubjectIndex index = new SubjectIndex();
+		index.add(web, alice, "t1");
+		index.add(null, bob, "t2");
+		assertEquals(1, index.getClientCount());
+		assertEquals(2, index.getSubjectCount());
+
+		index.remove(web, alice, "t1");
+		index.remove(null, bob, "t2");
+		assertTrue(index.candidates(web, null).isEmpty());
+		assertEquals(0, index.getClientCount());
+		assertEquals(0, index.getSubjectCount());
+	}
+
+}
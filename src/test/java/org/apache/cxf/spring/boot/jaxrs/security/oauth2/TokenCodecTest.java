@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.InvalidClassException;
+import java.util.Arrays;
+
+import org.apache.cxf.rs.security.oauth2.common.Client;
+import org.apache.cxf.rs.security.oauth2.common.UserSubject;
+import org.apache.cxf.rs.security.oauth2.tokens.bearer.BearerAccessToken;
+import org.junit.Test;
+
+/**
+ * 令牌编解码：序列化白名单在写入与读取时一致
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TokenCodecTest {
+
+	private final Client client = new Client("web", "secret", true);
+
+	@Test
+	public void subjectSubclassOutsideTheAllowedPackagesFailsAtEncoding() throws Exception {
+		TokenCodec codec = new TokenCodec(id -> client);
+		BearerAccessToken token = token(new CustomSubject("alice"));
+		try {
+			codec.checkEncodable(token);
+			fail("Expected the subject class to be refused");
+		} catch (InvalidClassException e) {
+			// expected
+		}
+		try {
+			codec.encode(token);
+			fail("Expected the subject class to be refused");
+		} catch (InvalidClassException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void allowedPackagesApplyToBothDirections() throws Exception {
+		TokenCodec codec = new TokenCodec(id -> client,
+				Arrays.asList("java.", "org.apache.cxf.rs.security.", "org.apache.cxf.spring.boot.jaxrs.security.oauth2."));
+		codec.checkEncodable(token(new CustomSubject("alice")));
+
+		BearerAccessToken decoded = (BearerAccessToken) codec.decode(codec.encode(token(new CustomSubject("alice"))));
+		assertEquals(CustomSubject.class, decoded.getSubject().getClass());
+		assertEquals("alice", decoded.getSubject().getLogin());
+		assertSame(client, decoded.getClient());
+	}
+
+	private BearerAccessToken token(UserSubject subject) {
+		BearerAccessToken token = new BearerAccessToken(client, "t1", 3600, System.currentTimeMillis() / 1000);
+		token.setSubject(subject);
+		return token;
+	}
+
+	static class CustomSubject extends UserSubject {
+
+		private static final long serialVersionUID = 1L;
+
+		CustomSubject(String login) {
+			super(login);
+		}
+
+	}
+
+}
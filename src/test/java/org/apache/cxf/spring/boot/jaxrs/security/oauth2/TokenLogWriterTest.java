@@ -0,0 +1,82 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.cxf.rs.security.oauth2.provider.OAuthServiceException;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 后台写入队列：在调用线程上编码，单条失败不影响同批的其他变更
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TokenLogWriterTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void unencodableValueFailsItsCallerOnly() throws Exception {
+		TokenLog log = new TokenLog(folder.getRoot().toPath(), 1 << 20);
+		log.replay((type, key, deadline, location) -> { });
+		TokenLogWriter writer = new TokenLogWriter(log, value -> {
+			if ("bad".equals(value)) {
+				throw new IOException("not encodable");
+			}
+			return value.toString().getBytes(StandardCharsets.UTF_8);
+		}, TokenDurability.WRITE_BEHIND, 16, 8);
+		try {
+			writer.append(TokenLog.ACCESS_TOKEN, "k1", 0L, "good");
+			try {
+				writer.append(TokenLog.ACCESS_TOKEN, "k2", 0L, "bad");
+				fail("Expected the caller to see the encoding failure");
+			} catch (OAuthServiceException e) {
+				// expected
+			}
+			writer.append(TokenLog.ACCESS_TOKEN, "k3", 0L, "good");
+		} finally {
+			writer.close();
+		}
+		assertEquals(2, writer.getWrittenCount());
+		assertEquals(0, writer.getFailureCount());
+	}
+
+	@Test
+	public void valueIsCapturedWhenTheChangeIsMade() throws Exception {
+		TokenLog log = new TokenLog(folder.getRoot().toPath(), 1 << 20);
+		log.replay((type, key, deadline, location) -> { });
+		StringBuilder token = new StringBuilder("v1");
+		TokenLogWriter writer = new TokenLogWriter(log, value -> value.toString().getBytes(StandardCharsets.UTF_8),
+				TokenDurability.WRITE_BEHIND, 16, 8);
+		writer.append(TokenLog.ACCESS_TOKEN, "k1", 0L, token);
+		token.setLength(0);
+		token.append("mutated");
+		writer.close();
+
+		TokenLog reopened = new TokenLog(folder.getRoot().toPath(), 1 << 20);
+		StringBuilder replayed = new StringBuilder();
+		reopened.replay((type, key, deadline, location) -> replayed.append(new String(reopened.read(location), StandardCharsets.UTF_8)));
+		assertEquals("v1", replayed.toString());
+	}
+
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.oauth2;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.apache.cxf.rs.security.oauth2.common.AccessTokenValidation;
+import org.junit.Test;
+
+/**
+ * 已校验令牌缓存：认证方案归一化及撤销
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class VerifiedTokenCacheTest {
+
+	private final VerifiedTokenCache cache = new VerifiedTokenCache(100, 3600, 100);
+
+	@Test
+	public void schemeCaseSharesOneEntry() {
+		cache.put("Bearer", "abc", validation("k1"));
+
+		assertNotNull(cache.get("bearer", "abc"));
+		cache.put("BEARER", "abc", validation("k1"));
+		assertEquals(1, cache.size());
+
+		cache.onRevoked("k1");
+		assertNull(cache.get("Bearer", "abc"));
+		assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void everyRevocationNoticeMovesTheGeneration() {
+		long generation = cache.getRevocationGeneration();
+		cache.onRevoked("unknown");
+		assertEquals(generation + 1, cache.getRevocationGeneration());
+		assertEquals(0, cache.getRevocationCount());
+	}
+
+	private static AccessTokenValidation validation(String tokenKey) {
+		AccessTokenValidation validation = new AccessTokenValidation();
+		validation.setTokenKey(tokenKey);
+		validation.setTokenIssuedAt(System.currentTimeMillis() / 1000);
+		validation.setTokenLifetime(3600);
+		return validation;
+	}
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Path;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * 分桶重放缓存：按桶到期、容量上限拒绝或淘汰及快照恢复
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class BucketedReplayCacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void remembersIdsForAtLeastTheirLifetime() throws Exception {
+		// 2秒跨4个桶：每桶500毫秒，至多多保留一个桶
+		BucketedReplayCache cache = new BucketedReplayCache(1, 2, 4, 1000, null, 0);
+		cache.add("id-1");
+		cache.putId("id-2", 2);
+
+		assertTrue(cache.contains("id-1"));
+		assertEquals("id-2", cache.getId("id-2"));
+		assertFalse(cache.contains("unknown"));
+		assertEquals(2, cache.getReplayCount());
+
+		Thread.sleep(900);
+		assertTrue(cache.contains("id-1"));
+
+		Thread.sleep(700);
+		assertFalse(cache.contains("id-1"));
+		assertTrue(cache.contains("id-2"));
+
+		Thread.sleep(1000);
+		assertNull(cache.getId("id-2"));
+		cache.add("id-3");
+		assertEquals(1, cache.size());
+		assertEquals(2, cache.getExpiredCount());
+		cache.close();
+	}
+
+	@Test
+	public void rejectsUnknownIdsWhenFull() throws Exception {
+		BucketedReplayCache cache = new BucketedReplayCache(60, 3600, 60, 2, null, 0);
+		cache.add("id-1");
+		cache.add("id-2");
+
+		assertTrue(cache.contains("id-1"));
+		assertTrue(cache.contains("unknown"));
+		assertEquals("id-2", cache.getId("id-2"));
+		assertEquals(2, cache.getReplayCount());
+		assertEquals(1, cache.getRejectedCount());
+		assertEquals(0, cache.getEvictedCount());
+		assertEquals(2, cache.size());
+		cache.close();
+	}
+
+	@Test
+	public void evictsTheBucketClosestToExpiryWhenFull() throws Exception {
+		BucketedReplayCache cache = new BucketedReplayCache(60, 3600, 60, 3, null, 0, true);
+		cache.add("soon-1", 60);
+		cache.add("soon-2", 60);
+		cache.add("late-1", 1800);
+		cache.add("late-2", 1800);
+
+		assertTrue(cache.size() <= 3);
+		assertTrue(cache.getEvictedCount() >= 1);
+		assertFalse(cache.contains("soon-1"));
+		assertTrue(cache.contains("late-1"));
+		assertTrue(cache.contains("late-2"));
+		assertEquals(0, cache.getRejectedCount());
+		cache.close();
+	}
+
+	@Test
+	public void restoresLiveIdsFromTheSnapshot() throws Exception {
+		Path snapshot = folder.getRoot().toPath().resolve("replay.bin");
+		BucketedReplayCache cache = new BucketedReplayCache(300, 3600, 32, 1000, snapshot, 0);
+		cache.add("assertion-1");
+		cache.add("assertion-2", 600);
+		cache.close();
+
+		BucketedReplayCache restored = new BucketedReplayCache(300, 3600, 32, 1000, snapshot, 0);
+		assertTrue(restored.contains("assertion-1"));
+		assertTrue(restored.contains("assertion-2"));
+		assertFalse(restored.contains("assertion-3"));
+		assertEquals(2, restored.size());
+		restored.close();
+	}
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.ws.rs.GET;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.cxf.jaxrs.JAXRSServerFactoryBean;
+import org.apache.cxf.jaxrs.provider.RequestDispatcherProvider;
+import org.apache.cxf.rs.security.saml.sso.SamlPostBindingFilter;
+import org.apache.cxf.rs.security.saml.sso.SamlRequestInfo;
+import org.apache.cxf.rs.security.saml.sso.state.MemorySPStateManager;
+import org.apache.cxf.transport.servlet.CXFNonSpringServlet;
+
+/**
+ * 对比SAML POST绑定表单的两种输出方式：RequestDispatcherProvider转发到名为"jsp"的Servlet，
+ * 与SamlRequestInfoFormWriter直接输出。为不依赖JSP引擎，"jsp"由一个按SAMLRequestInfo.jsp
+ * 输出相同内容的Servlet代替（即JSP编译后的形式），因此结果不含JSP引擎自身的开销。
+ */
+public class SamlPostFormSample {
+
+	@Path("/app")
+	public static class Protected {
+
+		@GET
+		@Produces("text/plain")
+		public String get() {
+			return "ok";
+		}
+
+	}
+
+	/**
+	 * 代替编译后的SAMLRequestInfo.jsp
+	 */
+	public static class RequestInfoPage extends HttpServlet {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+			SamlRequestInfo data = (SamlRequestInfo) request.getAttribute("samlrequestinfo");
+			response.setContentType("text/html");
+			PrintWriter out = response.getWriter();
+			out.write("<html xmlns=\"http://www.w3.org/1999/xhtml\">\n<body onLoad=\"document.forms[0].submit();\">\n   <form action=\"");
+			out.print(data.getIdpServiceAddress());
+			out.write("\" method=\"POST\">\n       <div>\n        <input type=\"hidden\" name=\"SAMLRequest\" value=\"");
+			out.print(data.getSamlRequest());
+			out.write("\"/>\n        <input type=\"hidden\" name=\"RelayState\" value=\"");
+			out.print(data.getRelayState());
+			out.write("\"/>\n       </div>\n        <div>\n         <input type=\"submit\" value=\"Continue\"/>\n       </div>\n   </form>\n</body>\n</html>");
+		}
+
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		Tomcat tomcat = new Tomcat();
+		tomcat.setPort(9751);
+		tomcat.setBaseDir(Files.createTempDirectory("saml-form").toString());
+		tomcat.getConnector();
+		Context context = tomcat.addContext("", null);
+		Tomcat.addServlet(context, "jsp", new RequestInfoPage());
+		context.addServletMappingDecoded("*.jsp", "jsp");
+		Tomcat.addServlet(context, "cxf", new CXFNonSpringServlet() {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected void loadBus(ServletConfig servletConfig) {
+				super.loadBus(servletConfig);
+
+				RequestDispatcherProvider dispatcher = new RequestDispatcherProvider();
+				dispatcher.setClassResources(Collections.singletonMap(SamlRequestInfo.class.getName(), "/SAMLRequestInfo.jsp"));
+				dispatcher.setBeanName("samlrequestinfo");
+				dispatcher.setDispatcherName("jsp");
+				publish("/dispatch", dispatcher);
+				publish("/direct", new SamlRequestInfoFormWriter());
+			}
+
+			private void publish(String address, Object formProvider) {
+				SamlPostBindingFilter filter = new SamlPostBindingFilter();
+				filter.setIdpServiceAddress("https://idp.example.com/sso?entity=sp&binding=post");
+				filter.setAssertionConsumerServiceAddress("/racs/sso");
+				filter.setIssuerId("sp");
+				filter.setStateProvider(new MemorySPStateManager());
+				filter.setUseDeflateEncoding(true);
+
+				JAXRSServerFactoryBean factory = new JAXRSServerFactoryBean();
+				factory.setBus(getBus());
+				factory.setAddress(address);
+				factory.setServiceBean(new Protected());
+				factory.setProviders(Arrays.asList(filter, formProvider));
+				factory.create();
+			}
+
+		});
+		context.addServletMappingDecoded("/services/*", "cxf");
+		tomcat.start();
+
+		try {
+			for (String path : new String[] { "dispatch", "direct" }) {
+				System.out.println(path + ":\n" + get("http://localhost:9751/services/" + path + "/app"));
+			}
+			for (int round = 0; round < 5; round++) {
+				System.out.println("round " + round + ": dispatcher " + throughput("dispatch") + " req/s, built-in writer "
+						+ throughput("direct") + " req/s");
+			}
+		} finally {
+			tomcat.stop();
+			tomcat.destroy();
+		}
+	}
+
+	private static long throughput(String path) throws IOException {
+		URL url = new URL("http://localhost:9751/services/" + path + "/app");
+		long deadline = System.nanoTime() + 3000000000L;
+		long start = System.nanoTime();
+		long count = 0;
+		while (System.nanoTime() < deadline) {
+			get(url.toString());
+			count++;
+		}
+		return count * 1000000000L / (System.nanoTime() - start);
+	}
+
+	private static String get(String address) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(address).openConnection();
+		try (InputStream in = connection.getInputStream()) {
+			byte[] body = new byte[8192];
+			int length = 0;
+			for (int n; (n = in.read(body, length, body.length - length)) > 0;) {
+				length += n;
+			}
+			return connection.getResponseCode() + " " + connection.getContentType() + " " + new String(body, 0, Math.min(length, 400), "UTF-8");
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.security.saml;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.callback.Callback;
+import javax.security.auth.callback.CallbackHandler;
+
+import org.apache.cxf.message.MessageImpl;
+import org.apache.cxf.rs.security.saml.sso.DefaultAuthnRequestBuilder;
+import org.apache.cxf.rs.security.saml.sso.SamlPostBindingFilter;
+import org.apache.wss4j.common.ext.WSPasswordCallback;
+import org.apache.wss4j.common.saml.OpenSAMLUtil;
+import org.opensaml.saml.saml2.core.AuthnRequest;
+
+/**
+ * 对比签名AuthnRequest的吞吐：过滤器自行加载keystore（每次请求解密私钥）与共享的SignatureCryptoCache。
+ * 使用keytool生成临时PKCS12密钥库。
+ */
+public class SignedAuthnRequestSample {
+
+	private static final String PASSWORD = "changeit";
+
+	public static class PasswordCallbackHandler implements CallbackHandler {
+
+		@Override
+		public void handle(Callback[] callbacks) {
+			for (Callback callback : callbacks) {
+				((WSPasswordCallback) callback).setPassword(PASSWORD);
+			}
+		}
+
+	}
+
+	/**
+	 * 暴露受保护的签名方法
+	 */
+	static class SigningFilter extends SamlPostBindingFilter {
+
+		void sign(AuthnRequest authnRequest) throws Exception {
+			signAuthnRequest(authnRequest);
+		}
+
+	}
+
+	public static void main(String[] args) throws Exception {
+
+		File dir = Files.createTempDirectory("saml-sign").toFile();
+		File keystore = new File(dir, "sp.p12");
+		Process keytool = new ProcessBuilder(System.getProperty("java.home") + "/bin/keytool", "-genkeypair",
+				"-alias", "sp", "-keyalg", "RSA", "-keysize", "2048", "-dname", "CN=sp", "-validity", "30",
+				"-storetype", "PKCS12", "-keystore", keystore.getAbsolutePath(), "-storepass", PASSWORD,
+				"-keypass", PASSWORD).inheritIO().start();
+		if (keytool.waitFor() != 0) {
+			throw new IllegalStateException("keytool failed");
+		}
+
+		Properties properties = new Properties();
+		properties.setProperty("org.apache.wss4j.crypto.provider", "org.apache.wss4j.common.crypto.Merlin");
+		properties.setProperty("org.apache.wss4j.crypto.merlin.keystore.type", "PKCS12");
+		properties.setProperty("org.apache.wss4j.crypto.merlin.keystore.password", PASSWORD);
+		properties.setProperty("org.apache.wss4j.crypto.merlin.keystore.file", keystore.getAbsolutePath());
+		File propertiesFile = new File(dir, "sp-signature.properties");
+		try (OutputStream out = new FileOutputStream(propertiesFile)) {
+			properties.store(out, null);
+		}
+
+		OpenSAMLUtil.initSamlEngine();
+		DefaultAuthnRequestBuilder builder = new DefaultAuthnRequestBuilder();
+
+		SigningFilter plain = filter(propertiesFile.getAbsolutePath());
+		SigningFilter cached = filter(propertiesFile.getAbsolutePath());
+		SignatureCryptoCache cryptoCache = new SignatureCryptoCache();
+		CachingCrypto crypto = cryptoCache.getCrypto(propertiesFile.getAbsolutePath(), "sp",
+				PasswordCallbackHandler.class.getName());
+		cached.setSignatureCrypto(crypto);
+
+		for (int round = 0; round < 3; round++) {
+			System.out.println("round " + round + ": per-filter keystore " + throughput(plain, builder) + " req/s, shared cache "
+					+ throughput(cached, builder) + " req/s");
+		}
+		System.out.println("private key loads " + crypto.getKeyLoadCount() + ", cache hits " + crypto.getKeyHitCount());
+	}
+
+	private static SigningFilter filter(String propertiesFile) {
+		SigningFilter filter = new SigningFilter();
+		filter.setSignRequest(true);
+		filter.setSignaturePropertiesFile(propertiesFile);
+		filter.setSignatureUsername("sp");
+		filter.setCallbackHandlerClass(PasswordCallbackHandler.class.getName());
+		return filter;
+	}
+
+	private static long throughput(SigningFilter filter, DefaultAuthnRequestBuilder builder) throws Exception {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(3);
+		long count = 0;
+		long start = System.nanoTime();
+		while (System.nanoTime() < deadline) {
+			filter.sign(builder.createAuthnRequest(new MessageImpl(), "sp", "https://localhost/sp/acs"));
+			count++;
+		}
+		return count * TimeUnit.SECONDS.toNanos(1) / (System.nanoTime() - start);
+	}
+
+}
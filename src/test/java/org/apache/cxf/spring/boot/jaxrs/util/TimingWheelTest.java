@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2018, hiwepy (https://github.com/hiwepy).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.cxf.spring.boot.jaxrs.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * 时间轮：到期不早于截止时间、跨层级级联及超出轮范围的截止时间
+ * @author ： <a href="https://github.com/hiwepy">hiwepy</a>
+ */
+public class TimingWheelTest {
+
+	private static final long START = 1000000000L;
+
+	@Test
+	public void expiresOnTheTickAfterTheDeadline() {
+		TimingWheel<String> wheel = new TimingWheel<String>(100, START);
+		wheel.schedule("a", START + 250);
+		List<String> expired = new ArrayList<String>();
+
+		assertEquals(0, wheel.advance(START + 200, expired::add));
+		assertEquals(0, wheel.advance(START + 299, expired::add));
+		assertEquals(1, wheel.advance(START + 300, expired::add));
+		assertEquals(Arrays.asList("a"), expired);
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void pastDeadlinesExpireOnTheNextTick() {
+		TimingWheel<String> wheel = new TimingWheel<String>(100, START);
+		wheel.schedule("late", START - 5000);
+		List<String> expired = new ArrayList<String>();
+
+		assertEquals(0, wheel.advance(START + 99, expired::add));
+		assertEquals(1, wheel.advance(START + 100, expired::add));
+	}
+
+	@Test
+	public void cascadesHigherLevelsWithoutLosingOrDuplicatingEntries() {
+		TimingWheel<Integer> wheel = new TimingWheel<Integer>(1, START);
+		// 覆盖0至3层的截止时间
+		long[] delays = { 5, 63, 64, 65, 4095, 4096, 4097, 262143, 262144, 300000 };
+		for (int i = 0; i < delays.length; i++) {
+			wheel.schedule(i, START + delays[i]);
+		}
+		assertEquals(delays.length, wheel.size());
+
+		List<Integer> expired = new ArrayList<Integer>();
+		for (int i = 0; i < delays.length; i++) {
+			wheel.advance(START + delays[i] - 1, expired::add);
+			assertEquals("entry " + i + " expired early", i, expired.size());
+			wheel.advance(START + delays[i], expired::add);
+			assertEquals("entry " + i + " not expired on time", i + 1, expired.size());
+			assertEquals(Integer.valueOf(i), expired.get(i));
+		}
+		assertEquals(0, wheel.size());
+	}
+
+	@Test
+	public void parksDeadlinesBeyondTheWheelUntilTheyComeRound() {
+		TimingWheel<String> wheel = new TimingWheel<String>(1, START);
+		long range = 1L << (TimingWheel.BITS * TimingWheel.LEVELS);
+		long deadline = START + range + range / 4;
+		wheel.schedule("far", deadline);
+		List<String> expired = new ArrayList<String>();
+
+		wheel.advance(deadline - 1, expired::add);
+		assertTrue(expired.isEmpty());
+		wheel.advance(deadline, expired::add);
+		assertEquals(Arrays.asList("far"), expired);
+	}
+
+}